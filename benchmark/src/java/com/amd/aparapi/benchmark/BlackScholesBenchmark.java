@@ -0,0 +1,153 @@
+/*
+Copyright (c) 2010-2011, Advanced Micro Devices, Inc.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+disclaimer. 
+
+Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+disclaimer in the documentation and/or other materials provided with the distribution. 
+
+Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products
+derived from this software without specific prior written permission. 
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+If you use the software (in whole or in part), you shall adhere to all applicable U.S., European, and other export
+laws, including but not limited to the U.S. Export Administration Regulations ("EAR"), (15 C.F.R. Sections 730 through
+774), and E.U. Council Regulation (EC) No 1334/2000 of 22 June 2000.  Further, pursuant to Section 740.6 of the EAR,
+you hereby certify that, except pursuant to a license granted by the United States Department of Commerce Bureau of 
+Industry and Security or as otherwise permitted pursuant to a License Exception under the U.S. Export Administration 
+Regulations ("EAR"), you will not (1) export, re-export or release to a national of a country in Country Groups D:1,
+E:1 or E:2 any restricted technology, software, or source code you receive hereunder, or (2) export to Country Groups
+D:1, E:1 or E:2 the direct product of such technology or software, if such foreign produced direct product is subject
+to national security controls as identified on the Commerce Control List (currently found in Supplement 1 to Part 774
+of EAR).  For the most current Country Group listings, or for additional information about the EAR or your obligations
+under those regulations, please refer to the U.S. Bureau of Industry and Security's website at http://www.bis.doc.gov/. 
+
+*/
+package com.amd.aparapi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import com.amd.aparapi.Kernel;
+
+/**
+ * The kernel from <code>samples/blackscholes</code>, pricing one call and one put option per work item.
+ */
+public class BlackScholesBenchmark extends KernelBenchmark{
+
+   public static class BlackScholesKernel extends Kernel{
+
+      final float S_LOWER_LIMIT = 10.0f;
+
+      final float S_UPPER_LIMIT = 100.0f;
+
+      final float K_LOWER_LIMIT = 10.0f;
+
+      final float K_UPPER_LIMIT = 100.0f;
+
+      final float T_LOWER_LIMIT = 1.0f;
+
+      final float T_UPPER_LIMIT = 10.0f;
+
+      final float R_LOWER_LIMIT = 0.01f;
+
+      final float R_UPPER_LIMIT = 0.05f;
+
+      final float SIGMA_LOWER_LIMIT = 0.01f;
+
+      final float SIGMA_UPPER_LIMIT = 0.10f;
+
+      /**
+       * Abromowitz Stegun approxmimation for PHI (Cumulative Normal Distribution Function)
+       */
+      float phi(float X) {
+         final float c1 = 0.319381530f;
+         final float c2 = -0.356563782f;
+         final float c3 = 1.781477937f;
+         final float c4 = -1.821255978f;
+         final float c5 = 1.330274429f;
+
+         final float zero = 0.0f;
+         final float one = 1.0f;
+         final float two = 2.0f;
+         final float temp4 = 0.2316419f;
+
+         final float oneBySqrt2pi = 0.398942280f;
+
+         final float absX = abs(X);
+         final float t = one / (one + (temp4 * absX));
+
+         final float y = one - (oneBySqrt2pi * exp((-X * X) / two) * t * (c1 + (t * (c2 + (t * (c3 + (t * (c4 + (t * c5)))))))));
+
+         return ((X < zero) ? (one - y) : y);
+      }
+
+      @Override public void run() {
+         final int gid = getGlobalId();
+         final float two = 2.0f;
+         final float inRand = randArray[gid];
+         final float S = (S_LOWER_LIMIT * inRand) + (S_UPPER_LIMIT * (1.0f - inRand));
+         final float K = (K_LOWER_LIMIT * inRand) + (K_UPPER_LIMIT * (1.0f - inRand));
+         final float T = (T_LOWER_LIMIT * inRand) + (T_UPPER_LIMIT * (1.0f - inRand));
+         final float R = (R_LOWER_LIMIT * inRand) + (R_UPPER_LIMIT * (1.0f - inRand));
+         final float sigmaVal = (SIGMA_LOWER_LIMIT * inRand) + (SIGMA_UPPER_LIMIT * (1.0f - inRand));
+
+         final float sigmaSqrtT = sigmaVal * sqrt(T);
+
+         final float d1 = (log(S / K) + ((R + ((sigmaVal * sigmaVal) / two)) * T)) / sigmaSqrtT;
+         final float d2 = d1 - sigmaSqrtT;
+
+         final float KexpMinusRT = K * exp(-R * T);
+
+         call[gid] = (S * phi(d1)) - (KexpMinusRT * phi(d2));
+
+         put[gid] = (KexpMinusRT * phi(-d2)) - (S * phi(-d1));
+      }
+
+      private final float randArray[];
+
+      private final float put[];
+
+      private final float call[];
+
+      public BlackScholesKernel(int size) {
+         randArray = new float[size];
+         call = new float[size];
+         put = new float[size];
+
+         for (int i = 0; i < size; i++) {
+            randArray[i] = (i * 1.0f) / size;
+         }
+      }
+   }
+
+   /** Number of options priced per launch. */
+   @Param({
+         "65536",
+         "1048576"
+   }) public int size;
+
+   @Override protected Kernel createKernel() {
+      return (new BlackScholesKernel(size));
+   }
+
+   @Override protected int globalSize() {
+      return (size);
+   }
+
+   @Benchmark public void blackScholes() {
+      launch();
+   }
+}
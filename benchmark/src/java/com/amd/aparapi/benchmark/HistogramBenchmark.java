@@ -0,0 +1,137 @@
+/*
+Copyright (c) 2010-2011, Advanced Micro Devices, Inc.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+disclaimer. 
+
+Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+disclaimer in the documentation and/or other materials provided with the distribution. 
+
+Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products
+derived from this software without specific prior written permission. 
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+If you use the software (in whole or in part), you shall adhere to all applicable U.S., European, and other export
+laws, including but not limited to the U.S. Export Administration Regulations ("EAR"), (15 C.F.R. Sections 730 through
+774), and E.U. Council Regulation (EC) No 1334/2000 of 22 June 2000.  Further, pursuant to Section 740.6 of the EAR,
+you hereby certify that, except pursuant to a license granted by the United States Department of Commerce Bureau of 
+Industry and Security or as otherwise permitted pursuant to a License Exception under the U.S. Export Administration 
+Regulations ("EAR"), you will not (1) export, re-export or release to a national of a country in Country Groups D:1,
+E:1 or E:2 any restricted technology, software, or source code you receive hereunder, or (2) export to Country Groups
+D:1, E:1 or E:2 the direct product of such technology or software, if such foreign produced direct product is subject
+to national security controls as identified on the Commerce Control List (currently found in Supplement 1 to Part 774
+of EAR).  For the most current Country Group listings, or for additional information about the EAR or your obligations
+under those regulations, please refer to the U.S. Bureau of Industry and Security's website at http://www.bis.doc.gov/. 
+
+*/
+package com.amd.aparapi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import com.amd.aparapi.Kernel;
+import com.amd.aparapi.Range;
+
+/**
+ * The two stage histogram from <code>samples/extension</code>.
+ * <p>
+ * The sample binds hand written OpenCL through the extension API, which needs an OpenCL device. Here both stages are 
+ * Aparapi kernels so the same work can be measured in every mode: each work item bins a slice of the data into its 
+ * own sub histogram, then the sample's own reduction kernel sums the sub histograms.
+ */
+public class HistogramBenchmark extends KernelBenchmark{
+
+   static final int BIN_SIZE = 128;
+
+   static final int SLICE = 256;
+
+   public static class SubHistogramKernel extends Kernel{
+      final byte[] data;
+
+      final int[] binResult;
+
+      public SubHistogramKernel(int _size) {
+         data = new byte[_size];
+         for (int i = 0; i < _size; i++) {
+            data[i] = (byte) (((i * 2654435761L) >>> 16) % (BIN_SIZE / 2));
+         }
+         binResult = new int[(_size / SLICE) * BIN_SIZE];
+      }
+
+      @Override public void run() {
+         final int slice = getGlobalId();
+         final int base = slice * BIN_SIZE;
+         for (int i = 0; i < BIN_SIZE; i++) {
+            binResult[base + i] = 0;
+         }
+         for (int i = slice * SLICE; i < ((slice + 1) * SLICE); i++) {
+            binResult[base + data[i]]++;
+         }
+      }
+   }
+
+   public static class BinKernel extends Kernel{
+      final int[] histo = new int[BIN_SIZE];
+
+      final int[] binResult;
+
+      final int subHistogramCount;
+
+      public BinKernel(int[] _binResult) {
+         binResult = _binResult;
+         subHistogramCount = _binResult.length / BIN_SIZE;
+      }
+
+      @Override public void run() {
+         final int j = getGlobalId(0);
+         int sum = 0;
+         for (int i = 0; i < subHistogramCount; ++i) {
+            sum += binResult[(i * BIN_SIZE) + j];
+         }
+         histo[j] = sum;
+      }
+   }
+
+   /** Number of bytes binned per invocation, a multiple of 256. */
+   @Param({
+         "1048576",
+         "16777216"
+   }) public int size;
+
+   private BinKernel binKernel;
+
+   private Range binRange;
+
+   @Override protected Kernel createKernel() {
+      final SubHistogramKernel subHistogramKernel = new SubHistogramKernel(size);
+      binKernel = new BinKernel(subHistogramKernel.binResult);
+      return (subHistogramKernel);
+   }
+
+   @Override protected int globalSize() {
+      return (size / SLICE);
+   }
+
+   @Override protected void launch() {
+      super.launch();
+      if (binRange == null) {
+         binRange = (range.getLocalSize(0) == 1) ? Range.create(BIN_SIZE, 1) : Range.create(BIN_SIZE);
+      }
+      kernelRunner.execute(binKernel, binRange);
+   }
+
+   @Benchmark public void histogram() {
+      launch();
+   }
+}
@@ -0,0 +1,111 @@
+/*
+Copyright (c) 2010-2011, Advanced Micro Devices, Inc.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+disclaimer. 
+
+Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+disclaimer in the documentation and/or other materials provided with the distribution. 
+
+Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products
+derived from this software without specific prior written permission. 
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+If you use the software (in whole or in part), you shall adhere to all applicable U.S., European, and other export
+laws, including but not limited to the U.S. Export Administration Regulations ("EAR"), (15 C.F.R. Sections 730 through
+774), and E.U. Council Regulation (EC) No 1334/2000 of 22 June 2000.  Further, pursuant to Section 740.6 of the EAR,
+you hereby certify that, except pursuant to a license granted by the United States Department of Commerce Bureau of 
+Industry and Security or as otherwise permitted pursuant to a License Exception under the U.S. Export Administration 
+Regulations ("EAR"), you will not (1) export, re-export or release to a national of a country in Country Groups D:1,
+E:1 or E:2 any restricted technology, software, or source code you receive hereunder, or (2) export to Country Groups
+D:1, E:1 or E:2 the direct product of such technology or software, if such foreign produced direct product is subject
+to national security controls as identified on the Commerce Control List (currently found in Supplement 1 to Part 774
+of EAR).  For the most current Country Group listings, or for additional information about the EAR or your obligations
+under those regulations, please refer to the U.S. Bureau of Industry and Security's website at http://www.bis.doc.gov/. 
+
+*/
+package com.amd.aparapi.benchmark;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.amd.aparapi.EXECUTION_MODE;
+import com.amd.aparapi.Kernel;
+import com.amd.aparapi.KernelStats;
+import com.amd.aparapi.Range;
+import com.amd.aparapi.internal.kernel.KernelRunner;
+import com.amd.aparapi.internal.opencl.OpenCLLoader;
+
+/**
+ * Common state for the sample kernel benchmarks.
+ * <p>
+ * Each subclass creates a headless copy of one of the sample kernels, sized by its own <code>size</code> parameter. We 
+ * launch it once during setup so translation and buffer allocation stay out of the measurement, and so we can refuse 
+ * to report figures for an OpenCL mode which silently fell back to Java.
+ */
+@State(Scope.Benchmark) public abstract class KernelBenchmark{
+
+   @Param({
+         "SEQ",
+         "JTP",
+         "GPU"
+   }) public String mode;
+
+   protected KernelRunner kernelRunner;
+
+   protected Kernel kernel;
+
+   protected Range range;
+
+   /**
+    * @return the kernel to benchmark, with its buffers allocated and initialized
+    */
+   protected abstract Kernel createKernel();
+
+   /**
+    * @return the number of work items in one launch
+    */
+   protected abstract int globalSize();
+
+   @Setup public void setUp() {
+      final EXECUTION_MODE executionMode = EXECUTION_MODE.valueOf(mode);
+      if (executionMode.isOpenCL() && !OpenCLLoader.isOpenCLAvailable()) {
+         throw new IllegalStateException("OpenCL is not available, skipping " + executionMode);
+      }
+      kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(executionMode);
+      kernel = createKernel();
+
+      // SEQ can only execute a range with a group size of 1
+      range = (executionMode == EXECUTION_MODE.SEQ) ? Range.create(globalSize(), 1) : Range.create(globalSize());
+
+      launch();
+      final KernelStats stats = kernelRunner.getKernelStats(kernel);
+      if (stats.getLastExecutionMode() != executionMode) {
+         throw new IllegalStateException(kernel.getClass().getSimpleName() + " fell back from " + executionMode + " to "
+               + stats.getLastExecutionMode() + stats.getFallbackReasons().keySet());
+      }
+   }
+
+   @TearDown public void tearDown() {
+      kernelRunner.dispose();
+   }
+
+   protected void launch() {
+      kernelRunner.execute(kernel, range);
+   }
+}
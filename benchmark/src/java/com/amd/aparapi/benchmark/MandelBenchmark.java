@@ -0,0 +1,123 @@
+/*
+Copyright (c) 2010-2011, Advanced Micro Devices, Inc.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+disclaimer. 
+
+Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+disclaimer in the documentation and/or other materials provided with the distribution. 
+
+Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products
+derived from this software without specific prior written permission. 
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+If you use the software (in whole or in part), you shall adhere to all applicable U.S., European, and other export
+laws, including but not limited to the U.S. Export Administration Regulations ("EAR"), (15 C.F.R. Sections 730 through
+774), and E.U. Council Regulation (EC) No 1334/2000 of 22 June 2000.  Further, pursuant to Section 740.6 of the EAR,
+you hereby certify that, except pursuant to a license granted by the United States Department of Commerce Bureau of 
+Industry and Security or as otherwise permitted pursuant to a License Exception under the U.S. Export Administration 
+Regulations ("EAR"), you will not (1) export, re-export or release to a national of a country in Country Groups D:1,
+E:1 or E:2 any restricted technology, software, or source code you receive hereunder, or (2) export to Country Groups
+D:1, E:1 or E:2 the direct product of such technology or software, if such foreign produced direct product is subject
+to national security controls as identified on the Commerce Control List (currently found in Supplement 1 to Part 774
+of EAR).  For the most current Country Group listings, or for additional information about the EAR or your obligations
+under those regulations, please refer to the U.S. Bureau of Industry and Security's website at http://www.bis.doc.gov/. 
+
+*/
+package com.amd.aparapi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import com.amd.aparapi.Kernel;
+import com.amd.aparapi.annotation.Constant;
+
+/**
+ * The kernel from <code>samples/mandel</code>, rendering a fixed view of the set into a square image.
+ */
+public class MandelBenchmark extends KernelBenchmark{
+
+   public static class MandelKernel extends Kernel{
+
+      final private int rgb[];
+
+      final private int width;
+
+      final private int height;
+
+      final private int maxIterations = 64;
+
+      @Constant final private int pallette[] = new int[maxIterations + 1];
+
+      private float scale = 3f;
+
+      private float offsetx = -1f;
+
+      private float offsety = 0f;
+
+      public MandelKernel(int _width, int _height) {
+         for (int i = 0; i < maxIterations; i++) {
+            pallette[i] = i * 0x010101;
+         }
+         width = _width;
+         height = _height;
+         rgb = new int[width * height];
+      }
+
+      public int getCount(float x, float y) {
+         int count = 0;
+
+         float zx = x;
+         float zy = y;
+         float new_zx = 0f;
+
+         while ((count < maxIterations) && (((zx * zx) + (zy * zy)) < 8)) {
+            new_zx = ((zx * zx) - (zy * zy)) + x;
+            zy = (2 * zx * zy) + y;
+            zx = new_zx;
+            count++;
+         }
+
+         return count;
+      }
+
+      @Override public void run() {
+         final int gid = getGlobalId();
+
+         final float x = ((((gid % width) * scale) - ((scale / 2) * width)) / width) + offsetx;
+
+         final float y = ((((gid / width) * scale) - ((scale / 2) * height)) / height) + offsety;
+
+         rgb[gid] = pallette[getCount(x, y)];
+      }
+   }
+
+   /** Width and height of the image. */
+   @Param({
+         "256",
+         "768"
+   }) public int size;
+
+   @Override protected Kernel createKernel() {
+      return (new MandelKernel(size, size));
+   }
+
+   @Override protected int globalSize() {
+      return (size * size);
+   }
+
+   @Benchmark public void mandel() {
+      launch();
+   }
+}
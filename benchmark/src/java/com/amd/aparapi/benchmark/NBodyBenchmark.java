@@ -0,0 +1,146 @@
+/*
+Copyright (c) 2010-2011, Advanced Micro Devices, Inc.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+disclaimer. 
+
+Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+disclaimer in the documentation and/or other materials provided with the distribution. 
+
+Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products
+derived from this software without specific prior written permission. 
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+If you use the software (in whole or in part), you shall adhere to all applicable U.S., European, and other export
+laws, including but not limited to the U.S. Export Administration Regulations ("EAR"), (15 C.F.R. Sections 730 through
+774), and E.U. Council Regulation (EC) No 1334/2000 of 22 June 2000.  Further, pursuant to Section 740.6 of the EAR,
+you hereby certify that, except pursuant to a license granted by the United States Department of Commerce Bureau of 
+Industry and Security or as otherwise permitted pursuant to a License Exception under the U.S. Export Administration 
+Regulations ("EAR"), you will not (1) export, re-export or release to a national of a country in Country Groups D:1,
+E:1 or E:2 any restricted technology, software, or source code you receive hereunder, or (2) export to Country Groups
+D:1, E:1 or E:2 the direct product of such technology or software, if such foreign produced direct product is subject
+to national security controls as identified on the Commerce Control List (currently found in Supplement 1 to Part 774
+of EAR).  For the most current Country Group listings, or for additional information about the EAR or your obligations
+under those regulations, please refer to the U.S. Bureau of Industry and Security's website at http://www.bis.doc.gov/. 
+
+*/
+package com.amd.aparapi.benchmark;
+
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import com.amd.aparapi.Kernel;
+
+/**
+ * The kernel from <code>examples/nbody</code>, one time step per invocation with positions held in flat float arrays.
+ */
+public class NBodyBenchmark extends KernelBenchmark{
+
+   public static class NBodyKernel extends Kernel{
+      protected final float delT = .005f;
+
+      protected final float espSqr = 1.0f;
+
+      protected final float mass = 5f;
+
+      private final float[] xyz; // positions xy and z of bodies
+
+      private final float[] vxyz; // velocity component of x,y and z of bodies
+
+      public NBodyKernel(int _bodies) {
+         xyz = new float[_bodies * 3];
+         vxyz = new float[_bodies * 3];
+         NBodyBenchmark.scatter(xyz, 3);
+      }
+
+      @Override public void run() {
+         final int body = getGlobalId();
+         final int count = getGlobalSize(0) * 3;
+         final int globalId = body * 3;
+
+         float accx = 0.f;
+         float accy = 0.f;
+         float accz = 0.f;
+
+         final float myPosx = xyz[globalId + 0];
+         final float myPosy = xyz[globalId + 1];
+         final float myPosz = xyz[globalId + 2];
+         for (int i = 0; i < count; i += 3) {
+            final float dx = xyz[i + 0] - myPosx;
+            final float dy = xyz[i + 1] - myPosy;
+            final float dz = xyz[i + 2] - myPosz;
+            final float invDist = rsqrt((dx * dx) + (dy * dy) + (dz * dz) + espSqr);
+            final float s = mass * invDist * invDist * invDist;
+            accx = accx + (s * dx);
+            accy = accy + (s * dy);
+            accz = accz + (s * dz);
+         }
+         accx = accx * delT;
+         accy = accy * delT;
+         accz = accz * delT;
+         xyz[globalId + 0] = myPosx + (vxyz[globalId + 0] * delT) + (accx * .5f * delT);
+         xyz[globalId + 1] = myPosy + (vxyz[globalId + 1] * delT) + (accy * .5f * delT);
+         xyz[globalId + 2] = myPosz + (vxyz[globalId + 2] * delT) + (accz * .5f * delT);
+
+         vxyz[globalId + 0] = vxyz[globalId + 0] + accx;
+         vxyz[globalId + 1] = vxyz[globalId + 1] + accy;
+         vxyz[globalId + 2] = vxyz[globalId + 2] + accz;
+      }
+   }
+
+   /**
+    * Place bodies in two spheres, as the examples do, but from a fixed seed so every run measures the same problem.
+    * 
+    * @param _xyz x, y and z of each body, <code>_stride</code> floats apart
+    */
+   static void scatter(float[] _xyz, int _stride) {
+      final Random random = new Random(42);
+      final float maxDist = 20f;
+      for (int body = 0; body < _xyz.length; body += _stride) {
+         final float theta = (float) (random.nextDouble() * Math.PI * 2);
+         final float phi = (float) (random.nextDouble() * Math.PI * 2);
+         final float radius = (float) (random.nextDouble() * maxDist);
+
+         _xyz[body + 0] = (float) (radius * Math.cos(theta) * Math.sin(phi));
+         _xyz[body + 1] = (float) (radius * Math.sin(theta) * Math.sin(phi));
+         _xyz[body + 2] = (float) (radius * Math.cos(phi));
+
+         if (((body / _stride) % 2) == 0) {
+            _xyz[body + 0] += maxDist * 1.5;
+         } else {
+            _xyz[body + 0] -= maxDist * 1.5;
+         }
+      }
+   }
+
+   /** Number of bodies. */
+   @Param({
+         "1024",
+         "8192"
+   }) public int size;
+
+   @Override protected Kernel createKernel() {
+      return (new NBodyKernel(size));
+   }
+
+   @Override protected int globalSize() {
+      return (size);
+   }
+
+   @Benchmark public void nbody() {
+      launch();
+   }
+}
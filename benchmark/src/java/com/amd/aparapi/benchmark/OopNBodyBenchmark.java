@@ -0,0 +1,120 @@
+/*
+Copyright (c) 2010-2011, Advanced Micro Devices, Inc.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+disclaimer. 
+
+Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+disclaimer in the documentation and/or other materials provided with the distribution. 
+
+Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products
+derived from this software without specific prior written permission. 
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+If you use the software (in whole or in part), you shall adhere to all applicable U.S., European, and other export
+laws, including but not limited to the U.S. Export Administration Regulations ("EAR"), (15 C.F.R. Sections 730 through
+774), and E.U. Council Regulation (EC) No 1334/2000 of 22 June 2000.  Further, pursuant to Section 740.6 of the EAR,
+you hereby certify that, except pursuant to a license granted by the United States Department of Commerce Bureau of 
+Industry and Security or as otherwise permitted pursuant to a License Exception under the U.S. Export Administration 
+Regulations ("EAR"), you will not (1) export, re-export or release to a national of a country in Country Groups D:1,
+E:1 or E:2 any restricted technology, software, or source code you receive hereunder, or (2) export to Country Groups
+D:1, E:1 or E:2 the direct product of such technology or software, if such foreign produced direct product is subject
+to national security controls as identified on the Commerce Control List (currently found in Supplement 1 to Part 774
+of EAR).  For the most current Country Group listings, or for additional information about the EAR or your obligations
+under those regulations, please refer to the U.S. Bureau of Industry and Security's website at http://www.bis.doc.gov/. 
+
+*/
+package com.amd.aparapi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import com.amd.aparapi.Kernel;
+
+/**
+ * The kernel from <code>examples/oopnbody</code>, the same time step as {@link NBodyBenchmark} but over an array of 
+ * {@link Body} objects, so the object array marshalling is part of every OpenCL launch.
+ */
+public class OopNBodyBenchmark extends KernelBenchmark{
+
+   public static class NBodyKernel extends Kernel{
+
+      protected final float delT = .005f;
+
+      protected final float espSqr = 1.0f;
+
+      public Body[] bodies;
+
+      public NBodyKernel(int _bodies) {
+         final float[] xyz = new float[_bodies * 3];
+         NBodyBenchmark.scatter(xyz, 3);
+         bodies = new Body[_bodies];
+         for (int body = 0; body < _bodies; body++) {
+            bodies[body] = new Body(xyz[body * 3], xyz[(body * 3) + 1], xyz[(body * 3) + 2], 5f);
+         }
+      }
+
+      @Override public void run() {
+         final int body = getGlobalId();
+
+         float accx = 0.f;
+         float accy = 0.f;
+         float accz = 0.f;
+
+         final float myPosx = bodies[body].getX();
+         final float myPosy = bodies[body].getY();
+         final float myPosz = bodies[body].getZ();
+
+         for (int i = 0; i < getGlobalSize(0); i++) {
+            final float dx = bodies[i].getX() - myPosx;
+            final float dy = bodies[i].getY() - myPosy;
+            final float dz = bodies[i].getZ() - myPosz;
+            final float invDist = rsqrt((dx * dx) + (dy * dy) + (dz * dz) + espSqr);
+            final float s = bodies[i].getM() * invDist * invDist * invDist;
+            accx = accx + (s * dx);
+            accy = accy + (s * dy);
+            accz = accz + (s * dz);
+         }
+
+         accx = accx * delT;
+         accy = accy * delT;
+         accz = accz * delT;
+         bodies[body].setX(myPosx + (bodies[body].getVx() * delT) + (accx * .5f * delT));
+         bodies[body].setY(myPosy + (bodies[body].getVy() * delT) + (accy * .5f * delT));
+         bodies[body].setZ(myPosz + (bodies[body].getVz() * delT) + (accz * .5f * delT));
+
+         bodies[body].setVx(bodies[body].getVx() + accx);
+         bodies[body].setVy(bodies[body].getVy() + accy);
+         bodies[body].setVz(bodies[body].getVz() + accz);
+      }
+   }
+
+   /** Number of bodies. */
+   @Param({
+         "1024",
+         "8192"
+   }) public int size;
+
+   @Override protected Kernel createKernel() {
+      return (new NBodyKernel(size));
+   }
+
+   @Override protected int globalSize() {
+      return (size);
+   }
+
+   @Benchmark public void oopNBody() {
+      launch();
+   }
+}
@@ -187,6 +187,7 @@ int enqueueMarker(cl_command_queue commandQueue, cl_event* firstEvent) {
 jint updateNonPrimitiveReferences(JNIEnv *jenv, jobject jobj, KernelRunnerContext* kernelRunnerContext, KernelContext* kernelContext) {
    cl_int status = CL_SUCCESS;
    if (kernelContext != NULL){
+      BufferManager::Lock lock(kernelRunnerContext->bufferManager);
       for (jint i = 0; i < kernelContext->argc; i++){ 
          
          KernelArg *arg = kernelContext->args[i];
@@ -297,6 +298,7 @@ void updateWriteEvents(JNIEnv* jenv, KernelRunnerContext* kernelRunnerContext, K
       arg->buffer->lengthInBytes, arg->buffer->getDataPointer(), 0, NULL, &(kernelContext->writeEvents[writeEventCount]));
 
    if(status != CL_SUCCESS) throw CLException(status,"clEnqueueWriteBuffer");
+   arg->countBytesWritten(jenv, arg->buffer->lengthInBytes);
 
    if (config->isTrackingOpenCLResources()){
       writeEventList.add(kernelContext->writeEvents[writeEventCount],__LINE__, __FILE__);
@@ -432,6 +434,17 @@ void enqueueKernel(KernelRunnerContext* kernelRunnerContext, KernelContext* kern
    kernelContext->exec = new ProfileInfo[passes];
 
    cl_int status = CL_SUCCESS;
+
+   // a kernel written to guard padded ranges takes the unpadded size of each dimension after passid
+   cl_uint argCount = 0;
+   status = clGetKernelInfo(kernelContext->kernel, CL_KERNEL_NUM_ARGS, sizeof(argCount), &argCount, NULL);
+   if (status != CL_SUCCESS) throw CLException(status, "clGetKernelInfo() (num args)");
+   if (argCount > (cl_uint)(argPos + 1)) {
+      for (int dim = 0; dim < 3; dim++) {
+         status = clSetKernelArg(kernelContext->kernel, argPos + 1 + dim, sizeof(cl_int), &(range.realDims[dim]));
+         if (status != CL_SUCCESS) throw CLException(status, "clSetKernelArg() (realsize)");
+      }
+   }
    for (int passid=0; passid < passes; passid++) {
 
       //size_t offset = 1; // (size_t)((range.globalDims[0]/kernelContext->deviceIdc)*dev);
@@ -626,6 +639,7 @@ int getReadEvents(JNIEnv* jenv, KernelRunnerContext* kernelRunnerContext, Kernel
          }
 
          if (status != CL_SUCCESS) throw CLException(status, "clEnqueueReadBuffer()");
+         arg->countBytesRead(jenv, arg->buffer->lengthInBytes);
 
          if (config->isTrackingOpenCLResources()){
             readEventList.add(kernelContext->readEvents[readEventCount],__LINE__, __FILE__);
@@ -872,6 +886,68 @@ KernelArg* getArgForBuffer(JNIEnv* jenv, KernelContext* kernelContext, jobject b
 
 
 
+/**
+ * Runs the kernel over the range, the shared body of runKernelJNI and runKernelBatchJNI.
+ *
+ * @param jenv the java environment
+ * @param jobj the KernelRunner
+ * @param kernelRunnerContext context holding the information about the OpenCL context
+ * @param kernelContext the context with the arguements, bound to the kernel instance to run
+ * @param range the range that the kernel is running over
+ * @param needSync whether array references have changed since the last run
+ * @param passes the number of passes for the kernel
+ *
+ * @return OpenCL status code
+ */
+jint runKernel(JNIEnv *jenv, jobject jobj, KernelRunnerContext* kernelRunnerContext, KernelContext* kernelContext, Range& range, bool needSync, int passes) {
+   cl_int status = CL_SUCCESS;
+
+   if (kernelContext->firstRun && config->isProfilingEnabled()){
+      try {
+         profileFirstRun(kernelRunnerContext, kernelContext);
+      } catch(CLException& cle) {
+         cle.printError();
+         return 0L;
+      }
+   }
+
+   int argPos = 0;
+   // Need to capture array refs
+   if (kernelContext->firstRun || needSync) {
+      try {
+         updateNonPrimitiveReferences(jenv, jobj, kernelRunnerContext, kernelContext);
+      } catch (CLException& cle) {
+          cle.printError();
+      }
+      if (config->isVerbose()){
+         fprintf(stderr, "back from updateNonPrimitiveReferences\n");
+      }
+   }
+
+
+   try {
+      int writeEventCount = 0;
+      processArgs(jenv, kernelRunnerContext, kernelContext, argPos, writeEventCount);
+
+      {
+         BufferManager::Lock lock(kernelRunnerContext->bufferManager);
+         kernelRunnerContext->bufferManager->cleanUpNonReferencedBuffers(jenv);
+      }
+
+      enqueueKernel(kernelRunnerContext, kernelContext, range, passes, argPos, writeEventCount);
+      int readEventCount = getReadEvents(jenv, kernelRunnerContext, kernelContext);
+      waitForReadEvents(kernelContext, readEventCount, passes);
+      checkEvents(jenv, kernelContext, writeEventCount);
+   }
+   catch(CLException& cle) {
+      cle.printError();
+      kernelContext->unpinAll(jenv);
+      return cle.status();
+   }
+
+   return(status);
+}
+
 // -------------- JNI methods ----------------------- //
 
 JNI_JAVA(jlong, KernelRunnerJNI, initKernelRunnerJNI)
@@ -1035,49 +1111,60 @@ JNI_JAVA(jint, KernelRunnerJNI, runKernelJNI)
 
       Range range(jenv, _range);
 
-      cl_int status = CL_SUCCESS;
+      return runKernel(jenv, jobj, kernelRunnerContext, kernelContext, range, needSync, passes);
+}
 
-      if (kernelContext->firstRun && config->isProfilingEnabled()){
-         try {
-            profileFirstRun(kernelRunnerContext, kernelContext);
-         } catch(CLException& cle) {
-            cle.printError();
-            return 0L;
-         }
+JNI_JAVA(jint, KernelRunnerJNI, runKernelBatchJNI)
+   (JNIEnv *jenv, jobject jobj, jlong kernelRunnerContextHandle, jlong kernelContextHandle, 
+   jobjectArray kernelArray, jobjectArray rangeArray, jint passes) {
+      initialize(jenv);
+
+      KernelRunnerContext* kernelRunnerContext = KernelRunnerContext::getKernelRunnerContext(kernelRunnerContextHandle);
+      KernelContext* kernelContext = KernelContext::getKernelContext(kernelContextHandle);
+
+      if (kernelRunnerContext == NULL || kernelContext == NULL) {
+         return 0;
       }
 
-      int argPos = 0;
-      // Need to capture array refs
-      if (kernelContext->firstRun || needSync) {
+      jsize count = jenv->GetArrayLength(kernelArray);
+      for (jsize i = 0; i < count; i++) {
+         jobject kernelObject = jenv->GetObjectArrayElement(kernelArray, i);
+         jobject rangeObject = jenv->GetObjectArrayElement(rangeArray, i);
+         kernelContext->replaceKernelObject(jenv, kernelObject);
+
+         // the argument layout was bound by setArgs, only the array references of this instance need binding
+         cl_int status = CL_SUCCESS;
+         bool needSync = false;
          try {
-            updateNonPrimitiveReferences(jenv, jobj, kernelRunnerContext, kernelContext);
+            for (jint argIdx = 0; argIdx < kernelContext->argc; argIdx++) {
+               if (kernelContext->args[argIdx]->bindInstance(jenv, kernelObject)) {
+                  needSync = true;
+               }
+            }
          } catch (CLException& cle) {
-             cle.printError();
-         }
-         if (config->isVerbose()){
-            fprintf(stderr, "back from updateNonPrimitiveReferences\n");
+            cle.printError();
+            status = cle.status();
+            // args bound before the failure now refer to this instance's arrays, keep the buffers in step with them
+            try {
+               updateNonPrimitiveReferences(jenv, jobj, kernelRunnerContext, kernelContext);
+            } catch (CLException& cle) {
+               cle.printError();
+            }
          }
-      }
-
 
-      try {
-         int writeEventCount = 0;
-         processArgs(jenv, kernelRunnerContext, kernelContext, argPos, writeEventCount);
+         if (status == CL_SUCCESS) {
+            Range range(jenv, rangeObject);
+            status = runKernel(jenv, jobj, kernelRunnerContext, kernelContext, range, needSync, passes);
+         }
 
-         kernelRunnerContext->bufferManager->cleanUpNonReferencedBuffers(jenv);
+         jenv->DeleteLocalRef(rangeObject);
+         jenv->DeleteLocalRef(kernelObject);
 
-         enqueueKernel(kernelRunnerContext, kernelContext, range, passes, argPos, writeEventCount);
-         int readEventCount = getReadEvents(jenv, kernelRunnerContext, kernelContext);
-         waitForReadEvents(kernelContext, readEventCount, passes);
-         checkEvents(jenv, kernelContext, writeEventCount);
-      }
-      catch(CLException& cle) {
-         cle.printError();
-         kernelContext->unpinAll(jenv);
-         return cle.status();
+         if (status != CL_SUCCESS) {
+            return i;
+         }
       }
-
-      return(status);
+      return count;
 }
 
 JNI_JAVA(jint, KernelRunnerJNI, getJNI)
@@ -1117,6 +1204,7 @@ JNI_JAVA(jint, KernelRunnerJNI, getJNI)
                               arg->buffer->lengthInBytes );
                   }
                   if (status != CL_SUCCESS) throw CLException(status, "clEnqueueReadBuffer()");
+                  arg->countBytesRead(jenv, arg->buffer->lengthInBytes);
 
                   status = clWaitForEvents(1, context->readEvents);
                   if (status != CL_SUCCESS) throw CLException(status, "clWaitForEvents");
@@ -1154,6 +1242,7 @@ JNI_JAVA(jint, KernelRunnerJNI, getJNI)
                               arg->buffer->lengthInBytes );
                   }
                   if (status != CL_SUCCESS) throw CLException(status, "clEnqueueReadBuffer()");
+                  arg->countBytesRead(jenv, arg->buffer->lengthInBytes);
 
                   status = clWaitForEvents(1, context->readEvents);
                   if (status != CL_SUCCESS) throw CLException(status, "clWaitForEvents");
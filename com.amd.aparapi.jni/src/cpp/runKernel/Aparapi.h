@@ -53,7 +53,8 @@ void initialize(JNIEnv* jenv);
 void writeProfile(JNIEnv* jenv, KernelContext* kernelContext);
 jint getProcess();
 
-// called by runKernelJNI
+// called by runKernelJNI and runKernelBatchJNI
+jint runKernel(JNIEnv *jenv, jobject jobj, KernelRunnerContext* kernelRunnerContext, KernelContext* kernelContext, Range& range, bool needSync, int passes);
 void profileFirstRun(KernelRunnerContext* kernelRunnerContext, KernelContext* kernelContext);
 int enqueueMarker(cl_command_queue commandQueue, cl_event* firstEvent);
 jint updateNonPrimitiveReferences(JNIEnv *jenv, jobject jobj, KernelRunnerContext* kernelRunnerContext, KernelContext* kernelContext);
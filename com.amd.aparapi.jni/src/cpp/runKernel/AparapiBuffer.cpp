@@ -1607,6 +1607,7 @@ void AparapiBuffer::updateBuffer(JNIEnv* jenv, cl_context context, KernelContext
          this->lengthInBytes, this->data, &status);
 
    if(status != CL_SUCCESS) throw CLException(status,"clCreateBuffer");
+   arg->countBufferAllocation(jenv);
 
    if (config->isTrackingOpenCLResources()){
       memList.add(this->mem, __LINE__, __FILE__);
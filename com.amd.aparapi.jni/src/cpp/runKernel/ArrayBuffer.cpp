@@ -150,6 +150,7 @@ void ArrayBuffer::updateArray(JNIEnv* jenv, cl_context context, KernelContext* k
 
 
    if(status != CL_SUCCESS) throw CLException(status,"clCreateBuffer");
+   arg->countBufferAllocation(jenv);
 
    if (config->isTrackingOpenCLResources()){
       memList.add(this->mem, __LINE__, __FILE__);
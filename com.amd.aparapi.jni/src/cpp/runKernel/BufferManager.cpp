@@ -5,6 +5,28 @@
 BufferManager::BufferManager() {
    this->replacedAparapiBuffer = false;
    this->replacedArrayBuffer = false;
+#if defined (_WIN32)
+   InitializeCriticalSection(&mutex);
+#else
+   pthread_mutex_init(&mutex, NULL);
+#endif
+}
+
+BufferManager::Lock::Lock(BufferManager* _bufferManager):
+   bufferManager(_bufferManager) {
+#if defined (_WIN32)
+   EnterCriticalSection(&bufferManager->mutex);
+#else
+   pthread_mutex_lock(&bufferManager->mutex);
+#endif
+}
+
+BufferManager::Lock::~Lock() {
+#if defined (_WIN32)
+   LeaveCriticalSection(&bufferManager->mutex);
+#else
+   pthread_mutex_unlock(&bufferManager->mutex);
+#endif
 }
 
 ArrayBuffer* BufferManager::getArrayBufferFor(JNIEnv *jenv, jobject reference) {
@@ -1,19 +1,41 @@
 #ifndef BUFFER_MANAGER_H
 #define BUFFER_MANAGER_H
 
+#include "Common.h"
 #include "ArrayBuffer.h"
 #include "AparapiBuffer.h"
 #include <vector>
 
+#if !defined (_WIN32)
+#include <pthread.h>
+#endif
+
 /**
  * Class which is responsible for handling all the buffers. It keeps tack of each generated instance
  * and returns instances matching inner java objects instead of creating new ones. The class itself 
  * is a singleton. An instance can be obtained by calling BufferManager::getInstance().
+ *
+ * Kernels sharing a KernelRunner may be launched from several threads at once, so the buffer
+ * lists, the reference counts of the buffers and the replaced flags must only be touched while
+ * holding a BufferManager::Lock.
  */
 class BufferManager {
    public:
       BufferManager();
 
+      /**
+       * Holds the lock of a BufferManager until it goes out of scope, including when a
+       * CLException is thrown.
+       */
+      class Lock {
+         public:
+            Lock(BufferManager* _bufferManager);
+            ~Lock();
+         private:
+            BufferManager* bufferManager;
+      };
+      friend class Lock;
+
       bool replacedArrayBuffer;
       bool replacedAparapiBuffer;
 
@@ -38,6 +60,11 @@ class BufferManager {
       void cleanUpNonReferencedBuffers(JNIEnv *jenv);
 
    private:    
+#if defined (_WIN32)
+      CRITICAL_SECTION mutex;
+#else
+      pthread_mutex_t mutex;
+#endif
       std::vector<AparapiBuffer*> aparapiBufferList;
       std::vector<ArrayBuffer*> arrayBufferList;
 	   void cleanUp(GPUElement* gpuElement, JNIEnv *jenv);
@@ -14,10 +14,18 @@ jfieldID KernelArg::typeFieldID=0;
 jfieldID KernelArg::javaArrayFieldID=0; 
 jfieldID KernelArg::sizeInBytesFieldID=0;
 jfieldID KernelArg::numElementsFieldID=0; 
+jfieldID KernelArg::bytesWrittenFieldID=0;
+jfieldID KernelArg::bytesReadFieldID=0;
+jfieldID KernelArg::bufferAllocationsFieldID=0;
+jfieldID KernelArg::pinCountFieldID=0;
+jfieldID KernelArg::unpinCountFieldID=0;
+jfieldID KernelArg::fieldFieldID=0;
+jfieldID KernelArg::arrayFieldID=0;
 
 KernelArg::KernelArg(JNIEnv *jenv, jobject argObj, KernelContext *_kernelContext):
    argObj(argObj),
    buffer(NULL),
+   kernelFieldID(NULL),
    //aparapiBuffer(NULL),
    kernelContext(_kernelContext)
    {
@@ -29,6 +37,13 @@ KernelArg::KernelArg(JNIEnv *jenv, jobject argObj, KernelContext *_kernelContext
          javaArrayFieldID = JNIHelper::GetFieldID(jenv, c, "javaArray", "Ljava/lang/Object;");
          sizeInBytesFieldID = JNIHelper::GetFieldID(jenv, c, "sizeInBytes", "I");
          numElementsFieldID = JNIHelper::GetFieldID(jenv, c, "numElements", "I");
+         bytesWrittenFieldID = JNIHelper::GetFieldID(jenv, c, "bytesWritten", "J");
+         bytesReadFieldID = JNIHelper::GetFieldID(jenv, c, "bytesRead", "J");
+         bufferAllocationsFieldID = JNIHelper::GetFieldID(jenv, c, "bufferAllocations", "J");
+         pinCountFieldID = JNIHelper::GetFieldID(jenv, c, "pinCount", "J");
+         unpinCountFieldID = JNIHelper::GetFieldID(jenv, c, "unpinCount", "J");
+         fieldFieldID = JNIHelper::GetFieldID(jenv, c, "field", "Ljava/lang/reflect/Field;");
+         arrayFieldID = JNIHelper::GetFieldID(jenv, c, "array", "Ljava/lang/Object;");
          argClazz  = c;
       }
       type = jenv->GetIntField(argObj, typeFieldID);
@@ -36,6 +51,14 @@ KernelArg::KernelArg(JNIEnv *jenv, jobject argObj, KernelContext *_kernelContext
       const char *nameChars = jenv->GetStringUTFChars(nameString, NULL);
       name = strdup(nameChars);
       jenv->ReleaseStringUTFChars(nameString, nameChars);
+
+      if (isArray() && !isStatic()) {
+         jobject field = jenv->GetObjectField(argObj, fieldFieldID);
+         if (field != NULL) {
+            kernelFieldID = jenv->FromReflectedField(field);
+            jenv->DeleteLocalRef(field);
+         }
+      }
    }
 
 const char* KernelArg::getTypeName() {
@@ -200,4 +223,25 @@ void KernelArg::updateReference(JNIEnv *jenv, BufferManager* bufferManager) {
    }
 }
 
+bool KernelArg::bindInstance(JNIEnv *jenv, jobject kernelObject) {
+   if (kernelFieldID == NULL) return false;
 
+   jobject newRef = jenv->GetObjectField(kernelObject, kernelFieldID);
+   if (newRef == NULL) {
+      throw CLException(CL_INVALID_VALUE, "null array ref");
+   }
+   jobject oldRef = jenv->GetObjectField(javaArg, javaArrayFieldID);
+   bool changed = !jenv->IsSameObject(newRef, oldRef);
+   if (changed) {
+      jint length = jenv->GetArrayLength((jarray)newRef);
+      jenv->SetObjectField(javaArg, javaArrayFieldID, newRef);
+      jenv->SetObjectField(javaArg, arrayFieldID, newRef);
+      jenv->SetIntField(javaArg, numElementsFieldID, length);
+      jenv->SetIntField(javaArg, sizeInBytesFieldID, length * elementSize());
+   }
+   jenv->DeleteLocalRef(newRef);
+   if (oldRef != NULL) {
+      jenv->DeleteLocalRef(oldRef);
+   }
+   return changed;
+}
@@ -25,6 +25,21 @@ class KernelArg{
       static jfieldID typeFieldID; 
       static jfieldID sizeInBytesFieldID;
       static jfieldID numElementsFieldID;
+      static jfieldID bytesWrittenFieldID;
+      static jfieldID bytesReadFieldID;
+      static jfieldID bufferAllocationsFieldID;
+      static jfieldID pinCountFieldID;
+      static jfieldID unpinCountFieldID;
+      static jfieldID fieldFieldID;
+      static jfieldID arrayFieldID;
+
+      // the kernel field holding this array, resolved once in setArgs so a batch can read it from each instance
+      jfieldID kernelFieldID;
+
+      // add delta to one of the long transfer counters of the java KernelArg
+      void addToCounter(JNIEnv *jenv, jfieldID counterFieldID, jlong delta){
+         jenv->SetLongField(javaArg, counterFieldID, jenv->GetLongField(javaArg, counterFieldID) + delta);
+      }
 
       const char* getTypeName();
 
@@ -88,15 +103,35 @@ class KernelArg{
        */
       void updateReference(JNIEnv *jenv, BufferManager* bufferManager);
 
+      /**
+       * Point the java KernelArg at the array held by another instance of the kernel class, as updateKernelArrayRefs()
+       * does on the java side for a single launch. Used by runKernelBatchJNI.
+       * @param jenv JNI reference
+       * @param kernelObject the kernel instance about to run
+       * @return true if the array reference changed, so the buffers need to be synced
+       * @throws CLException if the instance holds a null array
+       */
+      bool bindInstance(JNIEnv *jenv, jobject kernelObject);
+
+      // mirrors getPrimitiveSize() in KernelRunner
+      jint elementSize(){
+         if (isLong() || isDouble()) return 8;
+         if (isFloat() || isInt()) return 4;
+         if (isShort() || (type&com_amd_aparapi_internal_jni_KernelRunnerJNI_ARG_CHAR)) return 2;
+         return 1;
+      }
+
       void unpinAbort(JNIEnv *jenv) {
          if (this->isArray()) {
             ((ArrayBuffer*)this->buffer)->unpinAbort(jenv);
+            addToCounter(jenv, unpinCountFieldID, 1);
          }
       }
 
       void unpinCommit(JNIEnv *jenv){
          if (this->isArray()) {
             ((ArrayBuffer*)this->buffer)->unpinCommit(jenv);
+            addToCounter(jenv, unpinCountFieldID, 1);
          }
       }
 
@@ -117,6 +152,7 @@ class KernelArg{
       void pin(JNIEnv *jenv){
          if (this->isArray()) {
             ((ArrayBuffer*)this->buffer)->pin(jenv);
+            addToCounter(jenv, pinCountFieldID, 1);
          }
       }
 
@@ -202,6 +238,15 @@ class KernelArg{
             ((ArrayBuffer*)this->buffer)->length = jenv->GetIntField(javaArg, numElementsFieldID);
          }
       }
+      void countBytesWritten(JNIEnv* jenv, jlong bytes){
+         addToCounter(jenv, bytesWrittenFieldID, bytes);
+      }
+      void countBytesRead(JNIEnv* jenv, jlong bytes){
+         addToCounter(jenv, bytesReadFieldID, bytes);
+      }
+      void countBufferAllocation(JNIEnv* jenv){
+         addToCounter(jenv, bufferAllocationsFieldID, 1);
+      }
       void clearExplicitBufferBit(JNIEnv* jenv){
          type &= ~com_amd_aparapi_internal_jni_KernelRunnerJNI_ARG_EXPLICIT_WRITE;
          jenv->SetIntField(javaArg, typeFieldID,type );
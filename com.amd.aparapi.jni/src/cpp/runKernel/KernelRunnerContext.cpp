@@ -45,7 +45,10 @@ void KernelRunnerContext::dispose(JNIEnv* jenv) {
       commandQueue = (cl_command_queue) NULL;
    }
 
-   bufferManager->cleanUpNonReferencedBuffers(jenv, true);
+   {
+      BufferManager::Lock lock(bufferManager);
+      bufferManager->cleanUpNonReferencedBuffers(jenv, true);
+   }
 
    if (config->isTrackingOpenCLResources()){
       fprintf(stderr, "after dispose{ \n");
@@ -8,6 +8,12 @@ jfieldID  Range::globalSize_2_FieldID=0;
 jfieldID  Range::localSize_0_FieldID=0;
 jfieldID  Range::localSize_1_FieldID=0;
 jfieldID  Range::localSize_2_FieldID=0;
+jfieldID  Range::offset_0_FieldID=0;
+jfieldID  Range::offset_1_FieldID=0;
+jfieldID  Range::offset_2_FieldID=0;
+jfieldID  Range::padding_0_FieldID=0;
+jfieldID  Range::padding_1_FieldID=0;
+jfieldID  Range::padding_2_FieldID=0;
 jfieldID  Range::dimsFieldID=0;
 jfieldID  Range::localIsDerivedFieldID=0; 
 
@@ -25,33 +31,43 @@ Range::Range(JNIEnv *jenv, jobject range):
       localSize_0_FieldID = JNIHelper::GetFieldID(jenv, rangeClazz, "localSize_0", "I");
       localSize_1_FieldID = JNIHelper::GetFieldID(jenv, rangeClazz, "localSize_1", "I");
       localSize_2_FieldID = JNIHelper::GetFieldID(jenv, rangeClazz, "localSize_2", "I");
+      offset_0_FieldID = JNIHelper::GetFieldID(jenv, rangeClazz, "offset_0", "I");
+      offset_1_FieldID = JNIHelper::GetFieldID(jenv, rangeClazz, "offset_1", "I");
+      offset_2_FieldID = JNIHelper::GetFieldID(jenv, rangeClazz, "offset_2", "I");
+      padding_0_FieldID = JNIHelper::GetFieldID(jenv, rangeClazz, "padding_0", "I");
+      padding_1_FieldID = JNIHelper::GetFieldID(jenv, rangeClazz, "padding_1", "I");
+      padding_2_FieldID = JNIHelper::GetFieldID(jenv, rangeClazz, "padding_2", "I");
       dimsFieldID = JNIHelper::GetFieldID(jenv, rangeClazz, "dims", "I");
       localIsDerivedFieldID = JNIHelper::GetFieldID(jenv, rangeClazz, "localIsDerived", "Z");
    }
    dims = jenv->GetIntField(range, dimsFieldID);
+   realDims[0] = realDims[1] = realDims[2] = 1;
    localIsDerived = jenv->GetBooleanField(range, localIsDerivedFieldID);
    if (dims >0){
       //fprintf(stderr, "native range dims == %d\n", dims);
       offsets = new size_t[dims];
       globalDims = new size_t[dims];
       localDims = new size_t[dims];
-      offsets[0]= 0;
+      offsets[0]= jenv->GetIntField(range, offset_0_FieldID);
       localDims[0]= jenv->GetIntField(range, localSize_0_FieldID);
       //fprintf(stderr, "native range localSize_0 == %d\n", localDims[0]);
       globalDims[0]= jenv->GetIntField(range, globalSize_0_FieldID);
       //fprintf(stderr, "native range globalSize_0 == %d\n", globalDims[0]);
+      realDims[0]= globalDims[0] - jenv->GetIntField(range, padding_0_FieldID);
       if (dims >1){
-         offsets[1]= 0;
+         offsets[1]= jenv->GetIntField(range, offset_1_FieldID);
          localDims[1]= jenv->GetIntField(range, localSize_1_FieldID);
          //fprintf(stderr, "native range localSize_1 == %d\n", localDims[1]);
          globalDims[1]= jenv->GetIntField(range, globalSize_1_FieldID);
          //fprintf(stderr, "native range globalSize_1 == %d\n", globalDims[1]);
+         realDims[1]= globalDims[1] - jenv->GetIntField(range, padding_1_FieldID);
          if (dims >2){
-            offsets[2]= 0;
+            offsets[2]= jenv->GetIntField(range, offset_2_FieldID);
             localDims[2]= jenv->GetIntField(range, localSize_2_FieldID);
             //fprintf(stderr, "native range localSize_2 == %d\n", localDims[2]);
             globalDims[2]= jenv->GetIntField(range, globalSize_2_FieldID);
             //fprintf(stderr, "native range globalSize_2 == %d\n", globalDims[2]);
+            realDims[2]= globalDims[2] - jenv->GetIntField(range, padding_2_FieldID);
          }
       }
 
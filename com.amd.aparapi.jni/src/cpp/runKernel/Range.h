@@ -13,6 +13,12 @@ class Range{
       static jfieldID localSize_0_FieldID;
       static jfieldID localSize_1_FieldID;
       static jfieldID localSize_2_FieldID;
+      static jfieldID offset_0_FieldID;
+      static jfieldID offset_1_FieldID;
+      static jfieldID offset_2_FieldID;
+      static jfieldID padding_0_FieldID;
+      static jfieldID padding_1_FieldID;
+      static jfieldID padding_2_FieldID;
       static jfieldID dimsFieldID;
       static jfieldID localIsDerivedFieldID; 
       jobject range;
@@ -20,6 +26,8 @@ class Range{
       size_t *offsets;
       size_t *globalDims;
       size_t *localDims;
+      // the global size of each dimension without padding, before any rounding up by enqueueKernel
+      cl_int realDims[3];
       jboolean localIsDerived;
       Range(JNIEnv *jenv, jobject range);
       ~Range();
@@ -100,6 +100,58 @@ public class Config extends ConfigJNI{
     */
    public static final boolean enableShowGeneratedOpenCL = Boolean.getBoolean(propPkgName + ".enableShowGeneratedOpenCL");
 
+   /**
+    * Allows the user to turn off sharing of parsed ClassModels and folded MethodModels between entrypoints.
+    *
+    *  Usage -Dcom.amd.aparapi.disableModelCache={true|false}
+    *  
+    */
+   public static final boolean disableModelCache = Boolean.getBoolean(propPkgName + ".disableModelCache");
+
+   /**
+    * Allows the user to turn off building the MethodModels of a kernel's callees in parallel.
+    *
+    *  Usage -Dcom.amd.aparapi.disableParallelTranslation={true|false}
+    *  
+    */
+   public static final boolean disableParallelTranslation = Boolean.getBoolean(propPkgName + ".disableParallelTranslation");
+
+   /**
+    * Allows the user to request that each KernelRunner, and each kernel class it executes, be registered as a JMX MBean.
+    *
+    *  Usage -Dcom.amd.aparapi.enableJMX={true|false}
+    *  
+    */
+   public static final boolean enableJMX = Boolean.getBoolean(propPkgName + ".enableJMX");
+
+   /**
+    * Allows the user to request per worker busy time, item counts and barrier wait times for JTP launches.
+    *
+    *  Usage -Dcom.amd.aparapi.enableJTPWorkerStats={true|false}
+    *  
+    *  @see WorkerStats
+    */
+   public static final boolean enableJTPWorkerStats = Boolean.getBoolean(propPkgName + ".enableJTPWorkerStats");
+
+   /**
+    * Allows the user to request a <code>ProfileInfo</code> record for every group of a profiled JTP launch, not just for every pass.
+    *
+    *  Usage -Dcom.amd.aparapi.enableJTPGroupProfiling={true|false}
+    *  
+    *  @see #enableProfiling
+    */
+   public static final boolean enableJTPGroupProfiling = Boolean.getBoolean(propPkgName + ".enableJTPGroupProfiling");
+
+   /**
+    * Allows the user to have each <code>KernelRunner</code> choose between OpenCL and JTP per kernel and range size, from the
+    * measured time of earlier launches.
+    *
+    *  Usage -Dcom.amd.aparapi.enableAdaptiveExecutionMode={true|false}
+    *  
+    *  @see com.amd.aparapi.internal.kernel.AdaptiveModeSelector
+    */
+   public static final boolean enableAdaptiveExecutionMode = Boolean.getBoolean(propPkgName + ".enableAdaptiveExecutionMode");
+
    // Pragma/OpenCL codegen related flags
    public static final boolean enableAtomic32 = Boolean.getBoolean(propPkgName + ".enableAtomic32");
 
@@ -198,6 +250,12 @@ public class Config extends ConfigJNI{
          System.out.println(propPkgName + ".enableShowGeneratedOpenCL{true|false}=" + enableShowGeneratedOpenCL);
          System.out.println(propPkgName + ".enableExecutionModeReporting{true|false}=" + enableExecutionModeReporting);
          System.out.println(propPkgName + ".enableInstructionDecodeViewer{true|false}=" + enableInstructionDecodeViewer);
+         System.out.println(propPkgName + ".disableModelCache{true|false}=" + disableModelCache);
+         System.out.println(propPkgName + ".disableParallelTranslation{true|false}=" + disableParallelTranslation);
+         System.out.println(propPkgName + ".enableJMX{true|false}=" + enableJMX);
+         System.out.println(propPkgName + ".enableJTPWorkerStats{true|false}=" + enableJTPWorkerStats);
+         System.out.println(propPkgName + ".enableJTPGroupProfiling{true|false}=" + enableJTPGroupProfiling);
+         System.out.println(propPkgName + ".enableAdaptiveExecutionMode{true|false}=" + enableAdaptiveExecutionMode);
          System.out.println(propPkgName
                + ".instructionListenerClassName{<class name which extends com.amd.aparapi.Config.InstructionListener>}="
                + instructionListenerClassName);
@@ -164,12 +164,22 @@ public abstract class Kernel implements Cloneable {
             0
       };
 
+      private int[] groupIdOffsets = new int[] {
+            0,
+            0,
+            0
+      };
+
       private Range range;
 
       private int passId;
 
       private volatile CyclicBarrier localBarrier;
 
+      private boolean timingBarrierWaits;
+
+      private long barrierWaitNanos;
+
       /**
        * Default constructor
        */
@@ -186,6 +196,7 @@ public abstract class Kernel implements Cloneable {
          globalIds = kernelState.getGlobalIds();
          localIds = kernelState.getLocalIds();
          groupIds = kernelState.getGroupIds();
+         groupIdOffsets = kernelState.getGroupIdOffsets();
          range = kernelState.getRange();
          passId = kernelState.getPassId();
          localBarrier = kernelState.getLocalBarrier();
@@ -263,6 +274,20 @@ public abstract class Kernel implements Cloneable {
          groupIds[_index] = value;
       }
 
+      /**
+       * @return the offsets added to the groupIds, non zero when only a part of the range is executed
+       */
+      public int[] getGroupIdOffsets() {
+         return groupIdOffsets;
+      }
+
+      /**
+       * @param groupIdOffsets the groupIdOffsets to set
+       */
+      public void setGroupIdOffsets(int[] groupIdOffsets) {
+         this.groupIdOffsets = groupIdOffsets;
+      }
+
       /**
        * @return the range
        */
@@ -304,6 +329,34 @@ public abstract class Kernel implements Cloneable {
       public void setLocalBarrier(CyclicBarrier localBarrier) {
          this.localBarrier = localBarrier;
       }
+
+      /**
+       * @return whether time spent waiting in <code>localBarrier()</code> is being accumulated
+       */
+      public boolean isTimingBarrierWaits() {
+         return timingBarrierWaits;
+      }
+
+      /**
+       * @param timingBarrierWaits whether to accumulate time spent waiting in <code>localBarrier()</code>
+       */
+      public void setTimingBarrierWaits(boolean timingBarrierWaits) {
+         this.timingBarrierWaits = timingBarrierWaits;
+      }
+
+      /**
+       * @return the time spent waiting in <code>localBarrier()</code> (ns) since timing was enabled
+       */
+      public long getBarrierWaitNanos() {
+         return barrierWaitNanos;
+      }
+
+      /**
+       * @param barrierWaitNanos the barrierWaitNanos to set
+       */
+      public void setBarrierWaitNanos(long barrierWaitNanos) {
+         this.barrierWaitNanos = barrierWaitNanos;
+      }
    }
 
    /**
@@ -403,7 +456,7 @@ public abstract class Kernel implements Cloneable {
 
    @OpenCLDelegate
    protected final int getGroupId(int _dim) {
-      return kernelState.getGroupIds()[_dim];
+      return kernelState.getGroupIds()[_dim] + kernelState.getGroupIdOffsets()[_dim];
    }
 
    /*
@@ -660,7 +713,13 @@ public abstract class Kernel implements Cloneable {
    @Experimental
    protected final void localBarrier() {
       try {
-         kernelState.getLocalBarrier().await();
+         if (kernelState.isTimingBarrierWaits()) {
+            final long start = System.nanoTime();
+            kernelState.getLocalBarrier().await();
+            kernelState.setBarrierWaitNanos(kernelState.getBarrierWaitNanos() + (System.nanoTime() - start));
+         } else {
+            kernelState.getLocalBarrier().await();
+         }
       } catch (final InterruptedException e) {
          // TODO Auto-generated catch block
          e.printStackTrace();
@@ -0,0 +1,141 @@
+/*
+Copyright (c) 2010-2011, Advanced Micro Devices, Inc.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+disclaimer. 
+
+Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+disclaimer in the documentation and/or other materials provided with the distribution. 
+
+Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products
+derived from this software without specific prior written permission. 
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+If you use the software (in whole or in part), you shall adhere to all applicable U.S., European, and other export
+laws, including but not limited to the U.S. Export Administration Regulations ("EAR"), (15 C.F.R. Sections 730 through
+774), and E.U. Council Regulation (EC) No 1334/2000 of 22 June 2000.  Further, pursuant to Section 740.6 of the EAR,
+you hereby certify that, except pursuant to a license granted by the United States Department of Commerce Bureau of 
+Industry and Security or as otherwise permitted pursuant to a License Exception under the U.S. Export Administration 
+Regulations ("EAR"), you will not (1) export, re-export or release to a national of a country in Country Groups D:1,
+E:1 or E:2 any restricted technology, software, or source code you receive hereunder, or (2) export to Country Groups
+D:1, E:1 or E:2 the direct product of such technology or software, if such foreign produced direct product is subject
+to national security controls as identified on the Commerce Control List (currently found in Supplement 1 to Part 774
+of EAR).  For the most current Country Group listings, or for additional information about the EAR or your obligations
+under those regulations, please refer to the U.S. Bureau of Industry and Security's website at http://www.bis.doc.gov/. 
+
+*/
+package com.amd.aparapi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The pending result of a <code>KernelRunner.executeAsync()</code> launch.
+ * <p>
+ * <code>get()</code> blocks until the launch, including any read back of buffers, has completed and returns the kernel.
+ * Callbacks registered with <code>addCallback()</code> are notified on the thread which completed the launch, or
+ * immediately on the registering thread if the launch has already completed.
+ * <p>
+ * The arrays referenced by the kernel belong to the launch until it completes, the host may prepare other arrays for the
+ * next launch in the meantime but must not mutate these.
+ *
+ * @see com.amd.aparapi.internal.kernel.KernelRunner#executeAsync(Kernel, Range, int)
+ */
+public class KernelFuture extends FutureTask<Kernel>{
+
+   private static Logger logger = Logger.getLogger(Config.getLoggerName());
+
+   /**
+    * Notified once when the launch completes.
+    */
+   public interface Callback{
+      /**
+       * @param _kernel the kernel, whose results are now available
+       */
+      void completed(Kernel _kernel);
+
+      /**
+       * @param _cause the exception thrown by the launch, or a <code>CancellationException</code> if it was cancelled
+       */
+      void failed(Throwable _cause);
+   }
+
+   private final Kernel kernel;
+
+   private List<Callback> callbacks = new ArrayList<Callback>();
+
+   public KernelFuture(Kernel _kernel, Callable<Kernel> _launch) {
+      super(_launch);
+      kernel = _kernel;
+   }
+
+   public Kernel getKernel() {
+      return (kernel);
+   }
+
+   /**
+    * Register a callback, which is notified straight away if the launch has already completed.
+    * 
+    * @return this future so that calls can be chained
+    */
+   public KernelFuture addCallback(Callback _callback) {
+      synchronized (this) {
+         // get() can return before done() has run, so check isDone() as well as the pending list
+         if ((callbacks != null) && !isDone()) {
+            callbacks.add(_callback);
+            return (this);
+         }
+      }
+      fire(_callback);
+      return (this);
+   }
+
+   @Override protected void done() {
+      final List<Callback> pending;
+      synchronized (this) {
+         pending = callbacks;
+         callbacks = null;
+      }
+      for (final Callback callback : pending) {
+         fire(callback);
+      }
+   }
+
+   private void fire(Callback _callback) {
+      Kernel result = null;
+      Throwable cause = null;
+      try {
+         result = get();
+      } catch (final ExecutionException e) {
+         cause = e.getCause();
+      } catch (final Throwable t) {
+         cause = t;
+      }
+
+      try {
+         if (cause == null) {
+            _callback.completed(result);
+         } else {
+            _callback.failed(cause);
+         }
+      } catch (final RuntimeException e) {
+         logger.log(Level.WARNING, "Callback for " + kernel.getClass().getName() + " launch threw", e);
+      }
+   }
+}
@@ -11,6 +11,7 @@ public class KernelMapping {
    public final List<KernelArg> kernelArgs = new ArrayList<KernelArg>();
    public final Entrypoint entryPoint;
    private Kernel lastKernel;
+   private boolean usesOopConversion;
    public long kernelContextHandle;
 
    public KernelMapping(Class<? extends Kernel> kernelClass, Entrypoint entryPoint, Kernel lastKernel) {
@@ -31,4 +32,12 @@ public class KernelMapping {
    public void setLastKernel(Kernel lastKernel) {
       this.lastKernel = lastKernel;
    }
+
+   public boolean usesOopConversion() {
+      return usesOopConversion;
+   }
+
+   public void setUsesOopConversion(boolean usesOopConversion) {
+      this.usesOopConversion = usesOopConversion;
+   }
 }
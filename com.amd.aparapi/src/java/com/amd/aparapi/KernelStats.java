@@ -0,0 +1,372 @@
+/*
+Copyright (c) 2010-2011, Advanced Micro Devices, Inc.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+disclaimer. 
+
+Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+disclaimer in the documentation and/or other materials provided with the distribution. 
+
+Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products
+derived from this software without specific prior written permission. 
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+If you use the software (in whole or in part), you shall adhere to all applicable U.S., European, and other export
+laws, including but not limited to the U.S. Export Administration Regulations ("EAR"), (15 C.F.R. Sections 730 through
+774), and E.U. Council Regulation (EC) No 1334/2000 of 22 June 2000.  Further, pursuant to Section 740.6 of the EAR,
+you hereby certify that, except pursuant to a license granted by the United States Department of Commerce Bureau of 
+Industry and Security or as otherwise permitted pursuant to a License Exception under the U.S. Export Administration 
+Regulations ("EAR"), you will not (1) export, re-export or release to a national of a country in Country Groups D:1,
+E:1 or E:2 any restricted technology, software, or source code you receive hereunder, or (2) export to Country Groups
+D:1, E:1 or E:2 the direct product of such technology or software, if such foreign produced direct product is subject
+to national security controls as identified on the Commerce Control List (currently found in Supplement 1 to Part 774
+of EAR).  For the most current Country Group listings, or for additional information about the EAR or your obligations
+under those regulations, please refer to the U.S. Bureau of Industry and Security's website at http://www.bis.doc.gov/. 
+
+*/
+package com.amd.aparapi;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Nanosecond timings of the phases a <code>Kernel</code> class passes through on its way to (and during) execution.
+ * <p>
+ * One instance is kept per <code>Kernel</code> class by each <code>KernelRunner</code>. The one-off translation phases
+ * (<code>CLASS_PARSE</code> through <code>ARG_DISCOVERY</code>) are recorded once when the kernel is first converted,
+ * the per-launch phases (<code>MARSHAL</code>, <code>KERNEL</code> and <code>UNMARSHAL</code>) are recorded for every
+ * <code>Kernel.execute()</code> call.
+ * <p>
+ * Values are updated by the dispatch thread and may be read from any thread.
+ *
+ * @see KernelStatsListener
+ */
+public class KernelStats{
+
+   public enum Phase {
+      /**
+       * Parsing the kernel class file (and its super classes) into a <code>ClassModel</code>.
+       */
+      CLASS_PARSE(true),
+      /**
+       * Building the <code>Entrypoint</code> and its call graph.
+       */
+      ENTRYPOINT(true),
+      /**
+       * Emitting OpenCL source from the <code>Entrypoint</code>.
+       */
+      OPENCL_EMIT(true),
+      /**
+       * Compiling the emitted OpenCL in the native layer.
+       */
+      NATIVE_BUILD(true),
+      /**
+       * Discovering the kernel arguments and passing them to the native layer.
+       */
+      ARG_DISCOVERY(true),
+      /**
+       * Refreshing array references and converting object arrays before a launch.
+       */
+      MARSHAL(false),
+      /**
+       * The launch itself. For OpenCL this is the JNI call, which includes native buffer transfers. For JTP and SEQ it is
+       * the time spent executing the work items.
+       */
+      KERNEL(false),
+      /**
+       * Converting object array buffers back to Java objects after a launch.
+       */
+      UNMARSHAL(false);
+
+      private final boolean translation;
+
+      private Phase(boolean _translation) {
+         translation = _translation;
+      }
+
+      /**
+       * @return true if this phase is part of the one-off translation rather than of every launch
+       */
+      public boolean isTranslation() {
+         return (translation);
+      }
+   }
+
+   private static final Phase[] phases = Phase.values();
+
+   /**
+    * Launch times are bucketed by their highest set bit, bucket <code>n</code> holds times in [2^n, 2^(n+1)) ns.
+    */
+   public static final int HISTOGRAM_BUCKETS = 64;
+
+   private final Class<? extends Kernel> kernelClass;
+
+   private final AtomicLongArray lastNanos = new AtomicLongArray(phases.length);
+
+   private final AtomicLongArray totalNanos = new AtomicLongArray(phases.length);
+
+   private final AtomicLongArray counts = new AtomicLongArray(phases.length);
+
+   private final AtomicLong launchCount = new AtomicLong();
+
+   private final AtomicLong totalLaunchNanos = new AtomicLong();
+
+   private volatile long lastLaunchNanos = 0;
+
+   private volatile EXECUTION_MODE lastExecutionMode = EXECUTION_MODE.NONE;
+
+   private final AtomicReferenceArray<LatencyHistogram> latencyHistograms = new AtomicReferenceArray<LatencyHistogram>(
+         EXECUTION_MODE.values().length);
+
+   private final ConcurrentMap<String, AtomicLong> fallbackReasons = new ConcurrentHashMap<String, AtomicLong>();
+
+   private final AtomicLong fallbackCount = new AtomicLong();
+
+   private volatile WorkerStats[] lastWorkerStats = null;
+
+   private volatile TransferStats[] transferStats = null;
+
+   public KernelStats(Class<? extends Kernel> _kernelClass) {
+      kernelClass = _kernelClass;
+   }
+
+   public Class<? extends Kernel> getKernelClass() {
+      return (kernelClass);
+   }
+
+   /**
+    * Record the time spent in a phase.
+    * 
+    * @param _phase
+    * @param _nanos
+    */
+   public void record(Phase _phase, long _nanos) {
+      final int index = _phase.ordinal();
+      lastNanos.set(index, _nanos);
+      totalNanos.addAndGet(index, _nanos);
+      counts.incrementAndGet(index);
+   }
+
+   /**
+    * Record a completed <code>Kernel.execute()</code> call.
+    * 
+    * @param _mode the execution mode the launch completed in
+    * @param _nanos wall clock time of the whole call, including any translation and fallback
+    */
+   public void recordLaunch(EXECUTION_MODE _mode, long _nanos) {
+      lastExecutionMode = _mode;
+      lastLaunchNanos = _nanos;
+      totalLaunchNanos.addAndGet(_nanos);
+      launchCount.incrementAndGet();
+      LatencyHistogram histogram = latencyHistograms.get(_mode.ordinal());
+      if (histogram == null) {
+         latencyHistograms.compareAndSet(_mode.ordinal(), null, new LatencyHistogram());
+         histogram = latencyHistograms.get(_mode.ordinal());
+      }
+      histogram.record(_nanos);
+   }
+
+   /**
+    * Record that execution of this kernel class fell back to another execution mode.
+    * 
+    * @param _reason
+    */
+   public void recordFallback(String _reason) {
+      AtomicLong count = fallbackReasons.get(_reason);
+      if (count == null) {
+         final AtomicLong newCount = new AtomicLong();
+         count = fallbackReasons.putIfAbsent(_reason, newCount);
+         if (count == null) {
+            count = newCount;
+         }
+      }
+      count.incrementAndGet();
+      fallbackCount.incrementAndGet();
+   }
+
+   /**
+    * Record what each worker did during a JTP launch.
+    * 
+    * @param _workers
+    */
+   public void recordWorkerStats(WorkerStats[] _workers) {
+      lastWorkerStats = _workers;
+   }
+
+   /**
+    * Record the native buffer transfer counters of each argument after an OpenCL launch.
+    * 
+    * @param _transfers
+    */
+   public void recordTransferStats(TransferStats[] _transfers) {
+      transferStats = _transfers;
+   }
+
+   /**
+    * @return the histogram bucket holding <code>_nanos</code>
+    */
+   public static int bucketOf(long _nanos) {
+      return (_nanos <= 0 ? 0 : 63 - Long.numberOfLeadingZeros(_nanos));
+   }
+
+   /**
+    * @return the most recent time recorded for <code>_phase</code> (ns), or 0 if it has never been recorded
+    */
+   public long getLastNanos(Phase _phase) {
+      return (lastNanos.get(_phase.ordinal()));
+   }
+
+   /**
+    * @return the sum of all times recorded for <code>_phase</code> (ns)
+    */
+   public long getTotalNanos(Phase _phase) {
+      return (totalNanos.get(_phase.ordinal()));
+   }
+
+   /**
+    * @return how many times <code>_phase</code> has been recorded
+    */
+   public long getCount(Phase _phase) {
+      return (counts.get(_phase.ordinal()));
+   }
+
+   /**
+    * @return the total time spent in translation phases (ns)
+    */
+   public long getTranslationNanos() {
+      long nanos = 0;
+      for (final Phase phase : phases) {
+         if (phase.isTranslation()) {
+            nanos += getTotalNanos(phase);
+         }
+      }
+      return (nanos);
+   }
+
+   public long getLaunchCount() {
+      return (launchCount.get());
+   }
+
+   public long getLastLaunchNanos() {
+      return (lastLaunchNanos);
+   }
+
+   public long getTotalLaunchNanos() {
+      return (totalLaunchNanos.get());
+   }
+
+   public EXECUTION_MODE getLastExecutionMode() {
+      return (lastExecutionMode);
+   }
+
+   /**
+    * Get the latency histogram of launches which completed in <code>_mode</code>. Use
+    * <code>snapshotAndReset()</code> on it to report per interval.
+    *
+    * @return the histogram, or null if no launch has completed in <code>_mode</code>
+    */
+   public LatencyHistogram getLatencyHistogram(EXECUTION_MODE _mode) {
+      return (latencyHistograms.get(_mode.ordinal()));
+   }
+
+   /**
+    * Reset the latency histograms of all execution modes, starting a new reporting interval.
+    */
+   public void resetLatencyHistograms() {
+      for (int mode = 0; mode < latencyHistograms.length(); mode++) {
+         final LatencyHistogram latencyHistogram = latencyHistograms.get(mode);
+         if (latencyHistogram != null) {
+            latencyHistogram.reset();
+         }
+      }
+   }
+
+   /**
+    * @return the launch time histogram across all execution modes, see {@link #HISTOGRAM_BUCKETS} for the bucket layout
+    */
+   public long[] getLaunchHistogram() {
+      final long[] histogram = new long[HISTOGRAM_BUCKETS];
+      for (int mode = 0; mode < latencyHistograms.length(); mode++) {
+         final LatencyHistogram latencyHistogram = latencyHistograms.get(mode);
+         if (latencyHistogram != null) {
+            final long[] powers = latencyHistogram.snapshot().getPowerOfTwoCounts();
+            for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+               histogram[i] += powers[i];
+            }
+         }
+      }
+      return (histogram);
+   }
+
+   /**
+    * @return per worker stats of the most recent JTP launch, or null if worker stats have not been collected
+    * @see Config#enableJTPWorkerStats
+    */
+   public WorkerStats[] getLastWorkerStats() {
+      final WorkerStats[] workers = lastWorkerStats;
+      return (workers == null ? null : workers.clone());
+   }
+
+   /**
+    * @return per argument buffer transfer counters as of the most recent OpenCL launch, or null if the kernel has not
+    *         been launched through OpenCL
+    */
+   public TransferStats[] getTransferStats() {
+      final TransferStats[] transfers = transferStats;
+      return (transfers == null ? null : transfers.clone());
+   }
+
+   public long getFallbackCount() {
+      return (fallbackCount.get());
+   }
+
+   /**
+    * @return a snapshot of how often each fallback reason has been seen
+    */
+   public Map<String, Long> getFallbackReasons() {
+      final Map<String, Long> reasons = new HashMap<String, Long>();
+      for (final Map.Entry<String, AtomicLong> entry : fallbackReasons.entrySet()) {
+         reasons.put(entry.getKey(), entry.getValue().get());
+      }
+      return (reasons);
+   }
+
+   @Override public String toString() {
+      final StringBuilder sb = new StringBuilder();
+      sb.append("KernelStats[");
+      sb.append(kernelClass.getName());
+      sb.append(" launches=");
+      sb.append(getLaunchCount());
+      sb.append(", mode=");
+      sb.append(lastExecutionMode);
+      for (final Phase phase : phases) {
+         if (getCount(phase) > 0) {
+            sb.append(", ");
+            sb.append(phase);
+            sb.append("=");
+            sb.append(getTotalNanos(phase));
+            sb.append("ns/");
+            sb.append(getCount(phase));
+         }
+      }
+      sb.append("]");
+
+      return sb.toString();
+   }
+}
@@ -0,0 +1,218 @@
+/*
+Copyright (c) 2010-2011, Advanced Micro Devices, Inc.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+disclaimer. 
+
+Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+disclaimer in the documentation and/or other materials provided with the distribution. 
+
+Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products
+derived from this software without specific prior written permission. 
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+If you use the software (in whole or in part), you shall adhere to all applicable U.S., European, and other export
+laws, including but not limited to the U.S. Export Administration Regulations ("EAR"), (15 C.F.R. Sections 730 through
+774), and E.U. Council Regulation (EC) No 1334/2000 of 22 June 2000.  Further, pursuant to Section 740.6 of the EAR,
+you hereby certify that, except pursuant to a license granted by the United States Department of Commerce Bureau of 
+Industry and Security or as otherwise permitted pursuant to a License Exception under the U.S. Export Administration 
+Regulations ("EAR"), you will not (1) export, re-export or release to a national of a country in Country Groups D:1,
+E:1 or E:2 any restricted technology, software, or source code you receive hereunder, or (2) export to Country Groups
+D:1, E:1 or E:2 the direct product of such technology or software, if such foreign produced direct product is subject
+to national security controls as identified on the Commerce Control List (currently found in Supplement 1 to Part 774
+of EAR).  For the most current Country Group listings, or for additional information about the EAR or your obligations
+under those regulations, please refer to the U.S. Bureau of Industry and Security's website at http://www.bis.doc.gov/. 
+
+*/
+package com.amd.aparapi;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed size, lock-free latency histogram in the style of HdrHistogram.
+ * <p>
+ * Values (ns) are bucketed log-linearly: each power of two range is split into 32 equal sub-buckets, so any recorded
+ * value is reported to within ~3% whatever its magnitude, and the whole histogram occupies 15KB regardless of how many
+ * values it holds. Recording is a couple of atomic increments and never allocates, so it is safe to use on every launch.
+ * <p>
+ * <code>snapshotAndReset()</code> takes the counts of the current reporting interval and starts a new one. Every
+ * recorded value lands in exactly one snapshot.
+ */
+public class LatencyHistogram{
+
+   private static final int SUB_BUCKET_BITS = 5;
+
+   private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+   private static final int BUCKETS = SUB_BUCKETS * (64 - SUB_BUCKET_BITS) + SUB_BUCKETS;
+
+   private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+   private final AtomicLong max = new AtomicLong();
+
+   /**
+    * @return the bucket holding <code>_value</code>
+    */
+   static int indexOf(long _value) {
+      if (_value < SUB_BUCKETS) {
+         return ((int) Math.max(0, _value));
+      }
+      final int shift = 63 - Long.numberOfLeadingZeros(_value) - SUB_BUCKET_BITS;
+      return ((SUB_BUCKETS * shift) + (int) (_value >>> shift));
+   }
+
+   /**
+    * @return the smallest value held by bucket <code>_index</code>
+    */
+   static long lowestValueAt(int _index) {
+      if (_index < (2 * SUB_BUCKETS)) {
+         return (_index);
+      }
+      final int shift = (_index / SUB_BUCKETS) - 1;
+      return ((long) (_index - (SUB_BUCKETS * shift)) << shift);
+   }
+
+   /**
+    * @return the largest value held by bucket <code>_index</code>
+    */
+   static long highestValueAt(int _index) {
+      final long next = lowestValueAt(_index + 1);
+      return (next <= 0 ? Long.MAX_VALUE : next - 1);
+   }
+
+   public void record(long _nanos) {
+      counts.incrementAndGet(indexOf(_nanos));
+      long current = max.get();
+      while ((_nanos > current) && !max.compareAndSet(current, _nanos)) {
+         current = max.get();
+      }
+   }
+
+   /**
+    * @return the counts recorded so far, without resetting them
+    */
+   public Snapshot snapshot() {
+      final long[] snapshot = new long[BUCKETS];
+      for (int i = 0; i < BUCKETS; i++) {
+         snapshot[i] = counts.get(i);
+      }
+      return (new Snapshot(snapshot, max.get()));
+   }
+
+   /**
+    * @return the counts recorded since the last reset, and start a new interval
+    */
+   public Snapshot snapshotAndReset() {
+      final long[] snapshot = new long[BUCKETS];
+      final long snapshotMax = max.getAndSet(0);
+      for (int i = 0; i < BUCKETS; i++) {
+         snapshot[i] = counts.getAndSet(i, 0);
+      }
+      return (new Snapshot(snapshot, snapshotMax));
+   }
+
+   public void reset() {
+      snapshotAndReset();
+   }
+
+   /**
+    * An immutable copy of a <code>LatencyHistogram</code>.
+    */
+   public static class Snapshot{
+
+      private final long[] counts;
+
+      private final long count;
+
+      private final long max;
+
+      private Snapshot(long[] _counts, long _max) {
+         counts = _counts;
+         long total = 0;
+         long highest = 0;
+         for (int i = 0; i < _counts.length; i++) {
+            total += _counts[i];
+            if (_counts[i] > 0) {
+               highest = highestValueAt(i);
+            }
+         }
+         count = total;
+         // a value recorded concurrently with the snapshot may have reached max but not counts, or vice versa
+         max = ((_max > 0) && (_max <= highest)) ? _max : highest;
+      }
+
+      public long getCount() {
+         return (count);
+      }
+
+      /**
+       * @return the largest recorded value (ns)
+       */
+      public long getMax() {
+         return (max);
+      }
+
+      /**
+       * @param _percentile in the range 0..100
+       * @return a value (ns) which at least <code>_percentile</code>% of recorded values are less than or equal to,
+       *         or 0 if nothing was recorded
+       */
+      public long getPercentile(double _percentile) {
+         if (count == 0) {
+            return (0);
+         }
+         final long rank = Math.max(1, (long) Math.ceil((Math.min(100.0, _percentile) / 100.0) * count));
+         long seen = 0;
+         for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+               return (Math.min(highestValueAt(i), max));
+            }
+         }
+         return (max);
+      }
+
+      public long getP50() {
+         return (getPercentile(50.0));
+      }
+
+      public long getP99() {
+         return (getPercentile(99.0));
+      }
+
+      public long getP999() {
+         return (getPercentile(99.9));
+      }
+
+      /**
+       * Collapse the counts into power of two buckets, bucket <code>n</code> counting values in [2^n, 2^(n+1)) ns.
+       */
+      public long[] getPowerOfTwoCounts() {
+         final long[] powers = new long[64];
+         for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+               final long lowest = lowestValueAt(i);
+               powers[lowest == 0 ? 0 : 63 - Long.numberOfLeadingZeros(lowest)] += counts[i];
+            }
+         }
+         return (powers);
+      }
+
+      @Override public String toString() {
+         return ("count=" + count + ", p50=" + getP50() + "ns, p99=" + getP99() + "ns, p999=" + getP999() + "ns, max=" + max
+               + "ns");
+      }
+   }
+}
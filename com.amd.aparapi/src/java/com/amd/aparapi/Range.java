@@ -167,6 +167,80 @@ public class Range extends RangeJNI{
       return (range);
    }
 
+   /** 
+    * Create a one dimensional range <code>_offset.._offset+_globalWidth</code> which is processed in groups of size _localWidth.
+    * <br/>
+    * The kernel sees global ids starting at <code>_offset</code>, its global size is still <code>_globalWidth</code>.
+    * 
+    * @param _offset the first global id
+    * @param _globalWidth the number of work items we wish to process
+    * @param _localWidth the size of the group we wish to process.
+    * @return A new Range with the requested dimensions
+    */
+   public static Range create(Device _device, int _offset, int _globalWidth, int _localWidth) {
+      final Range range = create(_device, _globalWidth, _localWidth);
+      range.setOffset_0(_offset);
+      range.setValid(range.isValid() && (_offset >= 0));
+      return (range);
+   }
+
+   public static Range create(int _offset, int _globalWidth, int _localWidth) {
+      return (create(null, _offset, _globalWidth, _localWidth));
+   }
+
+   /** 
+    * Create a one dimensional range of <code>_globalWidth</code> work items, padded up to a whole number of groups of the
+    * largest power of two the device accepts (at most <code>MAX_OPENCL_GROUP_SIZE</code>).
+    * <br/>
+    * Unlike <code>create(_device, _globalWidth)</code> this keeps a useful group size when <code>_globalWidth</code> is
+    * prime or has only small factors. Padding work items don't run, see {@link #createPadded(Device, int, int)}.
+    * 
+    * @param _globalWidth the number of work items we wish to process
+    * @return A new Range with the requested dimensions
+    */
+   public static Range createPadded(Device _device, int _globalWidth) {
+      final Range limits = new Range(_device, 1);
+      final int maxLocalWidth = Math.min(MAX_OPENCL_GROUP_SIZE, Math.min(limits.getMaxWorkGroupSize(),
+            limits.getMaxWorkItemSize()[0]));
+      int localWidth = 1;
+      while (((localWidth * 2) <= maxLocalWidth) && (localWidth < _globalWidth)) {
+         localWidth *= 2;
+      }
+      return (createPadded(_device, _globalWidth, localWidth));
+   }
+
+   /** 
+    * Create a one dimensional range of <code>_globalWidth</code> work items, padded up to a whole number of groups of
+    * <code>_localWidth</code>.
+    * <br/>
+    * The padding work items don't run: on an OpenCL device the kernel returns early for them and in JTP or SEQ they are
+    * skipped. <code>getGlobalSize()</code> is the padded size, so kernels should bound their work by their own sizes. In
+    * JTP the padding work items of a group still wait at its barriers. A kernel which waits at a barrier can't return
+    * early on an OpenCL device, so its padded launches run in JTP while its other launches stay on the device.
+    * 
+    * @param _globalWidth the number of work items we wish to process
+    * @param _localWidth the size of the group we wish to process.
+    * @return A new Range with the requested dimensions
+    */
+   public static Range createPadded(Device _device, int _globalWidth, int _localWidth) {
+      final Range range = create(_device, paddedSize(_globalWidth, _localWidth), _localWidth);
+      range.setPadding_0(range.getGlobalSize_0() - _globalWidth);
+      range.setValid(range.isValid() && (_globalWidth > 0));
+      return (range);
+   }
+
+   public static Range createPadded(int _globalWidth) {
+      return (createPadded(null, _globalWidth));
+   }
+
+   public static Range createPadded(int _globalWidth, int _localWidth) {
+      return (createPadded(null, _globalWidth, _localWidth));
+   }
+
+   private static int paddedSize(int _globalSize, int _localSize) {
+      return ((_localSize > 0) ? (((_globalSize + _localSize) - 1) / _localSize) * _localSize : _globalSize);
+   }
+
    /** 
     * Create a two dimensional range 0.._globalWidth x 0.._globalHeight using a group which is _localWidth x _localHeight in size.
     * <br/>
@@ -267,6 +341,46 @@ public class Range extends RangeJNI{
       return (range);
    }
 
+   /** 
+    * Create a two dimensional range of _globalWidth x _globalHeight work items whose first global id is
+    * <code>(_offsetX, _offsetY)</code>, using a group which is _localWidth x _localHeight in size.
+    * 
+    * @return A new Range with the requested dimensions
+    */
+   public static Range create2D(Device _device, int _offsetX, int _offsetY, int _globalWidth, int _globalHeight,
+         int _localWidth, int _localHeight) {
+      final Range range = create2D(_device, _globalWidth, _globalHeight, _localWidth, _localHeight);
+      range.setOffset_0(_offsetX);
+      range.setOffset_1(_offsetY);
+      range.setValid(range.isValid() && (_offsetX >= 0) && (_offsetY >= 0));
+      return (range);
+   }
+
+   public static Range create2D(int _offsetX, int _offsetY, int _globalWidth, int _globalHeight, int _localWidth,
+         int _localHeight) {
+      return (create2D(null, _offsetX, _offsetY, _globalWidth, _globalHeight, _localWidth, _localHeight));
+   }
+
+   /** 
+    * Create a two dimensional range of _globalWidth x _globalHeight work items, padded up to a whole number of groups of
+    * _localWidth x _localHeight in each dimension.
+    * 
+    * @see #createPadded(Device, int, int)
+    * @return A new Range with the requested dimensions
+    */
+   public static Range createPadded2D(Device _device, int _globalWidth, int _globalHeight, int _localWidth, int _localHeight) {
+      final Range range = create2D(_device, paddedSize(_globalWidth, _localWidth), paddedSize(_globalHeight, _localHeight),
+            _localWidth, _localHeight);
+      range.setPadding_0(range.getGlobalSize_0() - _globalWidth);
+      range.setPadding_1(range.getGlobalSize_1() - _globalHeight);
+      range.setValid(range.isValid() && (_globalWidth > 0) && (_globalHeight > 0));
+      return (range);
+   }
+
+   public static Range createPadded2D(int _globalWidth, int _globalHeight, int _localWidth, int _localHeight) {
+      return (createPadded2D(null, _globalWidth, _globalHeight, _localWidth, _localHeight));
+   }
+
    /** 
     * Create a two dimensional range <code>0.._globalWidth * 0.._globalHeight *0../_globalDepth</code> 
     * in groups defined by  <code>localWidth</code> * <code>localHeight</code> * <code>localDepth</code>.
@@ -392,6 +506,52 @@ public class Range extends RangeJNI{
       return (range);
    }
 
+   /** 
+    * Create a three dimensional range of <code>_globalWidth * _globalHeight * _globalDepth</code> work items whose first
+    * global id is <code>(_offsetX, _offsetY, _offsetZ)</code>, in groups defined by <code>localWidth</code> *
+    * <code>localHeight</code> * <code>localDepth</code>.
+    * 
+    * @return A new Range with the requested dimensions
+    */
+   public static Range create3D(Device _device, int _offsetX, int _offsetY, int _offsetZ, int _globalWidth,
+         int _globalHeight, int _globalDepth, int _localWidth, int _localHeight, int _localDepth) {
+      final Range range = create3D(_device, _globalWidth, _globalHeight, _globalDepth, _localWidth, _localHeight, _localDepth);
+      range.setOffset_0(_offsetX);
+      range.setOffset_1(_offsetY);
+      range.setOffset_2(_offsetZ);
+      range.setValid(range.isValid() && (_offsetX >= 0) && (_offsetY >= 0) && (_offsetZ >= 0));
+      return (range);
+   }
+
+   public static Range create3D(int _offsetX, int _offsetY, int _offsetZ, int _globalWidth, int _globalHeight,
+         int _globalDepth, int _localWidth, int _localHeight, int _localDepth) {
+      return (create3D(null, _offsetX, _offsetY, _offsetZ, _globalWidth, _globalHeight, _globalDepth, _localWidth,
+            _localHeight, _localDepth));
+   }
+
+   /** 
+    * Create a three dimensional range of <code>_globalWidth * _globalHeight * _globalDepth</code> work items, padded up
+    * to a whole number of groups in each dimension.
+    * 
+    * @see #createPadded(Device, int, int)
+    * @return A new Range with the requested dimensions
+    */
+   public static Range createPadded3D(Device _device, int _globalWidth, int _globalHeight, int _globalDepth,
+         int _localWidth, int _localHeight, int _localDepth) {
+      final Range range = create3D(_device, paddedSize(_globalWidth, _localWidth), paddedSize(_globalHeight, _localHeight),
+            paddedSize(_globalDepth, _localDepth), _localWidth, _localHeight, _localDepth);
+      range.setPadding_0(range.getGlobalSize_0() - _globalWidth);
+      range.setPadding_1(range.getGlobalSize_1() - _globalHeight);
+      range.setPadding_2(range.getGlobalSize_2() - _globalDepth);
+      range.setValid(range.isValid() && (_globalWidth > 0) && (_globalHeight > 0) && (_globalDepth > 0));
+      return (range);
+   }
+
+   public static Range createPadded3D(int _globalWidth, int _globalHeight, int _globalDepth, int _localWidth,
+         int _localHeight, int _localDepth) {
+      return (createPadded3D(null, _globalWidth, _globalHeight, _globalDepth, _localWidth, _localHeight, _localDepth));
+   }
+
    /**
     * Override {@link #toString()}
     */
@@ -412,6 +572,14 @@ public class Range extends RangeJNI{
             break;
       }
 
+      if (isPadded()) {
+         sb.append(" padding:" + padding_0 + (dims > 1 ? "x" + padding_1 : "") + (dims > 2 ? "x" + padding_2 : ""));
+      }
+
+      if ((offset_0 != 0) || (offset_1 != 0) || (offset_2 != 0)) {
+         sb.append(" offset:" + offset_0 + (dims > 1 ? "x" + offset_1 : "") + (dims > 2 ? "x" + offset_2 : ""));
+      }
+
       return (sb.toString());
    }
 
@@ -435,6 +603,33 @@ public class Range extends RangeJNI{
       return (_dim == 0 ? globalSize_0 : (_dim == 1 ? globalSize_1 : globalSize_2));
    }
 
+   /**
+    * Get the first global id of the range in the requested dimension
+    * 
+    * @param _dim 0=width, 1=height, 2=depth
+    * @return The offset added to every global id in the requested dimension
+    */
+   public int getOffset(int _dim) {
+      return (_dim == 0 ? offset_0 : (_dim == 1 ? offset_1 : offset_2));
+   }
+
+   /**
+    * Get the number of padding work items at the end of the requested dimension
+    * 
+    * @param _dim 0=width, 1=height, 2=depth
+    * @return The number of work items in the requested dimension which are only there to fill the last group
+    */
+   public int getPadding(int _dim) {
+      return (_dim == 0 ? padding_0 : (_dim == 1 ? padding_1 : padding_2));
+   }
+
+   /**
+    * @return true if any dimension of this range is padded
+    */
+   public boolean isPadded() {
+      return ((padding_0 != 0) || (padding_1 != 0) || (padding_2 != 0));
+   }
+
    /**
     * Get the number of groups for the given dimension. 
     * 
@@ -549,6 +744,96 @@ public class Range extends RangeJNI{
       this.localSize_2 = localSize_2;
    }
 
+   /**
+    * @return the offset_0
+    */
+   public int getOffset_0() {
+      return offset_0;
+   }
+
+   /**
+    * @param offset_0
+    *          the offset_0 to set
+    */
+   public void setOffset_0(int offset_0) {
+      this.offset_0 = offset_0;
+   }
+
+   /**
+    * @return the offset_1
+    */
+   public int getOffset_1() {
+      return offset_1;
+   }
+
+   /**
+    * @param offset_1
+    *          the offset_1 to set
+    */
+   public void setOffset_1(int offset_1) {
+      this.offset_1 = offset_1;
+   }
+
+   /**
+    * @return the offset_2
+    */
+   public int getOffset_2() {
+      return offset_2;
+   }
+
+   /**
+    * @param offset_2
+    *          the offset_2 to set
+    */
+   public void setOffset_2(int offset_2) {
+      this.offset_2 = offset_2;
+   }
+
+   /**
+    * @return the padding_0
+    */
+   public int getPadding_0() {
+      return padding_0;
+   }
+
+   /**
+    * @param padding_0
+    *          the padding_0 to set
+    */
+   public void setPadding_0(int padding_0) {
+      this.padding_0 = padding_0;
+   }
+
+   /**
+    * @return the padding_1
+    */
+   public int getPadding_1() {
+      return padding_1;
+   }
+
+   /**
+    * @param padding_1
+    *          the padding_1 to set
+    */
+   public void setPadding_1(int padding_1) {
+      this.padding_1 = padding_1;
+   }
+
+   /**
+    * @return the padding_2
+    */
+   public int getPadding_2() {
+      return padding_2;
+   }
+
+   /**
+    * @param padding_2
+    *          the padding_2 to set
+    */
+   public void setPadding_2(int padding_2) {
+      this.padding_2 = padding_2;
+   }
+
    /**
     * Get the number of dims for this Range.  
     * 
@@ -0,0 +1,240 @@
+/*
+Copyright (c) 2010-2011, Advanced Micro Devices, Inc.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+disclaimer. 
+
+Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+disclaimer in the documentation and/or other materials provided with the distribution. 
+
+Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products
+derived from this software without specific prior written permission. 
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+If you use the software (in whole or in part), you shall adhere to all applicable U.S., European, and other export
+laws, including but not limited to the U.S. Export Administration Regulations ("EAR"), (15 C.F.R. Sections 730 through
+774), and E.U. Council Regulation (EC) No 1334/2000 of 22 June 2000.  Further, pursuant to Section 740.6 of the EAR,
+you hereby certify that, except pursuant to a license granted by the United States Department of Commerce Bureau of 
+Industry and Security or as otherwise permitted pursuant to a License Exception under the U.S. Export Administration 
+Regulations ("EAR"), you will not (1) export, re-export or release to a national of a country in Country Groups D:1,
+E:1 or E:2 any restricted technology, software, or source code you receive hereunder, or (2) export to Country Groups
+D:1, E:1 or E:2 the direct product of such technology or software, if such foreign produced direct product is subject
+to national security controls as identified on the Commerce Control List (currently found in Supplement 1 to Part 774
+of EAR).  For the most current Country Group listings, or for additional information about the EAR or your obligations
+under those regulations, please refer to the U.S. Bureau of Industry and Security's website at http://www.bis.doc.gov/. 
+
+*/
+package com.amd.aparapi;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Records host side phases and native <code>ProfileInfo</code> events in a bounded ring buffer and writes them as
+ * Chrome trace-event JSON, which can be loaded into <code>chrome://tracing</code> or Perfetto.
+ * <p>
+ * Attach a recorder with <code>KernelRunner.setTraceRecorder()</code>. Host events are placed on the thread that ran
+ * them, native events on a separate per kernel class track. Once the buffer is full the oldest events are overwritten,
+ * so a recorder can be left attached to a long running service and dumped on demand.
+ * <p>
+ * Native events are only available when running with <code>-Dcom.amd.aparapi.enableProfiling=true</code>. Their device
+ * timestamps use a different clock to <code>System.nanoTime()</code>, so they are aligned to the start of the JNI call
+ * that produced them.
+ *
+ * @see ProfileInfo
+ */
+public class TraceRecorder implements KernelStatsListener{
+
+   private static final long NATIVE_TID_BASE = 1L << 32;
+
+   private static final class Event{
+      final String name;
+
+      final String category;
+
+      final long tid;
+
+      final long startNanos;
+
+      final long durationNanos;
+
+      Event(String _name, String _category, long _tid, long _startNanos, long _durationNanos) {
+         name = _name;
+         category = _category;
+         tid = _tid;
+         startNanos = _startNanos;
+         durationNanos = _durationNanos;
+      }
+   }
+
+   private final AtomicReferenceArray<Event> events;
+
+   private final AtomicLong next = new AtomicLong();
+
+   private final ConcurrentMap<Long, String> threadNames = new ConcurrentHashMap<Long, String>();
+
+   private final long originNanos = System.nanoTime();
+
+   /**
+    * @param _capacity the maximum number of events held before the oldest are overwritten
+    */
+   public TraceRecorder(int _capacity) {
+      if (_capacity <= 0) {
+         throw new IllegalArgumentException("capacity must be > 0");
+      }
+      events = new AtomicReferenceArray<Event>(_capacity);
+   }
+
+   public int getCapacity() {
+      return (events.length());
+   }
+
+   /**
+    * @return the number of events recorded since creation or the last <code>clear()</code>, including overwritten ones
+    */
+   public long getRecordedCount() {
+      return (next.get());
+   }
+
+   /**
+    * Record a span on the calling thread.
+    * 
+    * @param _name
+    * @param _category
+    * @param _startNanos start of the span as returned by <code>System.nanoTime()</code>
+    * @param _durationNanos
+    */
+   public void record(String _name, String _category, long _startNanos, long _durationNanos) {
+      final Thread thread = Thread.currentThread();
+      final long tid = thread.getId();
+      if (!threadNames.containsKey(tid)) {
+         threadNames.putIfAbsent(tid, thread.getName());
+      }
+      add(new Event(_name, _category, tid, _startNanos, _durationNanos));
+   }
+
+   /**
+    * Record the native events of a launch, aligning the earliest queued time with <code>_jniStartNanos</code>.
+    * 
+    * @param _kernelClass the kernel class the events belong to, used to name the track
+    * @param _profileInfo as returned by <code>KernelRunner.getProfileInfo()</code>
+    * @param _jniStartNanos <code>System.nanoTime()</code> just before the JNI call
+    */
+   public void recordProfileInfo(Class<? extends Kernel> _kernelClass, List<ProfileInfo> _profileInfo, long _jniStartNanos) {
+      if ((_profileInfo == null) || _profileInfo.isEmpty()) {
+         return;
+      }
+
+      long base = Long.MAX_VALUE;
+      for (final ProfileInfo info : _profileInfo) {
+         base = Math.min(base, info.getQueued());
+      }
+
+      final long tid = NATIVE_TID_BASE + (_kernelClass.getName().hashCode() & 0xffffffffL);
+      if (!threadNames.containsKey(tid)) {
+         threadNames.putIfAbsent(tid, "OpenCL " + _kernelClass.getSimpleName());
+      }
+      for (final ProfileInfo info : _profileInfo) {
+         add(new Event(info.getType() + " " + info.getLabel(), "opencl", tid, _jniStartNanos + (info.getStart() - base),
+               info.getEnd() - info.getStart()));
+      }
+   }
+
+   private void add(Event _event) {
+      final long index = next.getAndIncrement();
+      events.set((int) (index % events.length()), _event);
+   }
+
+   public void clear() {
+      for (int i = 0; i < events.length(); i++) {
+         events.set(i, null);
+      }
+      next.set(0);
+   }
+
+   @Override public void phaseCompleted(KernelStats _stats, KernelStats.Phase _phase, long _nanos) {
+      record(_stats.getKernelClass().getSimpleName() + " " + _phase, "phase", System.nanoTime() - _nanos, _nanos);
+   }
+
+   @Override public void launchCompleted(KernelStats _stats, EXECUTION_MODE _mode, long _nanos) {
+      record(_stats.getKernelClass().getSimpleName() + " execute " + _mode, "launch", System.nanoTime() - _nanos, _nanos);
+   }
+
+   /**
+    * Write the buffered events, oldest first, as a trace-event JSON object.
+    * 
+    * @param _writer
+    * @throws IOException
+    */
+   public void writeTo(Writer _writer) throws IOException {
+      _writer.write("{\"traceEvents\":[");
+      boolean first = true;
+      for (final Map.Entry<Long, String> entry : threadNames.entrySet()) {
+         first = separate(_writer, first);
+         _writer.write("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":" + entry.getKey() + ",\"args\":{\"name\":");
+         quote(_writer, entry.getValue());
+         _writer.write("}}");
+      }
+
+      final long end = next.get();
+      final int capacity = events.length();
+      for (long index = Math.max(0, end - capacity); index < end; index++) {
+         final Event event = events.get((int) (index % capacity));
+         if (event != null) {
+            first = separate(_writer, first);
+            _writer.write("{\"name\":");
+            quote(_writer, event.name);
+            _writer.write(",\"cat\":");
+            quote(_writer, event.category);
+            _writer.write(",\"ph\":\"X\",\"pid\":1,\"tid\":" + event.tid + ",\"ts\":" + micros(Math.max(0, event.startNanos - originNanos))
+                  + ",\"dur\":" + micros(event.durationNanos) + "}");
+         }
+      }
+      _writer.write("]}");
+      _writer.flush();
+   }
+
+   private static boolean separate(Writer _writer, boolean _first) throws IOException {
+      if (!_first) {
+         _writer.write(",\n");
+      }
+      return (false);
+   }
+
+   private static String micros(long _nanos) {
+      return (String.format("%d.%03d", _nanos / 1000, Math.abs(_nanos % 1000)));
+   }
+
+   private static void quote(Writer _writer, String _string) throws IOException {
+      _writer.write('"');
+      for (int i = 0; i < _string.length(); i++) {
+         final char c = _string.charAt(i);
+         if ((c == '"') || (c == '\\')) {
+            _writer.write('\\');
+            _writer.write(c);
+         } else if (c < 0x20) {
+            _writer.write(String.format("\\u%04x", (int) c));
+         } else {
+            _writer.write(c);
+         }
+      }
+      _writer.write('"');
+   }
+}
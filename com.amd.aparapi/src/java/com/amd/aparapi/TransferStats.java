@@ -0,0 +1,132 @@
+/*
+Copyright (c) 2010-2011, Advanced Micro Devices, Inc.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+disclaimer. 
+
+Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+disclaimer in the documentation and/or other materials provided with the distribution. 
+
+Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products
+derived from this software without specific prior written permission. 
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+If you use the software (in whole or in part), you shall adhere to all applicable U.S., European, and other export
+laws, including but not limited to the U.S. Export Administration Regulations ("EAR"), (15 C.F.R. Sections 730 through
+774), and E.U. Council Regulation (EC) No 1334/2000 of 22 June 2000.  Further, pursuant to Section 740.6 of the EAR,
+you hereby certify that, except pursuant to a license granted by the United States Department of Commerce Bureau of 
+Industry and Security or as otherwise permitted pursuant to a License Exception under the U.S. Export Administration 
+Regulations ("EAR"), you will not (1) export, re-export or release to a national of a country in Country Groups D:1,
+E:1 or E:2 any restricted technology, software, or source code you receive hereunder, or (2) export to Country Groups
+D:1, E:1 or E:2 the direct product of such technology or software, if such foreign produced direct product is subject
+to national security controls as identified on the Commerce Control List (currently found in Supplement 1 to Part 774
+of EAR).  For the most current Country Group listings, or for additional information about the EAR or your obligations
+under those regulations, please refer to the U.S. Bureau of Industry and Security's website at http://www.bis.doc.gov/. 
+
+*/
+package com.amd.aparapi;
+
+/**
+ * Buffer traffic of one kernel argument as counted by the native layer, accumulated over all OpenCL launches of the
+ * kernel.
+ * <p>
+ * An argument whose <code>bytesRead</code> and <code>bytesWritten</code> both grow by its size every launch is being
+ * round-tripped between the host and the device; if the host does not need the intermediate results consider
+ * <code>Kernel.setExplicit(true)</code> with explicit <code>put()</code> and <code>get()</code>. Buffer allocations above
+ * one mean the device buffer was recreated, typically because the array reference held by the kernel field changed.
+ *
+ * @see KernelStats#getTransferStats()
+ */
+public class TransferStats{
+
+   private final String name;
+
+   private final long sizeInBytes;
+
+   private final long bytesWritten;
+
+   private final long bytesRead;
+
+   private final long bufferAllocations;
+
+   private final long pinCount;
+
+   private final long unpinCount;
+
+   public TransferStats(String _name, long _sizeInBytes, long _bytesWritten, long _bytesRead, long _bufferAllocations,
+         long _pinCount, long _unpinCount) {
+      name = _name;
+      sizeInBytes = _sizeInBytes;
+      bytesWritten = _bytesWritten;
+      bytesRead = _bytesRead;
+      bufferAllocations = _bufferAllocations;
+      pinCount = _pinCount;
+      unpinCount = _unpinCount;
+   }
+
+   /**
+    * @return the name of the kernel field this argument represents
+    */
+   public String getName() {
+      return (name);
+   }
+
+   /**
+    * @return the current size of the argument's buffer (bytes)
+    */
+   public long getSizeInBytes() {
+      return (sizeInBytes);
+   }
+
+   /**
+    * @return bytes enqueued for writing to the device
+    */
+   public long getBytesWritten() {
+      return (bytesWritten);
+   }
+
+   /**
+    * @return bytes enqueued for reading back from the device, including explicit <code>get()</code> calls
+    */
+   public long getBytesRead() {
+      return (bytesRead);
+   }
+
+   /**
+    * @return how many device buffers have been created for this argument
+    */
+   public long getBufferAllocations() {
+      return (bufferAllocations);
+   }
+
+   /**
+    * @return how many times the device buffer was recreated after the first allocation
+    */
+   public long getBufferReallocations() {
+      return (Math.max(0, bufferAllocations - 1));
+   }
+
+   public long getPinCount() {
+      return (pinCount);
+   }
+
+   public long getUnpinCount() {
+      return (unpinCount);
+   }
+
+   @Override public String toString() {
+      return ("TransferStats[" + name + " size=" + sizeInBytes + ", written=" + bytesWritten + ", read=" + bytesRead
+            + ", allocations=" + bufferAllocations + ", pins=" + pinCount + "/" + unpinCount + "]");
+   }
+}
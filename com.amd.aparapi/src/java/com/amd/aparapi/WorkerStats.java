@@ -0,0 +1,112 @@
+/*
+Copyright (c) 2010-2011, Advanced Micro Devices, Inc.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+disclaimer. 
+
+Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+disclaimer in the documentation and/or other materials provided with the distribution. 
+
+Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products
+derived from this software without specific prior written permission. 
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+If you use the software (in whole or in part), you shall adhere to all applicable U.S., European, and other export
+laws, including but not limited to the U.S. Export Administration Regulations ("EAR"), (15 C.F.R. Sections 730 through
+774), and E.U. Council Regulation (EC) No 1334/2000 of 22 June 2000.  Further, pursuant to Section 740.6 of the EAR,
+you hereby certify that, except pursuant to a license granted by the United States Department of Commerce Bureau of 
+Industry and Security or as otherwise permitted pursuant to a License Exception under the U.S. Export Administration 
+Regulations ("EAR"), you will not (1) export, re-export or release to a national of a country in Country Groups D:1,
+E:1 or E:2 any restricted technology, software, or source code you receive hereunder, or (2) export to Country Groups
+D:1, E:1 or E:2 the direct product of such technology or software, if such foreign produced direct product is subject
+to national security controls as identified on the Commerce Control List (currently found in Supplement 1 to Part 774
+of EAR).  For the most current Country Group listings, or for additional information about the EAR or your obligations
+under those regulations, please refer to the U.S. Bureau of Industry and Security's website at http://www.bis.doc.gov/. 
+
+*/
+package com.amd.aparapi;
+
+/**
+ * What one Java Thread Pool worker did during a JTP launch, collected when running with
+ * <code>-Dcom.amd.aparapi.enableJTPWorkerStats=true</code>.
+ * <p>
+ * JTP creates one worker per local id, each executing its local id in every group for every pass. Comparing the busy
+ * time of the workers shows whether work items have uneven cost, while a large barrier wait shows workers stalled in
+ * <code>localBarrier()</code> waiting for slower members of their group.
+ *
+ * @see KernelStats#getLastWorkerStats()
+ */
+public class WorkerStats{
+
+   private final int worker;
+
+   private final long itemsProcessed;
+
+   private final long busyNanos;
+
+   private final long barrierWaitNanos;
+
+   public WorkerStats(int _worker, long _itemsProcessed, long _busyNanos, long _barrierWaitNanos) {
+      worker = _worker;
+      itemsProcessed = _itemsProcessed;
+      busyNanos = _busyNanos;
+      barrierWaitNanos = _barrierWaitNanos;
+   }
+
+   /**
+    * @return the index of the worker, which is also the local id (flattened across dimensions) it executes
+    */
+   public int getWorker() {
+      return (worker);
+   }
+
+   /**
+    * @return the work items this worker ran, not counting the padding work items of a padded range
+    */
+   public long getItemsProcessed() {
+      return (itemsProcessed);
+   }
+
+   /**
+    * @return time spent executing work items, excluding barrier waits (ns)
+    */
+   public long getBusyNanos() {
+      return (busyNanos);
+   }
+
+   /**
+    * @return time spent waiting in <code>localBarrier()</code> (ns)
+    */
+   public long getBarrierWaitNanos() {
+      return (barrierWaitNanos);
+   }
+
+   /**
+    * @return the busy time of the busiest worker divided by the mean busy time, 1.0 is perfectly balanced
+    */
+   public static double imbalance(WorkerStats[] _workers) {
+      long max = 0;
+      long total = 0;
+      for (final WorkerStats worker : _workers) {
+         max = Math.max(max, worker.busyNanos);
+         total += worker.busyNanos;
+      }
+      return (total == 0 ? 1.0 : ((double) max * _workers.length) / total);
+   }
+
+   @Override public String toString() {
+      return ("WorkerStats[" + worker + " items=" + itemsProcessed + ", busy=" + busyNanos + "ns, barrierWait="
+            + barrierWaitNanos + "ns]");
+   }
+}
@@ -1,5 +1,78 @@
 package com.amd.aparapi.device;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.amd.aparapi.Range;
+
+/**
+ * Executes kernels in Java, using the thread pool (JTP) engine of <code>KernelRunner</code>.
+ * <p>
+ * JTP runs one thread per work item of a group, so a device of <code>n</code> threads only accepts groups of up to
+ * <code>n</code> work items and a launch on it never uses more than <code>n</code> threads. Each device has its own worker
+ * threads, named after it, so devices with different budgets can share a range without competing for workers.
+ *
+ * @see com.amd.aparapi.internal.kernel.KernelRunner#executePartitioned(com.amd.aparapi.Kernel, Range, int, Device...)
+ */
 public class JavaDevice extends Device{
 
+   private final String name;
+
+   private final int threads;
+
+   private ExecutorService threadPool = null;
+
+   public JavaDevice() {
+      this("jtp", Range.MAX_GROUP_SIZE);
+   }
+
+   /**
+    * @param _threads the most threads a launch on this device uses, at most <code>Range.MAX_GROUP_SIZE</code>
+    */
+   public JavaDevice(String _name, int _threads) {
+      if ((_threads < 1) || (_threads > Range.MAX_GROUP_SIZE)) {
+         throw new IllegalArgumentException("threads must be in 1.." + Range.MAX_GROUP_SIZE + ", was " + _threads);
+      }
+      name = _name;
+      threads = _threads;
+      type = TYPE.JTP;
+      maxWorkGroupSize = _threads;
+      maxWorkItemDimensions = 3;
+      maxWorkItemSize = new int[] {
+            _threads,
+            _threads,
+            _threads
+      };
+   }
+
+   public String getName() {
+      return (name);
+   }
+
+   public int getThreads() {
+      return (threads);
+   }
+
+   /**
+    * The workers of this device, created on first use. Threads are daemons and exit once idle.
+    */
+   public synchronized ExecutorService getThreadPool() {
+      if (threadPool == null) {
+         final AtomicInteger created = new AtomicInteger();
+         threadPool = Executors.newCachedThreadPool(new ThreadFactory(){
+            @Override public Thread newThread(Runnable _runnable) {
+               final Thread thread = new Thread(_runnable, "aparapi-" + name + "-" + created.getAndIncrement());
+               thread.setDaemon(true);
+               return (thread);
+            }
+         });
+      }
+      return (threadPool);
+   }
+
+   @Override public String toString() {
+      return ("JavaDevice " + name + " threads=" + threads);
+   }
 }
@@ -37,9 +37,6 @@ under those regulations, please refer to the U.S. Bureau of Industry and Securit
 */
 package com.amd.aparapi.internal.instruction;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
-
 import com.amd.aparapi.internal.model.MethodModel;
 import com.amd.aparapi.internal.model.ClassModel.ConstantPool;
 import com.amd.aparapi.internal.model.ClassModel.ConstantPool.Entry;
@@ -615,6 +612,8 @@ public class InstructionSet{
       COMPOSITE_EMPTY_LOOP, //
       COMPOSITE_DO_WHILE;
 
+      private static final ByteCode[] byteCodes = values();
+
       private final Class<?> clazz;
 
       private final ImmediateSpec immediate;
@@ -706,7 +705,7 @@ public class InstructionSet{
       }
 
       public static ByteCode get(int _idx) {
-         return (values()[_idx]);
+         return (byteCodes[_idx]);
       }
 
       public PushSpec getPush() {
@@ -729,38 +728,431 @@ public class InstructionSet{
          return false;
       }
 
-      public Instruction newInstruction(MethodModel _methodModel, ByteReader byteReader, boolean _isWide) {
-         Instruction newInstruction = null;
-         if (clazz != null) {
-
-            try {
-               final Constructor<?> constructor = clazz.getDeclaredConstructor(MethodModel.class, ByteReader.class, boolean.class);
-               newInstruction = (Instruction) constructor.newInstance(_methodModel, byteReader, _isWide);
-               newInstruction.setLength(byteReader.getOffset() - newInstruction.getThisPC());
-            } catch (final SecurityException e) {
-               // TODO Auto-generated catch block
-               e.printStackTrace();
-            } catch (final NoSuchMethodException e) {
-               // TODO Auto-generated catch block
-               e.printStackTrace();
-            } catch (final IllegalArgumentException e) {
-               // TODO Auto-generated catch block
-               e.printStackTrace();
-            } catch (final InstantiationException e) {
-               // TODO Auto-generated catch block
-               e.printStackTrace();
-            } catch (final IllegalAccessException e) {
-               // TODO Auto-generated catch block
-               e.printStackTrace();
-            } catch (final InvocationTargetException e) {
-               // TODO Auto-generated catch block
-               e.printStackTrace();
-            }
+      public Instruction newInstruction(MethodModel _methodModel, ByteReader _byteReader, boolean _isWide) {
+         final Instruction newInstruction = instantiate(_methodModel, _byteReader, _isWide);
+         assert (newInstruction == null ? clazz == null : newInstruction.getClass() == clazz) : "factory mismatch for " + this;
+         if (newInstruction != null) {
+            newInstruction.setLength(_byteReader.getOffset() - newInstruction.getThisPC());
          }
-
          return (newInstruction);
       }
 
+      /**
+       * Construct the instruction for this bytecode. 
+       * 
+       * This is called for every bytecode of every method we translate so we avoid reflection here, the switch on the 
+       * constant compiles to a jump table.  Each case names the constant whose I_ class it builds, so reordering the 
+       * constants cannot select the wrong instruction. 
+       */
+      private Instruction instantiate(MethodModel _methodModel, ByteReader _byteReader, boolean _isWide) {
+         switch (this) {
+            case ACONST_NULL:
+               return (new I_ACONST_NULL(_methodModel, _byteReader, _isWide));
+            case ICONST_M1:
+               return (new I_ICONST_M1(_methodModel, _byteReader, _isWide));
+            case ICONST_0:
+               return (new I_ICONST_0(_methodModel, _byteReader, _isWide));
+            case ICONST_1:
+               return (new I_ICONST_1(_methodModel, _byteReader, _isWide));
+            case ICONST_2:
+               return (new I_ICONST_2(_methodModel, _byteReader, _isWide));
+            case ICONST_3:
+               return (new I_ICONST_3(_methodModel, _byteReader, _isWide));
+            case ICONST_4:
+               return (new I_ICONST_4(_methodModel, _byteReader, _isWide));
+            case ICONST_5:
+               return (new I_ICONST_5(_methodModel, _byteReader, _isWide));
+            case LCONST_0:
+               return (new I_LCONST_0(_methodModel, _byteReader, _isWide));
+            case LCONST_1:
+               return (new I_LCONST_1(_methodModel, _byteReader, _isWide));
+            case FCONST_0:
+               return (new I_FCONST_0(_methodModel, _byteReader, _isWide));
+            case FCONST_1:
+               return (new I_FCONST_1(_methodModel, _byteReader, _isWide));
+            case FCONST_2:
+               return (new I_FCONST_2(_methodModel, _byteReader, _isWide));
+            case DCONST_0:
+               return (new I_DCONST_0(_methodModel, _byteReader, _isWide));
+            case DCONST_1:
+               return (new I_DCONST_1(_methodModel, _byteReader, _isWide));
+            case BIPUSH:
+               return (new I_BIPUSH(_methodModel, _byteReader, _isWide));
+            case SIPUSH:
+               return (new I_SIPUSH(_methodModel, _byteReader, _isWide));
+            case LDC:
+               return (new I_LDC(_methodModel, _byteReader, _isWide));
+            case LDC_W:
+               return (new I_LDC_W(_methodModel, _byteReader, _isWide));
+            case LDC2_W:
+               return (new I_LDC2_W(_methodModel, _byteReader, _isWide));
+            case ILOAD:
+               return (new I_ILOAD(_methodModel, _byteReader, _isWide));
+            case LLOAD:
+               return (new I_LLOAD(_methodModel, _byteReader, _isWide));
+            case FLOAD:
+               return (new I_FLOAD(_methodModel, _byteReader, _isWide));
+            case DLOAD:
+               return (new I_DLOAD(_methodModel, _byteReader, _isWide));
+            case ALOAD:
+               return (new I_ALOAD(_methodModel, _byteReader, _isWide));
+            case ILOAD_0:
+               return (new I_ILOAD_0(_methodModel, _byteReader, _isWide));
+            case ILOAD_1:
+               return (new I_ILOAD_1(_methodModel, _byteReader, _isWide));
+            case ILOAD_2:
+               return (new I_ILOAD_2(_methodModel, _byteReader, _isWide));
+            case ILOAD_3:
+               return (new I_ILOAD_3(_methodModel, _byteReader, _isWide));
+            case LLOAD_0:
+               return (new I_LLOAD_0(_methodModel, _byteReader, _isWide));
+            case LLOAD_1:
+               return (new I_LLOAD_1(_methodModel, _byteReader, _isWide));
+            case LLOAD_2:
+               return (new I_LLOAD_2(_methodModel, _byteReader, _isWide));
+            case LLOAD_3:
+               return (new I_LLOAD_3(_methodModel, _byteReader, _isWide));
+            case FLOAD_0:
+               return (new I_FLOAD_0(_methodModel, _byteReader, _isWide));
+            case FLOAD_1:
+               return (new I_FLOAD_1(_methodModel, _byteReader, _isWide));
+            case FLOAD_2:
+               return (new I_FLOAD_2(_methodModel, _byteReader, _isWide));
+            case FLOAD_3:
+               return (new I_FLOAD_3(_methodModel, _byteReader, _isWide));
+            case DLOAD_0:
+               return (new I_DLOAD_0(_methodModel, _byteReader, _isWide));
+            case DLOAD_1:
+               return (new I_DLOAD_1(_methodModel, _byteReader, _isWide));
+            case DLOAD_2:
+               return (new I_DLOAD_2(_methodModel, _byteReader, _isWide));
+            case DLOAD_3:
+               return (new I_DLOAD_3(_methodModel, _byteReader, _isWide));
+            case ALOAD_0:
+               return (new I_ALOAD_0(_methodModel, _byteReader, _isWide));
+            case ALOAD_1:
+               return (new I_ALOAD_1(_methodModel, _byteReader, _isWide));
+            case ALOAD_2:
+               return (new I_ALOAD_2(_methodModel, _byteReader, _isWide));
+            case ALOAD_3:
+               return (new I_ALOAD_3(_methodModel, _byteReader, _isWide));
+            case IALOAD:
+               return (new I_IALOAD(_methodModel, _byteReader, _isWide));
+            case LALOAD:
+               return (new I_LALOAD(_methodModel, _byteReader, _isWide));
+            case FALOAD:
+               return (new I_FALOAD(_methodModel, _byteReader, _isWide));
+            case DALOAD:
+               return (new I_DALOAD(_methodModel, _byteReader, _isWide));
+            case AALOAD:
+               return (new I_AALOAD(_methodModel, _byteReader, _isWide));
+            case BALOAD:
+               return (new I_BALOAD(_methodModel, _byteReader, _isWide));
+            case CALOAD:
+               return (new I_CALOAD(_methodModel, _byteReader, _isWide));
+            case SALOAD:
+               return (new I_SALOAD(_methodModel, _byteReader, _isWide));
+            case ISTORE:
+               return (new I_ISTORE(_methodModel, _byteReader, _isWide));
+            case LSTORE:
+               return (new I_LSTORE(_methodModel, _byteReader, _isWide));
+            case FSTORE:
+               return (new I_FSTORE(_methodModel, _byteReader, _isWide));
+            case DSTORE:
+               return (new I_DSTORE(_methodModel, _byteReader, _isWide));
+            case ASTORE:
+               return (new I_ASTORE(_methodModel, _byteReader, _isWide));
+            case ISTORE_0:
+               return (new I_ISTORE_0(_methodModel, _byteReader, _isWide));
+            case ISTORE_1:
+               return (new I_ISTORE_1(_methodModel, _byteReader, _isWide));
+            case ISTORE_2:
+               return (new I_ISTORE_2(_methodModel, _byteReader, _isWide));
+            case ISTORE_3:
+               return (new I_ISTORE_3(_methodModel, _byteReader, _isWide));
+            case LSTORE_0:
+               return (new I_LSTORE_0(_methodModel, _byteReader, _isWide));
+            case LSTORE_1:
+               return (new I_LSTORE_1(_methodModel, _byteReader, _isWide));
+            case LSTORE_2:
+               return (new I_LSTORE_2(_methodModel, _byteReader, _isWide));
+            case LSTORE_3:
+               return (new I_LSTORE_3(_methodModel, _byteReader, _isWide));
+            case FSTORE_0:
+               return (new I_FSTORE_0(_methodModel, _byteReader, _isWide));
+            case FSTORE_1:
+               return (new I_FSTORE_1(_methodModel, _byteReader, _isWide));
+            case FSTORE_2:
+               return (new I_FSTORE_2(_methodModel, _byteReader, _isWide));
+            case FSTORE_3:
+               return (new I_FSTORE_3(_methodModel, _byteReader, _isWide));
+            case DSTORE_0:
+               return (new I_DSTORE_0(_methodModel, _byteReader, _isWide));
+            case DSTORE_1:
+               return (new I_DSTORE_1(_methodModel, _byteReader, _isWide));
+            case DSTORE_2:
+               return (new I_DSTORE_2(_methodModel, _byteReader, _isWide));
+            case DSTORE_3:
+               return (new I_DSTORE_3(_methodModel, _byteReader, _isWide));
+            case ASTORE_0:
+               return (new I_ASTORE_0(_methodModel, _byteReader, _isWide));
+            case ASTORE_1:
+               return (new I_ASTORE_1(_methodModel, _byteReader, _isWide));
+            case ASTORE_2:
+               return (new I_ASTORE_2(_methodModel, _byteReader, _isWide));
+            case ASTORE_3:
+               return (new I_ASTORE_3(_methodModel, _byteReader, _isWide));
+            case IASTORE:
+               return (new I_IASTORE(_methodModel, _byteReader, _isWide));
+            case LASTORE:
+               return (new I_LASTORE(_methodModel, _byteReader, _isWide));
+            case FASTORE:
+               return (new I_FASTORE(_methodModel, _byteReader, _isWide));
+            case DASTORE:
+               return (new I_DASTORE(_methodModel, _byteReader, _isWide));
+            case AASTORE:
+               return (new I_AASTORE(_methodModel, _byteReader, _isWide));
+            case BASTORE:
+               return (new I_BASTORE(_methodModel, _byteReader, _isWide));
+            case CASTORE:
+               return (new I_CASTORE(_methodModel, _byteReader, _isWide));
+            case SASTORE:
+               return (new I_SASTORE(_methodModel, _byteReader, _isWide));
+            case POP:
+               return (new I_POP(_methodModel, _byteReader, _isWide));
+            case POP2:
+               return (new I_POP2(_methodModel, _byteReader, _isWide));
+            case DUP:
+               return (new I_DUP(_methodModel, _byteReader, _isWide));
+            case DUP_X1:
+               return (new I_DUP_X1(_methodModel, _byteReader, _isWide));
+            case DUP_X2:
+               return (new I_DUP_X2(_methodModel, _byteReader, _isWide));
+            case DUP2:
+               return (new I_DUP2(_methodModel, _byteReader, _isWide));
+            case DUP2_X1:
+               return (new I_DUP2_X1(_methodModel, _byteReader, _isWide));
+            case DUP2_X2:
+               return (new I_DUP2_X2(_methodModel, _byteReader, _isWide));
+            case SWAP:
+               return (new I_SWAP(_methodModel, _byteReader, _isWide));
+            case IADD:
+               return (new I_IADD(_methodModel, _byteReader, _isWide));
+            case LADD:
+               return (new I_LADD(_methodModel, _byteReader, _isWide));
+            case FADD:
+               return (new I_FADD(_methodModel, _byteReader, _isWide));
+            case DADD:
+               return (new I_DADD(_methodModel, _byteReader, _isWide));
+            case ISUB:
+               return (new I_ISUB(_methodModel, _byteReader, _isWide));
+            case LSUB:
+               return (new I_LSUB(_methodModel, _byteReader, _isWide));
+            case FSUB:
+               return (new I_FSUB(_methodModel, _byteReader, _isWide));
+            case DSUB:
+               return (new I_DSUB(_methodModel, _byteReader, _isWide));
+            case IMUL:
+               return (new I_IMUL(_methodModel, _byteReader, _isWide));
+            case LMUL:
+               return (new I_LMUL(_methodModel, _byteReader, _isWide));
+            case FMUL:
+               return (new I_FMUL(_methodModel, _byteReader, _isWide));
+            case DMUL:
+               return (new I_DMUL(_methodModel, _byteReader, _isWide));
+            case IDIV:
+               return (new I_IDIV(_methodModel, _byteReader, _isWide));
+            case LDIV:
+               return (new I_LDIV(_methodModel, _byteReader, _isWide));
+            case FDIV:
+               return (new I_FDIV(_methodModel, _byteReader, _isWide));
+            case DDIV:
+               return (new I_DDIV(_methodModel, _byteReader, _isWide));
+            case IREM:
+               return (new I_IREM(_methodModel, _byteReader, _isWide));
+            case LREM:
+               return (new I_LREM(_methodModel, _byteReader, _isWide));
+            case FREM:
+               return (new I_FREM(_methodModel, _byteReader, _isWide));
+            case DREM:
+               return (new I_DREM(_methodModel, _byteReader, _isWide));
+            case INEG:
+               return (new I_INEG(_methodModel, _byteReader, _isWide));
+            case LNEG:
+               return (new I_LNEG(_methodModel, _byteReader, _isWide));
+            case FNEG:
+               return (new I_FNEG(_methodModel, _byteReader, _isWide));
+            case DNEG:
+               return (new I_DNEG(_methodModel, _byteReader, _isWide));
+            case ISHL:
+               return (new I_ISHL(_methodModel, _byteReader, _isWide));
+            case LSHL:
+               return (new I_LSHL(_methodModel, _byteReader, _isWide));
+            case ISHR:
+               return (new I_ISHR(_methodModel, _byteReader, _isWide));
+            case LSHR:
+               return (new I_LSHR(_methodModel, _byteReader, _isWide));
+            case IUSHR:
+               return (new I_IUSHR(_methodModel, _byteReader, _isWide));
+            case LUSHR:
+               return (new I_LUSHR(_methodModel, _byteReader, _isWide));
+            case IAND:
+               return (new I_IAND(_methodModel, _byteReader, _isWide));
+            case LAND:
+               return (new I_LAND(_methodModel, _byteReader, _isWide));
+            case IOR:
+               return (new I_IOR(_methodModel, _byteReader, _isWide));
+            case LOR:
+               return (new I_LOR(_methodModel, _byteReader, _isWide));
+            case IXOR:
+               return (new I_IXOR(_methodModel, _byteReader, _isWide));
+            case LXOR:
+               return (new I_LXOR(_methodModel, _byteReader, _isWide));
+            case IINC:
+               return (new I_IINC(_methodModel, _byteReader, _isWide));
+            case I2L:
+               return (new I_I2L(_methodModel, _byteReader, _isWide));
+            case I2F:
+               return (new I_I2F(_methodModel, _byteReader, _isWide));
+            case I2D:
+               return (new I_I2D(_methodModel, _byteReader, _isWide));
+            case L2I:
+               return (new I_L2I(_methodModel, _byteReader, _isWide));
+            case L2F:
+               return (new I_L2F(_methodModel, _byteReader, _isWide));
+            case L2D:
+               return (new I_L2D(_methodModel, _byteReader, _isWide));
+            case F2I:
+               return (new I_F2I(_methodModel, _byteReader, _isWide));
+            case F2L:
+               return (new I_F2L(_methodModel, _byteReader, _isWide));
+            case F2D:
+               return (new I_F2D(_methodModel, _byteReader, _isWide));
+            case D2I:
+               return (new I_D2I(_methodModel, _byteReader, _isWide));
+            case D2L:
+               return (new I_D2L(_methodModel, _byteReader, _isWide));
+            case D2F:
+               return (new I_D2F(_methodModel, _byteReader, _isWide));
+            case I2B:
+               return (new I_I2B(_methodModel, _byteReader, _isWide));
+            case I2C:
+               return (new I_I2C(_methodModel, _byteReader, _isWide));
+            case I2S:
+               return (new I_I2S(_methodModel, _byteReader, _isWide));
+            case LCMP:
+               return (new I_LCMP(_methodModel, _byteReader, _isWide));
+            case FCMPL:
+               return (new I_FCMPL(_methodModel, _byteReader, _isWide));
+            case FCMPG:
+               return (new I_FCMPG(_methodModel, _byteReader, _isWide));
+            case DCMPL:
+               return (new I_DCMPL(_methodModel, _byteReader, _isWide));
+            case DCMPG:
+               return (new I_DCMPG(_methodModel, _byteReader, _isWide));
+            case IFEQ:
+               return (new I_IFEQ(_methodModel, _byteReader, _isWide));
+            case IFNE:
+               return (new I_IFNE(_methodModel, _byteReader, _isWide));
+            case IFLT:
+               return (new I_IFLT(_methodModel, _byteReader, _isWide));
+            case IFGE:
+               return (new I_IFGE(_methodModel, _byteReader, _isWide));
+            case IFGT:
+               return (new I_IFGT(_methodModel, _byteReader, _isWide));
+            case IFLE:
+               return (new I_IFLE(_methodModel, _byteReader, _isWide));
+            case IF_ICMPEQ:
+               return (new I_IF_ICMPEQ(_methodModel, _byteReader, _isWide));
+            case IF_ICMPNE:
+               return (new I_IF_ICMPNE(_methodModel, _byteReader, _isWide));
+            case IF_ICMPLT:
+               return (new I_IF_ICMPLT(_methodModel, _byteReader, _isWide));
+            case IF_ICMPGE:
+               return (new I_IF_ICMPGE(_methodModel, _byteReader, _isWide));
+            case IF_ICMPGT:
+               return (new I_IF_ICMPGT(_methodModel, _byteReader, _isWide));
+            case IF_ICMPLE:
+               return (new I_IF_ICMPLE(_methodModel, _byteReader, _isWide));
+            case IF_ACMPEQ:
+               return (new I_IF_ACMPEQ(_methodModel, _byteReader, _isWide));
+            case IF_ACMPNE:
+               return (new I_IF_ACMPNE(_methodModel, _byteReader, _isWide));
+            case GOTO:
+               return (new I_GOTO(_methodModel, _byteReader, _isWide));
+            case JSR:
+               return (new I_JSR(_methodModel, _byteReader, _isWide));
+            case RET:
+               return (new I_RET(_methodModel, _byteReader, _isWide));
+            case TABLESWITCH:
+               return (new I_TABLESWITCH(_methodModel, _byteReader, _isWide));
+            case LOOKUPSWITCH:
+               return (new I_LOOKUPSWITCH(_methodModel, _byteReader, _isWide));
+            case IRETURN:
+               return (new I_IRETURN(_methodModel, _byteReader, _isWide));
+            case LRETURN:
+               return (new I_LRETURN(_methodModel, _byteReader, _isWide));
+            case FRETURN:
+               return (new I_FRETURN(_methodModel, _byteReader, _isWide));
+            case DRETURN:
+               return (new I_DRETURN(_methodModel, _byteReader, _isWide));
+            case ARETURN:
+               return (new I_ARETURN(_methodModel, _byteReader, _isWide));
+            case RETURN:
+               return (new I_RETURN(_methodModel, _byteReader, _isWide));
+            case GETSTATIC:
+               return (new I_GETSTATIC(_methodModel, _byteReader, _isWide));
+            case PUTSTATIC:
+               return (new I_PUTSTATIC(_methodModel, _byteReader, _isWide));
+            case GETFIELD:
+               return (new I_GETFIELD(_methodModel, _byteReader, _isWide));
+            case PUTFIELD:
+               return (new I_PUTFIELD(_methodModel, _byteReader, _isWide));
+            case INVOKEVIRTUAL:
+               return (new I_INVOKEVIRTUAL(_methodModel, _byteReader, _isWide));
+            case INVOKESPECIAL:
+               return (new I_INVOKESPECIAL(_methodModel, _byteReader, _isWide));
+            case INVOKESTATIC:
+               return (new I_INVOKESTATIC(_methodModel, _byteReader, _isWide));
+            case INVOKEINTERFACE:
+               return (new I_INVOKEINTERFACE(_methodModel, _byteReader, _isWide));
+            case INVOKEDYNAMIC:
+               return (new I_INVOKEDYNAMIC(_methodModel, _byteReader, _isWide));
+            case NEW:
+               return (new I_NEW(_methodModel, _byteReader, _isWide));
+            case NEWARRAY:
+               return (new I_NEWARRAY(_methodModel, _byteReader, _isWide));
+            case ANEWARRAY:
+               return (new I_ANEWARRAY(_methodModel, _byteReader, _isWide));
+            case ARRAYLENGTH:
+               return (new I_ARRAYLENGTH(_methodModel, _byteReader, _isWide));
+            case ATHROW:
+               return (new I_ATHROW(_methodModel, _byteReader, _isWide));
+            case CHECKCAST:
+               return (new I_CHECKCAST(_methodModel, _byteReader, _isWide));
+            case INSTANCEOF:
+               return (new I_INSTANCEOF(_methodModel, _byteReader, _isWide));
+            case MONITORENTER:
+               return (new I_MONITORENTER(_methodModel, _byteReader, _isWide));
+            case MONITOREXIT:
+               return (new I_MONITOREXIT(_methodModel, _byteReader, _isWide));
+            case WIDE:
+               return (new I_WIDE(_methodModel, _byteReader, _isWide));
+            case MULTIANEWARRAY:
+               return (new I_MULTIANEWARRAY(_methodModel, _byteReader, _isWide));
+            case IFNULL:
+               return (new I_IFNULL(_methodModel, _byteReader, _isWide));
+            case IFNONNULL:
+               return (new I_IFNONNULL(_methodModel, _byteReader, _isWide));
+            case GOTO_W:
+               return (new I_GOTO_W(_methodModel, _byteReader, _isWide));
+            case JSR_W:
+               return (new I_JSR_W(_methodModel, _byteReader, _isWide));
+            default:
+               return (null);
+         }
+      }
+
       public static Instruction create(MethodModel _methodModel, ByteReader _byteReader) {
          ByteCode byteCode = get(_byteReader.u1());
          boolean isWide = false;
@@ -92,4 +92,29 @@ public abstract class KernelArgJNI{
     * Field in Kernel class corresponding to this arg
     */
    @UsedByJNICode protected Field field;
+
+   /**
+    * Bytes enqueued by JNI for writing this arg's buffer to the device, accumulated over all launches
+    */
+   @UsedByJNICode protected long bytesWritten;
+
+   /**
+    * Bytes enqueued by JNI for reading this arg's buffer back from the device, accumulated over all launches
+    */
+   @UsedByJNICode protected long bytesRead;
+
+   /**
+    * Number of times JNI created a device buffer for this arg, anything above one is a reallocation
+    */
+   @UsedByJNICode protected long bufferAllocations;
+
+   /**
+    * Number of times JNI pinned the Java array backing this arg
+    */
+   @UsedByJNICode protected long pinCount;
+
+   /**
+    * Number of times JNI released the pinned Java array backing this arg
+    */
+   @UsedByJNICode protected long unpinCount;
 }
@@ -329,6 +329,21 @@ public abstract class KernelRunnerJNI {
     */
    protected native int runKernelJNI(long _kernelRunnerHandle, long _kernelHandle, Range _range, boolean _needSync, int _passes);
 
+   /**
+    * Run several instances of one kernel class, one after the other, in a single call. The argument layout set by
+    * {@link #setArgsJNI} is shared, the native side binds the primitive values and array references of each instance
+    * before it runs, syncing buffers only for arrays whose reference differs from the previous instance.
+    *
+    * @param _kernelRunnerHandle relates to the runner context on JNI side
+    * @param _kernelHandle relates to the kernel context on JNI side
+    * @param _kernels the instances to run, all of the class the kernel context was created for
+    * @param _ranges the range for each instance (devices are ignored!)
+    * @param _passes times to run each instance
+    * @return the number of instances which ran, less than <code>_kernels.length</code> if one failed
+    */
+   protected native int runKernelBatchJNI(long _kernelRunnerHandle, long _kernelHandle, Kernel[] _kernels, Range[] _ranges,
+         int _passes);
+
    /**
     * Dispose a KernelRunner specified by the given handle.
     *
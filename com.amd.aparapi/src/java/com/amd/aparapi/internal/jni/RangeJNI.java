@@ -19,6 +19,18 @@ public abstract class RangeJNI{
 
    @UsedByJNICode protected int localSize_2 = 1;
 
+   @UsedByJNICode protected int offset_0 = 0;
+
+   @UsedByJNICode protected int offset_1 = 0;
+
+   @UsedByJNICode protected int offset_2 = 0;
+
+   @UsedByJNICode protected int padding_0 = 0;
+
+   @UsedByJNICode protected int padding_1 = 0;
+
+   @UsedByJNICode protected int padding_2 = 0;
+
    @UsedByJNICode protected int dims;
 
    @UsedByJNICode protected boolean valid = true;
@@ -0,0 +1,344 @@
+/*
+Copyright (c) 2010-2011, Advanced Micro Devices, Inc.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+disclaimer. 
+
+Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+disclaimer in the documentation and/or other materials provided with the distribution. 
+
+Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products
+derived from this software without specific prior written permission. 
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+If you use the software (in whole or in part), you shall adhere to all applicable U.S., European, and other export
+laws, including but not limited to the U.S. Export Administration Regulations ("EAR"), (15 C.F.R. Sections 730 through
+774), and E.U. Council Regulation (EC) No 1334/2000 of 22 June 2000.  Further, pursuant to Section 740.6 of the EAR,
+you hereby certify that, except pursuant to a license granted by the United States Department of Commerce Bureau of 
+Industry and Security or as otherwise permitted pursuant to a License Exception under the U.S. Export Administration 
+Regulations ("EAR"), you will not (1) export, re-export or release to a national of a country in Country Groups D:1,
+E:1 or E:2 any restricted technology, software, or source code you receive hereunder, or (2) export to Country Groups
+D:1, E:1 or E:2 the direct product of such technology or software, if such foreign produced direct product is subject
+to national security controls as identified on the Commerce Control List (currently found in Supplement 1 to Part 774
+of EAR).  For the most current Country Group listings, or for additional information about the EAR or your obligations
+under those regulations, please refer to the U.S. Bureau of Industry and Security's website at http://www.bis.doc.gov/. 
+
+*/
+package com.amd.aparapi.internal.kernel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.amd.aparapi.EXECUTION_MODE;
+import com.amd.aparapi.Kernel;
+import com.amd.aparapi.Range;
+import com.amd.aparapi.device.Device;
+import com.amd.aparapi.internal.opencl.OpenCLLoader;
+
+/**
+ * Chooses the execution mode of each launch from the measured cost of earlier launches.
+ * <p>
+ * Launches are grouped by kernel class and size bucket, where bucket <code>n</code> holds ranges of [2^n, 2^(n+1)) work
+ * items. Each mode is first sampled a few times in a bucket, after which launches go to the mode with the lowest mean
+ * time. Every <code>reprobeInterval</code> launches of a bucket one of the other modes is timed again, so a bucket can
+ * move once its data grows or the device gets busy. The first launch of a class in each mode is not timed, as it includes
+ * translation and warm up. A mode which fails for a class, and falls back, is not chosen for that class again.
+ * <p>
+ * The selector only sees times passed to <code>record()</code>, so it can be driven without any device.
+ *
+ * @see KernelRunner#setAdaptiveModeSelector(AdaptiveModeSelector)
+ */
+public class AdaptiveModeSelector{
+
+   public static final int DEFAULT_SAMPLES = 3;
+
+   public static final int DEFAULT_REPROBE_INTERVAL = 100;
+
+   /**
+    * Later samples are weighted 1/WINDOW into the mean, so it follows the recent launches.
+    */
+   private static final int WINDOW = 8;
+
+   private static class Key{
+
+      private final Class<? extends Kernel> kernelClass;
+
+      private final int bucket;
+
+      Key(Class<? extends Kernel> _kernelClass, int _bucket) {
+         kernelClass = _kernelClass;
+         bucket = _bucket;
+      }
+
+      @Override public boolean equals(Object _other) {
+         if (!(_other instanceof Key)) {
+            return (false);
+         }
+         final Key other = (Key) _other;
+         return ((kernelClass == other.kernelClass) && (bucket == other.bucket));
+      }
+
+      @Override public int hashCode() {
+         return ((kernelClass.hashCode() * 31) + bucket);
+      }
+   }
+
+   /**
+    * Measurements of one mode in one bucket.
+    */
+   private static class Sample{
+
+      private int count;
+
+      private double meanNanos;
+
+      private long lastLaunch;
+
+      void add(long _nanos, long _launch) {
+         count++;
+         meanNanos += (_nanos - meanNanos) / Math.min(count, WINDOW);
+         lastLaunch = _launch;
+      }
+   }
+
+   private static class Bucket{
+
+      private final Map<EXECUTION_MODE, Sample> samples = new EnumMap<EXECUTION_MODE, Sample>(EXECUTION_MODE.class);
+
+      private long launches;
+   }
+
+   private final List<EXECUTION_MODE> modes;
+
+   private final int samplesPerMode;
+
+   private final int reprobeInterval;
+
+   private final ConcurrentMap<Key, Bucket> buckets = new ConcurrentHashMap<Key, Bucket>();
+
+   private final ConcurrentMap<Class<? extends Kernel>, Set<EXECUTION_MODE>> warmedUp = new ConcurrentHashMap<Class<? extends Kernel>, Set<EXECUTION_MODE>>();
+
+   private final ConcurrentMap<Class<? extends Kernel>, Set<EXECUTION_MODE>> failed = new ConcurrentHashMap<Class<? extends Kernel>, Set<EXECUTION_MODE>>();
+
+   public AdaptiveModeSelector(EXECUTION_MODE... _modes) {
+      this(DEFAULT_SAMPLES, DEFAULT_REPROBE_INTERVAL, _modes);
+   }
+
+   /**
+    * @param _samplesPerMode launches timed in each mode of a bucket before choosing between them
+    * @param _reprobeInterval choose another mode every this many launches of a bucket, or 0 to never probe again
+    * @param _modes the modes to choose between, in order of preference while sampling
+    */
+   public AdaptiveModeSelector(int _samplesPerMode, int _reprobeInterval, EXECUTION_MODE... _modes) {
+      if (_modes.length == 0) {
+         throw new IllegalArgumentException("at least one execution mode is required");
+      }
+      if (_samplesPerMode < 1) {
+         throw new IllegalArgumentException("samples per mode must be at least 1, was " + _samplesPerMode);
+      }
+      int openCLModes = 0;
+      for (final EXECUTION_MODE mode : EnumSet.copyOf(Arrays.asList(_modes))) {
+         if (mode.isOpenCL()) {
+            openCLModes++;
+         }
+      }
+      if (openCLModes > 1) {
+         // the runner keeps a single OpenCL context, see lastGPUExecutionDevice
+         throw new IllegalArgumentException("a KernelRunner can only use one OpenCL device, choose GPU or CPU");
+      }
+      modes = Collections.unmodifiableList(new ArrayList<EXECUTION_MODE>(Arrays.asList(_modes)));
+      samplesPerMode = _samplesPerMode;
+      reprobeInterval = _reprobeInterval;
+   }
+
+   /**
+    * @return the best OpenCL mode, if OpenCL is available, and JTP
+    */
+   public static EXECUTION_MODE[] availableModes() {
+      final List<EXECUTION_MODE> available = new ArrayList<EXECUTION_MODE>();
+      if (OpenCLLoader.isOpenCLAvailable()) {
+         final Device best = Device.best();
+         if (best != null) {
+            available.add(best.getType() == Device.TYPE.GPU ? EXECUTION_MODE.GPU : EXECUTION_MODE.CPU);
+         }
+      }
+      available.add(EXECUTION_MODE.JTP);
+      return (available.toArray(new EXECUTION_MODE[available.size()]));
+   }
+
+   public static int bucketOf(Range _range) {
+      long workItems = 1;
+      for (int dim = 0; dim < _range.getDims(); dim++) {
+         workItems *= _range.getGlobalSize(dim);
+      }
+      return (63 - Long.numberOfLeadingZeros(Math.max(workItems, 1)));
+   }
+
+   public List<EXECUTION_MODE> getModes() {
+      return (modes);
+   }
+
+   /**
+    * @return the mode to launch this kernel class over this range in
+    */
+   public EXECUTION_MODE select(Class<? extends Kernel> _kernelClass, Range _range) {
+      final List<EXECUTION_MODE> usable = usableModes(_kernelClass, _range);
+      if (usable.isEmpty()) {
+         return (EXECUTION_MODE.JTP);
+      }
+      final Bucket bucket = bucketFor(_kernelClass, _range);
+      synchronized (bucket) {
+         bucket.launches++;
+         for (final EXECUTION_MODE mode : usable) {
+            if (count(bucket, mode) < samplesPerMode) {
+               return (mode);
+            }
+         }
+         final EXECUTION_MODE best = best(bucket, usable);
+         if ((reprobeInterval > 0) && ((bucket.launches % reprobeInterval) == 0) && (usable.size() > 1)) {
+            EXECUTION_MODE stalest = null;
+            for (final EXECUTION_MODE mode : usable) {
+               if ((mode != best) && ((stalest == null) || (bucket.samples.get(mode).lastLaunch < bucket.samples.get(stalest).lastLaunch))) {
+                  stalest = mode;
+               }
+            }
+            return (stalest);
+         }
+         return (best);
+      }
+   }
+
+   /**
+    * Add the time of a launch which ran in the mode it was given.
+    */
+   public void record(Class<? extends Kernel> _kernelClass, Range _range, EXECUTION_MODE _mode, long _nanos) {
+      if (modeSet(warmedUp, _kernelClass).add(_mode)) {
+         return;
+      }
+      final Bucket bucket = bucketFor(_kernelClass, _range);
+      synchronized (bucket) {
+         Sample sample = bucket.samples.get(_mode);
+         if (sample == null) {
+            sample = new Sample();
+            bucket.samples.put(_mode, sample);
+         }
+         sample.add(_nanos, bucket.launches);
+      }
+   }
+
+   /**
+    * Stop choosing a mode for this kernel class, because its launch fell back to another mode.
+    */
+   public void failed(Class<? extends Kernel> _kernelClass, EXECUTION_MODE _mode) {
+      modeSet(failed, _kernelClass).add(_mode);
+   }
+
+   /**
+    * @return the mode with the lowest mean time for this class and range, or null while the modes are still being sampled
+    */
+   public EXECUTION_MODE getPreferredMode(Class<? extends Kernel> _kernelClass, Range _range) {
+      final List<EXECUTION_MODE> usable = usableModes(_kernelClass, _range);
+      final Bucket bucket = buckets.get(new Key(_kernelClass, bucketOf(_range)));
+      if ((bucket == null) || usable.isEmpty()) {
+         return (null);
+      }
+      synchronized (bucket) {
+         for (final EXECUTION_MODE mode : usable) {
+            if (count(bucket, mode) < samplesPerMode) {
+               return (null);
+            }
+         }
+         return (best(bucket, usable));
+      }
+   }
+
+   /**
+    * @return the mean time of the launches recorded for this class, range and mode (ns), or -1 if there are none
+    */
+   public long getMeanNanos(Class<? extends Kernel> _kernelClass, Range _range, EXECUTION_MODE _mode) {
+      final Bucket bucket = buckets.get(new Key(_kernelClass, bucketOf(_range)));
+      if (bucket == null) {
+         return (-1);
+      }
+      synchronized (bucket) {
+         final Sample sample = bucket.samples.get(_mode);
+         return (sample == null ? -1 : (long) sample.meanNanos);
+      }
+   }
+
+   private List<EXECUTION_MODE> usableModes(Class<? extends Kernel> _kernelClass, Range _range) {
+      final Set<EXECUTION_MODE> failedModes = failed.get(_kernelClass);
+      final List<EXECUTION_MODE> usable = new ArrayList<EXECUTION_MODE>(modes.size());
+      for (final EXECUTION_MODE mode : modes) {
+         if ((failedModes != null) && failedModes.contains(mode)) {
+            continue;
+         }
+         if ((mode == EXECUTION_MODE.SEQ) && (_range.getWorkGroupSize() > 1)) {
+            // SEQ can't run barriers across a group
+            continue;
+         }
+         usable.add(mode);
+      }
+      return (usable);
+   }
+
+   private Bucket bucketFor(Class<? extends Kernel> _kernelClass, Range _range) {
+      final Key key = new Key(_kernelClass, bucketOf(_range));
+      Bucket bucket = buckets.get(key);
+      if (bucket == null) {
+         final Bucket created = new Bucket();
+         bucket = buckets.putIfAbsent(key, created);
+         if (bucket == null) {
+            bucket = created;
+         }
+      }
+      return (bucket);
+   }
+
+   private static Set<EXECUTION_MODE> modeSet(ConcurrentMap<Class<? extends Kernel>, Set<EXECUTION_MODE>> _map,
+         Class<? extends Kernel> _kernelClass) {
+      Set<EXECUTION_MODE> set = _map.get(_kernelClass);
+      if (set == null) {
+         final Set<EXECUTION_MODE> created = Collections.newSetFromMap(new ConcurrentHashMap<EXECUTION_MODE, Boolean>());
+         set = _map.putIfAbsent(_kernelClass, created);
+         if (set == null) {
+            set = created;
+         }
+      }
+      return (set);
+   }
+
+   private static int count(Bucket _bucket, EXECUTION_MODE _mode) {
+      final Sample sample = _bucket.samples.get(_mode);
+      return (sample == null ? 0 : sample.count);
+   }
+
+   private static EXECUTION_MODE best(Bucket _bucket, List<EXECUTION_MODE> _usable) {
+      EXECUTION_MODE best = null;
+      for (final EXECUTION_MODE mode : _usable) {
+         if ((best == null) || (_bucket.samples.get(mode).meanNanos < _bucket.samples.get(best).meanNanos)) {
+            best = mode;
+         }
+      }
+      return (best);
+   }
+}
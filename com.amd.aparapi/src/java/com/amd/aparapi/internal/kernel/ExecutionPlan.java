@@ -0,0 +1,261 @@
+/*
+Copyright (c) 2010-2011, Advanced Micro Devices, Inc.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+disclaimer. 
+
+Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+disclaimer in the documentation and/or other materials provided with the distribution. 
+
+Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products
+derived from this software without specific prior written permission. 
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+If you use the software (in whole or in part), you shall adhere to all applicable U.S., European, and other export
+laws, including but not limited to the U.S. Export Administration Regulations ("EAR"), (15 C.F.R. Sections 730 through
+774), and E.U. Council Regulation (EC) No 1334/2000 of 22 June 2000.  Further, pursuant to Section 740.6 of the EAR,
+you hereby certify that, except pursuant to a license granted by the United States Department of Commerce Bureau of 
+Industry and Security or as otherwise permitted pursuant to a License Exception under the U.S. Export Administration 
+Regulations ("EAR"), you will not (1) export, re-export or release to a national of a country in Country Groups D:1,
+E:1 or E:2 any restricted technology, software, or source code you receive hereunder, or (2) export to Country Groups
+D:1, E:1 or E:2 the direct product of such technology or software, if such foreign produced direct product is subject
+to national security controls as identified on the Commerce Control List (currently found in Supplement 1 to Part 774
+of EAR).  For the most current Country Group listings, or for additional information about the EAR or your obligations
+under those regulations, please refer to the U.S. Bureau of Industry and Security's website at http://www.bis.doc.gov/. 
+
+*/
+package com.amd.aparapi.internal.kernel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.amd.aparapi.EXECUTION_MODE;
+import com.amd.aparapi.Kernel;
+import com.amd.aparapi.Range;
+
+/**
+ * Describes what <code>KernelRunner.execute()</code> would do for a kernel and range, as reported by
+ * <code>KernelRunner.explain()</code>. Nothing is executed or sent to the device to build it.
+ *
+ * @see KernelRunner#explain(Kernel, Range)
+ */
+public class ExecutionPlan{
+
+   /**
+    * A kernel argument and the transfers it causes on each launch.
+    */
+   public static class Argument{
+
+      private final String name;
+
+      private final String flags;
+
+      private final long sizeInBytes;
+
+      private final long bytesWritten;
+
+      private final long bytesRead;
+
+      Argument(String _name, String _flags, long _sizeInBytes, long _bytesWritten, long _bytesRead) {
+         name = _name;
+         flags = _flags;
+         sizeInBytes = _sizeInBytes;
+         bytesWritten = _bytesWritten;
+         bytesRead = _bytesRead;
+      }
+
+      public String getName() {
+         return (name);
+      }
+
+      /**
+       * @return the <code>ARG_*</code> flags of the argument, separated by <code>|</code>
+       */
+      public String getFlags() {
+         return (flags);
+      }
+
+      public long getSizeInBytes() {
+         return (sizeInBytes);
+      }
+
+      /**
+       * @return bytes written to the device each OpenCL launch
+       */
+      public long getBytesWritten() {
+         return (bytesWritten);
+      }
+
+      /**
+       * @return bytes read back from the device each OpenCL launch
+       */
+      public long getBytesRead() {
+         return (bytesRead);
+      }
+
+      @Override public String toString() {
+         return (name + " [" + flags + "] size=" + sizeInBytes + " write=" + bytesWritten + " read=" + bytesRead);
+      }
+   }
+
+   private final Class<? extends Kernel> kernelClass;
+
+   private final Range range;
+
+   private final EXECUTION_MODE requestedMode;
+
+   private EXECUTION_MODE executionMode;
+
+   private String reason;
+
+   private int openCLSize = -1;
+
+   private final List<String> pragmas = new ArrayList<String>();
+
+   private final List<Argument> arguments = new ArrayList<Argument>();
+
+   private final List<String> notes = new ArrayList<String>();
+
+   ExecutionPlan(Class<? extends Kernel> _kernelClass, Range _range, EXECUTION_MODE _requestedMode) {
+      kernelClass = _kernelClass;
+      range = _range;
+      requestedMode = _requestedMode;
+      executionMode = _requestedMode;
+   }
+
+   /**
+    * Record that the requested mode can't be used, only the first reason is kept.
+    */
+   void fallBack(EXECUTION_MODE _executionMode, String _reason) {
+      if (reason == null) {
+         executionMode = _executionMode;
+         reason = _reason;
+      }
+   }
+
+   void setOpenCLSize(int _openCLSize) {
+      openCLSize = _openCLSize;
+   }
+
+   void addPragma(String _pragma) {
+      pragmas.add(_pragma);
+   }
+
+   void addArgument(Argument _argument) {
+      arguments.add(_argument);
+   }
+
+   void addNote(String _note) {
+      notes.add(_note);
+   }
+
+   public Class<? extends Kernel> getKernelClass() {
+      return (kernelClass);
+   }
+
+   public Range getRange() {
+      return (range);
+   }
+
+   /**
+    * @return the mode the runner is currently set to use
+    */
+   public EXECUTION_MODE getRequestedMode() {
+      return (requestedMode);
+   }
+
+   /**
+    * @return the mode the launch would actually run in
+    */
+   public EXECUTION_MODE getExecutionMode() {
+      return (executionMode);
+   }
+
+   /**
+    * @return why the requested mode would not be used, or null if it would
+    */
+   public String getFallbackReason() {
+      return (reason);
+   }
+
+   /**
+    * @return the length of the generated OpenCL source, or -1 if it could not be generated
+    */
+   public int getOpenCLSize() {
+      return (openCLSize);
+   }
+
+   /**
+    * @return the OpenCL extensions the generated code enables (fp64, atomics, byte addressable stores)
+    */
+   public List<String> getPragmas() {
+      return (Collections.unmodifiableList(pragmas));
+   }
+
+   public List<Argument> getArguments() {
+      return (Collections.unmodifiableList(arguments));
+   }
+
+   /**
+    * @return checks which could not be made without running the kernel, and other observations
+    */
+   public List<String> getNotes() {
+      return (Collections.unmodifiableList(notes));
+   }
+
+   /**
+    * @return bytes written to the device each launch, across all arguments
+    */
+   public long getBytesWrittenPerLaunch() {
+      long bytes = 0;
+      for (final Argument argument : arguments) {
+         bytes += argument.getBytesWritten();
+      }
+      return (bytes);
+   }
+
+   /**
+    * @return bytes read back from the device each launch, across all arguments
+    */
+   public long getBytesReadPerLaunch() {
+      long bytes = 0;
+      for (final Argument argument : arguments) {
+         bytes += argument.getBytesRead();
+      }
+      return (bytes);
+   }
+
+   @Override public String toString() {
+      final StringBuilder sb = new StringBuilder();
+      sb.append("ExecutionPlan for ").append(kernelClass.getName()).append("\n");
+      sb.append("  mode: ").append(executionMode);
+      if (reason != null) {
+         sb.append(" (requested ").append(requestedMode).append(", falls back because ").append(reason).append(")");
+      }
+      sb.append("\n");
+      sb.append("  range: ").append(range).append(range.isValid() ? "" : " INVALID").append("\n");
+      sb.append("  opencl: ").append(openCLSize < 0 ? "not generated" : openCLSize + " chars").append("\n");
+      sb.append("  pragmas: ").append(pragmas.isEmpty() ? "none" : pragmas.toString()).append("\n");
+      for (final Argument argument : arguments) {
+         sb.append("  arg ").append(argument).append("\n");
+      }
+      sb.append("  per launch: write=").append(getBytesWrittenPerLaunch()).append(" read=").append(getBytesReadPerLaunch())
+            .append("\n");
+      for (final String note : notes) {
+         sb.append("  note: ").append(note).append("\n");
+      }
+      return (sb.toString());
+   }
+}
@@ -115,6 +115,41 @@ public class KernelArg extends KernelArgJNI{
       return primitiveSize;
    }
 
+   /**
+    * @return the bytesWritten
+    */
+   protected long getBytesWritten() {
+      return bytesWritten;
+   }
+
+   /**
+    * @return the bytesRead
+    */
+   protected long getBytesRead() {
+      return bytesRead;
+   }
+
+   /**
+    * @return the bufferAllocations
+    */
+   protected long getBufferAllocations() {
+      return bufferAllocations;
+   }
+
+   /**
+    * @return the pinCount
+    */
+   protected long getPinCount() {
+      return pinCount;
+   }
+
+   /**
+    * @return the unpinCount
+    */
+   protected long getUnpinCount() {
+      return unpinCount;
+   }
+
    /**
     * @param primitiveSize the primitiveSize to set
     */
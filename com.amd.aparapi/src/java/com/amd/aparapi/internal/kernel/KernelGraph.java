@@ -0,0 +1,254 @@
+/*
+Copyright (c) 2010-2011, Advanced Micro Devices, Inc.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+disclaimer. 
+
+Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+disclaimer in the documentation and/or other materials provided with the distribution. 
+
+Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products
+derived from this software without specific prior written permission. 
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+If you use the software (in whole or in part), you shall adhere to all applicable U.S., European, and other export
+laws, including but not limited to the U.S. Export Administration Regulations ("EAR"), (15 C.F.R. Sections 730 through
+774), and E.U. Council Regulation (EC) No 1334/2000 of 22 June 2000.  Further, pursuant to Section 740.6 of the EAR,
+you hereby certify that, except pursuant to a license granted by the United States Department of Commerce Bureau of 
+Industry and Security or as otherwise permitted pursuant to a License Exception under the U.S. Export Administration 
+Regulations ("EAR"), you will not (1) export, re-export or release to a national of a country in Country Groups D:1,
+E:1 or E:2 any restricted technology, software, or source code you receive hereunder, or (2) export to Country Groups
+D:1, E:1 or E:2 the direct product of such technology or software, if such foreign produced direct product is subject
+to national security controls as identified on the Commerce Control List (currently found in Supplement 1 to Part 774
+of EAR).  For the most current Country Group listings, or for additional information about the EAR or your obligations
+under those regulations, please refer to the U.S. Bureau of Industry and Security's website at http://www.bis.doc.gov/. 
+
+*/
+package com.amd.aparapi.internal.kernel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.amd.aparapi.Kernel;
+import com.amd.aparapi.Range;
+
+/**
+ * A fixed set of kernels, the arrays they share and the order they depend on, launched together by <code>execute()</code>.
+ * <p>
+ * The graph owns a <code>KernelRunner</code> in explicit mode. Arrays declared with <code>input()</code> are written to the
+ * device before each launch of the graph and arrays declared with <code>output()</code> are read back after the last
+ * kernel has run. Every other array stays resident on the device between kernels, so intermediates are never copied
+ * to the host. In JTP and SEQ the kernels simply run one after the other on the same Java arrays.
+ * <pre>
+ * KernelGraph graph = new KernelGraph();
+ * KernelGraph.Node filter = graph.add(filterKernel, Range.create(n));
+ * KernelGraph.Node transform = graph.add(transformKernel, Range.create(n)).after(filter);
+ * graph.add(reduceKernel, Range.create(groups)).after(transform);
+ * graph.input(samples).output(totals);
+ * graph.execute();
+ * </pre>
+ *
+ * @see KernelRunner#setExplicit(boolean)
+ */
+public class KernelGraph{
+
+   /**
+    * A kernel launch in the graph.
+    */
+   public class Node{
+
+      private final Kernel kernel;
+
+      private final Range range;
+
+      private final int passes;
+
+      private final Set<Node> dependencies = new LinkedHashSet<Node>();
+
+      private Node(Kernel _kernel, Range _range, int _passes) {
+         kernel = _kernel;
+         range = _range;
+         passes = _passes;
+      }
+
+      /**
+       * Launch this node only once all of <code>_nodes</code> have been launched.
+       *
+       * @return This node so that we can use the 'fluent' style API
+       */
+      public Node after(Node... _nodes) {
+         synchronized (KernelGraph.this) {
+            for (final Node node : _nodes) {
+               if (!nodes.contains(node)) {
+                  throw new IllegalArgumentException("node does not belong to this graph");
+               }
+               if (node == this) {
+                  throw new IllegalArgumentException(kernel.getClass().getName() + " cannot depend on itself");
+               }
+               dependencies.add(node);
+            }
+            order = null;
+         }
+         return (this);
+      }
+
+      public Kernel getKernel() {
+         return (kernel);
+      }
+
+      public Range getRange() {
+         return (range);
+      }
+
+      public int getPasses() {
+         return (passes);
+      }
+
+      @Override public String toString() {
+         return (kernel.getClass().getName() + " " + range + " passes=" + passes);
+      }
+   }
+
+   private final KernelRunner kernelRunner = new KernelRunner();
+
+   private final List<Node> nodes = new ArrayList<Node>();
+
+   private final Set<Object> inputs = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+
+   private final Set<Object> outputs = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+
+   private List<Node> order;
+
+   public KernelGraph() {
+      kernelRunner.setExplicit(true);
+   }
+
+   public synchronized Node add(Kernel _kernel, Range _range) {
+      return (add(_kernel, _range, 1));
+   }
+
+   public synchronized Node add(Kernel _kernel, Range _range, int _passes) {
+      if ((_kernel == null) || (_range == null)) {
+         throw new IllegalArgumentException("kernel and range are required");
+      }
+      if (_passes < 1) {
+         throw new IllegalArgumentException("passes must be at least 1, was " + _passes);
+      }
+      final Node node = new Node(_kernel, _range, _passes);
+      nodes.add(node);
+      order = null;
+      return (node);
+   }
+
+   /**
+    * Declare an array that the host changes between launches of the graph. It is written to the device before every launch.
+    *
+    * @return This graph so that we can use the 'fluent' style API
+    */
+   public synchronized KernelGraph input(Object _array) {
+      inputs.add(checkArray(_array));
+      return (this);
+   }
+
+   /**
+    * Declare an array that the host reads after the graph has run. It is read back after every launch.
+    *
+    * @return This graph so that we can use the 'fluent' style API
+    */
+   public synchronized KernelGraph output(Object _array) {
+      outputs.add(checkArray(_array));
+      return (this);
+   }
+
+   private static Object checkArray(Object _array) {
+      if ((_array == null) || !_array.getClass().isArray()) {
+         throw new IllegalArgumentException("expected an array but got " + _array);
+      }
+      return (_array);
+   }
+
+   /**
+    * Launch every node once, each after the nodes it depends on. Nodes with no ordering between them run in the order
+    * they were added.
+    *
+    * @return This graph so that we can use the 'fluent' style API
+    * @throws IllegalStateException if the dependencies contain a cycle
+    */
+   public synchronized KernelGraph execute() {
+      final List<Node> launchOrder = getLaunchOrder();
+      for (final Object input : inputs) {
+         kernelRunner.putRaw(input);
+      }
+      for (final Node node : launchOrder) {
+         kernelRunner.execute(node.kernel, node.range, node.passes);
+      }
+      for (final Object output : outputs) {
+         kernelRunner.getRaw(output);
+      }
+      return (this);
+   }
+
+   /**
+    * @return The nodes in the order <code>execute()</code> launches them
+    * @throws IllegalStateException if the dependencies contain a cycle
+    */
+   public synchronized List<Node> getLaunchOrder() {
+      if (order == null) {
+         order = Collections.unmodifiableList(sort());
+      }
+      return (order);
+   }
+
+   private List<Node> sort() {
+      final Map<Node, Integer> waitingOn = new IdentityHashMap<Node, Integer>();
+      for (final Node node : nodes) {
+         waitingOn.put(node, node.dependencies.size());
+      }
+      final List<Node> sorted = new ArrayList<Node>(nodes.size());
+      final List<Node> pending = new ArrayList<Node>(nodes);
+      while (!pending.isEmpty()) {
+         Node ready = null;
+         for (final Node node : pending) {
+            if (waitingOn.get(node) == 0) {
+               ready = node;
+               break;
+            }
+         }
+         if (ready == null) {
+            throw new IllegalStateException("kernel graph has a cycle between " + pending);
+         }
+         pending.remove(ready);
+         sorted.add(ready);
+         for (final Node node : pending) {
+            if (node.dependencies.contains(ready)) {
+               waitingOn.put(node, waitingOn.get(node) - 1);
+            }
+         }
+      }
+      return (sorted);
+   }
+
+   public KernelRunner getKernelRunner() {
+      return (kernelRunner);
+   }
+
+   public void dispose() {
+      kernelRunner.dispose();
+   }
+}
@@ -42,6 +42,7 @@ import com.amd.aparapi.Kernel.KernelState;
 import com.amd.aparapi.annotation.Constant;
 import com.amd.aparapi.annotation.Local;
 import com.amd.aparapi.device.Device;
+import com.amd.aparapi.device.JavaDevice;
 import com.amd.aparapi.device.OpenCLDevice;
 import com.amd.aparapi.internal.exception.AparapiException;
 import com.amd.aparapi.internal.exception.CodeGenException;
@@ -49,10 +50,13 @@ import com.amd.aparapi.internal.instruction.InstructionSet.TypeSpec;
 import com.amd.aparapi.internal.jni.KernelRunnerJNI;
 import com.amd.aparapi.internal.model.ClassModel;
 import com.amd.aparapi.internal.model.Entrypoint;
+import com.amd.aparapi.internal.opencl.OpenCLLoader;
 import com.amd.aparapi.internal.util.UnsafeWrapper;
 import com.amd.aparapi.internal.writer.KernelWriter;
 import com.amd.aparapi.opencl.OpenCL;
 
+import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
@@ -60,9 +64,22 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.*;
 import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -77,6 +94,11 @@ import java.util.logging.Logger;
  * time the <code>ExecutionMode</code> is consulted to determine the default requested mode.  This will dictate how 
  * the <code>KernelRunner</code> will attempt to execute the <code>Kernel</code>
  *
+ * Launches are serialized per <code>Kernel</code> class rather than per runner, so kernels of different classes may be
+ * executed concurrently from different threads as long as they do not share arrays. The runner's execution mode is only
+ * the mode each kernel class starts in, every class falls back along the mode chain on its own (see
+ * <code>getExecutionMode(Class)</code>).
+ *
  * @author gfrost
  *
  */
@@ -85,24 +107,145 @@ public class KernelRunner extends KernelRunnerJNI {
    private static Logger logger = Logger.getLogger(Config.getLoggerName());
 
    private OpenCLDevice lastGPUExecutionDevice = null;
-   private Map<Class<? extends Kernel>, KernelMapping> kernelMappingMap = new HashMap<Class<? extends Kernel>, KernelMapping>();
+   private final Map<Class<? extends Kernel>, KernelMapping> kernelMappingMap = new ConcurrentHashMap<Class<? extends Kernel>, KernelMapping>();
+
+   /**
+    * Held for the whole of a launch, guarding the <code>KernelMapping</code> and <code>KernelArg</code>s of the class.
+    */
+   private final ConcurrentMap<Class<? extends Kernel>, Object> launchLocks = new ConcurrentHashMap<Class<? extends Kernel>, Object>();
 
    private final ExecutorService threadPool = Executors.newCachedThreadPool();
 
+   /**
+    * Runs <code>executeAsync()</code> launches one at a time in submission order, created on first use.
+    */
+   private ThreadPoolExecutor asyncDispatcher = null;
+
+   /**
+    * Guards <code>asyncDispatcher</code>, separate from this runner's monitor which is held for the duration of a launch.
+    */
+   private final Object asyncLock = new Object();
+
+   private volatile Thread asyncDispatchThread = null;
+
    private final LinkedHashSet<EXECUTION_MODE> executionModes = EXECUTION_MODE.getDefaultExecutionModes();
    private Iterator<EXECUTION_MODE> currentMode = executionModes.iterator();
-   private EXECUTION_MODE executionMode = currentMode.next();
+   private volatile EXECUTION_MODE executionMode = currentMode.next();
+
+   /**
+    * Where each kernel class is in its chain of execution modes. A class starts at this runner's execution mode and
+    * falls back along the chain on its own, so one kernel failing OpenCL does not move the others to JTP.
+    */
+   private static class ModeState{
+
+      private final EXECUTION_MODE start;
+
+      private final List<EXECUTION_MODE> chain;
+
+      private int next = 0;
+
+      private volatile EXECUTION_MODE mode;
+
+      private volatile String fallbackReason;
+
+      ModeState(EXECUTION_MODE _mode, List<EXECUTION_MODE> _chain) {
+         start = _mode;
+         mode = _mode;
+         chain = _chain;
+      }
+
+      EXECUTION_MODE nextMode() {
+         return (next < chain.size() ? chain.get(next) : EXECUTION_MODE.getFallbackExecutionMode());
+      }
+
+      /**
+       * Called with the class's launch lock held.
+       */
+      void fallBack() {
+         mode = nextMode();
+         next++;
+      }
+
+      void fallBackTo(EXECUTION_MODE _mode) {
+         mode = _mode;
+         next = chain.size();
+      }
+
+      /**
+       * Launch in the mode chosen by the <code>AdaptiveModeSelector</code>. If it fails the class falls back along the
+       * chain from the chosen mode, or straight to the fallback mode if the chosen mode is not part of the chain.
+       */
+      void route(EXECUTION_MODE _mode) {
+         mode = _mode;
+         if (_mode == start) {
+            next = 0;
+         } else {
+            final int position = chain.indexOf(_mode);
+            next = (position < 0) ? chain.size() : position + 1;
+         }
+      }
+   }
+
+   /**
+    * Cleared whenever the runner's execution mode is changed, so every class starts again from the new mode.
+    */
+   private final ConcurrentMap<Class<? extends Kernel>, ModeState> modeStates = new ConcurrentHashMap<Class<? extends Kernel>, ModeState>();
+
+   private volatile AdaptiveModeSelector adaptiveModeSelector = Config.enableAdaptiveExecutionMode ? new AdaptiveModeSelector(
+         AdaptiveModeSelector.availableModes()) : null;
+
+   private volatile Set<String> capabilitiesSet;
+
+   private final AtomicLong accumulatedExecutionTime = new AtomicLong();
+   private volatile long conversionTime = 0;
+   private volatile long executionTime = 0;
+
+   private final ConcurrentMap<Class<? extends Kernel>, KernelStats> kernelStatsMap = new ConcurrentHashMap<Class<? extends Kernel>, KernelStats>();
+
+   private final List<KernelStatsListener> kernelStatsListeners = new CopyOnWriteArrayList<KernelStatsListener>();
+
+   /**
+    * The <code>ProfileInfo</code> type of an execute record, see the native <code>profile()</code>.
+    */
+   private static final int PROFILE_EXECUTE = 1;
+
+   private static final int[] NO_GROUP_ID_OFFSETS = new int[] {
+         0,
+         0,
+         0
+   };
+
+   private final RangePartitioner rangePartitioner = new RangePartitioner();
+
+   /**
+    * Profile of the most recent JTP or SEQ launch of each kernel class, only collected when profiling is enabled.
+    */
+   private final Map<Class<? extends Kernel>, List<ProfileInfo>> javaProfileInfo = new ConcurrentHashMap<Class<? extends Kernel>, List<ProfileInfo>>();
+
+   /**
+    * Fallbacks re-enter <code>execute()</code> on the launching thread.
+    */
+   private final ThreadLocal<int[]> executeDepth = new ThreadLocal<int[]>(){
+      @Override protected int[] initialValue() {
+         return (new int[1]);
+      }
+   };
+
+   private volatile TraceRecorder traceRecorder = null;
 
-   private Set<String> capabilitiesSet;
+   private volatile File captureFile = null;
 
-   private long accumulatedExecutionTime = 0;
-   private long conversionTime = 0;
-   private long executionTime = 0;
+   private int captureMaxArrayElements;
 
-   private final Set<Object> puts = new HashSet<Object>();
+   private final Set<Object> puts = Collections.synchronizedSet(new HashSet<Object>());
 
    private long kernelRunnerContextHandle = 0;
 
+   private final KernelRunnerManagement management;
+
+   public KernelRunner() {
+      management = Config.enableJMX ? KernelRunnerManagement.register(this) : null;
+   }
 
    /**
     * <code>Kernel.dispose()</code> delegates to <code>KernelRunner.dispose()</code> which delegates to
@@ -111,10 +254,44 @@ public class KernelRunner extends KernelRunnerJNI {
     * @see #disposeKernelRunnerJNI
     */
    public void dispose() {
-      if (getExecutionMode().isOpenCL()) {
+      final ThreadPoolExecutor dispatcher;
+      synchronized (asyncLock) {
+         dispatcher = asyncDispatcher;
+         if (dispatcher != null) {
+            // let the current launch finish, but don't leave callers of queued ones waiting forever
+            final List<Runnable> queued = new ArrayList<Runnable>();
+            dispatcher.getQueue().drainTo(queued);
+            for (final Runnable launch : queued) {
+               ((KernelFuture) launch).cancel(false);
+            }
+            dispatcher.shutdown();
+         }
+      }
+      // the current launch still needs the native context and the thread pool, unless it is disposing us itself
+      if ((dispatcher != null) && (Thread.currentThread() != asyncDispatchThread)) {
+         boolean interrupted = false;
+         while (true) {
+            try {
+               if (dispatcher.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS)) {
+                  break;
+               }
+            } catch (final InterruptedException e) {
+               interrupted = true;
+            }
+         }
+         if (interrupted) {
+            Thread.currentThread().interrupt();
+         }
+      }
+
+      // classes fall back on their own, so only the context tells us whether OpenCL was used
+      if (kernelRunnerContextHandle != 0) {
          disposeKernelRunnerJNI(kernelRunnerContextHandle);
       }
       threadPool.shutdownNow();
+      if (management != null) {
+         management.unregister();
+      }
    }
 
    boolean hasFP64Support() {
@@ -209,12 +386,81 @@ public class KernelRunner extends KernelRunnerJNI {
     * @param _passes
     *          The # of passes requested by the user (via <code>Kernel.execute(globalSize, passes)</code>). Note this is usually defaulted to 1 via <code>Kernel.execute(globalSize)</code>.
     */
+   /**
+    * @return true if this launch of a class in an OpenCL mode runs in JTP, because its program waits at a barrier and so
+    *         has no padding guard
+    */
+   private boolean runsPaddedInJava(Class<? extends Kernel> _kernelClass, Range _range) {
+      if (!_range.isPadded() || !getExecutionMode(_kernelClass).isOpenCL()) {
+         return (false);
+      }
+      final KernelMapping kernelMapping = kernelMappingMap.get(_kernelClass);
+      return ((kernelMapping != null) && (kernelMapping.entryPoint != null) && kernelMapping.entryPoint.usesBarriers());
+   }
+
+   /**
+    * Run one padded launch of a kernel which waits at barriers in JTP. Unlike a fallback this leaves the class in its
+    * OpenCL mode, so its unpadded launches still run on the device.
+    */
+   private void executePaddedInJava(Kernel kernel, final Range _range, final int _passes) {
+      if (logger.isLoggable(Level.INFO)) {
+         logger.info(kernel.getClass().getName() + " waits at barriers, so its launch over a padded range runs in JTP");
+      }
+      executeJava(kernel, _range, _passes);
+   }
+
    private void executeJava(Kernel kernel, final Range _range, final int _passes) {
       if (logger.isLoggable(Level.FINE)) {
          logger.fine("executeJava: range = " + _range);
       }
 
-      if (getExecutionMode().equals(EXECUTION_MODE.SEQ)) {
+      final long start = System.nanoTime();
+      try {
+         executeJavaPasses(kernel, _range, 0, _passes);
+      } finally {
+         recordPhase(kernel.getClass(), KernelStats.Phase.KERNEL, start);
+      }
+   }
+
+   /**
+    * Run passes <code>_firstPass</code> up to <code>_endPass</code> of the range. Global ids start at the range's offsets,
+    * as they do on an OpenCL device.
+    */
+   private void executeJavaPasses(Kernel kernel, final Range _range, final int _firstPass, final int _endPass) {
+      executeJavaPasses(kernel, _range, _range, NO_GROUP_ID_OFFSETS, _firstPass, _endPass);
+   }
+
+   /**
+    * Run passes <code>_firstPass</code> up to <code>_endPass</code> of <code>_range</code>, which is a part of
+    * <code>_launchRange</code> starting at group <code>_groupIdOffsets</code>. The kernel sees the sizes and group ids of
+    * the launch range, the part's offsets give its global ids.
+    */
+   private void executeJavaPasses(Kernel kernel, final Range _range, final Range _launchRange, final int[] _groupIdOffsets,
+         final int _firstPass, final int _endPass) {
+
+      /**
+       * Mirror the OpenCL profile of a launch, one execute record per pass. Times are relative to the start of the launch.
+       */
+      final boolean profiling = Config.enableProfiling;
+      final long launchStart = System.nanoTime();
+      final List<ProfileInfo> profileInfo = profiling ? new ArrayList<ProfileInfo>() : null;
+      final int[] offsets = new int[] {
+            _range.getOffset(0),
+            _range.getOffset(1),
+            _range.getOffset(2)
+      };
+      // padding work items at the end of each dimension are skipped
+      final int[] sizes = new int[] {
+            _range.getGlobalSize(0) - _range.getPadding(0),
+            _range.getGlobalSize(1) - _range.getPadding(1),
+            _range.getGlobalSize(2) - _range.getPadding(2)
+      };
+
+      // a JavaDevice always runs on its own thread pool
+      final Device device = _range.getDevice();
+      final ExecutorService pool = (device instanceof JavaDevice) ? ((JavaDevice) device).getThreadPool() : threadPool;
+
+      if (!(device instanceof JavaDevice) && getExecutionMode(kernel.getClass()).equals(EXECUTION_MODE.SEQ)) {
          /**
           * SEQ mode is useful for testing trivial logic, but kernels which use SEQ mode cannot be used if the
           * product of localSize(0..3) is >1.  So we can use multi-dim ranges but only if the local size is 1 in all dimensions. 
@@ -230,7 +476,8 @@ public class KernelRunner extends KernelRunnerJNI {
          final Kernel kernelClone = kernel.clone();
          final KernelState kernelState = kernelClone.getKernelState();
 
-         kernelState.setRange(_range);
+         kernelState.setRange(_launchRange);
+         kernelState.setGroupIdOffsets(_groupIdOffsets);
          kernelState.setGroupId(0, 0);
          kernelState.setGroupId(1, 0);
          kernelState.setGroupId(2, 0);
@@ -239,32 +486,33 @@ public class KernelRunner extends KernelRunnerJNI {
          kernelState.setLocalId(2, 0);
          kernelState.setLocalBarrier(new CyclicBarrier(1));
 
-         for (int passId = 0; passId < _passes; passId++) {
+         for (int passId = _firstPass; passId < _endPass; passId++) {
+            final long passStart = System.nanoTime() - launchStart;
             kernelState.setPassId(passId);
 
             if (_range.getDims() == 1) {
-               for (int id = 0; id < _range.getGlobalSize(0); id++) {
-                  kernelState.setGlobalId(0, id);
+               for (int id = 0; id < sizes[0]; id++) {
+                  kernelState.setGlobalId(0, offsets[0] + id);
                   kernelClone.run();
                }
             } else if (_range.getDims() == 2) {
-               for (int x = 0; x < _range.getGlobalSize(0); x++) {
-                  kernelState.setGlobalId(0, x);
+               for (int x = 0; x < sizes[0]; x++) {
+                  kernelState.setGlobalId(0, offsets[0] + x);
 
-                  for (int y = 0; y < _range.getGlobalSize(1); y++) {
-                     kernelState.setGlobalId(1, y);
+                  for (int y = 0; y < sizes[1]; y++) {
+                     kernelState.setGlobalId(1, offsets[1] + y);
                      kernelClone.run();
                   }
                }
             } else if (_range.getDims() == 3) {
-               for (int x = 0; x < _range.getGlobalSize(0); x++) {
-                  kernelState.setGlobalId(0, x);
+               for (int x = 0; x < sizes[0]; x++) {
+                  kernelState.setGlobalId(0, offsets[0] + x);
 
-                  for (int y = 0; y < _range.getGlobalSize(1); y++) {
-                     kernelState.setGlobalId(1, y);
+                  for (int y = 0; y < sizes[1]; y++) {
+                     kernelState.setGlobalId(1, offsets[1] + y);
 
-                     for (int z = 0; z < _range.getGlobalSize(2); z++) {
-                        kernelState.setGlobalId(2, z);
+                     for (int z = 0; z < sizes[2]; z++) {
+                        kernelState.setGlobalId(2, offsets[2] + z);
                         kernelClone.run();
                      }
 
@@ -272,6 +520,10 @@ public class KernelRunner extends KernelRunnerJNI {
                   }
                }
             }
+
+            if (profiling) {
+               profileInfo.add(new ProfileInfo(null, PROFILE_EXECUTE, passStart, System.nanoTime() - launchStart, passStart, 0));
+            }
          }
       } else {
          final int threads = _range.getLocalSize(0) * _range.getLocalSize(1) * _range.getLocalSize(2);
@@ -282,6 +534,17 @@ public class KernelRunner extends KernelRunnerJNI {
           */
          final CyclicBarrier joinBarrier = new CyclicBarrier(threads + 1);
 
+         final TraceRecorder recorder = traceRecorder;
+         final String traceName = kernel.getClass().getSimpleName() + " groups";
+
+         /**
+          * Each worker only ever writes its own slot, the join barrier publishes the slots to this dispatch thread.
+          */
+         final boolean collectWorkerStats = Config.enableJTPWorkerStats;
+         final long[] workerItems = collectWorkerStats ? new long[threads] : null;
+         final long[] workerBusyNanos = collectWorkerStats ? new long[threads] : null;
+         final long[] workerBarrierWaitNanos = collectWorkerStats ? new long[threads] : null;
+
          /**
           * This localBarrier is only ever used by the kernels.  If the kernel does not use the barrier the threads 
           * can get out of sync, we promised nothing in JTP mode.
@@ -293,9 +556,37 @@ public class KernelRunner extends KernelRunnerJNI {
           *
           * This barrier is threadCount wide.  We never hit the barrier from the dispatch thread.
           */
-         final CyclicBarrier localBarrier = new CyclicBarrier(threads);
+         final boolean paddedRange = _range.isPadded();
+
+         /**
+          * Real work items which have finished a group with padding, over all such groups of the pass, and their number
+          * when the local barrier last tripped. Padding work items only read the second, which can't change before they
+          * arrive at the barrier again.
+          */
+         final AtomicInteger finishedRealItems = new AtomicInteger();
+         final AtomicInteger finishedAtLastTrip = new AtomicInteger();
+         final CyclicBarrier localBarrier = paddedRange ? new CyclicBarrier(threads, new Runnable(){
+            @Override public void run() {
+               finishedAtLastTrip.set(finishedRealItems.get());
+            }
+         }) : new CyclicBarrier(threads);
+
+         /**
+          * Every worker executes its local id in each group, so a group starts with its first and ends with its last worker.
+          */
+         final boolean profileGroups = profiling && Config.enableJTPGroupProfiling;
+         final AtomicLongArray groupStarts = profileGroups ? new AtomicLongArray(globalGroups) : null;
+         final AtomicLongArray groupEnds = profileGroups ? new AtomicLongArray(globalGroups) : null;
+
+         for (int passId = _firstPass; passId < _endPass; passId++) {
+            final long passStart = System.nanoTime() - launchStart;
+            if (profileGroups) {
+               for (int group = 0; group < globalGroups; group++) {
+                  groupStarts.set(group, Long.MAX_VALUE);
+                  groupEnds.set(group, 0);
+               }
+            }
 
-         for (int passId = 0; passId < _passes; passId++) {
             /**
               * Note that we emulate OpenCL by creating one thread per localId (across the group).
               *
@@ -325,6 +616,8 @@ public class KernelRunner extends KernelRunnerJNI {
               * So even JTP mode use of local buffers will need to use barriers. Not for the same reason as OpenCL but to keep groups in lockstep.
               *
               **/
+            finishedRealItems.set(0);
+            finishedAtLastTrip.set(0);
             for (int id = 0; id < threads; id++) {
                final int threadId = id;
 
@@ -338,13 +631,19 @@ public class KernelRunner extends KernelRunnerJNI {
                final Kernel kernelClone = kernel.clone();
                final KernelState kernelState = kernelClone.getKernelState();
 
-               kernelState.setRange(_range);
+               kernelState.setRange(_launchRange);
+               kernelState.setGroupIdOffsets(_groupIdOffsets);
                kernelState.setLocalBarrier(localBarrier);
                kernelState.setPassId(passId);
+               kernelState.setTimingBarrierWaits(collectWorkerStats);
 
-               threadPool.submit(new Runnable(){
+               pool.submit(new Runnable(){
                   @Override public void run() {
+                     final long start = System.nanoTime();
+                     int realItemsTarget = 0;
+                     long itemsRun = 0;
                      for (int globalGroupId = 0; globalGroupId < globalGroups; globalGroupId++) {
+                        final long groupStart = profileGroups ? System.nanoTime() - launchStart : 0;
 
                         if (_range.getDims() == 1) {
                            kernelState.setLocalId(0, (threadId % _range.getLocalSize(0)));
@@ -460,7 +759,55 @@ public class KernelRunner extends KernelRunnerJNI {
                            kernelState.setGroupId(2, (globalGroupId / (_range.getNumGroups(0) * _range.getNumGroups(1))));
                         }
 
-                        kernelClone.run();
+                        boolean padding = false;
+                        for (int dim = 0; dim < _range.getDims(); dim++) {
+                           padding |= kernelState.getGlobalIds()[dim] >= sizes[dim];
+                           kernelState.setGlobalId(dim, kernelState.getGlobalIds()[dim] + offsets[dim]);
+                        }
+
+                        final int realItems = paddedRange ? realItemsInGroup(_range, sizes, kernelState.getGroupIds()) : threads;
+                        if (realItems == threads) {
+                           kernelClone.run();
+                           itemsRun++;
+                        } else {
+                           /**
+                            * The padding work items of a group wait at the group's barriers until all of its real work
+                            * items have finished, each of which waits once more at the end. So the group meets every
+                            * barrier with all of its threads, whichever barriers the kernel waits at.
+                            */
+                           realItemsTarget += realItems;
+                           if (padding) {
+                              final long waitStart = collectWorkerStats ? System.nanoTime() : 0;
+                              do {
+                                 await(localBarrier);
+                              } while (finishedAtLastTrip.get() < realItemsTarget);
+                              if (collectWorkerStats) {
+                                 kernelState.setBarrierWaitNanos(kernelState.getBarrierWaitNanos()
+                                       + (System.nanoTime() - waitStart));
+                              }
+                           } else {
+                              kernelClone.run();
+                              itemsRun++;
+                              finishedRealItems.incrementAndGet();
+                              await(localBarrier);
+                           }
+                        }
+
+                        if (profileGroups) {
+                           accumulateMin(groupStarts, globalGroupId, groupStart);
+                           accumulateMax(groupEnds, globalGroupId, System.nanoTime() - launchStart);
+                        }
+                     }
+
+                     if (recorder != null) {
+                        recorder.record(traceName, "jtp", start, System.nanoTime() - start);
+                     }
+
+                     if (collectWorkerStats) {
+                        final long barrierWaitNanos = kernelState.getBarrierWaitNanos();
+                        workerItems[threadId] += itemsRun;
+                        workerBusyNanos[threadId] += (System.nanoTime() - start) - barrierWaitNanos;
+                        workerBarrierWaitNanos[threadId] += barrierWaitNanos;
                      }
 
                      await(joinBarrier); // This thread will rendezvous with dispatch thread here. This is effectively a join.                  
@@ -469,8 +816,55 @@ public class KernelRunner extends KernelRunnerJNI {
             }
 
             await(joinBarrier); // This dispatch thread waits for all worker threads here. 
+
+            if (profiling) {
+               profileInfo.add(new ProfileInfo(null, PROFILE_EXECUTE, passStart, System.nanoTime() - launchStart, passStart, 0));
+               if (profileGroups) {
+                  for (int group = 0; group < globalGroups; group++) {
+                     profileInfo.add(new ProfileInfo("group[" + group + "]", PROFILE_EXECUTE, groupStarts.get(group), groupEnds
+                           .get(group), passStart, 0));
+                  }
+               }
+            }
+         }
+
+         if (collectWorkerStats) {
+            final WorkerStats[] workers = new WorkerStats[threads];
+            for (int id = 0; id < threads; id++) {
+               workers[id] = new WorkerStats(id, workerItems[id], workerBusyNanos[id], workerBarrierWaitNanos[id]);
+            }
+            statsFor(kernel.getClass()).recordWorkerStats(workers);
          }
       } // execution mode == JTP
+
+      if (profiling) {
+         javaProfileInfo.put(kernel.getClass(), profileInfo);
+      }
+   }
+
+   private static void accumulateMin(AtomicLongArray _array, int _index, long _value) {
+      long current = _array.get(_index);
+      while ((_value < current) && !_array.compareAndSet(_index, current, _value)) {
+         current = _array.get(_index);
+      }
+   }
+
+   private static void accumulateMax(AtomicLongArray _array, int _index, long _value) {
+      long current = _array.get(_index);
+      while ((_value > current) && !_array.compareAndSet(_index, current, _value)) {
+         current = _array.get(_index);
+      }
+   }
+
+   /**
+    * @return the number of work items of the group which aren't padding
+    */
+   private static int realItemsInGroup(Range _range, int[] _sizes, int[] _groupIds) {
+      int items = 1;
+      for (int dim = 0; dim < _range.getDims(); dim++) {
+         items *= Math.min(_range.getLocalSize(dim), _sizes[dim] - (_groupIds[dim] * _range.getLocalSize(dim)));
+      }
+      return (items);
    }
 
    private static void await(CyclicBarrier _barrier) {
@@ -485,8 +879,6 @@ public class KernelRunner extends KernelRunnerJNI {
       }
    }
 
-   private boolean usesOopConversion = false;
-
    /**
     *
     * @param entryPoint
@@ -496,7 +888,6 @@ public class KernelRunner extends KernelRunnerJNI {
     * @throws AparapiException
     */
    private boolean prepareOopConversionBuffer(Entrypoint entryPoint, Kernel kernel, KernelArg arg) throws AparapiException {
-      usesOopConversion = true;
       final Class<?> arrayClass = arg.getField().getType();
       ClassModel c = null;
       boolean didReallocate = false;
@@ -760,6 +1151,7 @@ public class KernelRunner extends KernelRunnerJNI {
                }
 
                if ((arg.getType() & ARG_OBJ_ARRAY_STRUCT) != 0) {
+                  kernelMapping.setUsesOopConversion(true);
                   prepareOopConversionBuffer(kernelMapping.entryPoint, kernel, arg);
                } else {
                   // set up JNI fields for normal arrays
@@ -842,24 +1234,38 @@ public class KernelRunner extends KernelRunnerJNI {
       // explicit reference check, no equals!
       if (kernel != kernelMapping.getLastKernel()) {
          updateKernelJNI(kernelMapping.kernelContextHandle, kernel);
+         kernelMapping.setLastKernel(kernel);
       }
 
+      final Class<? extends Kernel> kernelClass = kernel.getClass();
+
       // Read the array refs after kernel may have changed them
       // We need to do this as input to computing the localSize
+      long phaseStart = System.nanoTime();
       final boolean needSync = updateKernelArrayRefs(kernelMapping, kernel);
+      phaseStart = recordPhase(kernelClass, KernelStats.Phase.MARSHAL, phaseStart);
       if (needSync && logger.isLoggable(Level.FINE)) {
          logger.fine("Need to resync arrays on " + kernel.getClass().getName());
       }
 
       // native side will reallocate array buffers if necessary
-      if (runKernelJNI(kernelRunnerContextHandle, kernelMapping.kernelContextHandle, _range, needSync, _passes) != 0) {
+      final long jniStart = phaseStart;
+      final int status = runKernelJNI(kernelRunnerContextHandle, kernelMapping.kernelContextHandle, _range, needSync, _passes);
+      phaseStart = recordPhase(kernelClass, KernelStats.Phase.KERNEL, phaseStart);
+      if ((traceRecorder != null) && Config.enableProfiling && (status == 0)) {
+         traceRecorder.recordProfileInfo(kernelClass, getProfileInfoJNI(kernelMapping.kernelContextHandle), jniStart);
+      }
+      if (status != 0) {
          logger.warning("### CL exec seems to have failed. Trying to revert to Java ###");
-         setFallbackExecutionMode();
+         recordFallback(kernel, "CL exec failed");
+         modeStateFor(kernel.getClass()).fallBackTo(EXECUTION_MODE.getFallbackExecutionMode());
          return execute(kernel, _range, _passes);
       }
+      recordTransfers(kernelMapping, kernelClass);
 
-      if (usesOopConversion) {
+      if (kernelMapping.usesOopConversion()) {
          restoreObjects(kernelMapping, kernel);
+         recordPhase(kernelClass, KernelStats.Phase.UNMARSHAL, phaseStart);
       }
 
       if (logger.isLoggable(Level.FINE)) {
@@ -869,49 +1275,474 @@ public class KernelRunner extends KernelRunnerJNI {
       return this;
    }
 
-   synchronized private KernelRunner fallBackAndExecute(Kernel kernel, final Range _range, final int _passes) {
-      if (hasNextExecutionMode()) {
-         tryNextExecutionMode();
-      } else {
-         setFallbackExecutionMode();
+   /**
+    * Publish the transfer counters the native side maintains on each <code>KernelArg</code> to the kernel's stats.
+    */
+   private void recordTransfers(KernelMapping kernelMapping, Class<? extends Kernel> kernelClass) {
+      final List<TransferStats> transfers = new ArrayList<TransferStats>();
+      for (KernelArg arg : kernelMapping.kernelArgs) {
+         if (holdsDeviceBuffer(arg)) {
+            transfers.add(new TransferStats(arg.getName(), arg.getSizeInBytes(), arg.getBytesWritten(), arg.getBytesRead(),
+                  arg.getBufferAllocations(), arg.getPinCount(), arg.getUnpinCount()));
+         }
       }
+      statsFor(kernelClass).recordTransferStats(transfers.toArray(new TransferStats[transfers.size()]));
+   }
+
+   /**
+    * Mirrors <code>needToEnqueueWrite()</code> in the JNI <code>KernelArg</code>.
+    */
+
+   private static boolean isWrittenEachLaunch(int type) {
+      final boolean explicit = (type & ARG_EXPLICIT) != 0;
+      final boolean explicitWrite = (type & ARG_EXPLICIT_WRITE) != 0;
+      return (((!explicit && ((type & ARG_READ) != 0)) || (explicit && explicitWrite))
+            && (((type & ARG_CONSTANT) == 0) || explicitWrite));
+   }
+
+   /**
+    * Mirrors <code>needToEnqueueRead()</code> in the JNI <code>KernelArg</code>.
+    */
+   private static boolean isReadEachLaunch(int type) {
+      return (((type & ARG_EXPLICIT) == 0) && ((type & ARG_GLOBAL) != 0) && ((type & ARG_WRITE) != 0));
+   }
+
+   /**
+    * @return true if the native side keeps a device buffer for this arg between launches
+    */
+   static boolean holdsDeviceBuffer(KernelArg arg) {
+      return (((arg.getType() & (ARG_ARRAY | ARG_APARAPI_BUFFER)) != 0) && ((arg.getType() & ARG_LOCAL) == 0));
+   }
+
+   private void recordFallback(Kernel kernel, String _reason) {
+      statsFor(kernel.getClass()).recordFallback(_reason);
+      modeStateFor(kernel.getClass()).fallbackReason = _reason;
+   }
 
+   private KernelRunner fallBackAndExecute(Kernel kernel, final Range _range, final int _passes) {
+      modeStateFor(kernel.getClass()).fallBack();
       return execute(kernel, _range, _passes);
    }
 
-   synchronized private KernelRunner warnFallBackAndExecute(Kernel kernel, final Range _range, final int _passes,
+   private KernelRunner warnFallBackAndExecute(Kernel kernel, final Range _range, final int _passes,
          Exception _exception) {
+      recordFallback(kernel, _exception.getMessage() == null ? _exception.getClass().getName() : _exception.getMessage());
       if (logger.isLoggable(Level.WARNING)) {
-         logger.warning("Reverting to Java Thread Pool (JTP) for " + kernel.getClass() + ": " + _exception.getMessage());
+         logger.warning("Falling back to " + modeStateFor(kernel.getClass()).nextMode() + " for " + kernel.getClass() + ": "
+               + _exception.getMessage());
          _exception.printStackTrace();
       }
       return fallBackAndExecute(kernel, _range, _passes);
    }
 
-   synchronized private KernelRunner warnFallBackAndExecute(Kernel kernel, final Range _range, final int _passes, String _excuse) {
-      logger.warning("Reverting to Java Thread Pool (JTP) for " + kernel.getClass() + ": " + _excuse);
+   private KernelRunner warnFallBackAndExecute(Kernel kernel, final Range _range, final int _passes, String _excuse) {
+      recordFallback(kernel, _excuse);
+      logger.warning("Falling back to " + modeStateFor(kernel.getClass()).nextMode() + " for " + kernel.getClass() + ": " + _excuse);
       return fallBackAndExecute(kernel, _range, _passes);
    }
 
-   public synchronized KernelRunner execute(Kernel kernel, int globalSize) {
+   public KernelRunner execute(Kernel kernel, int globalSize) {
       return execute(kernel, globalSize, 1);
    }
 
-   public synchronized KernelRunner execute(Kernel kernel, Range range) {
+   public KernelRunner execute(Kernel kernel, Range range) {
       return execute(kernel, range, 1);
    }
 
-   public synchronized KernelRunner execute(Kernel kernel, int globalSize, int passes) {
+   public KernelRunner execute(Kernel kernel, int globalSize, int passes) {
       return execute(kernel, Range.create(Device.best(), globalSize), passes);
    }
 
+   public KernelFuture executeAsync(Kernel kernel, int globalSize) {
+      return executeAsync(kernel, globalSize, 1);
+   }
+
+   public KernelFuture executeAsync(Kernel kernel, Range range) {
+      return executeAsync(kernel, range, 1);
+   }
+
+   public KernelFuture executeAsync(Kernel kernel, int globalSize, int passes) {
+      return executeAsync(kernel, Range.create(Device.best(), globalSize), passes);
+   }
+
+   /**
+    * Queue a launch and return without waiting for it. Launches are dispatched in submission order on a single thread
+    * owned by this runner, so the caller can prepare the next launch while this one executes.
+    * 
+    * @return a future which completes when <code>execute(kernel, _range, _passes)</code> would have returned
+    */
+   public KernelFuture executeAsync(final Kernel kernel, final Range _range, final int _passes) {
+      final KernelFuture future = new KernelFuture(kernel, new Callable<Kernel>(){
+         @Override public Kernel call() {
+            execute(kernel, _range, _passes);
+            return (kernel);
+         }
+      });
+      getAsyncDispatcher().execute(future);
+      return (future);
+   }
+
+   private ExecutorService getAsyncDispatcher() {
+      synchronized (asyncLock) {
+         if (asyncDispatcher == null) {
+            asyncDispatcher = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(),
+                  new ThreadFactory(){
+                     @Override public Thread newThread(Runnable _runnable) {
+                        final Thread thread = new Thread(_runnable, "aparapi-async-dispatch");
+                        thread.setDaemon(true);
+                        asyncDispatchThread = thread;
+                        return (thread);
+                     }
+                  });
+         }
+         return (asyncDispatcher);
+      }
+   }
+
    private void initKernelRunnerContextHandle(OpenCLDevice device, int flags) {
       if (kernelRunnerContextHandle != 0) return;
       kernelRunnerContextHandle = initKernelRunnerJNI(device, flags);
    }
 
-   public synchronized KernelRunner execute(Kernel kernel, final Range _range, final int _passes) {
+   public KernelRunner execute(Kernel kernel, final Range _range, final int _passes) {
+      synchronized (launchLockFor(kernel.getClass())) {
+         return (launch(kernel, _range, _passes));
+      }
+   }
+
+   public KernelRunner executeBatch(List<? extends Kernel> _kernels, Range _range) {
+      return executeBatch(_kernels, Collections.nCopies(_kernels.size(), _range), 1);
+   }
+
+   /**
+    * Execute many instances of the same kernel class, one after the other, each over its own range. The launch lock is
+    * taken once for the whole batch and the translated program, device context and argument layout of the class are
+    * shared by every launch. Each instance is counted as one launch in the kernel's stats.
+    * <p>
+    * The first instance is launched as usual, which translates the class and binds its argument layout if needed. When
+    * the class then runs in an OpenCL mode, the remaining instances go to the device in a single native call which only
+    * binds the argument values of each instance before enqueuing it. Classes whose arguments need work on the Java side
+    * at each launch (explicit buffers, arrays of objects) and launches the adaptive selector or a capture must see
+    * individually are launched one at a time, as are instances in a Java mode.
+    * 
+    * @param _kernels instances of a single kernel class
+    * @param _ranges the range for each instance, in the same order
+    * @return This runner so that we can use the 'fluent' style API
+    */
+   public KernelRunner executeBatch(List<? extends Kernel> _kernels, List<Range> _ranges, int _passes) {
+      if (_kernels.size() != _ranges.size()) {
+         throw new IllegalArgumentException(_kernels.size() + " kernels but " + _ranges.size() + " ranges");
+      }
+      if (_kernels.isEmpty()) {
+         return (this);
+      }
+      final Class<? extends Kernel> kernelClass = _kernels.get(0).getClass();
+      for (final Kernel kernel : _kernels) {
+         if (kernel.getClass() != kernelClass) {
+            throw new IllegalArgumentException("batch mixes " + kernelClass.getName() + " and " + kernel.getClass().getName());
+         }
+      }
+      synchronized (launchLockFor(kernelClass)) {
+         launch(_kernels.get(0), _ranges.get(0), _passes);
+         int next = 1;
+         final KernelMapping kernelMapping = kernelMappingMap.get(kernelClass);
+         if ((next < _kernels.size()) && canBatch(kernelClass, kernelMapping, _ranges)) {
+            next += executeOpenCLBatch(kernelMapping, _kernels.subList(next, _kernels.size()),
+                  _ranges.subList(next, _ranges.size()), _passes);
+         }
+         // the instance which failed (if any) and those after it are launched, and fall back, one at a time
+         for (; next < _kernels.size(); next++) {
+            launch(_kernels.get(next), _ranges.get(next), _passes);
+         }
+      }
+      return (this);
+   }
+
+   /**
+    * @return true if the remaining instances of a batch can go to the device in one native call
+    */
+   private boolean canBatch(Class<? extends Kernel> _kernelClass, KernelMapping _kernelMapping, List<Range> _ranges) {
+      if (!getExecutionMode(_kernelClass).isOpenCL() || (_kernelMapping == null) || (_kernelMapping.kernelContextHandle == 0)
+            || _kernelMapping.usesOopConversion() || (captureFile != null)
+            || ((adaptiveModeSelector != null) && !explicit)) {
+         return (false);
+      }
+      for (final KernelArg arg : _kernelMapping.kernelArgs) {
+         if ((arg.getType() & (ARG_EXPLICIT | ARG_OBJ_ARRAY_STRUCT)) != 0) {
+            return (false);
+         }
+      }
+      for (final Range range : _ranges) {
+         final Device device = range.getDevice();
+         if ((device != null) && !device.equals(lastGPUExecutionDevice)) {
+            return (false);
+         }
+      }
+      return (true);
+   }
+
+   /**
+    * Run instances of a class which is already bound for OpenCL in a single native call, see <code>executeBatch()</code>.
+    * 
+    * @return the number of instances which ran, if one failed it and those after it have not
+    */
+   private int executeOpenCLBatch(KernelMapping _kernelMapping, List<? extends Kernel> _kernels, List<Range> _ranges,
+         int _passes) {
+      final Class<? extends Kernel> kernelClass = _kernelMapping.kernelClass;
+      final Kernel[] kernels = _kernels.toArray(new Kernel[_kernels.size()]);
+      final long start = System.nanoTime();
+      final int completed = runKernelBatchJNI(kernelRunnerContextHandle, _kernelMapping.kernelContextHandle, kernels,
+            _ranges.toArray(new Range[_ranges.size()]), _passes);
+      final long nanos = System.nanoTime() - start;
+      recordPhase(kernelClass, KernelStats.Phase.KERNEL, start);
+
+      // the native side now refers to the last instance it bound
+      _kernelMapping.setLastKernel(kernels[Math.min(completed, kernels.length - 1)]);
+      if (completed > 0) {
+         recordTransfers(_kernelMapping, kernelClass);
+         final EXECUTION_MODE mode = getExecutionMode(kernelClass);
+         for (int i = 0; i < completed; i++) {
+            recordLaunchNanos(kernelClass, mode, nanos / completed);
+         }
+      }
+      if (completed < kernels.length) {
+         logger.warning("### CL exec of batch instance " + completed + " seems to have failed ###");
+      }
+      return (completed);
+   }
 
+   public KernelRunner executePartitioned(Kernel kernel, Range _range, Device... _devices) {
+      return executePartitioned(kernel, _range, 1, _devices);
+   }
+
+   /**
+    * Execute the range split between devices, which run their parts at the same time. The range is cut into whole groups
+    * along its outermost dimension, in proportion to the throughput each device has shown for this kernel class (see
+    * <code>getRangePartitioner()</code>), and every pass waits for all parts of the previous pass.
+    * <p>
+    * Every part sees the whole range, <code>getGlobalSize()</code> and <code>getNumGroups()</code> are those of the range
+    * and global and group ids carry on from the previous part, so the kernel runs as it would in one launch.
+    * <p>
+    * Only <code>JavaDevice</code>s can take a part. An OpenCL device copies every array it writes back whole, over the
+    * elements written by the other parts, and has no way to start its group ids part way through the range.
+    * 
+    * @param _devices the devices to share the range between, each must accept the range's group size
+    * @return This runner so that we can use the 'fluent' style API
+    */
+   public KernelRunner executePartitioned(Kernel kernel, final Range _range, final int _passes, Device... _devices) {
+      if (_devices.length == 0) {
+         throw new IllegalArgumentException("no devices to partition the range between");
+      }
+      for (final Device device : _devices) {
+         if (!(device instanceof JavaDevice)) {
+            throw new IllegalArgumentException(device + " can't run a part of a range, only a JavaDevice can");
+         }
+         if (_range.getWorkGroupSize() > device.getMaxWorkGroupSize()) {
+            throw new IllegalArgumentException("groups of " + _range.getWorkGroupSize() + " work items are too large for "
+                  + device);
+         }
+      }
+
+      final Class<? extends Kernel> kernelClass = kernel.getClass();
+      synchronized (launchLockFor(kernelClass)) {
+         final long launchStart = System.nanoTime();
+         final int dim = RangePartitioner.splitDimension(_range);
+         final int[] groups = rangePartitioner.split(kernelClass, _range, _devices);
+
+         final List<Range> parts = new ArrayList<Range>();
+         final List<int[]> groupIdOffsets = new ArrayList<int[]>();
+         int firstGroup = 0;
+         for (int i = 0; i < _devices.length; i++) {
+            if (groups[i] > 0) {
+               parts.add(partOf(_range, _devices[i], dim, firstGroup, groups[i]));
+               final int[] offsets = new int[3];
+               offsets[dim] = firstGroup;
+               groupIdOffsets.add(offsets);
+               firstGroup += groups[i];
+            }
+         }
+
+         final long[] partNanos = new long[parts.size()];
+         final long start = System.nanoTime();
+         try {
+            for (int passId = 0; passId < _passes; passId++) {
+               executeParts(kernel, _range, parts, groupIdOffsets, passId, partNanos);
+            }
+         } finally {
+            recordPhase(kernelClass, KernelStats.Phase.KERNEL, start);
+            recordLaunch(kernelClass, EXECUTION_MODE.JTP, launchStart);
+         }
+
+         for (int i = 0; i < parts.size(); i++) {
+            final Range part = parts.get(i);
+            final long workItems = (long) part.getGlobalSize(0) * part.getGlobalSize(1) * part.getGlobalSize(2) * _passes;
+            rangePartitioner.record(kernelClass, part.getDevice(), workItems, partNanos[i]);
+         }
+      }
+      return (this);
+   }
+
+   /**
+    * Run one pass of every part of <code>_range</code>, the first on this thread and the others on the runner's thread
+    * pool.
+    */
+   private void executeParts(final Kernel kernel, final Range _range, final List<Range> _parts,
+         final List<int[]> _groupIdOffsets, final int _passId, final long[] _partNanos) {
+      final List<Future<?>> futures = new ArrayList<Future<?>>();
+      for (int i = 1; i < _parts.size(); i++) {
+         final int part = i;
+         futures.add(threadPool.submit(new Runnable(){
+            @Override public void run() {
+               final long start = System.nanoTime();
+               executeJavaPasses(kernel, _parts.get(part), _range, _groupIdOffsets.get(part), _passId, _passId + 1);
+               _partNanos[part] += System.nanoTime() - start;
+            }
+         }));
+      }
+
+      final long start = System.nanoTime();
+      executeJavaPasses(kernel, _parts.get(0), _range, _groupIdOffsets.get(0), _passId, _passId + 1);
+      _partNanos[0] += System.nanoTime() - start;
+
+      for (final Future<?> future : futures) {
+         try {
+            future.get();
+         } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted waiting for a part of " + kernel.getClass().getName(), e);
+         } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+               throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+               throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+         }
+      }
+   }
+
+   /**
+    * @return a range on <code>_device</code> of <code>_groups</code> of the range's groups along <code>_dim</code>,
+    *         starting with group <code>_firstGroup</code>. It only picks the work items to run, the kernel is still given
+    *         the whole range.
+    */
+   private static Range partOf(Range _range, Device _device, int _dim, int _firstGroup, int _groups) {
+      final Range part = new Range(_device, _range.getDims());
+      part.setGlobalSize_0(_range.getGlobalSize_0());
+      part.setGlobalSize_1(_range.getGlobalSize_1());
+      part.setGlobalSize_2(_range.getGlobalSize_2());
+      part.setLocalSize_0(_range.getLocalSize_0());
+      part.setLocalSize_1(_range.getLocalSize_1());
+      part.setLocalSize_2(_range.getLocalSize_2());
+      part.setOffset_0(_range.getOffset_0());
+      part.setOffset_1(_range.getOffset_1());
+      part.setOffset_2(_range.getOffset_2());
+      part.setPadding_0(_range.getPadding_0());
+      part.setPadding_1(_range.getPadding_1());
+      part.setPadding_2(_range.getPadding_2());
+      if (_dim == 0) {
+         part.setGlobalSize_0(_groups * _range.getLocalSize_0());
+         part.setOffset_0(_range.getOffset_0() + (_firstGroup * _range.getLocalSize_0()));
+      } else if (_dim == 1) {
+         part.setGlobalSize_1(_groups * _range.getLocalSize_1());
+         part.setOffset_1(_range.getOffset_1() + (_firstGroup * _range.getLocalSize_1()));
+      } else {
+         part.setGlobalSize_2(_groups * _range.getLocalSize_2());
+         part.setOffset_2(_range.getOffset_2() + (_firstGroup * _range.getLocalSize_2()));
+      }
+      // only the part which ends the split dimension keeps its padding
+      final int partEnd = (_firstGroup + _groups) * _range.getLocalSize(_dim);
+      final int padding = Math.max(0, partEnd - (_range.getGlobalSize(_dim) - _range.getPadding(_dim)));
+      if (_dim == 0) {
+         part.setPadding_0(padding);
+      } else if (_dim == 1) {
+         part.setPadding_1(padding);
+      } else {
+         part.setPadding_2(padding);
+      }
+      part.setValid(true);
+      return (part);
+   }
+
+   /**
+    * The partitioner used by <code>executePartitioned()</code>, which holds the throughput measured for each device.
+    */
+   public RangePartitioner getRangePartitioner() {
+      return (rangePartitioner);
+   }
+
+   /**
+    * Called with the kernel's launch lock held.
+    */
+   private KernelRunner launch(Kernel kernel, final Range _range, final int _passes) {
+      // fallbacks re-enter execute(), only the outermost call counts as a launch
+      final long launchStart = System.nanoTime();
+      final int[] depth = executeDepth.get();
+      depth[0]++;
+      // explicit buffers live on the device, so an explicit runner can't move kernels between modes
+      final AdaptiveModeSelector selector = ((depth[0] == 1) && !explicit && !(_range.getDevice() instanceof JavaDevice)) ? adaptiveModeSelector
+            : null;
+      EXECUTION_MODE selected = null;
+      boolean completed = false;
+      try {
+         if (selector != null) {
+            selected = selector.select(kernel.getClass(), _range);
+            modeStateFor(kernel.getClass()).route(selected);
+         }
+         if ((depth[0] == 1) && (captureFile != null)) {
+            capture(kernel, _range, _passes);
+         }
+         final KernelRunner result = executeInMode(kernel, _range, _passes);
+         completed = true;
+         return (result);
+      } finally {
+         depth[0]--;
+         if (depth[0] == 0) {
+            recordLaunch(kernel.getClass(), launchedMode(kernel.getClass(), _range), launchStart);
+            // a padded launch which ran in JTP for its barriers tells the selector nothing about the selected mode
+            if ((selector != null) && completed && !runsPaddedInJava(kernel.getClass(), _range)) {
+               final EXECUTION_MODE ran = getExecutionMode(kernel.getClass());
+               if (ran == selected) {
+                  selector.record(kernel.getClass(), _range, selected, System.nanoTime() - launchStart);
+               } else {
+                  selector.failed(kernel.getClass(), selected);
+               }
+            }
+         }
+      }
+   }
+
+   /**
+    * Choose the mode of each launch from the measured cost of earlier launches, instead of the runner's execution mode.
+    * Has no effect on an explicit runner, whose buffers can't follow a kernel between modes.
+    *
+    * @param _selector the selector, or null to use the runner's execution mode again
+    */
+   public void setAdaptiveModeSelector(AdaptiveModeSelector _selector) {
+      adaptiveModeSelector = _selector;
+      if (_selector == null) {
+         modeStates.clear();
+      }
+   }
+
+   public AdaptiveModeSelector getAdaptiveModeSelector() {
+      return (adaptiveModeSelector);
+   }
+
+   private Object launchLockFor(Class<? extends Kernel> _kernelClass) {
+      Object lock = launchLocks.get(_kernelClass);
+      if (lock == null) {
+         final Object created = new Object();
+         lock = launchLocks.putIfAbsent(_kernelClass, created);
+         if (lock == null) {
+            lock = created;
+         }
+      }
+      return (lock);
+   }
+
+   private KernelRunner executeInMode(Kernel kernel, final Range _range, final int _passes) {
 
       long executeStartTime = System.currentTimeMillis();
 
@@ -919,8 +1750,12 @@ public class KernelRunner extends KernelRunnerJNI {
          throw new IllegalStateException("range can't be null");
       }
 
+      final EXECUTION_MODE mode = getExecutionMode(kernel.getClass());
+
       /* for backward compatibility reasons we still honor execution mode */
-      if (getExecutionMode().isOpenCL()) {
+      if (_range.getDevice() instanceof JavaDevice) {
+         executeJava(kernel, _range, _passes);
+      } else if (mode.isOpenCL()) {
 
          KernelMapping currentKernelMapping = kernelMappingMap.get(kernel.getClass());
 
@@ -930,10 +1765,16 @@ public class KernelRunner extends KernelRunnerJNI {
          if ((device == null) || (device instanceof OpenCLDevice)) {
             if (currentKernelMapping == null) {
                try {
-                  final ClassModel classModel = new ClassModel(kernel.getClass());
+                  long phaseStart = System.nanoTime();
+                  final ClassModel classModel = ClassModel.getClassModel(kernel.getClass());
+                  phaseStart = recordPhase(kernel.getClass(), KernelStats.Phase.CLASS_PARSE, phaseStart);
                   Entrypoint entryPoint = classModel.getEntrypoint(kernel);
+                  recordPhase(kernel.getClass(), KernelStats.Phase.ENTRYPOINT, phaseStart);
                   currentKernelMapping = new KernelMapping(kernel.getClass(), entryPoint, kernel);
                   kernelMappingMap.put(kernel.getClass(), currentKernelMapping);
+                  if (management != null) {
+                     management.registerKernelMapping(currentKernelMapping);
+                  }
                } catch (final Exception exception) {
                   return warnFallBackAndExecute(kernel, _range, _passes, exception);
                }
@@ -954,7 +1795,7 @@ public class KernelRunner extends KernelRunnerJNI {
 
                      int jniFlags = 0;
                      if (openCLDevice == null) {
-                        if (getExecutionMode().equals(EXECUTION_MODE.GPU)) {
+                        if (mode.equals(EXECUTION_MODE.GPU)) {
                            // We used to treat as before by getting first GPU device
                            // now we get the best GPU
                            openCLDevice = (OpenCLDevice) OpenCLDevice.best();
@@ -993,12 +1834,13 @@ public class KernelRunner extends KernelRunnerJNI {
                   }
 
                   final String extensions = getExtensionsJNI(kernelRunnerContextHandle);
-                  capabilitiesSet = new HashSet<String>();
+                  final Set<String> capabilities = new HashSet<String>();
 
                   final StringTokenizer strTok = new StringTokenizer(extensions);
                   while (strTok.hasMoreTokens()) {
-                     capabilitiesSet.add(strTok.nextToken());
+                     capabilities.add(strTok.nextToken());
                   }
+                  capabilitiesSet = capabilities;
 
                   if (logger.isLoggable(Level.FINE)) {
                      logger.fine("Capabilities initialized to :" + capabilitiesSet.toString());
@@ -1022,12 +1864,16 @@ public class KernelRunner extends KernelRunnerJNI {
                      return warnFallBackAndExecute(kernel, _range, _passes, "32 bit Atomics required but not supported");
                   }
 
+                  long phaseStart = System.nanoTime();
                   String openCL;
                   try {
-                     openCL = KernelWriter.writeToString(entryPoint);
+                     // always guarded, so that any later launch of the class may use a padded range. A kernel which
+                     // waits at a barrier can't return early, so it has no guard and its padded launches run in Java
+                     openCL = KernelWriter.writeToString(entryPoint, !entryPoint.usesBarriers());
                   } catch (final CodeGenException codeGenException) {
                      return warnFallBackAndExecute(kernel, _range, _passes, codeGenException);
                   }
+                  recordPhase(kernel.getClass(), KernelStats.Phase.OPENCL_EMIT, phaseStart);
 
                   if (Config.enableShowGeneratedOpenCL) {
                      System.out.println(openCL);
@@ -1038,12 +1884,16 @@ public class KernelRunner extends KernelRunnerJNI {
                   }
 
                   // Send the string to OpenCL to compile it
-                  if (buildProgramJNI(kernelRunnerContextHandle, currentKernelMapping.kernelContextHandle, openCL) == 0) {
+                  phaseStart = System.nanoTime();
+                  final long programHandle = buildProgramJNI(kernelRunnerContextHandle, currentKernelMapping.kernelContextHandle, openCL);
+                  phaseStart = recordPhase(kernel.getClass(), KernelStats.Phase.NATIVE_BUILD, phaseStart);
+                  if (programHandle == 0) {
                      return warnFallBackAndExecute(kernel, _range, _passes, "OpenCL compile failed");
                   }
 
                   List<KernelArg> kernelArgs = findOutKernelArgsIn(entryPoint, kernel);
                   if (kernelArgs == null) {
+                     recordFallback(kernel, "unsupported kernel argument");
                      return fallBackAndExecute(kernel, _range, _passes);
                   }
 
@@ -1055,17 +1905,27 @@ public class KernelRunner extends KernelRunnerJNI {
                   KernelArg[] kernelArgsArray = currentKernelMapping.kernelArgsAsArray();
                   setArgsJNI(kernelRunnerContextHandle, currentKernelMapping.kernelContextHandle,
                         kernelArgsArray, kernelArgsArray.length);
+                  recordPhase(kernel.getClass(), KernelStats.Phase.ARG_DISCOVERY, phaseStart);
 
                   conversionTime = System.currentTimeMillis() - executeStartTime;
 
-                  try {
-                     executeOpenCL(kernel, currentKernelMapping, _range, _passes);
-                  } catch (final AparapiException e) {
-                     warnFallBackAndExecute(kernel, _range, _passes, e);
+                  if (runsPaddedInJava(kernel.getClass(), _range)) {
+                     executePaddedInJava(kernel, _range, _passes);
+                  } else {
+                     try {
+                        executeOpenCL(kernel, currentKernelMapping, _range, _passes);
+                     } catch (final AparapiException e) {
+                        warnFallBackAndExecute(kernel, _range, _passes, e);
+                     }
                   }
                } else {
                   warnFallBackAndExecute(kernel, _range, _passes, "failed to locate entrypoint");
                }
+            } else if (currentKernelMapping.kernelContextHandle == 0) {
+               // a launch in an earlier mode of the chain could not prepare this kernel for OpenCL
+               return warnFallBackAndExecute(kernel, _range, _passes, "kernel could not be prepared for OpenCL");
+            } else if (runsPaddedInJava(kernel.getClass(), _range)) {
+               executePaddedInJava(kernel, _range, _passes);
             } else {
                try {
                   executeOpenCL(kernel, currentKernelMapping, _range, _passes);
@@ -1082,15 +1942,158 @@ public class KernelRunner extends KernelRunnerJNI {
       }
 
       if (Config.enableExecutionModeReporting) {
-         System.out.println(kernel.getClass().getCanonicalName() + ":" + getExecutionMode());
+         System.out.println(kernel.getClass().getCanonicalName() + ":" + getExecutionMode(kernel.getClass()));
       }
 
       executionTime = System.currentTimeMillis() - executeStartTime;
-      accumulatedExecutionTime += executionTime;
+      accumulatedExecutionTime.addAndGet(executionTime);
 
       return this;
    }
 
+   /**
+    * Report what <code>execute(kernel, range)</code> would do without executing anything. The kernel is translated to
+    * OpenCL (reusing a cached translation if there is one) but nothing is sent to the device.
+    *
+    * @param kernel the kernel, whose current field values are used to size the arguments
+    * @param _range the range the kernel would be executed over
+    * @return the plan
+    */
+   public ExecutionPlan explain(Kernel kernel, Range _range) {
+      synchronized (launchLockFor(kernel.getClass())) {
+         return (explainPlan(kernel, _range));
+      }
+   }
+
+   private ExecutionPlan explainPlan(Kernel kernel, Range _range) {
+      if (_range == null) {
+         throw new IllegalStateException("range can't be null");
+      }
+
+      final ModeState modeState = modeStateFor(kernel.getClass());
+      final EXECUTION_MODE mode = modeState.mode;
+      final EXECUTION_MODE fallbackMode = modeState.nextMode();
+      final ExecutionPlan plan = new ExecutionPlan(kernel.getClass(), _range, mode);
+
+      if (!_range.isValid()) {
+         plan.addNote("range is not valid for the device, local size " + _range.getWorkGroupSize() + " max "
+               + _range.getMaxWorkGroupSize());
+      }
+      if ((mode == EXECUTION_MODE.SEQ) && (_range.getWorkGroupSize() > 1)) {
+         plan.addNote("SEQ can't run a range with group size > 1, execute() will throw");
+      }
+
+      if (mode.isOpenCL()) {
+         if (!OpenCLLoader.isOpenCLAvailable()) {
+            plan.fallBack(fallbackMode, "OpenCL is not available");
+         } else if ((_range.getDevice() != null) && !(_range.getDevice() instanceof OpenCLDevice)) {
+            plan.fallBack(fallbackMode, "OpenCL was requested but Device supplied was not an OpenCLDevice");
+         }
+      }
+
+      final KernelMapping kernelMapping = kernelMappingMap.get(kernel.getClass());
+      Entrypoint entryPoint;
+      try {
+         entryPoint = (kernelMapping != null) ? kernelMapping.entryPoint : ClassModel.getClassModel(kernel.getClass())
+               .getEntrypoint(kernel);
+      } catch (final Exception exception) {
+         plan.fallBack(fallbackMode, exception.getMessage() == null ? exception.getClass().getName() : exception.getMessage());
+         return (plan);
+      }
+      if ((entryPoint == null) || entryPoint.shouldFallback()) {
+         plan.fallBack(fallbackMode, "failed to locate entrypoint");
+         return (plan);
+      }
+
+      if (entryPoint.requiresDoublePragma()) {
+         plan.addPragma(OpenCL.CL_KHR_FP64);
+      }
+      if (entryPoint.requiresByteAddressableStorePragma()) {
+         plan.addPragma(OpenCL.CL_KHR_BYTE_ADDRESSABLE_SUPPORT);
+      }
+      if (entryPoint.requiresAtomic32Pragma()) {
+         plan.addPragma(OpenCL.CL_KHR_GLOBAL_INT32_BASE_ATOMICS);
+         plan.addPragma(OpenCL.CL_KHR_GLOBAL_INT32_EXTENDED_ATOMICS);
+         plan.addPragma(OpenCL.CL_KHR_LOCAL_INT32_BASE_ATOMICS);
+         plan.addPragma(OpenCL.CL_KHR_LOCAL_INT32_EXTENDED_ATOMICS);
+      }
+      if (entryPoint.requiresAtomic64Pragma()) {
+         plan.addPragma(OpenCL.CL_KHR_INT64_BASE_ATOMICS);
+         plan.addPragma(OpenCL.CL_KHR_INT64_EXTENDED_ATOMICS);
+      }
+
+      if (capabilitiesSet == null) {
+         plan.addNote("device extensions are not known until the first OpenCL launch, pragmas were not checked");
+      } else {
+         for (final String pragma : plan.getPragmas()) {
+            if (!capabilitiesSet.contains(pragma)) {
+               plan.fallBack(fallbackMode, pragma + " required but not supported");
+            }
+         }
+      }
+
+      if (_range.isPadded() && entryPoint.usesBarriers()) {
+         plan.addNote("padded range for a kernel which uses barriers, this launch runs in JTP");
+         if (mode.isOpenCL()) {
+            plan.fallBack(EXECUTION_MODE.JTP, "padded range for a kernel which uses barriers");
+         }
+      }
+
+      try {
+         plan.setOpenCLSize(KernelWriter.writeToString(entryPoint, !entryPoint.usesBarriers()).length());
+      } catch (final CodeGenException codeGenException) {
+         plan.fallBack(fallbackMode, codeGenException.getMessage());
+      }
+
+      final List<KernelArg> kernelArgs = findOutKernelArgsIn(entryPoint, kernel);
+      if (kernelArgs == null) {
+         plan.fallBack(fallbackMode, "unsupported kernel argument");
+         return (plan);
+      }
+      for (final KernelArg arg : kernelArgs) {
+         long sizeInBytes = arg.getSizeInBytes();
+         try {
+            final Object value = arg.getField().get(kernel);
+            if ((value == null) && ((arg.getType() & ARG_ARRAY) != 0)) {
+               plan.fallBack(fallbackMode, "Cannot send null refs to kernel (" + arg.getName() + ")");
+            } else if ((arg.getType() & ARG_OBJ_ARRAY_STRUCT) != 0) {
+               final String elementClass = arg.getField().getType().getComponentType().getName();
+               final ClassModel elementModel = entryPoint.getObjectArrayFieldsClasses().get(elementClass);
+               sizeInBytes = (elementModel == null) ? 0 : (long) Array.getLength(value) * elementModel.getTotalStructSize();
+            } else if ((arg.getType() & ARG_ARRAY) != 0) {
+               sizeInBytes = (long) Array.getLength(value) * arg.getPrimitiveSize();
+            }
+         } catch (final IllegalAccessException e) {
+            plan.addNote("unable to read " + arg.getName() + ": " + e.getMessage());
+         }
+
+         final boolean buffered = holdsDeviceBuffer(arg);
+         plan.addArgument(new ExecutionPlan.Argument(arg.getName(), describeType(arg.getType()), sizeInBytes,
+               (buffered && isWrittenEachLaunch(arg.getType())) ? sizeInBytes : 0,
+               (buffered && isReadEachLaunch(arg.getType())) ? sizeInBytes : 0));
+      }
+
+      return (plan);
+   }
+
+   private static String describeType(int type) {
+      final String[] names = {
+            "BOOLEAN", "BYTE", "FLOAT", "INT", "DOUBLE", "LONG", "SHORT", "ARRAY", "PRIMITIVE", "READ", "WRITE", "LOCAL",
+            "GLOBAL", "CONSTANT", "ARRAYLENGTH", "APARAPI_BUFFER", "EXPLICIT", "EXPLICIT_WRITE", "OBJ_ARRAY_STRUCT", null,
+            null, "CHAR", "STATIC"
+      };
+      final StringBuilder sb = new StringBuilder();
+      for (int bit = 0; bit < names.length; bit++) {
+         if (((type & (1 << bit)) != 0) && (names[bit] != null)) {
+            if (sb.length() > 0) {
+               sb.append("|");
+            }
+            sb.append(names[bit]);
+         }
+      }
+      return (sb.toString());
+   }
+
    /**
     * Turns all referenced fields in a given entryPoint and kernel into a list of {@link KernelArg}s.
     * @param entryPoint entryPoint
@@ -1328,25 +2331,156 @@ public class KernelRunner extends KernelRunnerJNI {
       arg.setSizeInBytes(totalElements * primitiveSize);
    }
 
+   private KernelStats statsFor(Class<? extends Kernel> _kernelClass) {
+      KernelStats stats = kernelStatsMap.get(_kernelClass);
+      if (stats == null) {
+         final KernelStats created = new KernelStats(_kernelClass);
+         stats = kernelStatsMap.putIfAbsent(_kernelClass, created);
+         if (stats == null) {
+            stats = created;
+            if (management != null) {
+               management.registerKernel(stats);
+            }
+         }
+      }
+      return (stats);
+   }
+
+   /**
+    * Record the time elapsed since <code>_start</code> against <code>_phase</code> and notify listeners.
+    *
+    * @return the current <code>System.nanoTime()</code> so that consecutive phases can be chained
+    */
+   private long recordPhase(Class<? extends Kernel> _kernelClass, KernelStats.Phase _phase, long _start) {
+      final long now = System.nanoTime();
+      final long nanos = now - _start;
+      final KernelStats stats = statsFor(_kernelClass);
+      stats.record(_phase, nanos);
+      for (final KernelStatsListener listener : kernelStatsListeners) {
+         listener.phaseCompleted(stats, _phase, nanos);
+      }
+      return (now);
+   }
+
+   private void recordLaunch(Class<? extends Kernel> _kernelClass, EXECUTION_MODE _mode, long _start) {
+      recordLaunchNanos(_kernelClass, _mode, System.nanoTime() - _start);
+   }
+
+   private void recordLaunchNanos(Class<? extends Kernel> _kernelClass, EXECUTION_MODE _mode, long nanos) {
+      final KernelStats stats = statsFor(_kernelClass);
+      stats.recordLaunch(_mode, nanos);
+      for (final KernelStatsListener listener : kernelStatsListeners) {
+         listener.launchCompleted(stats, _mode, nanos);
+      }
+   }
+
+   /**
+    * @return the mode a launch over the range ran in, JTP for a range on a JavaDevice
+    */
+   private EXECUTION_MODE launchedMode(Class<? extends Kernel> _kernelClass, Range _range) {
+      return (((_range.getDevice() instanceof JavaDevice) || runsPaddedInJava(_kernelClass, _range)) ? EXECUTION_MODE.JTP
+            : getExecutionMode(_kernelClass));
+   }
+
+   /**
+    * Get the phase timings collected for the given kernel's class.
+    *
+    * @return the stats, or null if the kernel class has not been executed by this runner
+    */
+   public KernelStats getKernelStats(Kernel kernel) {
+      return getKernelStats(kernel.getClass());
+   }
+
+   public synchronized KernelStats getKernelStats(Class<? extends Kernel> kernelClass) {
+      return (kernelStatsMap.get(kernelClass));
+   }
+
+   /**
+    * Attach a recorder which will receive every phase and launch of this runner, the per thread group loops of JTP
+    * launches and, when profiling is enabled, the native OpenCL events.
+    *
+    * @param _traceRecorder the recorder, or null to stop recording
+    */
+   public synchronized void setTraceRecorder(TraceRecorder _traceRecorder) {
+      if (traceRecorder != null) {
+         kernelStatsListeners.remove(traceRecorder);
+      }
+      traceRecorder = _traceRecorder;
+      if (traceRecorder != null) {
+         kernelStatsListeners.add(traceRecorder);
+      }
+   }
+
+   public TraceRecorder getTraceRecorder() {
+      return (traceRecorder);
+   }
+
+   /**
+    * Save the next launch of this runner, before it executes, so that it can be replayed elsewhere.
+    *
+    * @param _file where to save the launch
+    * @param _maxArrayElements arrays longer than this are sampled, see {@link LaunchCapture}
+    * @see LaunchCapture#read(File)
+    */
+   public synchronized void captureNextLaunch(File _file, int _maxArrayElements) {
+      captureFile = _file;
+      captureMaxArrayElements = _maxArrayElements;
+   }
+
+   private void capture(Kernel _kernel, Range _range, int _passes) {
+      final File file;
+      synchronized (this) {
+         file = captureFile;
+         captureFile = null;
+      }
+      if (file == null) {
+         // another thread's launch took it
+         return;
+      }
+      try {
+         LaunchCapture.write(file, _kernel, _range, _passes, getExecutionMode(_kernel.getClass()), captureMaxArrayElements);
+         if (logger.isLoggable(Level.FINE)) {
+            logger.fine("captured " + _kernel.getClass().getName() + " launch to " + file);
+         }
+      } catch (final IOException e) {
+         logger.log(Level.WARNING, "Unable to capture " + _kernel.getClass().getName() + " launch to " + file, e);
+      }
+   }
+
+   public void addKernelStatsListener(KernelStatsListener _listener) {
+      kernelStatsListeners.add(_listener);
+   }
+
+   public void removeKernelStatsListener(KernelStatsListener _listener) {
+      kernelStatsListeners.remove(_listener);
+   }
+
    public List<ProfileInfo> getProfileInfo(Kernel kernel) {
       return getProfileInfo(kernel.getClass());
    }
 
    public boolean hasProfileInfo(Class<? extends Kernel> kernelClass) {
-      return kernelMappingMap.containsKey(kernelClass);
+      return kernelMappingMap.containsKey(kernelClass) || javaProfileInfo.containsKey(kernelClass);
    }
 
+   /**
+    * Get the profile of the most recent launch of the given kernel's class. OpenCL launches report the native events,
+    * JTP and SEQ launches report one execute record per pass (and per group with
+    * <code>-Dcom.amd.aparapi.enableJTPGroupProfiling=true</code>) timed relative to the start of the launch.
+    * 
+    * @return the profile, or null if profiling is not enabled
+    */
    public List<ProfileInfo> getProfileInfo(Class<? extends Kernel> kernelClass) {
       KernelMapping kernelMapping = kernelMappingMap.get(kernelClass);
-      if (kernelMapping == null) {
+      if ((kernelMapping == null) && !javaProfileInfo.containsKey(kernelClass)) {
          throw new IllegalArgumentException("cannot find kernel for " + kernelClass.getName());
       }
 
-      if (((getExecutionMode() == EXECUTION_MODE.GPU) || (getExecutionMode() == EXECUTION_MODE.CPU))) {
+      if ((kernelMapping != null) && getExecutionMode(kernelClass).isOpenCL()) {
          // Only makes sense when we are using OpenCL
          return (getProfileInfoJNI(kernelMapping.kernelContextHandle));
       } else {
-         return (null);
+         return (javaProfileInfo.get(kernelClass));
       }
    }
 
@@ -1387,15 +2521,65 @@ public class KernelRunner extends KernelRunnerJNI {
     *
     */
    public long getAccumulatedExecutionTime() {
-      return accumulatedExecutionTime;
+      return accumulatedExecutionTime.get();
    }
 
+   /**
+    * @return the mode each kernel class starts in, use <code>getExecutionMode(kernelClass)</code> for the mode a class
+    *         actually runs in after any fallback
+    */
    public EXECUTION_MODE getExecutionMode() {
       return executionMode;
    }
 
-   public void setExecutionMode(EXECUTION_MODE executionMode) {
+   /**
+    * Set the mode every kernel class starts in. Classes which have fallen back start again from this mode.
+    */
+   public synchronized void setExecutionMode(EXECUTION_MODE executionMode) {
       this.executionMode = executionMode;
+      modeStates.clear();
+   }
+
+   public EXECUTION_MODE getExecutionMode(Kernel kernel) {
+      return getExecutionMode(kernel.getClass());
+   }
+
+   /**
+    * @return the mode the next launch of this kernel class will be attempted in
+    */
+   public EXECUTION_MODE getExecutionMode(Class<? extends Kernel> kernelClass) {
+      final ModeState modeState = modeStates.get(kernelClass);
+      return (modeState == null ? executionMode : modeState.mode);
+   }
+
+   /**
+    * @return why this kernel class last fell back to another execution mode, or null if it hasn't
+    */
+   public String getFallbackReason(Class<? extends Kernel> kernelClass) {
+      final ModeState modeState = modeStates.get(kernelClass);
+      return (modeState == null ? null : modeState.fallbackReason);
+   }
+
+   private ModeState modeStateFor(Class<? extends Kernel> _kernelClass) {
+      ModeState modeState = modeStates.get(_kernelClass);
+      if (modeState == null) {
+         final ModeState created = newModeState();
+         modeState = modeStates.putIfAbsent(_kernelClass, created);
+         if (modeState == null) {
+            modeState = created;
+         }
+      }
+      return (modeState);
+   }
+
+   /**
+    * A class starts at the runner's mode and falls back through the modes which follow it in the chain.
+    */
+   private synchronized ModeState newModeState() {
+      final List<EXECUTION_MODE> chain = new ArrayList<EXECUTION_MODE>(executionModes);
+      final int position = chain.indexOf(executionMode);
+      return (new ModeState(executionMode, position < 0 ? new ArrayList<EXECUTION_MODE>() : new ArrayList<EXECUTION_MODE>(
+            chain.subList(position + 1, chain.size()))));
    }
 
    /**
@@ -1848,9 +3032,8 @@ public class KernelRunner extends KernelRunnerJNI {
     * @see #get(boolean[][] arr)
     * @see #get(boolean[][][] arr)
     */
-   private void getRaw(Object array) {
-      if (explicit
-            && ((getExecutionMode() == EXECUTION_MODE.GPU) || (getExecutionMode() == EXECUTION_MODE.CPU))) {
+   void getRaw(Object array) {
+      if (explicit && usedOnDevice(array, false)) {
          // Only makes sense when we are using OpenCL
          getJNI(kernelRunnerContextHandle, array);
       }
@@ -1883,42 +3066,70 @@ public class KernelRunner extends KernelRunnerJNI {
     * @see #put(boolean[][][] arr)
     */
 
-   private void putRaw(Object array) {
-      if (explicit
-            && ((getExecutionMode() == EXECUTION_MODE.GPU) || (getExecutionMode() == EXECUTION_MODE.CPU))) {
+   void putRaw(Object array) {
+      // an array no kernel class has used yet may be bound by the next launch, in the mode the classes start in
+      if (explicit && usedOnDevice(array, isDeviceMode(getExecutionMode()))) {
          // Only makes sense when we are using OpenCL
          puts.add(array);
       }
    }
 
+   /**
+    * Explicit buffers only live on the device for kernel classes which run in OpenCL, each class having its own mode.
+    * 
+    * @param _unused the answer for an array no kernel class has used yet
+    * @return true if a kernel class which uses the array is in an OpenCL mode
+    */
+   private boolean usedOnDevice(Object array, boolean _unused) {
+      boolean used = false;
+      for (final KernelMapping kernelMapping : kernelMappingMap.values()) {
+         for (final KernelArg arg : kernelMapping.kernelArgs) {
+            if (arg.getArray() == array) {
+               if (isDeviceMode(getExecutionMode(kernelMapping.kernelClass))) {
+                  return (true);
+               }
+               used = true;
+            }
+         }
+      }
+      return (used ? false : _unused);
+   }
+
+   private static boolean isDeviceMode(EXECUTION_MODE mode) {
+      return ((mode == EXECUTION_MODE.GPU) || (mode == EXECUTION_MODE.CPU));
+   }
+
    /**
     * set possible fallback path for execution modes.
     * for example setExecutionFallbackPath(GPU,CPU,JTP) will try to use the GPU
     * if it fails it will fall back to OpenCL CPU and finally it will try JTP.
     */
-   public void addExecutionModes(EXECUTION_MODE... platforms) {
+   public synchronized void addExecutionModes(EXECUTION_MODE... platforms) {
       executionModes.addAll(Arrays.asList(platforms));
       currentMode = executionModes.iterator();
       executionMode = currentMode.next();
+      modeStates.clear();
    }
 
    /**
     * @return is there another execution path we can try
     */
-   public boolean hasNextExecutionMode() {
+   public synchronized boolean hasNextExecutionMode() {
       return currentMode.hasNext();
    }
 
    /**
     * try the next execution path in the list if there aren't any more than give up
     */
-   public void tryNextExecutionMode() {
+   public synchronized void tryNextExecutionMode() {
       if (currentMode.hasNext()) {
          executionMode = currentMode.next();
+         modeStates.clear();
       }
    }
 
-   public void setFallbackExecutionMode() {
+   public synchronized void setFallbackExecutionMode() {
       executionMode = EXECUTION_MODE.getFallbackExecutionMode();
+      modeStates.clear();
    }
 }
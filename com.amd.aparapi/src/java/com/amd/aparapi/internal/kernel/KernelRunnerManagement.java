@@ -0,0 +1,378 @@
+/*
+Copyright (c) 2010-2011, Advanced Micro Devices, Inc.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+disclaimer. 
+
+Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+disclaimer in the documentation and/or other materials provided with the distribution. 
+
+Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products
+derived from this software without specific prior written permission. 
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+If you use the software (in whole or in part), you shall adhere to all applicable U.S., European, and other export
+laws, including but not limited to the U.S. Export Administration Regulations ("EAR"), (15 C.F.R. Sections 730 through
+774), and E.U. Council Regulation (EC) No 1334/2000 of 22 June 2000.  Further, pursuant to Section 740.6 of the EAR,
+you hereby certify that, except pursuant to a license granted by the United States Department of Commerce Bureau of 
+Industry and Security or as otherwise permitted pursuant to a License Exception under the U.S. Export Administration 
+Regulations ("EAR"), you will not (1) export, re-export or release to a national of a country in Country Groups D:1,
+E:1 or E:2 any restricted technology, software, or source code you receive hereunder, or (2) export to Country Groups
+D:1, E:1 or E:2 the direct product of such technology or software, if such foreign produced direct product is subject
+to national security controls as identified on the Commerce Control List (currently found in Supplement 1 to Part 774
+of EAR).  For the most current Country Group listings, or for additional information about the EAR or your obligations
+under those regulations, please refer to the U.S. Bureau of Industry and Security's website at http://www.bis.doc.gov/. 
+
+*/
+package com.amd.aparapi.internal.kernel;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.amd.aparapi.Config;
+import com.amd.aparapi.EXECUTION_MODE;
+import com.amd.aparapi.Kernel;
+import com.amd.aparapi.KernelMapping;
+import com.amd.aparapi.KernelStats;
+import com.amd.aparapi.LatencyHistogram;
+
+/**
+ * Publishes a <code>KernelRunner</code> and the kernel classes it executes to the platform MBean server.
+ * <p>
+ * Only created when <code>Config.enableJMX</code> is set, so a runner without JMX pays nothing beyond a null check.
+ * <p>
+ * The MBean server holds the beans strongly, so the beans only hold their runner through a weak reference. 
+ * <code>KernelRunner.dispose()</code> unregisters the beans straight away, the beans of a runner which was collected 
+ * without being disposed are unregistered the next time a runner registers.
+ * 
+ * @see KernelRunnerMXBean
+ * @see KernelMappingMXBean
+ */
+class KernelRunnerManagement implements KernelRunnerMXBean{
+
+   private static Logger logger = Logger.getLogger(Config.getLoggerName());
+
+   private static final String DOMAIN = "com.amd.aparapi";
+
+   private static final AtomicInteger runnerIds = new AtomicInteger();
+
+   private static final ReferenceQueue<KernelRunner> collectedRunners = new ReferenceQueue<KernelRunner>();
+
+   /*
+    * Reachable from the registered bean, so it is still around to be enqueued once its runner has been collected.
+    */
+   private static class RunnerReference extends WeakReference<KernelRunner>{
+      private final KernelRunnerManagement management;
+
+      RunnerReference(KernelRunner _kernelRunner, KernelRunnerManagement _management) {
+         super(_kernelRunner, collectedRunners);
+         management = _management;
+      }
+   }
+
+   private final RunnerReference kernelRunner;
+
+   private final String runnerName;
+
+   private final ConcurrentMap<Class<? extends Kernel>, KernelMappingManagement> kernels = new ConcurrentHashMap<Class<? extends Kernel>, KernelMappingManagement>();
+
+   private final List<ObjectName> registeredNames = new ArrayList<ObjectName>();
+
+   private KernelRunnerManagement(KernelRunner _kernelRunner) {
+      kernelRunner = new RunnerReference(_kernelRunner, this);
+      runnerName = "KernelRunner-" + runnerIds.incrementAndGet();
+   }
+
+   static KernelRunnerManagement register(KernelRunner _kernelRunner) {
+      for (RunnerReference collected = (RunnerReference) collectedRunners.poll(); collected != null; collected = (RunnerReference) collectedRunners
+            .poll()) {
+         collected.management.unregister();
+      }
+      final KernelRunnerManagement management = new KernelRunnerManagement(_kernelRunner);
+      try {
+         management.registerMBean(management, new ObjectName(DOMAIN + ":type=KernelRunner,name=" + management.runnerName));
+      } catch (final JMException e) {
+         logger.log(Level.WARNING, "Unable to register " + management.runnerName + " with JMX", e);
+      }
+      return (management);
+   }
+
+   private void registerMBean(Object _mbean, ObjectName _name) throws JMException {
+      ManagementFactory.getPlatformMBeanServer().registerMBean(_mbean, _name);
+      synchronized (registeredNames) {
+         registeredNames.add(_name);
+      }
+   }
+
+   /**
+    * Publish the stats of a kernel class the first time the runner sees it.
+    */
+   void registerKernel(KernelStats _stats) {
+      final KernelMappingManagement kernel = new KernelMappingManagement(kernelRunner, _stats);
+      if (kernels.putIfAbsent(_stats.getKernelClass(), kernel) == null) {
+         try {
+            registerMBean(kernel, new ObjectName(DOMAIN + ":type=KernelMapping,runner=" + runnerName + ",name="
+                  + ObjectName.quote(_stats.getKernelClass().getName())));
+         } catch (final JMException e) {
+            logger.log(Level.WARNING, "Unable to register " + _stats.getKernelClass().getName() + " with JMX", e);
+         }
+      }
+   }
+
+   /**
+    * Attach the <code>KernelMapping</code> created for an OpenCL kernel so that its arguments can be reported.
+    */
+   void registerKernelMapping(KernelMapping _kernelMapping) {
+      final KernelMappingManagement kernel = kernels.get(_kernelMapping.kernelClass);
+      if (kernel != null) {
+         kernel.kernelMapping = _kernelMapping;
+      }
+   }
+
+   void unregister() {
+      final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      synchronized (registeredNames) {
+         for (final ObjectName name : registeredNames) {
+            try {
+               server.unregisterMBean(name);
+            } catch (final JMException e) {
+               logger.log(Level.FINE, "Unable to unregister " + name, e);
+            }
+         }
+         registeredNames.clear();
+      }
+   }
+
+   @Override public String getExecutionMode() {
+      final KernelRunner runner = kernelRunner.get();
+      return (runner == null ? null : runner.getExecutionMode().toString());
+   }
+
+   @Override public List<String> getKernelClasses() {
+      final List<String> names = new ArrayList<String>();
+      for (final Class<? extends Kernel> kernelClass : kernels.keySet()) {
+         names.add(kernelClass.getName());
+      }
+      return (names);
+   }
+
+   @Override public long getLaunchCount() {
+      long launches = 0;
+      for (final KernelMappingManagement kernel : kernels.values()) {
+         launches += kernel.stats.getLaunchCount();
+      }
+      return (launches);
+   }
+
+   @Override public long getFallbackCount() {
+      long fallbacks = 0;
+      for (final KernelMappingManagement kernel : kernels.values()) {
+         fallbacks += kernel.stats.getFallbackCount();
+      }
+      return (fallbacks);
+   }
+
+   @Override public Map<String, Long> getFallbackReasons() {
+      final Map<String, Long> reasons = new HashMap<String, Long>();
+      for (final KernelMappingManagement kernel : kernels.values()) {
+         for (final Map.Entry<String, Long> entry : kernel.stats.getFallbackReasons().entrySet()) {
+            final Long count = reasons.get(entry.getKey());
+            reasons.put(entry.getKey(), (count == null ? 0 : count) + entry.getValue());
+         }
+      }
+      return (reasons);
+   }
+
+   @Override public long getConversionTime() {
+      final KernelRunner runner = kernelRunner.get();
+      return (runner == null ? 0 : runner.getConversionTime());
+   }
+
+   @Override public long getExecutionTime() {
+      final KernelRunner runner = kernelRunner.get();
+      return (runner == null ? 0 : runner.getExecutionTime());
+   }
+
+   @Override public long getAccumulatedExecutionTime() {
+      final KernelRunner runner = kernelRunner.get();
+      return (runner == null ? 0 : runner.getAccumulatedExecutionTime());
+   }
+
+   @Override public long[] getConversionTimeHistogram() {
+      final long[] histogram = new long[KernelStats.HISTOGRAM_BUCKETS];
+      for (final KernelMappingManagement kernel : kernels.values()) {
+         final long nanos = kernel.stats.getTranslationNanos();
+         if (nanos > 0) {
+            histogram[KernelStats.bucketOf(nanos)]++;
+         }
+      }
+      return (histogram);
+   }
+
+   @Override public long[] getExecutionTimeHistogram() {
+      final long[] histogram = new long[KernelStats.HISTOGRAM_BUCKETS];
+      for (final KernelMappingManagement kernel : kernels.values()) {
+         final long[] kernelHistogram = kernel.stats.getLaunchHistogram();
+         for (int i = 0; i < histogram.length; i++) {
+            histogram[i] += kernelHistogram[i];
+         }
+      }
+      return (histogram);
+   }
+
+   static class KernelMappingManagement implements KernelMappingMXBean{
+
+      private final WeakReference<KernelRunner> kernelRunner;
+
+      private final KernelStats stats;
+
+      private volatile KernelMapping kernelMapping;
+
+      KernelMappingManagement(WeakReference<KernelRunner> _kernelRunner, KernelStats _stats) {
+         kernelRunner = _kernelRunner;
+         stats = _stats;
+      }
+
+      private KernelArg[] kernelArgs() {
+         final KernelMapping mapping = kernelMapping;
+         return (mapping == null ? new KernelArg[0] : mapping.kernelArgsAsArray());
+      }
+
+      @Override public String getKernelClass() {
+         return (stats.getKernelClass().getName());
+      }
+
+      @Override public String getLastExecutionMode() {
+         return (stats.getLastExecutionMode().toString());
+      }
+
+      @Override public String getExecutionMode() {
+         final KernelRunner runner = kernelRunner.get();
+         return (runner == null ? null : runner.getExecutionMode(stats.getKernelClass()).toString());
+      }
+
+      @Override public String getFallbackReason() {
+         final KernelRunner runner = kernelRunner.get();
+         return (runner == null ? null : runner.getFallbackReason(stats.getKernelClass()));
+      }
+
+      @Override public long getLaunchCount() {
+         return (stats.getLaunchCount());
+      }
+
+      @Override public long getFallbackCount() {
+         return (stats.getFallbackCount());
+      }
+
+      @Override public Map<String, Long> getFallbackReasons() {
+         return (stats.getFallbackReasons());
+      }
+
+      @Override public Map<String, Long> getPhaseNanos() {
+         final Map<String, Long> phases = new HashMap<String, Long>();
+         for (final KernelStats.Phase phase : KernelStats.Phase.values()) {
+            phases.put(phase.toString(), stats.getTotalNanos(phase));
+         }
+         return (phases);
+      }
+
+      @Override public long[] getExecutionTimeHistogram() {
+         return (stats.getLaunchHistogram());
+      }
+
+      @Override public Map<String, Long> getLatencyPercentiles() {
+         final Map<String, Long> percentiles = new HashMap<String, Long>();
+         for (final EXECUTION_MODE mode : EXECUTION_MODE.values()) {
+            final LatencyHistogram histogram = stats.getLatencyHistogram(mode);
+            if (histogram != null) {
+               final LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+               percentiles.put(mode + ".count", snapshot.getCount());
+               percentiles.put(mode + ".p50", snapshot.getP50());
+               percentiles.put(mode + ".p99", snapshot.getP99());
+               percentiles.put(mode + ".p999", snapshot.getP999());
+               percentiles.put(mode + ".max", snapshot.getMax());
+            }
+         }
+         return (percentiles);
+      }
+
+      @Override public void resetLatencyHistograms() {
+         stats.resetLatencyHistograms();
+      }
+
+      @Override public Map<String, Long> getBytesWritten() {
+         final Map<String, Long> bytes = new HashMap<String, Long>();
+         for (final KernelArg arg : kernelArgs()) {
+            if (KernelRunner.holdsDeviceBuffer(arg)) {
+               bytes.put(arg.getName(), arg.getBytesWritten());
+            }
+         }
+         return (bytes);
+      }
+
+      @Override public Map<String, Long> getBytesRead() {
+         final Map<String, Long> bytes = new HashMap<String, Long>();
+         for (final KernelArg arg : kernelArgs()) {
+            if (KernelRunner.holdsDeviceBuffer(arg)) {
+               bytes.put(arg.getName(), arg.getBytesRead());
+            }
+         }
+         return (bytes);
+      }
+
+      @Override public Map<String, Long> getBufferAllocations() {
+         final Map<String, Long> allocations = new HashMap<String, Long>();
+         for (final KernelArg arg : kernelArgs()) {
+            if (KernelRunner.holdsDeviceBuffer(arg)) {
+               allocations.put(arg.getName(), arg.getBufferAllocations());
+            }
+         }
+         return (allocations);
+      }
+
+      @Override public Map<String, Long> getPinCounts() {
+         final Map<String, Long> pins = new HashMap<String, Long>();
+         for (final KernelArg arg : kernelArgs()) {
+            if (KernelRunner.holdsDeviceBuffer(arg)) {
+               pins.put(arg.getName(), arg.getPinCount());
+            }
+         }
+         return (pins);
+      }
+
+      @Override public Map<String, Long> getResidentBuffers() {
+         final Map<String, Long> bytes = new HashMap<String, Long>();
+         for (final KernelArg arg : kernelArgs()) {
+            if (KernelRunner.holdsDeviceBuffer(arg)) {
+               bytes.put(arg.getName(), (long) arg.getSizeInBytes());
+            }
+         }
+         return (bytes);
+      }
+   }
+}
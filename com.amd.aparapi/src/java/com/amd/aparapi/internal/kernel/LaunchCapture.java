@@ -0,0 +1,592 @@
+/*
+Copyright (c) 2010-2011, Advanced Micro Devices, Inc.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+disclaimer. 
+
+Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+disclaimer in the documentation and/or other materials provided with the distribution. 
+
+Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products
+derived from this software without specific prior written permission. 
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+If you use the software (in whole or in part), you shall adhere to all applicable U.S., European, and other export
+laws, including but not limited to the U.S. Export Administration Regulations ("EAR"), (15 C.F.R. Sections 730 through
+774), and E.U. Council Regulation (EC) No 1334/2000 of 22 June 2000.  Further, pursuant to Section 740.6 of the EAR,
+you hereby certify that, except pursuant to a license granted by the United States Department of Commerce Bureau of 
+Industry and Security or as otherwise permitted pursuant to a License Exception under the U.S. Export Administration 
+Regulations ("EAR"), you will not (1) export, re-export or release to a national of a country in Country Groups D:1,
+E:1 or E:2 any restricted technology, software, or source code you receive hereunder, or (2) export to Country Groups
+D:1, E:1 or E:2 the direct product of such technology or software, if such foreign produced direct product is subject
+to national security controls as identified on the Commerce Control List (currently found in Supplement 1 to Part 774
+of EAR).  For the most current Country Group listings, or for additional information about the EAR or your obligations
+under those regulations, please refer to the U.S. Bureau of Industry and Security's website at http://www.bis.doc.gov/. 
+
+*/
+package com.amd.aparapi.internal.kernel;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.amd.aparapi.EXECUTION_MODE;
+import com.amd.aparapi.Kernel;
+import com.amd.aparapi.Range;
+
+/**
+ * A single kernel launch saved to a file, so that it can be replayed away from the application which made it.
+ * <p>
+ * We save the kernel class, the value of every field declared by the kernel class and its superclasses (up to 
+ * <code>Kernel</code>), the <code>Range</code> and the number of passes. Fields may be primitives, primitive arrays of any 
+ * dimension, or arrays of objects whose own fields are primitives (the object arrays Aparapi maps to structs). Other 
+ * references, such as the outer instance of an anonymous kernel, are replayed as null. Static fields are saved and 
+ * restored too, static finals excepted.
+ * <p>
+ * Arrays longer than <code>maxArrayElements</code> are sampled: we keep that many evenly spaced elements and on replay 
+ * repeat them to fill the original length. Sizes and transfer volumes are preserved, values only approximately.
+ * <p>
+ * Values are read from the Java heap, so in explicit buffer mode anything only the device has seen is not captured. 
+ * The file is a gzipped <code>DataOutputStream</code>.
+ *
+ * @see KernelRunner#captureNextLaunch(File, int)
+ */
+public class LaunchCapture{
+
+   private static final int MAGIC = 0x41505243; // "APRC"
+
+   private static final int VERSION = 3;
+
+   /**
+    * Keep every element of every array.
+    */
+   public static final int ALL_ELEMENTS = Integer.MAX_VALUE;
+
+   private static final byte TAG_NULL = 0;
+
+   private static final byte TAG_PRIMITIVE = 1;
+
+   private static final byte TAG_PRIMITIVE_ARRAY = 2;
+
+   private static final byte TAG_ARRAY_OF_ARRAYS = 3;
+
+   private static final byte TAG_OBJECT_ARRAY = 4;
+
+   private static final byte TAG_UNSUPPORTED = 5;
+
+   private final String kernelClassName;
+
+   private final EXECUTION_MODE capturedMode;
+
+   private final Range range;
+
+   private final int passes;
+
+   private final Kernel kernel;
+
+   private LaunchCapture(String _kernelClassName, EXECUTION_MODE _capturedMode, Range _range, int _passes, Kernel _kernel) {
+      kernelClassName = _kernelClassName;
+      capturedMode = _capturedMode;
+      range = _range;
+      passes = _passes;
+      kernel = _kernel;
+   }
+
+   public String getKernelClassName() {
+      return (kernelClassName);
+   }
+
+   /**
+    * @return the mode the runner was set to when the launch was captured
+    */
+   public EXECUTION_MODE getCapturedMode() {
+      return (capturedMode);
+   }
+
+   public Range getRange() {
+      return (range);
+   }
+
+   public int getPasses() {
+      return (passes);
+   }
+
+   /**
+    * @return a new instance of the kernel class with the captured field values
+    */
+   public Kernel getKernel() {
+      return (kernel);
+   }
+
+   /**
+    * Save a launch.
+    * 
+    * @param _maxArrayElements arrays longer than this are sampled, use {@link #ALL_ELEMENTS} to keep everything
+    */
+   public static void write(File _file, Kernel _kernel, Range _range, int _passes, EXECUTION_MODE _mode, int _maxArrayElements)
+         throws IOException {
+      final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(
+            _file))));
+      try {
+         out.writeInt(MAGIC);
+         out.writeInt(VERSION);
+         out.writeUTF(_kernel.getClass().getName());
+         out.writeUTF(_mode.name());
+         out.writeInt(_range.getDims());
+         for (int dim = 0; dim < 3; dim++) {
+            out.writeInt(_range.getGlobalSize(dim));
+            out.writeInt(_range.getLocalSize(dim));
+            out.writeInt(_range.getOffset(dim));
+            out.writeInt(_range.getPadding(dim));
+         }
+         out.writeInt(_passes);
+
+         final List<Field> fields = capturedFields(_kernel.getClass(), true);
+         out.writeInt(fields.size());
+         for (final Field field : fields) {
+            out.writeUTF(field.getDeclaringClass().getName());
+            out.writeUTF(field.getName());
+            writeValue(out, field.get(Modifier.isStatic(field.getModifiers()) ? null : _kernel), field.getType(),
+                  _maxArrayElements);
+         }
+      } catch (final IllegalAccessException e) {
+         throw new IOException("unable to read kernel field", e);
+      } finally {
+         out.close();
+      }
+   }
+
+   /**
+    * Load a launch, creating the kernel it describes.
+    * 
+    * The kernel class (and the classes of any object arrays) must be on the classpath. The no-arg constructor is used if
+    * there is one, otherwise the instance is created without running the kernel class's own constructors.
+    */
+   public static LaunchCapture read(File _file) throws IOException, ClassNotFoundException {
+      final DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(_file))));
+      try {
+         if (in.readInt() != MAGIC) {
+            throw new IOException(_file + " is not a launch capture");
+         }
+         final int version = in.readInt();
+         if (version != VERSION) {
+            throw new IOException(_file + " has unsupported version " + version);
+         }
+         final String kernelClassName = in.readUTF();
+         final EXECUTION_MODE mode = EXECUTION_MODE.valueOf(in.readUTF());
+         final int dims = in.readInt();
+         final int[] globalSizes = new int[3];
+         final int[] localSizes = new int[3];
+         final int[] offsets = new int[3];
+         final int[] paddings = new int[3];
+         for (int dim = 0; dim < 3; dim++) {
+            globalSizes[dim] = in.readInt();
+            localSizes[dim] = in.readInt();
+            offsets[dim] = in.readInt();
+            paddings[dim] = in.readInt();
+         }
+         final int passes = in.readInt();
+
+         final ClassLoader loader = Thread.currentThread().getContextClassLoader();
+         final Class<?> kernelClass = Class.forName(kernelClassName, true, loader);
+         final Kernel kernel = (Kernel) instantiate(kernelClass, Kernel.class);
+
+         final int fieldCount = in.readInt();
+         for (int i = 0; i < fieldCount; i++) {
+            final Class<?> declaringClass = Class.forName(in.readUTF(), true, loader);
+            final Field field = declaringClass.getDeclaredField(in.readUTF());
+            field.setAccessible(true);
+            field.set(Modifier.isStatic(field.getModifiers()) ? null : kernel, readTypedValue(in, field.getType(), loader));
+         }
+
+         final Range range;
+         if (dims == 1) {
+            range = Range.create(offsets[0], globalSizes[0], localSizes[0]);
+         } else if (dims == 2) {
+            range = Range.create2D(offsets[0], offsets[1], globalSizes[0], globalSizes[1], localSizes[0], localSizes[1]);
+         } else {
+            range = Range.create3D(offsets[0], offsets[1], offsets[2], globalSizes[0], globalSizes[1], globalSizes[2],
+                  localSizes[0], localSizes[1], localSizes[2]);
+         }
+         range.setPadding_0(paddings[0]);
+         range.setPadding_1(paddings[1]);
+         range.setPadding_2(paddings[2]);
+         return (new LaunchCapture(kernelClassName, mode, range, passes, kernel));
+      } catch (final NoSuchFieldException e) {
+         throw new IOException("kernel class does not match the capture", e);
+      } catch (final IllegalAccessException e) {
+         throw new IOException("unable to set kernel field", e);
+      } finally {
+         in.close();
+      }
+   }
+
+   /**
+    * @return the fields of <code>_class</code> and its superclasses below <code>Kernel</code> (or <code>Object</code>)
+    */
+   private static List<Field> capturedFields(Class<?> _class, boolean _statics) {
+      final List<Field> fields = new ArrayList<Field>();
+      for (Class<?> c = _class; (c != null) && (c != Kernel.class) && (c != Object.class); c = c.getSuperclass()) {
+         for (final Field field : c.getDeclaredFields()) {
+            final int modifiers = field.getModifiers();
+            if (!field.isSynthetic() && (!Modifier.isStatic(modifiers) || (_statics && !Modifier.isFinal(modifiers)))) {
+               field.setAccessible(true);
+               fields.add(field);
+            }
+         }
+      }
+      return (fields);
+   }
+
+   private static Object instantiate(Class<?> _class, Class<?> _constructedSuperclass) throws IOException {
+      try {
+         final Constructor<?> constructor = _class.getDeclaredConstructor();
+         constructor.setAccessible(true);
+         return (constructor.newInstance());
+      } catch (final NoSuchMethodException e) {
+         // no no-arg constructor, fall through
+      } catch (final Exception e) {
+         throw new IOException("unable to create " + _class.getName(), e);
+      }
+      try {
+         // As deserialization does, run only the superclass constructor
+         final Class<?> factoryClass = Class.forName("sun.reflect.ReflectionFactory");
+         final Object factory = factoryClass.getMethod("getReflectionFactory").invoke(null);
+         final Method newConstructor = factoryClass.getMethod("newConstructorForSerialization", Class.class, Constructor.class);
+         final Constructor<?> constructor = (Constructor<?>) newConstructor.invoke(factory, _class,
+               _constructedSuperclass.getDeclaredConstructor());
+         return (constructor.newInstance());
+      } catch (final Exception e) {
+         throw new IOException("unable to create " + _class.getName() + " without a no-arg constructor", e);
+      }
+   }
+
+   /**
+    * @return the distance between the elements we keep of an array of <code>_length</code>
+    */
+   private static int stride(int _length, int _maxArrayElements) {
+      return ((_length <= _maxArrayElements) ? 1 : (int) Math.ceil((double) _length / _maxArrayElements));
+   }
+
+   private static void writeValue(DataOutputStream _out, Object _value, Class<?> _type, int _maxArrayElements)
+         throws IOException, IllegalAccessException {
+      if (_value == null) {
+         _out.writeByte(TAG_NULL);
+      } else if (_type.isPrimitive()) {
+         _out.writeByte(TAG_PRIMITIVE);
+         writePrimitive(_out, _value, _type);
+      } else if (_type.isArray() && _type.getComponentType().isPrimitive()) {
+         final Class<?> componentType = _type.getComponentType();
+         final int length = Array.getLength(_value);
+         final int stride = stride(length, _maxArrayElements);
+         _out.writeByte(TAG_PRIMITIVE_ARRAY);
+         _out.writeUTF(componentType.getName());
+         _out.writeInt(length);
+         _out.writeInt(((length + stride) - 1) / stride);
+         writePrimitiveArray(_out, _value, stride);
+      } else if (_type.isArray() && _type.getComponentType().isArray()) {
+         final int length = Array.getLength(_value);
+         _out.writeByte(TAG_ARRAY_OF_ARRAYS);
+         _out.writeUTF(_type.getComponentType().getName());
+         _out.writeInt(length);
+         for (int i = 0; i < length; i++) {
+            writeValue(_out, Array.get(_value, i), _type.getComponentType(), _maxArrayElements);
+         }
+      } else if (_type.isArray()) {
+         final Class<?> componentType = _type.getComponentType();
+         final List<Field> fields = capturedFields(componentType, false);
+         final int length = Array.getLength(_value);
+         final int stride = stride(length, _maxArrayElements);
+         _out.writeByte(TAG_OBJECT_ARRAY);
+         _out.writeUTF(componentType.getName());
+         _out.writeInt(length);
+         _out.writeInt(((length + stride) - 1) / stride);
+         for (int i = 0; i < length; i += stride) {
+            final Object element = Array.get(_value, i);
+            _out.writeBoolean(element != null);
+            if (element != null) {
+               for (final Field field : fields) {
+                  writeValue(_out, field.get(element), field.getType(), _maxArrayElements);
+               }
+            }
+         }
+      } else {
+         _out.writeByte(TAG_UNSUPPORTED);
+      }
+   }
+
+   private static Object readValue(DataInputStream _in, ClassLoader _loader) throws IOException, ClassNotFoundException,
+         IllegalAccessException {
+      final byte tag = _in.readByte();
+      switch (tag) {
+         case TAG_NULL:
+         case TAG_UNSUPPORTED:
+            return (null);
+         case TAG_PRIMITIVE:
+            throw new IOException("primitive value without a type");
+         case TAG_PRIMITIVE_ARRAY: {
+            final Class<?> componentType = primitiveClass(_in.readUTF());
+            final int length = _in.readInt();
+            final int stored = _in.readInt();
+            final Object array = Array.newInstance(componentType, length);
+            readPrimitiveArray(_in, array, stored);
+            fill(array, stored, length);
+            return (array);
+         }
+         case TAG_ARRAY_OF_ARRAYS: {
+            final Class<?> componentType = classForName(_in.readUTF(), _loader);
+            final int length = _in.readInt();
+            final Object array = Array.newInstance(componentType, length);
+            for (int i = 0; i < length; i++) {
+               Array.set(array, i, readTypedValue(_in, componentType, _loader));
+            }
+            return (array);
+         }
+         case TAG_OBJECT_ARRAY: {
+            final Class<?> componentType = classForName(_in.readUTF(), _loader);
+            final List<Field> fields = capturedFields(componentType, false);
+            final int length = _in.readInt();
+            final int stored = _in.readInt();
+            final Object array = Array.newInstance(componentType, length);
+            for (int i = 0; i < stored; i++) {
+               if (_in.readBoolean()) {
+                  final Object element = instantiate(componentType, Object.class);
+                  for (final Field field : fields) {
+                     field.set(element, readTypedValue(_in, field.getType(), _loader));
+                  }
+                  Array.set(array, i, element);
+               }
+            }
+            if (stored < length) {
+               // Sampled, give each slot its own copy so the elements can still be mutated independently
+               for (int i = stored; i < length; i++) {
+                  final Object sample = Array.get(array, i % stored);
+                  if (sample != null) {
+                     final Object element = instantiate(componentType, Object.class);
+                     for (final Field field : fields) {
+                        field.set(element, copyOf(field.get(sample)));
+                     }
+                     Array.set(array, i, element);
+                  }
+               }
+            }
+            return (array);
+         }
+         default:
+            throw new IOException("unknown value tag " + tag);
+      }
+   }
+
+   /**
+    * Primitives are written without a tag of their own type, so read them knowing the field's type.
+    */
+   private static Object readTypedValue(DataInputStream _in, Class<?> _type, ClassLoader _loader) throws IOException,
+         ClassNotFoundException, IllegalAccessException {
+      if (_type.isPrimitive()) {
+         final byte tag = _in.readByte();
+         if (tag != TAG_PRIMITIVE) {
+            throw new IOException("expected a " + _type.getName() + " value");
+         }
+         return (readPrimitive(_in, _type));
+      }
+      return (readValue(_in, _loader));
+   }
+
+   private static Object copyOf(Object _value) {
+      if ((_value != null) && _value.getClass().isArray()) {
+         final int length = Array.getLength(_value);
+         final Object copy = Array.newInstance(_value.getClass().getComponentType(), length);
+         System.arraycopy(_value, 0, copy, 0, length);
+         return (copy);
+      }
+      return (_value);
+   }
+
+   /**
+    * Repeat the first <code>_stored</code> elements of a sampled array to fill it.
+    */
+   private static void fill(Object _array, int _stored, int _length) {
+      for (int filled = _stored; (_stored > 0) && (filled < _length); filled += Math.min(filled, _length - filled)) {
+         System.arraycopy(_array, 0, _array, filled, Math.min(filled, _length - filled));
+      }
+   }
+
+   private static Class<?> classForName(String _name, ClassLoader _loader) throws ClassNotFoundException {
+      return (Class.forName(_name, false, _loader));
+   }
+
+   private static Class<?> primitiveClass(String _name) throws IOException {
+      final Class<?>[] primitives = {
+            boolean.class,
+            byte.class,
+            char.class,
+            short.class,
+            int.class,
+            long.class,
+            float.class,
+            double.class
+      };
+      for (final Class<?> primitive : primitives) {
+         if (primitive.getName().equals(_name)) {
+            return (primitive);
+         }
+      }
+      throw new IOException("unknown primitive type " + _name);
+   }
+
+   private static void writePrimitive(DataOutputStream _out, Object _value, Class<?> _type) throws IOException {
+      if (_type == boolean.class) {
+         _out.writeBoolean((Boolean) _value);
+      } else if (_type == byte.class) {
+         _out.writeByte((Byte) _value);
+      } else if (_type == char.class) {
+         _out.writeChar((Character) _value);
+      } else if (_type == short.class) {
+         _out.writeShort((Short) _value);
+      } else if (_type == int.class) {
+         _out.writeInt((Integer) _value);
+      } else if (_type == long.class) {
+         _out.writeLong((Long) _value);
+      } else if (_type == float.class) {
+         _out.writeFloat((Float) _value);
+      } else {
+         _out.writeDouble((Double) _value);
+      }
+   }
+
+   /**
+    * Write every <code>_stride</code>th element, switching on the array type once rather than boxing each element.
+    */
+   private static void writePrimitiveArray(DataOutputStream _out, Object _array, int _stride) throws IOException {
+      if (_array instanceof boolean[]) {
+         final boolean[] array = (boolean[]) _array;
+         for (int i = 0; i < array.length; i += _stride) {
+            _out.writeBoolean(array[i]);
+         }
+      } else if (_array instanceof byte[]) {
+         final byte[] array = (byte[]) _array;
+         if (_stride == 1) {
+            _out.write(array);
+         } else {
+            for (int i = 0; i < array.length; i += _stride) {
+               _out.writeByte(array[i]);
+            }
+         }
+      } else if (_array instanceof char[]) {
+         final char[] array = (char[]) _array;
+         for (int i = 0; i < array.length; i += _stride) {
+            _out.writeChar(array[i]);
+         }
+      } else if (_array instanceof short[]) {
+         final short[] array = (short[]) _array;
+         for (int i = 0; i < array.length; i += _stride) {
+            _out.writeShort(array[i]);
+         }
+      } else if (_array instanceof int[]) {
+         final int[] array = (int[]) _array;
+         for (int i = 0; i < array.length; i += _stride) {
+            _out.writeInt(array[i]);
+         }
+      } else if (_array instanceof long[]) {
+         final long[] array = (long[]) _array;
+         for (int i = 0; i < array.length; i += _stride) {
+            _out.writeLong(array[i]);
+         }
+      } else if (_array instanceof float[]) {
+         final float[] array = (float[]) _array;
+         for (int i = 0; i < array.length; i += _stride) {
+            _out.writeFloat(array[i]);
+         }
+      } else {
+         final double[] array = (double[]) _array;
+         for (int i = 0; i < array.length; i += _stride) {
+            _out.writeDouble(array[i]);
+         }
+      }
+   }
+
+   private static void readPrimitiveArray(DataInputStream _in, Object _array, int _stored) throws IOException {
+      if (_array instanceof boolean[]) {
+         final boolean[] array = (boolean[]) _array;
+         for (int i = 0; i < _stored; i++) {
+            array[i] = _in.readBoolean();
+         }
+      } else if (_array instanceof byte[]) {
+         _in.readFully((byte[]) _array, 0, _stored);
+      } else if (_array instanceof char[]) {
+         final char[] array = (char[]) _array;
+         for (int i = 0; i < _stored; i++) {
+            array[i] = _in.readChar();
+         }
+      } else if (_array instanceof short[]) {
+         final short[] array = (short[]) _array;
+         for (int i = 0; i < _stored; i++) {
+            array[i] = _in.readShort();
+         }
+      } else if (_array instanceof int[]) {
+         final int[] array = (int[]) _array;
+         for (int i = 0; i < _stored; i++) {
+            array[i] = _in.readInt();
+         }
+      } else if (_array instanceof long[]) {
+         final long[] array = (long[]) _array;
+         for (int i = 0; i < _stored; i++) {
+            array[i] = _in.readLong();
+         }
+      } else if (_array instanceof float[]) {
+         final float[] array = (float[]) _array;
+         for (int i = 0; i < _stored; i++) {
+            array[i] = _in.readFloat();
+         }
+      } else {
+         final double[] array = (double[]) _array;
+         for (int i = 0; i < _stored; i++) {
+            array[i] = _in.readDouble();
+         }
+      }
+   }
+
+   private static Object readPrimitive(DataInputStream _in, Class<?> _type) throws IOException {
+      if (_type == boolean.class) {
+         return (_in.readBoolean());
+      } else if (_type == byte.class) {
+         return (_in.readByte());
+      } else if (_type == char.class) {
+         return (_in.readChar());
+      } else if (_type == short.class) {
+         return (_in.readShort());
+      } else if (_type == int.class) {
+         return (_in.readInt());
+      } else if (_type == long.class) {
+         return (_in.readLong());
+      } else if (_type == float.class) {
+         return (_in.readFloat());
+      }
+      return (_in.readDouble());
+   }
+}
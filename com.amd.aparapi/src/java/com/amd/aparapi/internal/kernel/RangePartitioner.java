@@ -0,0 +1,182 @@
+/*
+Copyright (c) 2010-2011, Advanced Micro Devices, Inc.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+disclaimer. 
+
+Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+disclaimer in the documentation and/or other materials provided with the distribution. 
+
+Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products
+derived from this software without specific prior written permission. 
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+If you use the software (in whole or in part), you shall adhere to all applicable U.S., European, and other export
+laws, including but not limited to the U.S. Export Administration Regulations ("EAR"), (15 C.F.R. Sections 730 through
+774), and E.U. Council Regulation (EC) No 1334/2000 of 22 June 2000.  Further, pursuant to Section 740.6 of the EAR,
+you hereby certify that, except pursuant to a license granted by the United States Department of Commerce Bureau of 
+Industry and Security or as otherwise permitted pursuant to a License Exception under the U.S. Export Administration 
+Regulations ("EAR"), you will not (1) export, re-export or release to a national of a country in Country Groups D:1,
+E:1 or E:2 any restricted technology, software, or source code you receive hereunder, or (2) export to Country Groups
+D:1, E:1 or E:2 the direct product of such technology or software, if such foreign produced direct product is subject
+to national security controls as identified on the Commerce Control List (currently found in Supplement 1 to Part 774
+of EAR).  For the most current Country Group listings, or for additional information about the EAR or your obligations
+under those regulations, please refer to the U.S. Bureau of Industry and Security's website at http://www.bis.doc.gov/. 
+
+*/
+package com.amd.aparapi.internal.kernel;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.amd.aparapi.Kernel;
+import com.amd.aparapi.Range;
+import com.amd.aparapi.device.Device;
+
+/**
+ * Splits a range between devices in proportion to the throughput each has shown for a kernel class.
+ * <p>
+ * The range is cut along its outermost dimension into whole groups, so every part keeps the range's group size. Until a
+ * device has been measured for a class it is weighted by its work group size. Every device with a share gets at least one
+ * group when there are enough, so its throughput keeps being measured.
+ *
+ * @see KernelRunner#executePartitioned(Kernel, Range, int, Device...)
+ */
+public class RangePartitioner{
+
+   /**
+    * Later measurements are weighted 1/WINDOW into the throughput, so it follows the recent launches.
+    */
+   private static final double WINDOW = 4;
+
+   /**
+    * Work items per ns, for each device which has run a part of the class.
+    */
+   private final ConcurrentMap<Class<? extends Kernel>, Map<Device, Double>> throughput = new ConcurrentHashMap<Class<? extends Kernel>, Map<Device, Double>>();
+
+   /**
+    * @return the dimension a range is split along
+    */
+   public static int splitDimension(Range _range) {
+      return (_range.getDims() - 1);
+   }
+
+   /**
+    * @return the number of groups along the split dimension given to each device, in the order of <code>_devices</code>
+    */
+   public int[] split(Class<? extends Kernel> _kernelClass, Range _range, Device... _devices) {
+      final int groups = _range.getNumGroups(splitDimension(_range));
+      final double[] weights = weights(_kernelClass, _devices);
+      final int[] shares = new int[_devices.length];
+
+      // each device gets a group first, so none stops being measured
+      int remaining = groups;
+      if (groups >= _devices.length) {
+         for (int i = 0; i < _devices.length; i++) {
+            shares[i] = 1;
+         }
+         remaining -= _devices.length;
+      }
+
+      double total = 0;
+      for (final double weight : weights) {
+         total += weight;
+      }
+      final double[] exact = new double[_devices.length];
+      int assigned = 0;
+      for (int i = 0; i < _devices.length; i++) {
+         exact[i] = (remaining * weights[i]) / total;
+         shares[i] += (int) exact[i];
+         assigned += (int) exact[i];
+      }
+      // largest remainders take the groups left over by rounding down
+      for (; assigned < remaining; assigned++) {
+         int largest = 0;
+         for (int i = 1; i < _devices.length; i++) {
+            if ((exact[i] - Math.floor(exact[i])) > (exact[largest] - Math.floor(exact[largest]))) {
+               largest = i;
+            }
+         }
+         shares[largest]++;
+         exact[largest] = Math.floor(exact[largest]);
+      }
+      return (shares);
+   }
+
+   /**
+    * Add the time a device took to run its part of a launch.
+    */
+   public void record(Class<? extends Kernel> _kernelClass, Device _device, long _workItems, long _nanos) {
+      if ((_workItems <= 0) || (_nanos <= 0)) {
+         return;
+      }
+      final double measured = (double) _workItems / _nanos;
+      final Map<Device, Double> devices = devicesOf(_kernelClass);
+      synchronized (devices) {
+         final Double previous = devices.get(_device);
+         devices.put(_device, previous == null ? measured : previous + ((measured - previous) / WINDOW));
+      }
+   }
+
+   /**
+    * @return work items per ms this device has shown for the class, or 0 if it hasn't run a part of it
+    */
+   public double getThroughput(Class<? extends Kernel> _kernelClass, Device _device) {
+      final Map<Device, Double> devices = devicesOf(_kernelClass);
+      synchronized (devices) {
+         final Double itemsPerNano = devices.get(_device);
+         return (itemsPerNano == null ? 0 : itemsPerNano * 1000000);
+      }
+   }
+
+   private double[] weights(Class<? extends Kernel> _kernelClass, Device[] _devices) {
+      final Map<Device, Double> devices = devicesOf(_kernelClass);
+      final double[] weights = new double[_devices.length];
+      synchronized (devices) {
+         double measuredTotal = 0;
+         int measuredCount = 0;
+         for (final Device device : _devices) {
+            final Double itemsPerNano = devices.get(device);
+            if (itemsPerNano != null) {
+               measuredTotal += itemsPerNano;
+               measuredCount++;
+            }
+         }
+         for (int i = 0; i < _devices.length; i++) {
+            final Double itemsPerNano = devices.get(_devices[i]);
+            if (measuredCount == 0) {
+               weights[i] = Math.max(_devices[i].getMaxWorkGroupSize(), 1);
+            } else {
+               // an unmeasured device is assumed to be average until it has run a part
+               weights[i] = itemsPerNano != null ? itemsPerNano : measuredTotal / measuredCount;
+            }
+         }
+      }
+      return (weights);
+   }
+
+   private Map<Device, Double> devicesOf(Class<? extends Kernel> _kernelClass) {
+      Map<Device, Double> devices = throughput.get(_kernelClass);
+      if (devices == null) {
+         final Map<Device, Double> created = new IdentityHashMap<Device, Double>();
+         devices = throughput.putIfAbsent(_kernelClass, created);
+         if (devices == null) {
+            devices = created;
+         }
+      }
+      return (devices);
+   }
+}
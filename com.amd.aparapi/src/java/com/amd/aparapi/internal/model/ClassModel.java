@@ -129,17 +129,78 @@ public class ClassModel{
 
    private ClassModel superClazz = null;
 
+   /**
+    * Unchecked carrier so that a <code>ClassParseException</code> can escape <code>ClassValue.computeValue()</code>.
+    */
+   @SuppressWarnings("serial") private static class ParseFailure extends RuntimeException{
+      ParseFailure(ClassParseException _cause) {
+         super(_cause);
+      }
+   }
+
+   /**
+    * Parsed models shared by all entrypoints.
+    * 
+    * A <code>ClassValue</code> hangs each model off its <code>Class</code>, so the key is class loader aware and a model is only reachable 
+    * while its class is. Models for classes of a discarded (redeployed) class loader are collected along with the loader.
+    */
+   private static final ClassValue<ClassModel> classModels = new ClassValue<ClassModel>(){
+      @Override protected ClassModel computeValue(Class<?> _class) {
+         try {
+            return (new ClassModel(_class));
+         } catch (final ClassParseException e) {
+            throw new ParseFailure(e);
+         }
+      }
+   };
+
+   /**
+    * Return the shared model for a given Class, parsing it on first request.
+    * 
+    * Shared models (and the MethodModels cached on their methods) must be treated as read only. 
+    * 
+    * @see Config#disableModelCache
+    * @param _class The class we will extract the model from
+    * @throws ClassParseException
+    */
+   public static ClassModel getClassModel(Class<?> _class) throws ClassParseException {
+      if (Config.disableModelCache) {
+         return (new ClassModel(_class));
+      }
+      try {
+         return (classModels.get(_class));
+      } catch (final ParseFailure e) {
+         throw (ClassParseException) e.getCause();
+      }
+   }
+
    /**
     * Create a ClassModel representing a given Class.
     * 
     * The class's classfile must be available from the class's classloader via <code>getClassLoader().getResourceAsStream(name))</code>. 
     * For dynamic languages creating classes on the fly we may need another approach. 
     * 
+    * Superclass models are taken from the shared cache, see <code>getClassModel(Class)</code>.
+    * 
     * @param _class The class we will extract the model from
     * @throws ClassParseException
     */
 
    public ClassModel(Class<?> _class) throws ClassParseException {
+      this(_class, true);
+   }
+
+   /**
+    * Create a ClassModel representing a given Class.
+    * 
+    * Entrypoint records struct layouts in the models of object array member classes and may splice their super chains, such 
+    * models (and their supers) must be private to the Entrypoint so we allow the shared cache to be bypassed.
+    * 
+    * @param _class The class we will extract the model from
+    * @param _sharedSupers true if superclass models should come from the shared cache
+    * @throws ClassParseException
+    */
+   ClassModel(Class<?> _class, boolean _sharedSupers) throws ClassParseException {
 
       parse(_class);
 
@@ -149,7 +210,7 @@ public class ClassModel{
       // not occur in normal use
       if ((mySuper != null) && (!mySuper.getName().equals(Kernel.class.getName()))
             && (!mySuper.getName().equals("java.lang.Object"))) {
-         superClazz = new ClassModel(mySuper);
+         superClazz = _sharedSupers ? getClassModel(mySuper) : new ClassModel(mySuper, false);
       }
    }
 
@@ -1059,24 +1120,38 @@ public class ClassModel{
       }
 
       public class UTF8Entry extends Entry{
-         private final String UTF8;
+         private final ByteReader byteReader;
+
+         private final int offset;
+
+         /**
+          * Decoded on first request, most utf8 entries (names of unused methods, attribute tags, signatures) are never asked for.
+          */
+         private String UTF8;
 
          public UTF8Entry(ByteReader _byteReader, int _slot) {
             super(_byteReader, _slot, ConstantPoolType.UTF8);
-            UTF8 = _byteReader.utf8();
+            byteReader = _byteReader;
+            offset = _byteReader.getOffset();
+            _byteReader.skipUTF8();
          }
 
          public String getUTF8() {
+            if (UTF8 == null) {
+               UTF8 = byteReader.utf8(offset);
+            }
             return (UTF8);
          }
       }
 
+      private final ConstantPoolType[] constantPoolTypes = ConstantPoolType.values();
+
       public ConstantPool(ByteReader _byteReader) {
          final int size = _byteReader.u2();
          add(new EmptyEntry(_byteReader, 0)); // slot 0
 
          for (int i = 1; i < size; i++) {
-            final ConstantPoolType constantPoolType = ConstantPoolType.values()[_byteReader.u1()];
+            final ConstantPoolType constantPoolType = constantPoolTypes[_byteReader.u1()];
 
             switch (constantPoolType) {
                case UTF8:
@@ -2303,7 +2378,9 @@ public class ClassModel{
 
       private final int methodAccessFlags;
 
-      private final AttributePool methodAttributePool;
+      private final ByteReader attributeReader;
+
+      private volatile AttributePool methodAttributePool;
 
       private final int descriptorIndex;
 
@@ -2311,15 +2388,21 @@ public class ClassModel{
 
       private final int nameIndex;
 
-      private final CodeEntry codeEntry;
-
+      /**
+       * Only the access flags, name and descriptor are read here. The attributes (and hence the code) are skipped and 
+       * parsed on first access, so methods which are never reached from an entrypoint are never decoded.
+       */
       public ClassModelMethod(ByteReader _byteReader, int _index) {
          index = _index;
          methodAccessFlags = _byteReader.u2();
          nameIndex = _byteReader.u2();
          descriptorIndex = _byteReader.u2();
-         methodAttributePool = new AttributePool(_byteReader);
-         codeEntry = methodAttributePool.getCodeEntry();
+         attributeReader = _byteReader.duplicate(_byteReader.getOffset());
+         final int attributeCount = _byteReader.u2();
+         for (int i = 0; i < attributeCount; i++) {
+            _byteReader.skip(2);
+            _byteReader.skip(_byteReader.u4());
+         }
       }
 
       public int getAccessFlags() {
@@ -2331,11 +2414,21 @@ public class ClassModel{
       }
 
       public AttributePool getAttributePool() {
-         return (methodAttributePool);
+         AttributePool attributePool = methodAttributePool;
+         if (attributePool == null) {
+            synchronized (this) {
+               attributePool = methodAttributePool;
+               if (attributePool == null) {
+                  attributePool = new AttributePool(attributeReader.duplicate(attributeReader.getOffset()));
+                  methodAttributePool = attributePool;
+               }
+            }
+         }
+         return (attributePool);
       }
 
       public AttributePool.CodeEntry getCodeEntry() {
-         return (methodAttributePool.getCodeEntry());
+         return (getAttributePool().getCodeEntry());
       }
 
       public String getDescriptor() {
@@ -2387,7 +2480,36 @@ public class ClassModel{
       }
 
       public byte[] getCode() {
-         return (codeEntry.getCode());
+         return (getCodeEntry().getCode());
+      }
+
+      private MethodModel methodModel;
+
+      private MethodModel accessorCheckedMethodModel;
+
+      /**
+       * Return the folded model of this method, building it on first request.
+       * 
+       * Accessor (getter/setter) detection only applies when the method is reached from another class's entrypoint, so we keep 
+       * one model for each case. Failed builds are not cached, the exception is simply thrown again next time.
+       * 
+       * @param _checkAccessors true if getter/setter detection should be applied
+       * @see Config#disableModelCache
+       */
+      synchronized MethodModel getMethodModel(boolean _checkAccessors) throws AparapiException {
+         if (Config.disableModelCache) {
+            return (new MethodModel(this, _checkAccessors));
+         }
+         if (_checkAccessors) {
+            if (accessorCheckedMethodModel == null) {
+               accessorCheckedMethodModel = new MethodModel(this, true);
+            }
+            return (accessorCheckedMethodModel);
+         }
+         if (methodModel == null) {
+            methodModel = new MethodModel(this, false);
+         }
+         return (methodModel);
       }
 
       public ClassModel getClassModel() {
@@ -2586,7 +2708,7 @@ public class ClassModel{
 
    public MethodModel getMethodModel(String _name, String _signature) throws AparapiException {
       final ClassModelMethod method = getMethod(_name, _signature);
-      return new MethodModel(method);
+      return (method.getMethodModel(false));
    }
 
    // These fields use for accessor conversion
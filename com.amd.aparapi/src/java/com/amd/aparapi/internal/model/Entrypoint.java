@@ -49,6 +49,8 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -109,6 +111,12 @@ public class Entrypoint{
 
    private final List<MethodModel> calledMethods = new ArrayList<MethodModel>();
 
+   // Callees of each method reached from this entrypoint. MethodModels are shared between entrypoints so the graph lives here.
+   private final Map<MethodModel, Set<MethodModel>> callGraph = new HashMap<MethodModel, Set<MethodModel>>();
+
+   // Other classes called statically, one model each, so their methods compare equal however often they are resolved
+   private final Map<String, ClassModel> staticCallClassModels = new HashMap<String, ClassModel>();
+
    private MethodModel methodModel;
 
    /**
@@ -128,6 +136,11 @@ public class Entrypoint{
 
    private boolean usesAtomic64;
 
+   /**
+      True if run() or a method it calls waits at localBarrier() or globalBarrier()
+   */
+   private boolean usesBarriers;
+
    public boolean requiresDoublePragma() {
       return usesDoubles;
    }
@@ -153,6 +166,10 @@ public class Entrypoint{
       return usesAtomic64;
    }
 
+   public boolean usesBarriers() {
+      return usesBarriers;
+   }
+
    public Object getKernelInstance() {
       return kernelInstance;
    }
@@ -251,7 +268,8 @@ public class Entrypoint{
             final Class<?> memberClass = Class.forName(className);
 
             // Immediately add this class and all its supers if necessary
-            memberClassModel = new ClassModel(memberClass);
+            // We record struct layouts in these models so they (and their supers) must not come from the shared cache
+            memberClassModel = new ClassModel(memberClass, false);
             if (logger.isLoggable(Level.FINEST)) {
                logger.finest("adding class " + className);
             }
@@ -287,6 +305,132 @@ public class Entrypoint{
       return memberClassModel;
    }
 
+   /*
+    * Static calls to other (utility) classes only read the target class so we can use the shared model, unless the class is 
+    * already known to this entrypoint as an object array member class.
+    */
+   private ClassModel getStaticCallClassModel(String className) throws AparapiException {
+      ClassModel otherClassModel = allFieldsClasses.get(className);
+      if (otherClassModel == null) {
+         otherClassModel = staticCallClassModels.get(className);
+      }
+      if (otherClassModel == null) {
+         try {
+            // with -Dcom.amd.aparapi.disableModelCache=true every call to getClassModel() parses the class again
+            otherClassModel = ClassModel.getClassModel(Class.forName(className));
+         } catch (final ClassNotFoundException e) {
+            if (logger.isLoggable(Level.INFO)) {
+               logger.info("Cannot find: " + className);
+            }
+            throw new AparapiException(e);
+         }
+         staticCallClassModels.put(className, otherClassModel);
+      }
+      return otherClassModel;
+   }
+
+   /*
+    * Shared by all entrypoints. Fork join workers are daemon threads so this does not keep the VM alive.
+    */
+   private static class TranslationPool{
+      private static final ForkJoinPool pool = new ForkJoinPool();
+   }
+
+   /*
+    * Failures are captured rather than thrown so they reach the caller unwrapped and in discovery order.
+    */
+   @SuppressWarnings("serial") private class MethodModelTask extends RecursiveAction{
+      private final ClassModelMethod method;
+
+      private MethodModel methodModel;
+
+      private Throwable failure;
+
+      MethodModelTask(ClassModelMethod _method) {
+         method = _method;
+      }
+
+      @Override protected void compute() {
+         try {
+            methodModel = method.getMethodModel(method.getClassModel() != classModel);
+         } catch (final Throwable t) {
+            failure = t;
+         }
+      }
+   }
+
+   /*
+    * Build (or fetch from the ClassModel cache) the MethodModels of newly discovered methods and fill in their methodMap 
+    * placeholders. If more than one fails we report the first in discovery order, just as a sequential walk would have.
+    */
+   private void buildMethodModels(Map<ClassModelMethod, MethodModel> _methodMap, List<ClassModelMethod> _methods)
+         throws AparapiException {
+      if ((_methods.size() > 1) && !Config.disableParallelTranslation) {
+         final List<MethodModelTask> tasks = new ArrayList<MethodModelTask>(_methods.size());
+         for (final ClassModelMethod m : _methods) {
+            tasks.add(new MethodModelTask(m));
+         }
+         TranslationPool.pool.invoke(new RecursiveAction(){
+            @Override protected void compute() {
+               invokeAll(tasks);
+            }
+         });
+         for (final MethodModelTask task : tasks) {
+            if (task.failure instanceof AparapiException) {
+               throw (AparapiException) task.failure;
+            } else if (task.failure instanceof RuntimeException) {
+               throw (RuntimeException) task.failure;
+            } else if (task.failure instanceof Error) {
+               throw (Error) task.failure;
+            } else if (task.failure != null) {
+               throw new AparapiException(task.failure);
+            }
+            _methodMap.put(task.method, task.methodModel);
+         }
+      } else {
+         for (final ClassModelMethod m : _methods) {
+            _methodMap.put(m, m.getMethodModel(m.getClassModel() != classModel));
+         }
+      }
+      _methods.clear();
+   }
+
+   private void linkCallees(Map<ClassModelMethod, MethodModel> _methodMap, List<MethodModel> _callers,
+         List<ClassModelMethod> _callees) {
+      for (int i = 0; i < _callers.size(); i++) {
+         getCallees(_callers.get(i)).add(_methodMap.get(_callees.get(i)));
+      }
+      _callers.clear();
+      _callees.clear();
+   }
+
+   private Set<MethodModel> getCallees(MethodModel _methodModel) {
+      Set<MethodModel> callees = callGraph.get(_methodModel);
+      if (callees == null) {
+         callees = new HashSet<MethodModel>();
+         callGraph.put(_methodModel, callees);
+      }
+      return callees;
+   }
+
+   private void checkForRecursion(MethodModel _methodModel, Set<MethodModel> transitiveCalledMethods) throws AparapiException {
+
+      if (transitiveCalledMethods.contains(_methodModel)) {
+         throw new ClassParseException(ClassParseException.TYPE.RECURSION, _methodModel.getName());
+      }
+
+      // Add myself
+      transitiveCalledMethods.add(_methodModel);
+
+      // For each callee, send him a copy of the call chain up to this method
+      for (final MethodModel next : getCallees(_methodModel)) {
+         checkForRecursion(next, transitiveCalledMethods);
+      }
+
+      // Done examining this call path, remove myself
+      transitiveCalledMethods.remove(_methodModel);
+   }
+
    public ClassModelMethod resolveAccessorCandidate(MethodCall _methodCall, MethodEntry _methodEntry) throws AparapiException {
       final String methodsActualClassName = (_methodEntry.getClassEntry().getNameUTF8Entry().getUTF8()).replace('/', '.');
 
@@ -445,7 +589,7 @@ public class Entrypoint{
       // Look for static call to some other class
       if ((m == null) && !isMapped && (methodCall instanceof I_INVOKESTATIC)) {
          String otherClassName = methodEntry.getClassEntry().getNameUTF8Entry().getUTF8().replace('/', '.');
-         ClassModel otherClassModel = getOrUpdateAllClassAccesses(otherClassName);
+         ClassModel otherClassModel = getStaticCallClassModel(otherClassName);
 
          //if (logger.isLoggable(Level.FINE)) {
          //   logger.fine("Looking for: " + methodEntry + " in other class " + otherClass.getName());
@@ -485,17 +629,27 @@ public class Entrypoint{
          }
       }
 
+      // Callees are resolved sequentially (resolving updates this entrypoint's class maps) but the MethodModels of the methods 
+      // discovered in each pass are built together, in parallel, at the end of the pass. Until then methodMap holds a null 
+      // placeholder so the order of methodMap (and hence of the generated OpenCL) is exactly that of a sequential walk.
+      final List<ClassModelMethod> discoveredMethods = new ArrayList<ClassModelMethod>();
+      final List<MethodModel> callers = new ArrayList<MethodModel>();
+      final List<ClassModelMethod> callees = new ArrayList<ClassModelMethod>();
+
       // Collect all methods called directly from kernel's run method
       for (final MethodCall methodCall : methodModel.getMethodCalls()) {
 
          ClassModelMethod m = resolveCalledMethod(methodCall, classModel);
          if ((m != null) && !methodMap.keySet().contains(m)) {
-            final MethodModel target = new MethodModel(m, this);
-            methodMap.put(m, target);
-            methodModel.getCalledMethods().add(target);
+            methodMap.put(m, null);
+            discoveredMethods.add(m);
+            callers.add(methodModel);
+            callees.add(m);
             discovered = true;
          }
       }
+      buildMethodModels(methodMap, discoveredMethods);
+      linkCallees(methodMap, callers, callees);
 
       // methodMap now contains a list of method called by run itself().
       // Walk the whole graph of called methods and add them to the methodMap
@@ -506,30 +660,32 @@ public class Entrypoint{
 
                ClassModelMethod m = resolveCalledMethod(methodCall, classModel);
                if (m != null) {
-                  MethodModel target = null;
                   if (methodMap.keySet().contains(m)) {
                      // we remove and then add again.  Because this is a LinkedHashMap this 
                      // places this at the end of the list underlying the map
                      // then when we reverse the collection (below) we get the method 
                      // declarations in the correct order.  We are trying to avoid creating forward references
-                     target = methodMap.remove(m);
+                     methodMap.put(m, methodMap.remove(m));
                      if (logger.isLoggable(Level.FINEST)) {
                         logger.fine("repositioning : " + m.getClassModel().getClassWeAreModelling().getName() + " " + m.getName()
                               + " " + m.getDescriptor());
                      }
                   } else {
-                     target = new MethodModel(m, this);
+                     methodMap.put(m, null);
+                     discoveredMethods.add(m);
                      discovered = true;
                   }
-                  methodMap.put(m, target);
                   // Build graph of call targets to look for recursion
-                  mm.getCalledMethods().add(target);
+                  callers.add(mm);
+                  callees.add(m);
                }
             }
          }
+         buildMethodModels(methodMap, discoveredMethods);
+         linkCallees(methodMap, callers, callees);
       }
 
-      methodModel.checkForRecursion(new HashSet<MethodModel>());
+      checkForRecursion(methodModel, new HashSet<MethodModel>());
 
       if (logger.isLoggable(Level.FINE)) {
          logger.fine("fallback=" + fallback);
@@ -681,6 +837,11 @@ public class Entrypoint{
                } else if (instruction instanceof I_INVOKEVIRTUAL) {
                   final I_INVOKEVIRTUAL invokeInstruction = (I_INVOKEVIRTUAL) instruction;
                   final MethodEntry methodEntry = invokeInstruction.getConstantPoolMethodEntry();
+                  final String calledName = methodEntry.getNameAndTypeEntry().getNameUTF8Entry().getUTF8();
+                  if (Kernel.isOpenCLDelegateMethod(methodEntry)
+                        && (calledName.equals("localBarrier") || calledName.equals("globalBarrier"))) {
+                     usesBarriers = true;
+                  }
                   if (Kernel.isMappedMethod(methodEntry)) { //only do this for intrinsics
 
                      if (Kernel.usesAtomic32(methodEntry)) {
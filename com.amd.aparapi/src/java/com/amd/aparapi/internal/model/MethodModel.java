@@ -41,13 +41,11 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -158,32 +156,6 @@ public class MethodModel{
       return accessorVariableFieldEntry;
    }
 
-   private final Set<MethodModel> calledMethods = new HashSet<MethodModel>();
-
-   public Set<MethodModel> getCalledMethods() {
-      return calledMethods;
-   }
-
-   public void checkForRecursion(Set<MethodModel> transitiveCalledMethods) throws AparapiException {
-
-      if (transitiveCalledMethods.contains(this)) {
-         throw new ClassParseException(ClassParseException.TYPE.RECURSION, getName());
-      }
-
-      // Add myself
-      transitiveCalledMethods.add(this);
-
-      // For each callee, send him a copy of the call chain up to this method
-      final Iterator<MethodModel> cmi = getCalledMethods().iterator();
-      while (cmi.hasNext()) {
-         final MethodModel next = cmi.next();
-         next.checkForRecursion(transitiveCalledMethods);
-      }
-
-      // Done examining this call path, remove myself
-      transitiveCalledMethods.remove(this);
-   }
-
    /**
     * After we have folded the top level instructions this root list will contain a list of all of the 'root' instructions (stores/loops/conditionals) 
     * We are going to build a linked list.  Here we track the head and tail
@@ -1460,11 +1432,15 @@ public class MethodModel{
       }
    }
 
-   // The entrypoint is used to make checks on object accessors
-   Entrypoint entrypoint = null;
+   // True if this method is reached from another class's entrypoint, so we make checks on object accessors
+   private boolean checkAccessors = false;
 
-   MethodModel(ClassModelMethod _method, Entrypoint _entrypoint) throws AparapiException {
-      entrypoint = _entrypoint;
+   /**
+    * MethodModels are cached on their ClassModelMethod and shared between entrypoints (see <code>ClassModelMethod.getMethodModel()</code>) 
+    * so once built they must not hold any entrypoint specific state.
+    */
+   MethodModel(ClassModelMethod _method, boolean _checkAccessors) throws AparapiException {
+      checkAccessors = _checkAccessors;
       init(_method);
    }
 
@@ -1676,7 +1652,7 @@ public class MethodModel{
          foldExpressions();
 
          // Accessor conversion only works on member object arrays
-         if ((entrypoint != null) && (_method.getClassModel() != entrypoint.getClassModel())) {
+         if (checkAccessors) {
             if (logger.isLoggable(Level.FINE)) {
                logger.fine("Considering accessor call: " + getName());
             }
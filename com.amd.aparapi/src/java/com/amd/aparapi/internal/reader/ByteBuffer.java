@@ -37,9 +37,9 @@ under those regulations, please refer to the U.S. Bureau of Industry and Securit
 */
 package com.amd.aparapi.internal.reader;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteOrder;
 
 /**
  * Used to parse ClassFile structure. <br/>
@@ -48,6 +48,9 @@ import java.io.InputStream;
  * 
  * Does not keep track of accesses.  For this you will need a <code>ByteReader</code>
  * 
+ * All reads are absolute reads against a big endian <code>java.nio.ByteBuffer</code> so multi byte values are fetched in one access 
+ * and no bytes are copied unless a caller explicitly asks for them (see <code>bytes(int, int)</code>).
+ * 
  * @see com.amd.aparapi.internal.reader.ByteReader
  * 
  * @author gfrost
@@ -55,76 +58,87 @@ import java.io.InputStream;
  */
 public class ByteBuffer{
 
-   private byte[] bytes;
+   private final java.nio.ByteBuffer buffer;
 
    /**
     * Construct from an <code>InputStream</code>
     * 
+    * The stream is read directly into a single array which is grown as needed, the array is then wrapped (not copied).
+    * 
     * @param _inputStream
     */
    ByteBuffer(InputStream _inputStream) {
-      final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-      bytes = new byte[4096];
-      int bytesRead = 0;
+      byte[] bytes = new byte[0];
+      int size = 0;
 
       try {
-         while ((bytesRead = _inputStream.read(bytes)) > 0) {
-            baos.write(bytes, 0, bytesRead);
+         bytes = new byte[Math.max(_inputStream.available(), 4096)];
+         int bytesRead = 0;
+         while ((bytesRead = _inputStream.read(bytes, size, bytes.length - size)) > 0) {
+            size += bytesRead;
+            if (size == bytes.length) {
+               final byte[] grown = new byte[bytes.length * 2];
+               System.arraycopy(bytes, 0, grown, 0, size);
+               bytes = grown;
+            }
          }
-
-         bytes = baos.toByteArray();
       } catch (final IOException e) {
-         bytes = new byte[0];
+         size = 0;
          // TODO Auto-generated catch block
          e.printStackTrace();
       }
+      buffer = java.nio.ByteBuffer.wrap(bytes, 0, size).slice();
+   }
+
+   ByteBuffer(byte[] _bytes) {
+      buffer = java.nio.ByteBuffer.wrap(_bytes);
+   }
+
+   /**
+    * Construct from an existing <code>java.nio.ByteBuffer</code>.
+    * 
+    * The bytes between the buffer's current position and its limit are shared, not copied. 
+    * 
+    * @param _buffer an existing (heap or direct) nio buffer
+    */
+   public ByteBuffer(java.nio.ByteBuffer _buffer) {
+      buffer = _buffer.slice().order(ByteOrder.BIG_ENDIAN);
    }
 
    int u2(int _offset) {
-      return ((u1(_offset) << 8) | u1(_offset + 1));
+      return (buffer.getShort(_offset) & 0xffff);
    }
 
    int s2(int _offset) {
-      int s2 = u2(_offset);
-
-      if (s2 > 0x7fff) {
-         s2 = -(0x10000 - s2);
-      }
-      return (s2);
+      return (buffer.getShort(_offset));
    }
 
    int u4(int _offset) {
-      return (((u2(_offset) & 0xffff) << 16) | u2(_offset + 2));
+      return (buffer.getInt(_offset));
    }
 
    int s4(int _offset) {
-      final int s4 = u4(_offset);
-      return (s4);
-   }
-
-   ByteBuffer(byte[] _bytes) {
-      bytes = _bytes;
+      return (buffer.getInt(_offset));
    }
 
    int u1(int _offset) {
-      return ((bytes[_offset] & 0xff));
+      return ((buffer.get(_offset) & 0xff));
    }
 
    int size() {
-      return (bytes.length);
+      return (buffer.limit());
    }
 
    double d8(int _offset) {
-      return (Double.longBitsToDouble(u8(_offset)));
+      return (buffer.getDouble(_offset));
    }
 
    float f4(int _offset) {
-      return (Float.intBitsToFloat(u4(_offset)));
-
+      return (buffer.getFloat(_offset));
    }
 
    long u8(int _offset) {
-      return ((u4(_offset) & 0xffffffffL) << 32) | (u4(_offset + 4) & 0xffffffffL);
+      return (buffer.getLong(_offset));
    }
 
    int utf8bytes(int _offset) {
@@ -133,27 +147,32 @@ public class ByteBuffer{
 
    byte[] bytes(int _offset, int _length) {
       final byte[] returnBytes = new byte[_length];
-      System.arraycopy(bytes, _offset, returnBytes, 0, _length);
+      if (buffer.hasArray()) {
+         System.arraycopy(buffer.array(), buffer.arrayOffset() + _offset, returnBytes, 0, _length);
+      } else {
+         for (int i = 0; i < _length; i++) {
+            returnBytes[i] = buffer.get(_offset + i);
+         }
+      }
       return (returnBytes);
    }
 
+   /**
+    * Decode the 'modified UTF-8' string at <code>_offset</code> (a u2 length followed by the encoded bytes).
+    * 
+    * Decodes straight from the buffer, the only allocations are the char array and the resulting String.
+    */
    String utf8(int _offset) {
       final int utflen = u2(_offset);
       _offset += 2;
-      final byte[] bytearr = new byte[utflen];
       final char[] chararr = new char[utflen];
 
       int c, char2, char3;
       int count = 0;
       int chararr_count = 0;
 
-      for (int i = 0; i < utflen; i++) {
-         bytearr[i] = b(_offset + i);
-      }
-      _offset += utflen;
-
       while (count < utflen) {
-         c = bytearr[count] & 0xff;
+         c = u1(_offset + count);
          if (c > 127) {
             break;
          }
@@ -162,7 +181,7 @@ public class ByteBuffer{
       }
 
       while (count < utflen) {
-         c = bytearr[count] & 0xff;
+         c = u1(_offset + count);
          switch (c >> 4) {
             case 0:
             case 1:
@@ -184,7 +203,7 @@ public class ByteBuffer{
                   System.out.println("malformed input: partial character at end");
                   return (null);
                }
-               char2 = bytearr[count - 1];
+               char2 = u1(_offset + count - 1);
                if ((char2 & 0xC0) != 0x80) {
                   System.out.println("malformed input around byte " + count);
                   return (null);
@@ -198,8 +217,8 @@ public class ByteBuffer{
                   System.out.println("malformed input: partial character at end");
                   return (null);
                }
-               char2 = bytearr[count - 2];
-               char3 = bytearr[count - 1];
+               char2 = u1(_offset + count - 2);
+               char3 = u1(_offset + count - 1);
                if (((char2 & 0xC0) != 0x80) || ((char3 & 0xC0) != 0x80)) {
                   System.out.println("malformed input around byte " + (count - 1));
                   return (null);
@@ -213,13 +232,11 @@ public class ByteBuffer{
          }
       }
       // The number of chars produced may be less than utflen
-      final String returnString = new String(chararr, 0, chararr_count);
-      // System.out.println("returnString.length="+returnString.length()+" byte[]="+bytearr.length);
-      return (returnString);
+      return (new String(chararr, 0, chararr_count));
    }
 
    byte b(int _offset) {
-      return bytes[_offset];
+      return buffer.get(_offset);
    }
 
 }
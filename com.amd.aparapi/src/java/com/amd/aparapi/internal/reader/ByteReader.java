@@ -83,6 +83,29 @@ public class ByteReader{
       this(new ByteBuffer(_inputStream));
    }
 
+   /**
+    * Construct from a <code>java.nio.ByteBuffer</code> without copying its content.
+    * 
+    * @param _buffer an existing nio buffer, the bytes between its position and limit are read
+    */
+   public ByteReader(java.nio.ByteBuffer _buffer) {
+      this(new ByteBuffer(_buffer));
+   }
+
+   /**
+    * Create a new reader over the same bytes positioned at <code>_offset</code>.
+    * 
+    * Allows sections of the stream that were skipped to be parsed later, the underlying bytes are shared.
+    * 
+    * @param _offset the offset the new reader starts at
+    * @return a new reader sharing this reader's bytes
+    */
+   public ByteReader duplicate(int _offset) {
+      final ByteReader reader = new ByteReader(byteBuffer);
+      reader.setOffset(_offset);
+      return (reader);
+   }
+
    public int u1() {
       final int value = byteBuffer.u1(offset);
       offset += 1;
@@ -141,6 +164,22 @@ public class ByteReader{
       return (utf8);
    }
 
+   /**
+    * Decode the utf8 string at a given offset without moving this reader.
+    * 
+    * @param _offset offset of the u2 length which precedes the encoded bytes
+    */
+   public String utf8(int _offset) {
+      return (byteBuffer.utf8(_offset));
+   }
+
+   /**
+    * Skip over a utf8 string (u2 length followed by the encoded bytes) without decoding it.
+    */
+   public void skipUTF8() {
+      offset += byteBuffer.utf8bytes(offset);
+   }
+
    public byte[] bytes(int _length) {
       final byte[] bytes = byteBuffer.bytes(offset, _length);
       offset += _length;
@@ -0,0 +1,143 @@
+/*
+Copyright (c) 2010-2011, Advanced Micro Devices, Inc.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+disclaimer. 
+
+Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+disclaimer in the documentation and/or other materials provided with the distribution. 
+
+Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products
+derived from this software without specific prior written permission. 
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+If you use the software (in whole or in part), you shall adhere to all applicable U.S., European, and other export
+laws, including but not limited to the U.S. Export Administration Regulations ("EAR"), (15 C.F.R. Sections 730 through
+774), and E.U. Council Regulation (EC) No 1334/2000 of 22 June 2000.  Further, pursuant to Section 740.6 of the EAR,
+you hereby certify that, except pursuant to a license granted by the United States Department of Commerce Bureau of 
+Industry and Security or as otherwise permitted pursuant to a License Exception under the U.S. Export Administration 
+Regulations ("EAR"), you will not (1) export, re-export or release to a national of a country in Country Groups D:1,
+E:1 or E:2 any restricted technology, software, or source code you receive hereunder, or (2) export to Country Groups
+D:1, E:1 or E:2 the direct product of such technology or software, if such foreign produced direct product is subject
+to national security controls as identified on the Commerce Control List (currently found in Supplement 1 to Part 774
+of EAR).  For the most current Country Group listings, or for additional information about the EAR or your obligations
+under those regulations, please refer to the U.S. Bureau of Industry and Security's website at http://www.bis.doc.gov/. 
+
+*/
+package com.amd.aparapi.internal.tool;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.amd.aparapi.EXECUTION_MODE;
+import com.amd.aparapi.Kernel;
+import com.amd.aparapi.KernelStats;
+import com.amd.aparapi.LatencyHistogram;
+import com.amd.aparapi.Range;
+import com.amd.aparapi.internal.kernel.KernelRunner;
+import com.amd.aparapi.internal.kernel.LaunchCapture;
+import com.amd.aparapi.internal.opencl.OpenCLLoader;
+
+/**
+ * Replays a launch saved by <code>KernelRunner.captureNextLaunch()</code> and reports how long it takes in each execution
+ * mode.
+ * <p>
+ * The application's classes must be on the classpath. Each mode starts from a freshly loaded copy of the captured 
+ * kernel. SEQ replays the range with a group size of 1, as that is all it can execute.
+ * <p>
+ * Usage: java -cp aparapi.jar:app.jar [-Dwarmup=n] [-Diterations=n] com.amd.aparapi.internal.tool.LaunchReplay capture 
+ * [MODE ...]
+ */
+public class LaunchReplay{
+
+   public static void main(String[] _args) throws Exception {
+      if (_args.length < 1) {
+         System.err.println("usage: LaunchReplay capture [GPU|CPU|JTP|SEQ ...]");
+         System.exit(1);
+      }
+      final File file = new File(_args[0]);
+      final int warmup = Integer.getInteger("warmup", 5);
+      final int iterations = Math.max(1, Integer.getInteger("iterations", 20));
+
+      final LaunchCapture first = LaunchCapture.read(file);
+      System.out.println(first.getKernelClassName() + " captured in " + first.getCapturedMode() + ", " + first.getPasses()
+            + " pass(es) over " + first.getRange());
+
+      final List<EXECUTION_MODE> modes = new ArrayList<EXECUTION_MODE>();
+      for (final String mode : Arrays.asList(_args).subList(1, _args.length)) {
+         modes.add(EXECUTION_MODE.valueOf(mode.toUpperCase()));
+      }
+      if (modes.isEmpty()) {
+         modes.add(first.getCapturedMode());
+      }
+
+      for (final EXECUTION_MODE mode : modes) {
+         if (mode.isOpenCL() && !OpenCLLoader.isOpenCLAvailable()) {
+            System.out.printf("%-4s skipped, OpenCL is not available%n", mode);
+            continue;
+         }
+         final LaunchCapture capture = LaunchCapture.read(file);
+         final Kernel kernel = capture.getKernel();
+         Range range = capture.getRange();
+         if ((mode == EXECUTION_MODE.SEQ) && (range.getWorkGroupSize() > 1)) {
+            range = sequential(range);
+         }
+
+         final KernelRunner kernelRunner = new KernelRunner();
+         try {
+            kernelRunner.setExecutionMode(mode);
+            for (int i = 0; i < warmup; i++) {
+               kernelRunner.execute(kernel, range, capture.getPasses());
+            }
+            if (kernelRunner.getKernelStats(kernel) != null) {
+               kernelRunner.getKernelStats(kernel).resetLatencyHistograms();
+            }
+            for (int i = 0; i < iterations; i++) {
+               kernelRunner.execute(kernel, range, capture.getPasses());
+            }
+
+            final KernelStats stats = kernelRunner.getKernelStats(kernel);
+
+            final EXECUTION_MODE ran = stats.getLastExecutionMode();
+            final LatencyHistogram.Snapshot latency = stats.getLatencyHistogram(ran).snapshot();
+            System.out.printf("%-4s %s p50 %10.3f ms p99 %10.3f ms max %10.3f ms (%d launches)%n", mode, ran == mode ? "  "
+                  : "->" + ran, latency.getP50() / 1e6, latency.getP99() / 1e6, latency.getMax() / 1e6, latency.getCount());
+            if (ran != mode) {
+               System.out.println("     fell back: " + stats.getFallbackReasons().keySet());
+            }
+         } finally {
+            kernelRunner.dispose();
+         }
+      }
+   }
+
+   private static Range sequential(Range _range) {
+      if (_range.getDims() == 1) {
+         return (Range.create(_range.getOffset_0(), realSize(_range, 0), 1));
+      } else if (_range.getDims() == 2) {
+         return (Range.create2D(_range.getOffset_0(), _range.getOffset_1(), realSize(_range, 0), realSize(_range, 1), 1, 1));
+      }
+      return (Range.create3D(_range.getOffset_0(), _range.getOffset_1(), _range.getOffset_2(), realSize(_range, 0),
+            realSize(_range, 1), realSize(_range, 2), 1, 1, 1));
+   }
+
+   /**
+    * Groups of one need no padding.
+    */
+   private static int realSize(Range _range, int _dim) {
+      return (_range.getGlobalSize(_dim) - _range.getPadding(_dim));
+   }
+}
@@ -101,6 +101,11 @@ public abstract class KernelWriter extends BlockWriter{
 
    private Entrypoint entryPoint = null;
 
+   /**
+    * Take the unpadded size of each dimension as extra arguments after passid and return early from padding work items.
+    */
+   private boolean guardPadding = false;
+
    public final static Map<String, String> javaToCLIdentifierMap = new HashMap<String, String>();
    {
       javaToCLIdentifierMap.put("getGlobalId()I", "get_global_id(0)");
@@ -572,6 +577,15 @@ public abstract class KernelWriter extends BlockWriter{
       }
       newLine();
       write("int passid");
+      if (guardPadding) {
+         write(", ");
+         newLine();
+         write("int realsize_0, ");
+         newLine();
+         write("int realsize_1, ");
+         newLine();
+         write("int realsize_2");
+      }
       out();
       newLine();
       write("){");
@@ -585,6 +599,12 @@ public abstract class KernelWriter extends BlockWriter{
       }
       write("this->passid = passid");
       writeln(";");
+      if (guardPadding) {
+         write("if ((get_global_id(0) - get_global_offset(0)) >= realsize_0");
+         write(" || (get_global_id(1) - get_global_offset(1)) >= realsize_1");
+         write(" || (get_global_id(2) - get_global_offset(2)) >= realsize_2)");
+         writeln(" return;");
+      }
 
       writeMethodBody(_entryPoint.getMethodModel());
       out();
@@ -685,12 +705,21 @@ public abstract class KernelWriter extends BlockWriter{
    }
 
    public static String writeToString(Entrypoint _entrypoint) throws CodeGenException {
+      return (writeToString(_entrypoint, false));
+   }
+
+   /**
+    * @param _guardPadding true to write a kernel which can be launched over a padded range, see
+    *          <code>Range.createPadded()</code>
+    */
+   public static String writeToString(Entrypoint _entrypoint, boolean _guardPadding) throws CodeGenException {
       final StringBuilder openCLStringBuilder = new StringBuilder();
       final KernelWriter openCLWriter = new KernelWriter(){
          @Override public void write(String _string) {
             openCLStringBuilder.append(_string);
          }
       };
+      openCLWriter.guardPadding = _guardPadding;
       try {
          openCLWriter.write(_entrypoint);
       } catch (final CodeGenException codeGenException) {
@@ -96,7 +96,7 @@ public class Histogram{
          }
       }
 
-      System.out.println(kernelRunner.getExecutionMode());
+      System.out.println(kernelRunner.getExecutionMode(k));
       kernelRunner.dispose();
    }
 }
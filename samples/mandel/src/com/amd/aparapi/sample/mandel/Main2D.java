@@ -212,7 +212,7 @@ public class Main2D{
       viewer.repaint();
 
       // Report target execution mode: GPU or JTP (Java Thread Pool).
-      System.out.println("Execution mode=" + kernelRunner.getExecutionMode());
+      System.out.println("Execution mode=" + kernelRunner.getExecutionMode(kernel));
 
       // Window listener to dispose Kernel resources on user exit.
       frame.addWindowListener(new WindowAdapter(){
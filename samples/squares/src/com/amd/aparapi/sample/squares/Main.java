@@ -85,7 +85,7 @@ public class Main{
       kernelRunner.execute(kernel, Range.create(512));
 
       // Report target execution mode: GPU or JTP (Java Thread Pool).
-      System.out.println("Execution mode=" + kernelRunner.getExecutionMode());
+      System.out.println("Execution mode=" + kernelRunner.getExecutionMode(kernel));
 
       // Display computed square values.
       for (int i = 0; i < size; i++) {
@@ -47,6 +47,15 @@ import com.amd.aparapi.internal.writer.KernelWriter;
 public class CodeGenJUnitBase{
 
    protected void test(Class<?> _class, Class<? extends AparapiException> _expectedExceptionType, String[] expectedOpenCL) {
+      test(_class, _expectedExceptionType, expectedOpenCL, false);
+   }
+
+   /**
+    * @param _guardPadding true to compare the OpenCL written for padded ranges, which is what the runtime compiles for a
+    *        kernel without barriers
+    */
+   protected void test(Class<?> _class, Class<? extends AparapiException> _expectedExceptionType, String[] expectedOpenCL,
+         boolean _guardPadding) {
       try {
          // Source source = new Source(_class, new File("src/java"));
          // System.out.println("opencl\n"+source.getOpenCL());
@@ -60,7 +69,7 @@ public class CodeGenJUnitBase{
          Object kernelInstance = _class.getConstructor((Class<?>[]) null).newInstance();
 
          Entrypoint entrypoint = classModel.getEntrypoint(kernelInstance instanceof Kernel ? kernelInstance : null);
-         String actual = KernelWriter.writeToString(entrypoint);
+         String actual = KernelWriter.writeToString(entrypoint, _guardPadding);
 
          if (_expectedExceptionType == null) {
             int matched = 0;
@@ -111,7 +111,11 @@ public class CreateJUnitTests{
          } else {
             sb.append("   Class<? extends com.amd.aparapi.internal.exception.AparapiException> expectedException = null;\n");
          }
-         sb.append("       test(" + testPackageName + "." + className + ".class, expectedException, expectedOpenCL);\n");
+         if (source.isGuardPadding()) {
+            sb.append("       test(" + testPackageName + "." + className + ".class, expectedException, expectedOpenCL, true);\n");
+         } else {
+            sb.append("       test(" + testPackageName + "." + className + ".class, expectedException, expectedOpenCL);\n");
+         }
          sb.append("   }\n");
          sb.append("}\n");
          //  System.out.println(sb.toString());
@@ -0,0 +1,252 @@
+/*
+Copyright (c) 2010-2011, Advanced Micro Devices, Inc.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+disclaimer. 
+
+Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+disclaimer in the documentation and/or other materials provided with the distribution. 
+
+Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products
+derived from this software without specific prior written permission. 
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+If you use the software (in whole or in part), you shall adhere to all applicable U.S., European, and other export
+laws, including but not limited to the U.S. Export Administration Regulations ("EAR"), (15 C.F.R. Sections 730 through
+774), and E.U. Council Regulation (EC) No 1334/2000 of 22 June 2000.  Further, pursuant to Section 740.6 of the EAR,
+you hereby certify that, except pursuant to a license granted by the United States Department of Commerce Bureau of 
+Industry and Security or as otherwise permitted pursuant to a License Exception under the U.S. Export Administration 
+Regulations ("EAR"), you will not (1) export, re-export or release to a national of a country in Country Groups D:1,
+E:1 or E:2 any restricted technology, software, or source code you receive hereunder, or (2) export to Country Groups
+D:1, E:1 or E:2 the direct product of such technology or software, if such foreign produced direct product is subject
+to national security controls as identified on the Commerce Control List (currently found in Supplement 1 to Part 774
+of EAR).  For the most current Country Group listings, or for additional information about the EAR or your obligations
+under those regulations, please refer to the U.S. Bureau of Industry and Security's website at http://www.bis.doc.gov/. 
+
+*/
+package com.amd.aparapi;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.amd.aparapi.annotation.Constant;
+import com.amd.aparapi.internal.model.ClassModel;
+import com.amd.aparapi.internal.model.ClassModel.ClassModelMethod;
+
+/**
+ * Measures <code>MethodModel</code> construction (bytecode decode, branch graph, expression folding) for large kernels.
+ * <p>
+ * The mandel and nbody kernels below mirror the sample/example kernels of the same name, we also take the largest 
+ * <code>run()</code> methods from the codegen corpus. Class files are parsed once up front so only method model 
+ * construction is timed. <code>ClassModel</code> caches the models it builds, so the ant target runs with 
+ * <code>-Dcom.amd.aparapi.disableModelCache=true</code> to time a fresh build on every iteration.
+ * <p>
+ * Usage: ant methodmodel.benchmark [-Diterations=n] [-Dwarmup=n]
+ */
+public class MethodModelBenchmark{
+
+   public static class MandelKernel extends Kernel{
+      final private int rgb[] = new int[1024];
+
+      final private int width = 32;
+
+      final private int height = 32;
+
+      final private int maxIterations = 64;
+
+      @Constant final private int pallette[] = new int[maxIterations + 1];
+
+      private float scale = .0f;
+
+      private float offsetx = .0f;
+
+      private float offsety = .0f;
+
+      public int getCount(float x, float y) {
+         int count = 0;
+
+         float zx = x;
+         float zy = y;
+         float new_zx = 0f;
+
+         while ((count < maxIterations) && (((zx * zx) + (zy * zy)) < 8)) {
+            new_zx = ((zx * zx) - (zy * zy)) + x;
+            zy = (2 * zx * zy) + y;
+            zx = new_zx;
+            count++;
+         }
+
+         return count;
+      }
+
+      @Override public void run() {
+         final int gid = getGlobalId();
+         final float x = ((((gid % width) * scale) - ((scale / 2) * width)) / width) + offsetx;
+         final float y = ((((gid / width) * scale) - ((scale / 2) * height)) / height) + offsety;
+         int count = getCount(x, y);
+         rgb[gid] = pallette[count];
+      }
+   }
+
+   public static class NBodyKernel extends Kernel{
+      protected final float delT = .005f;
+
+      protected final float espSqr = 1.0f;
+
+      protected final float mass = 5f;
+
+      private final float[] xyz = new float[3072];
+
+      private final float[] vxyz = new float[3072];
+
+      @Override public void run() {
+         final int body = getGlobalId();
+         final int count = getGlobalSize(0) * 3;
+         final int globalId = body * 3;
+
+         float accx = 0.f;
+         float accy = 0.f;
+         float accz = 0.f;
+
+         final float myPosx = xyz[globalId + 0];
+         final float myPosy = xyz[globalId + 1];
+         final float myPosz = xyz[globalId + 2];
+         for (int i = 0; i < count; i += 3) {
+            final float dx = xyz[i + 0] - myPosx;
+            final float dy = xyz[i + 1] - myPosy;
+            final float dz = xyz[i + 2] - myPosz;
+            final float invDist = rsqrt((dx * dx) + (dy * dy) + (dz * dz) + espSqr);
+            final float s = mass * invDist * invDist * invDist;
+            accx = accx + (s * dx);
+            accy = accy + (s * dy);
+            accz = accz + (s * dz);
+         }
+         accx = accx * delT;
+         accy = accy * delT;
+         accz = accz * delT;
+         xyz[globalId + 0] = myPosx + (vxyz[globalId + 0] * delT) + (accx * .5f * delT);
+         xyz[globalId + 1] = myPosy + (vxyz[globalId + 1] * delT) + (accy * .5f * delT);
+         xyz[globalId + 2] = myPosz + (vxyz[globalId + 2] * delT) + (accz * .5f * delT);
+
+         vxyz[globalId + 0] = vxyz[globalId + 0] + accx;
+         vxyz[globalId + 1] = vxyz[globalId + 1] + accy;
+         vxyz[globalId + 2] = vxyz[globalId + 2] + accz;
+      }
+   }
+
+   static class Subject{
+      final String label;
+
+      final ClassModel classModel;
+
+      final ClassModelMethod method;
+
+      Subject(String _label, ClassModel _classModel, ClassModelMethod _method) {
+         label = _label;
+         classModel = _classModel;
+         method = _method;
+      }
+
+      int codeLength() {
+         return (method.getCode().length);
+      }
+
+      /**
+       * @return true if a method model was built
+       */
+      boolean build() {
+         try {
+            classModel.getMethodModel(method.getName(), method.getDescriptor());
+            return (true);
+         } catch (final Throwable t) {
+            return (false);
+         }
+      }
+   }
+
+   static Subject subject(Class<?> _class, String _name, String _descriptor) throws Exception {
+      final ClassModel classModel = new ClassModel(_class);
+      final ClassModelMethod method = classModel.getMethod(_name, _descriptor);
+      return (method == null ? null : new Subject(_class.getSimpleName() + "." + _name, classModel, method));
+   }
+
+   public static void main(String[] _args) throws Exception {
+      final File rootDir = new File(System.getProperty("root", "."));
+      final int warmup = Integer.getInteger("warmup", 200);
+      final int iterations = Integer.getInteger("iterations", 1000);
+      final int largest = Integer.getInteger("largest", 5);
+      if (!Config.disableModelCache) {
+         System.err.println("warning: method model cache enabled, only the first build of each method is timed");
+      }
+
+      // Kernels which fail translation log warnings and dump stack traces, keep them out of the report
+      Logger.getLogger(Config.getLoggerName()).setLevel(Level.OFF);
+      final PrintStream out = System.out;
+      final PrintStream err = System.err;
+      final PrintStream quiet = new PrintStream(new OutputStream(){
+         @Override public void write(int b) {
+         }
+      });
+
+      System.setOut(quiet);
+      System.setErr(quiet);
+      try {
+         final List<Subject> subjects = new ArrayList<Subject>();
+         subjects.add(subject(MandelKernel.class, "run", "()V"));
+         subjects.add(subject(MandelKernel.class, "getCount", "(FF)I"));
+         subjects.add(subject(NBodyKernel.class, "run", "()V"));
+
+         final List<Subject> corpus = new ArrayList<Subject>();
+         for (final Class<?> clazz : ParseBenchmark.kernelClasses(rootDir)) {
+            final Subject subject = subject(clazz, "run", "()V");
+            if ((subject != null) && subject.build()) {
+               corpus.add(subject);
+            }
+         }
+         Collections.sort(corpus, new Comparator<Subject>(){
+            @Override public int compare(Subject _lhs, Subject _rhs) {
+               return (_rhs.codeLength() - _lhs.codeLength());
+            }
+         });
+         subjects.addAll(corpus.subList(0, Math.min(largest, corpus.size())));
+
+         // Warm every subject before timing any of them so the first one measured does not pay for JIT compilation
+         for (int i = 0; i < warmup; i++) {
+            for (final Subject subject : subjects) {
+               subject.build();
+            }
+         }
+
+         for (final Subject subject : subjects) {
+            final long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+               subject.build();
+            }
+            final long elapsed = System.nanoTime() - start;
+            out.printf("%-40s %5d bytes of code %10.2f us/MethodModel%n", subject.label, subject.codeLength(), elapsed / 1e3
+                  / iterations);
+         }
+      } finally {
+         System.setOut(out);
+         System.setErr(err);
+      }
+   }
+}
@@ -0,0 +1,157 @@
+/*
+Copyright (c) 2010-2011, Advanced Micro Devices, Inc.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+disclaimer. 
+
+Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+disclaimer in the documentation and/or other materials provided with the distribution. 
+
+Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products
+derived from this software without specific prior written permission. 
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+If you use the software (in whole or in part), you shall adhere to all applicable U.S., European, and other export
+laws, including but not limited to the U.S. Export Administration Regulations ("EAR"), (15 C.F.R. Sections 730 through
+774), and E.U. Council Regulation (EC) No 1334/2000 of 22 June 2000.  Further, pursuant to Section 740.6 of the EAR,
+you hereby certify that, except pursuant to a license granted by the United States Department of Commerce Bureau of 
+Industry and Security or as otherwise permitted pursuant to a License Exception under the U.S. Export Administration 
+Regulations ("EAR"), you will not (1) export, re-export or release to a national of a country in Country Groups D:1,
+E:1 or E:2 any restricted technology, software, or source code you receive hereunder, or (2) export to Country Groups
+D:1, E:1 or E:2 the direct product of such technology or software, if such foreign produced direct product is subject
+to national security controls as identified on the Commerce Control List (currently found in Supplement 1 to Part 774
+of EAR).  For the most current Country Group listings, or for additional information about the EAR or your obligations
+under those regulations, please refer to the U.S. Bureau of Industry and Security's website at http://www.bis.doc.gov/. 
+
+*/
+package com.amd.aparapi;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.amd.aparapi.internal.model.ClassModel;
+
+/**
+ * Measures the cost of parsing the codegen test kernels.
+ * <p>
+ * Each kernel in <code>src/java/com/amd/aparapi/test</code> is parsed (<code>new ClassModel(class)</code>) and then taken through 
+ * <code>getEntrypoint()</code> so both the eager class file read and the on demand method parsing are covered. 
+ * We report average time per pass and (where the JVM supports it) bytes allocated per pass. The ant target runs with
+ * <code>-Dcom.amd.aparapi.disableModelCache=true</code>, otherwise every pass after the first reuses the cached models.
+ * <p>
+ * Usage: ant parse.benchmark [-Diterations=n] [-Dwarmup=n]
+ */
+public class ParseBenchmark{
+
+   static List<Class<?>> kernelClasses(File _rootDir) throws ClassNotFoundException {
+      final String testPackageName = ParseBenchmark.class.getPackage().getName() + ".test";
+      final File testDir = new File(new File(_rootDir, "src/java"), testPackageName.replace(".", "/"));
+      final List<Class<?>> classes = new ArrayList<Class<?>>();
+      for (final File sourceFile : testDir.listFiles(new FilenameFilter(){
+         @Override public boolean accept(File dir, String name) {
+            return (name.endsWith(".java"));
+         }
+      })) {
+         final String fileName = sourceFile.getName();
+         classes.add(Class.forName(testPackageName + "." + fileName.substring(0, fileName.length() - ".java".length())));
+      }
+      return (classes);
+   }
+
+   static long allocatedBytes() {
+      final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+      if (bean instanceof com.sun.management.ThreadMXBean) {
+         return (((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId()));
+      }
+      return (-1);
+   }
+
+   /**
+    * @return the number of classes which failed to parse or produce an entrypoint
+    */
+   static int pass(List<Class<?>> _classes, boolean _entrypoint) {
+      int failures = 0;
+      for (final Class<?> clazz : _classes) {
+         try {
+            final ClassModel classModel = new ClassModel(clazz);
+            if (_entrypoint) {
+               final Object instance = clazz.getConstructor((Class<?>[]) null).newInstance();
+               classModel.getEntrypoint(instance instanceof Kernel ? instance : null);
+            }
+         } catch (final Throwable t) {
+            failures++;
+         }
+      }
+      return (failures);
+   }
+
+   static void measure(PrintStream _out, String _label, List<Class<?>> _classes, boolean _entrypoint, int _warmup, int _iterations) {
+      for (int i = 0; i < _warmup; i++) {
+         pass(_classes, _entrypoint);
+      }
+      int failures = 0;
+      final long startBytes = allocatedBytes();
+      final long start = System.nanoTime();
+      for (int i = 0; i < _iterations; i++) {
+         failures = pass(_classes, _entrypoint);
+      }
+      final long elapsed = System.nanoTime() - start;
+      final long bytes = allocatedBytes() - startBytes;
+
+      _out.printf("%-20s %5d classes %10.3f ms/pass %10.1f us/class", _label, _classes.size(), elapsed / 1e6 / _iterations,
+            elapsed / 1e3 / _iterations / _classes.size());
+      if (startBytes >= 0) {
+         _out.printf(" %10.1f KB/pass", bytes / 1024.0 / _iterations);
+      }
+      _out.printf(" (%d failed)%n", failures);
+   }
+
+   public static void main(String[] _args) throws ClassNotFoundException, IOException {
+      final File rootDir = new File(System.getProperty("root", "."));
+      final int warmup = Integer.getInteger("warmup", 10);
+      final int iterations = Integer.getInteger("iterations", 20);
+      if (!Config.disableModelCache) {
+         System.err.println("warning: model cache enabled, only the first pass parses the kernels");
+      }
+
+      final List<Class<?>> classes = kernelClasses(rootDir);
+
+      // Kernels which are expected to fail translation log warnings and dump stack traces, keep them out of the report
+      Logger.getLogger(Config.getLoggerName()).setLevel(Level.OFF);
+      final PrintStream out = System.out;
+      final PrintStream err = System.err;
+      final PrintStream quiet = new PrintStream(new OutputStream(){
+         @Override public void write(int b) {
+         }
+      });
+      System.setOut(quiet);
+      System.setErr(quiet);
+      try {
+         measure(out, "parse", classes, false, warmup, iterations);
+         measure(out, "parse+entrypoint", classes, true, warmup, iterations);
+      } finally {
+         System.setOut(out);
+         System.setErr(err);
+      }
+   }
+}
@@ -62,6 +62,8 @@ public class Source{
 
    static final String ThrowsEnd = "}Throws}**/";
 
+   static final String GuardPadding = "/**{GuardPadding}**/";
+
    static final String DocStart = "/**";
 
    static final String DocEnd = "*/";
@@ -82,6 +84,8 @@ public class Source{
 
    List<String> exceptions = new ArrayList<String>();
 
+   boolean guardPadding = false;
+
    public Source(Class<?> _clazz, File _rootDir) {
       clazz = _clazz;
       String srcName = clazz.getPackage().getName().replace(".", "/") + "/" + clazz.getSimpleName() + ".java";
@@ -103,6 +107,8 @@ public class Source{
 
                   } else if (trimmedLine.startsWith(ThrowsStart) && trimmedLine.endsWith(ThrowsEnd)) {
                      exceptions.add(trimmedLine.substring(ThrowsStart.length(), trimmedLine.length() - ThrowsEnd.length()));
+                  } else if (trimmedLine.equals(GuardPadding)) {
+                     guardPadding = true;
                   } else if (trimmedLine.equals(DocStart)) {
                      state = STATE.DOC;
                   } else {
@@ -180,6 +186,10 @@ public class Source{
       return (doc);
    }
 
+   public boolean isGuardPadding() {
+      return (guardPadding);
+   }
+
    public int getOpenCLSectionCount() {
       return (opencl.size());
    }
@@ -0,0 +1,276 @@
+/*
+Copyright (c) 2010-2011, Advanced Micro Devices, Inc.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification, are permitted provided that the
+following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list of conditions and the following
+disclaimer. 
+
+Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+disclaimer in the documentation and/or other materials provided with the distribution. 
+
+Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products
+derived from this software without specific prior written permission. 
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+If you use the software (in whole or in part), you shall adhere to all applicable U.S., European, and other export
+laws, including but not limited to the U.S. Export Administration Regulations ("EAR"), (15 C.F.R. Sections 730 through
+774), and E.U. Council Regulation (EC) No 1334/2000 of 22 June 2000.  Further, pursuant to Section 740.6 of the EAR,
+you hereby certify that, except pursuant to a license granted by the United States Department of Commerce Bureau of 
+Industry and Security or as otherwise permitted pursuant to a License Exception under the U.S. Export Administration 
+Regulations ("EAR"), you will not (1) export, re-export or release to a national of a country in Country Groups D:1,
+E:1 or E:2 any restricted technology, software, or source code you receive hereunder, or (2) export to Country Groups
+D:1, E:1 or E:2 the direct product of such technology or software, if such foreign produced direct product is subject
+to national security controls as identified on the Commerce Control List (currently found in Supplement 1 to Part 774
+of EAR).  For the most current Country Group listings, or for additional information about the EAR or your obligations
+under those regulations, please refer to the U.S. Bureau of Industry and Security's website at http://www.bis.doc.gov/. 
+
+*/
+package com.amd.aparapi;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.amd.aparapi.internal.model.ClassModel;
+import com.amd.aparapi.internal.model.Entrypoint;
+import com.amd.aparapi.internal.writer.KernelWriter;
+
+/**
+ * Measures the whole translation pipeline over the codegen test kernels and compares the result with a baseline.
+ * <p>
+ * Each kernel is taken through <code>new ClassModel(class)</code>, <code>getEntrypoint()</code> and 
+ * <code>KernelWriter.writeToString()</code>, which is what the codegen tests check the output of. We report the time and 
+ * allocation of each kernel (the fastest of several rounds, to keep GC and JIT noise down) and as the aggregate score the 
+ * geometric mean of the per kernel times, so that no single large kernel dominates. Kernels which are expected to fail 
+ * translation are measured too, up to the point they fail.
+ * <p>
+ * Allocation is summed over all live threads because callee MethodModels may be built on the common fork join pool. The
+ * ant target runs with <code>-Dcom.amd.aparapi.disableModelCache=true</code> so that every iteration translates from the
+ * class file instead of reusing cached models.
+ * <p>
+ * With <code>-Dupdate=true</code> the results are written to the baseline file. Otherwise, if the baseline exists, each 
+ * kernel is compared with it and we exit with status 1 if the score is more than <code>tolerance</code> slower. Timings 
+ * only compare with a baseline recorded on the same machine and JVM.
+ * <p>
+ * Usage: ant translation.benchmark [-Diterations=n] [-Drounds=n] [-Dwarmup=n] [-Dbaseline=file] [-Dtolerance=0.1] 
+ * [-Dupdate=true]
+ */
+public class TranslationBenchmark{
+
+   static class Result{
+      final String name;
+
+      final double micros;
+
+      final long bytes;
+
+      final boolean failed;
+
+      Result(String _name, double _micros, long _bytes, boolean _failed) {
+         name = _name;
+         micros = _micros;
+         bytes = _bytes;
+         failed = _failed;
+      }
+   }
+
+   static long allocatedBytes() {
+      final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+      if (bean instanceof com.sun.management.ThreadMXBean) {
+         long bytes = 0;
+         for (final long allocated : ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(bean.getAllThreadIds())) {
+            if (allocated > 0) {
+               bytes += allocated;
+            }
+         }
+         return (bytes);
+      }
+      return (-1);
+   }
+
+   /**
+    * @return true if the kernel translated to OpenCL
+    */
+   static boolean translate(Class<?> _class, Object _instance) {
+      try {
+         final Entrypoint entrypoint = new ClassModel(_class).getEntrypoint(_instance instanceof Kernel ? _instance : null);
+         KernelWriter.writeToString(entrypoint);
+         return (true);
+      } catch (final Throwable t) {
+         return (false);
+      }
+   }
+
+   static double score(List<Result> _results) {
+      double logSum = 0;
+      for (final Result result : _results) {
+         logSum += Math.log(result.micros);
+      }
+      return (Math.exp(logSum / _results.size()));
+   }
+
+   /**
+    * @return us per translation keyed by kernel, with the score under <code>score</code>
+    */
+   static Map<String, Double> readBaseline(File _file) throws IOException {
+      final Map<String, Double> baseline = new LinkedHashMap<String, Double>();
+      final BufferedReader reader = new BufferedReader(new FileReader(_file));
+      try {
+         for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            line = line.trim();
+            if ((line.length() > 0) && !line.startsWith("#")) {
+               final String[] fields = line.split("\\s+");
+               baseline.put(fields[0], Double.valueOf(fields[1]));
+            }
+         }
+      } finally {
+         reader.close();
+      }
+      return (baseline);
+   }
+
+   static void writeBaseline(File _file, List<Result> _results, int _rounds, int _iterations) throws IOException {
+      final PrintWriter writer = new PrintWriter(new FileWriter(_file));
+      try {
+         writer.printf("# TranslationBenchmark baseline, us per translation, fastest of %d rounds of %d iterations%n", _rounds,
+               _iterations);
+         writer.printf("# %s %s, %d processors%n", System.getProperty("java.vm.name"), System.getProperty("java.version"), Runtime
+               .getRuntime().availableProcessors());
+         writer.printf("%-60s %12.2f%n", "score", score(_results));
+         for (final Result result : _results) {
+            writer.printf("%-60s %12.2f%n", result.name, result.micros);
+         }
+      } finally {
+         writer.close();
+      }
+   }
+
+   /**
+    * @return true if the score is within tolerance of the baseline
+    */
+   static boolean compare(PrintStream _out, Map<String, Double> _baseline, List<Result> _results, double _tolerance) {
+      for (final Result result : _results) {
+         final Double before = _baseline.get(result.name);
+         if ((before != null) && (result.micros > (before * (1 + _tolerance)))) {
+            _out.printf("slower: %-52s %10.2f us, baseline %10.2f us (%+.1f%%)%n", result.name, result.micros, before,
+                  ((result.micros / before) - 1) * 100);
+         }
+      }
+      final double score = score(_results);
+      final Double before = _baseline.get("score");
+      if (before == null) {
+         _out.println("baseline has no score");
+         return (true);
+      }
+      final double change = (score / before) - 1;
+      _out.printf("score %.2f us, baseline %.2f us (%+.1f%%, tolerance %.1f%%)%n", score, before, change * 100, _tolerance * 100);
+      return (change <= _tolerance);
+   }
+
+   public static void main(String[] _args) throws Exception {
+      final File rootDir = new File(System.getProperty("root", "."));
+      final int warmup = Integer.getInteger("warmup", 20);
+      final int iterations = Integer.getInteger("iterations", 20);
+      final int rounds = Integer.getInteger("rounds", 5);
+      final File baselineFile = new File(System.getProperty("baseline", new File(rootDir, "translation-baseline.txt").getPath()));
+      final double tolerance = Double.parseDouble(System.getProperty("tolerance", "0.1"));
+      final boolean update = Boolean.getBoolean("update");
+      if (!Config.disableModelCache) {
+         System.err.println("warning: model cache enabled, only the first iteration of each kernel is a full translation");
+      }
+
+      final List<Class<?>> classes = ParseBenchmark.kernelClasses(rootDir);
+      Collections.sort(classes, new Comparator<Class<?>>(){
+         @Override public int compare(Class<?> _lhs, Class<?> _rhs) {
+            return (_lhs.getName().compareTo(_rhs.getName()));
+         }
+      });
+      final List<Object> instances = new ArrayList<Object>();
+      for (final Class<?> clazz : classes) {
+         instances.add(clazz.getConstructor((Class<?>[]) null).newInstance());
+      }
+
+      // Kernels which are expected to fail translation log warnings and dump stack traces, keep them out of the report
+      Logger.getLogger(Config.getLoggerName()).setLevel(Level.OFF);
+      final PrintStream out = System.out;
+      final PrintStream err = System.err;
+      final PrintStream quiet = new PrintStream(new OutputStream(){
+         @Override public void write(int b) {
+         }
+      });
+      final List<Result> results = new ArrayList<Result>();
+      System.setOut(quiet);
+      System.setErr(quiet);
+      try {
+         // Warm every kernel before timing any of them so the first one measured does not pay for JIT compilation
+         for (int i = 0; i < warmup; i++) {
+            for (int k = 0; k < classes.size(); k++) {
+               translate(classes.get(k), instances.get(k));
+            }
+         }
+
+         for (int k = 0; k < classes.size(); k++) {
+            final Class<?> clazz = classes.get(k);
+            boolean translated = false;
+            long fastest = Long.MAX_VALUE;
+            long bytes = -1;
+            for (int round = 0; round < rounds; round++) {
+               final long startBytes = allocatedBytes();
+               final long start = System.nanoTime();
+               for (int i = 0; i < iterations; i++) {
+                  translated = translate(clazz, instances.get(k));
+               }
+               fastest = Math.min(fastest, System.nanoTime() - start);
+               bytes = (startBytes < 0) ? -1 : ((allocatedBytes() - startBytes) / iterations);
+            }
+            results.add(new Result(clazz.getSimpleName(), fastest / 1e3 / iterations, bytes, !translated));
+         }
+      } finally {
+         System.setOut(out);
+         System.setErr(err);
+      }
+
+      for (final Result result : results) {
+         out.printf("%-60s %10.2f us %10.1f KB%s%n", result.name, result.micros, result.bytes / 1024.0,
+               result.failed ? " (failed)" : "");
+      }
+      out.printf("%d kernels, score (geometric mean) %.2f us%n", results.size(), score(results));
+
+      if (update) {
+         writeBaseline(baselineFile, results, rounds, iterations);
+         out.println("wrote " + baselineFile);
+      } else if (baselineFile.exists()) {
+         if (!compare(out, readBaseline(baselineFile), results, tolerance)) {
+            out.println("translation regressed against " + baselineFile);
+            System.exit(1);
+         }
+      } else {
+         out.println("no baseline at " + baselineFile + ", use -Dupdate=true to record one");
+      }
+   }
+}
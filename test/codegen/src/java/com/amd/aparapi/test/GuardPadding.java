@@ -0,0 +1,42 @@
+package com.amd.aparapi.test;
+
+import com.amd.aparapi.Kernel;
+
+public class GuardPadding extends Kernel{
+   int[] values = new int[1024];
+
+   @Override public void run() {
+      int id = getGlobalId();
+      values[id] = id;
+   }
+}
+/**{GuardPadding}**/
+/**{OpenCL{
+typedef struct This_s{
+   __global int *values;
+
+   int passid;
+}This;
+int get_pass_id(This *this){
+   return this->passid;
+   }
+
+__kernel void run(
+   __global int *values, 
+   int passid, 
+   int realsize_0, 
+   int realsize_1, 
+   int realsize_2
+){
+   This thisStruct;
+   This* this=&thisStruct;
+   this->values = values;
+   this->passid = passid;
+   if ((get_global_id(0) - get_global_offset(0)) >= realsize_0 || (get_global_id(1) - get_global_offset(1)) >= realsize_1 || (get_global_id(2) - get_global_offset(2)) >= realsize_2) return;
+   {
+      int id = get_global_id(0);
+      this->values[id]  = id;
+      return;
+   }
+}
+}OpenCL}**/
@@ -0,0 +1,143 @@
+package com.amd.aparapi.test.runtime;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.amd.aparapi.EXECUTION_MODE;
+import com.amd.aparapi.Kernel;
+import com.amd.aparapi.KernelStats;
+import com.amd.aparapi.Range;
+import com.amd.aparapi.internal.kernel.AdaptiveModeSelector;
+import com.amd.aparapi.internal.kernel.KernelRunner;
+
+public class AdaptiveModeSelection{
+
+   public static class AddKernel extends Kernel{
+      final int[] values = new int[256];
+
+      @Override public void run() {
+         values[getGlobalId()] += getGlobalId();
+      }
+   }
+
+   /**
+    * Stands in for a device with a high fixed cost per launch, against JTP which scales with the range.
+    */
+   static long cost(EXECUTION_MODE _mode, Range _range) {
+      final long workItems = _range.getGlobalSize_0();
+      return (_mode == EXECUTION_MODE.GPU ? 500000 + workItems : 100 * workItems);
+   }
+
+   static EXECUTION_MODE launch(AdaptiveModeSelector _selector, Range _range) {
+      final EXECUTION_MODE mode = _selector.select(AddKernel.class, _range);
+      _selector.record(AddKernel.class, _range, mode, cost(mode, _range));
+      return (mode);
+   }
+
+   @Test public void smallRangesStayInJavaAndLargeOnesGoToTheDevice() {
+      final AdaptiveModeSelector selector = new AdaptiveModeSelector(2, 0, EXECUTION_MODE.GPU, EXECUTION_MODE.JTP);
+      final Range small = Range.create(64);
+      final Range large = Range.create(1 << 20);
+
+      // a warm up and two samples of each mode
+      assertEquals(EXECUTION_MODE.GPU, launch(selector, small));
+      assertEquals(EXECUTION_MODE.GPU, launch(selector, small));
+      assertEquals(EXECUTION_MODE.GPU, launch(selector, small));
+      assertNull(selector.getPreferredMode(AddKernel.class, small));
+      assertEquals(EXECUTION_MODE.JTP, launch(selector, small));
+      assertEquals(EXECUTION_MODE.JTP, launch(selector, small));
+      assertEquals(EXECUTION_MODE.JTP, launch(selector, small));
+      assertEquals(EXECUTION_MODE.JTP, selector.getPreferredMode(AddKernel.class, small));
+      for (int i = 0; i < 10; i++) {
+         assertEquals(EXECUTION_MODE.JTP, launch(selector, small));
+      }
+
+      // warm up is per class, so the large bucket only needs its samples
+      assertEquals(EXECUTION_MODE.GPU, launch(selector, large));
+      assertEquals(EXECUTION_MODE.GPU, launch(selector, large));
+      assertEquals(EXECUTION_MODE.JTP, launch(selector, large));
+      assertEquals(EXECUTION_MODE.JTP, launch(selector, large));
+      for (int i = 0; i < 10; i++) {
+         assertEquals(EXECUTION_MODE.GPU, launch(selector, large));
+      }
+      assertEquals(500000 + (1 << 20), selector.getMeanNanos(AddKernel.class, large, EXECUTION_MODE.GPU));
+   }
+
+   @Test public void reprobingFollowsAChangeInCost() {
+      final AdaptiveModeSelector selector = new AdaptiveModeSelector(1, 4, EXECUTION_MODE.GPU, EXECUTION_MODE.JTP);
+      final Range range = Range.create(1024);
+      int gpuLaunches = 0;
+      for (int i = 0; i < 40; i++) {
+         if (launch(selector, range) == EXECUTION_MODE.GPU) {
+            gpuLaunches++;
+         }
+      }
+      assertEquals(EXECUTION_MODE.JTP, selector.getPreferredMode(AddKernel.class, range));
+      // the warm up, the sample and one launch in every four after that
+      assertTrue(gpuLaunches >= 8);
+      assertTrue(gpuLaunches <= 12);
+
+      // the device gets cheaper, re-probing finds it
+      for (int i = 0; i < 100; i++) {
+         final EXECUTION_MODE mode = selector.select(AddKernel.class, range);
+         selector.record(AddKernel.class, range, mode, mode == EXECUTION_MODE.GPU ? 10 : cost(mode, range));
+      }
+      assertEquals(EXECUTION_MODE.GPU, selector.getPreferredMode(AddKernel.class, range));
+   }
+
+   @Test public void failedAndUnsuitableModesAreSkipped() {
+      final AdaptiveModeSelector selector = new AdaptiveModeSelector(1, 2, EXECUTION_MODE.GPU, EXECUTION_MODE.SEQ,
+            EXECUTION_MODE.JTP);
+      selector.failed(AddKernel.class, EXECUTION_MODE.GPU);
+      final Range grouped = Range.create(256, 16);
+      for (int i = 0; i < 10; i++) {
+         assertEquals(EXECUTION_MODE.JTP, launch(selector, grouped));
+      }
+      assertEquals(EXECUTION_MODE.SEQ, selector.select(AddKernel.class, Range.create(256, 1)));
+   }
+
+   @Test(expected = IllegalArgumentException.class) public void onlyOneOpenCLMode() {
+      new AdaptiveModeSelector(EXECUTION_MODE.GPU, EXECUTION_MODE.CPU, EXECUTION_MODE.JTP);
+   }
+
+   @Test public void runnerLaunchesInTheSelectedModes() {
+      final KernelRunner kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(EXECUTION_MODE.JTP);
+      final AdaptiveModeSelector selector = new AdaptiveModeSelector(1, 0, EXECUTION_MODE.SEQ, EXECUTION_MODE.JTP);
+      kernelRunner.setAdaptiveModeSelector(selector);
+      final AddKernel kernel = new AddKernel();
+      final Range range = Range.create(256, 1);
+      for (int i = 0; i < 8; i++) {
+         kernelRunner.execute(kernel, range);
+      }
+      assertEquals(8 * 200, kernel.values[200]);
+
+      final KernelStats stats = kernelRunner.getKernelStats(kernel);
+      // a warm up and a sample in each mode, then the faster one
+      final long seq = stats.getLatencyHistogram(EXECUTION_MODE.SEQ).snapshot().getCount();
+      final long jtp = stats.getLatencyHistogram(EXECUTION_MODE.JTP).snapshot().getCount();
+      assertTrue((seq >= 2) && (jtp >= 2));
+      assertEquals(8, seq + jtp);
+      assertNotNull(selector.getPreferredMode(AddKernel.class, range));
+      assertTrue(selector.getMeanNanos(AddKernel.class, range, EXECUTION_MODE.JTP) > 0);
+
+      kernelRunner.setAdaptiveModeSelector(null);
+      kernelRunner.execute(kernel, range);
+      assertEquals(EXECUTION_MODE.JTP, kernelRunner.getExecutionMode(kernel));
+      kernelRunner.dispose();
+   }
+
+   @Test public void explicitRunnersKeepTheirMode() {
+      final KernelRunner kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(EXECUTION_MODE.JTP);
+      kernelRunner.setExplicit(true);
+      kernelRunner.setAdaptiveModeSelector(new AdaptiveModeSelector(1, 0, EXECUTION_MODE.SEQ, EXECUTION_MODE.JTP));
+      final AddKernel kernel = new AddKernel();
+      for (int i = 0; i < 4; i++) {
+         kernelRunner.execute(kernel, Range.create(256, 1));
+      }
+      assertNull(kernelRunner.getKernelStats(kernel).getLatencyHistogram(EXECUTION_MODE.SEQ));
+      kernelRunner.dispose();
+   }
+}
@@ -46,7 +46,7 @@ public class CallStaticFromAnonymousKernel{
       };
       KernelRunner kernelRunner = new KernelRunner();
       kernelRunner.execute(kernel, size);
-      assertTrue("ran on GPU", kernelRunner.getExecutionMode() == EXECUTION_MODE.GPU);
+      assertTrue("ran on GPU", kernelRunner.getExecutionMode(kernel) == EXECUTION_MODE.GPU);
 
       for (int i = 0; i < size; i++) {
          assertTrue("results == fooBar", results[i] == (fooBar(values[i]) + AnotherClass.foo(i)));
@@ -0,0 +1,129 @@
+package com.amd.aparapi.test.runtime;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+
+import org.junit.Test;
+
+import com.amd.aparapi.EXECUTION_MODE;
+import com.amd.aparapi.Kernel;
+import com.amd.aparapi.Range;
+import com.amd.aparapi.internal.kernel.KernelRunner;
+import com.amd.aparapi.internal.kernel.LaunchCapture;
+
+public class CaptureReplay{
+
+   public static class Particle{
+      float x, v;
+
+      public float getX() {
+         return x;
+      }
+
+      public void setX(float _x) {
+         x = _x;
+      }
+
+      public float getV() {
+         return v;
+      }
+   }
+
+   public static class StepKernel extends Kernel{
+      final float[] in;
+
+      final float[] out;
+
+      final int[][] grid = new int[4][8];
+
+      final Particle[] particles;
+
+      float scale;
+
+      public StepKernel(int _size, float _scale) {
+         in = new float[_size];
+         out = new float[_size];
+         particles = new Particle[_size];
+         for (int i = 0; i < _size; i++) {
+            in[i] = i;
+            particles[i] = new Particle();
+            particles[i].v = i % 3;
+         }
+         grid[2][5] = 7;
+         scale = _scale;
+      }
+
+      @Override public void run() {
+         final int i = getGlobalId();
+         out[i] = in[i] * scale;
+         particles[i].setX(particles[i].getX() + particles[i].getV());
+      }
+   }
+
+   @Test public void replayMatchesCapturedLaunch() throws Exception {
+      final File file = File.createTempFile("capture", ".aparapi");
+      file.deleteOnExit();
+
+      final KernelRunner kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(EXECUTION_MODE.JTP);
+      final StepKernel kernel = new StepKernel(64, 3f);
+      kernelRunner.captureNextLaunch(file, LaunchCapture.ALL_ELEMENTS);
+      kernelRunner.execute(kernel, Range.create(64, 8), 2);
+      kernelRunner.dispose();
+      assertTrue(file.length() > 0);
+
+      final LaunchCapture capture = LaunchCapture.read(file);
+      assertEquals(StepKernel.class.getName(), capture.getKernelClassName());
+      assertEquals(EXECUTION_MODE.JTP, capture.getCapturedMode());
+      assertEquals(2, capture.getPasses());
+      assertEquals(64, capture.getRange().getGlobalSize_0());
+      assertEquals(8, capture.getRange().getLocalSize_0());
+
+      final StepKernel replayed = (StepKernel) capture.getKernel();
+      assertEquals(3f, replayed.scale, 0f);
+      assertEquals(7, replayed.grid[2][5]);
+      assertEquals(0f, replayed.out[10], 0f);
+      // captured before the launch ran
+      assertEquals(0f, replayed.particles[5].getX(), 0f);
+
+      final KernelRunner replayRunner = new KernelRunner();
+      replayRunner.setExecutionMode(EXECUTION_MODE.JTP);
+      replayRunner.execute(replayed, capture.getRange(), capture.getPasses());
+      replayRunner.dispose();
+      assertArrayEquals(kernel.out, replayed.out, 0f);
+      assertEquals(kernel.particles[5].getX(), replayed.particles[5].getX(), 0f);
+   }
+
+   @Test public void largeArraysAreSampled() throws Exception {
+      final File file = File.createTempFile("capture", ".aparapi");
+      file.deleteOnExit();
+
+      final KernelRunner kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(EXECUTION_MODE.JTP);
+      final StepKernel kernel = new StepKernel(4096, 1f);
+      kernelRunner.captureNextLaunch(file, 16);
+      kernelRunner.execute(kernel, 4096);
+      // only the next launch is captured
+      assertTrue(file.delete());
+      kernelRunner.execute(kernel, 4096);
+      assertFalse(file.exists());
+      kernelRunner.dispose();
+
+      final KernelRunner sampling = new KernelRunner();
+      sampling.setExecutionMode(EXECUTION_MODE.JTP);
+      sampling.captureNextLaunch(file, 16);
+      sampling.execute(new StepKernel(4096, 1f), 4096);
+      sampling.dispose();
+      assertTrue(file.length() < (4096 * 4));
+
+      final StepKernel replayed = (StepKernel) LaunchCapture.read(file).getKernel();
+      assertEquals(4096, replayed.in.length);
+      assertEquals(4096, replayed.particles.length);
+      assertEquals(0f, replayed.in[0], 0f);
+      assertEquals(256f, replayed.in[1], 0f);
+      assertEquals(replayed.in[3], replayed.in[3 + 16], 0f);
+      assertNotSame(replayed.particles[1], replayed.particles[17]);
+      assertEquals(replayed.particles[1].getV(), replayed.particles[17].getV(), 0f);
+   }
+}
@@ -0,0 +1,64 @@
+package com.amd.aparapi.test.runtime;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.amd.aparapi.EXECUTION_MODE;
+import com.amd.aparapi.Kernel;
+import com.amd.aparapi.Range;
+import com.amd.aparapi.internal.kernel.KernelRunner;
+
+public class ConcurrentKernels{
+
+   static final CountDownLatch waiting = new CountDownLatch(1);
+
+   static final CountDownLatch released = new CountDownLatch(1);
+
+   /**
+    * Blocks inside its launch until a ReleaseKernel launch runs.
+    */
+   public static class WaitKernel extends Kernel{
+      final boolean[] wasReleased = new boolean[1];
+
+      @Override public void run() {
+         waiting.countDown();
+         try {
+            wasReleased[0] = released.await(10, TimeUnit.SECONDS);
+         } catch (final InterruptedException e) {
+            wasReleased[0] = false;
+         }
+      }
+   }
+
+   public static class ReleaseKernel extends Kernel{
+      @Override public void run() {
+         released.countDown();
+      }
+   }
+
+   @Test public void differentKernelClassesRunConcurrently() throws Exception {
+      final KernelRunner kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(EXECUTION_MODE.JTP);
+      final WaitKernel waitKernel = new WaitKernel();
+
+      final Thread thread = new Thread(new Runnable(){
+         @Override public void run() {
+            kernelRunner.execute(waitKernel, Range.create(1, 1));
+         }
+      });
+      thread.start();
+      assertTrue(waiting.await(10, TimeUnit.SECONDS));
+
+      // with a runner wide lock this would wait for the WaitKernel launch to time out
+      kernelRunner.execute(new ReleaseKernel(), Range.create(1, 1));
+      thread.join();
+      assertTrue(waitKernel.wasReleased[0]);
+      assertEquals(1, kernelRunner.getKernelStats(WaitKernel.class).getLaunchCount());
+      assertEquals(1, kernelRunner.getKernelStats(ReleaseKernel.class).getLaunchCount());
+      kernelRunner.dispose();
+   }
+}
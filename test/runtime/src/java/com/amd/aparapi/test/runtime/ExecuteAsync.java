@@ -0,0 +1,142 @@
+package com.amd.aparapi.test.runtime;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.amd.aparapi.EXECUTION_MODE;
+import com.amd.aparapi.Kernel;
+import com.amd.aparapi.KernelFuture;
+import com.amd.aparapi.Range;
+import com.amd.aparapi.internal.kernel.KernelRunner;
+
+public class ExecuteAsync{
+
+   public static class FillKernel extends Kernel{
+      final int[] values = new int[256];
+
+      int value;
+
+      FillKernel(int _value) {
+         value = _value;
+      }
+
+      @Override public void run() {
+         values[getGlobalId()] = value;
+      }
+   }
+
+   public static class GateKernel extends Kernel{
+      static final CountDownLatch started = new CountDownLatch(1);
+
+      static final CountDownLatch release = new CountDownLatch(1);
+
+      final int[] values = new int[16];
+
+      @Override public void run() {
+         started.countDown();
+         try {
+            release.await();
+            values[getGlobalId()] = 1;
+         } catch (final InterruptedException e) {
+            values[getGlobalId()] = -1;
+         }
+      }
+   }
+
+   @Test public void launchesCompleteInOrderAndNotifyCallbacks() throws Exception {
+      final KernelRunner kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(EXECUTION_MODE.JTP);
+      final List<Integer> completed = Collections.synchronizedList(new ArrayList<Integer>());
+      final CountDownLatch latch = new CountDownLatch(3);
+
+      final List<KernelFuture> futures = new ArrayList<KernelFuture>();
+      for (int i = 0; i < 3; i++) {
+         final FillKernel kernel = new FillKernel(i + 1);
+         futures.add(kernelRunner.executeAsync(kernel, Range.create(256, 16)).addCallback(new KernelFuture.Callback(){
+            @Override public void completed(Kernel _kernel) {
+               completed.add(((FillKernel) _kernel).value);
+               latch.countDown();
+            }
+
+            @Override public void failed(Throwable _cause) {
+               fail(_cause.toString());
+            }
+         }));
+      }
+
+      assertTrue(latch.await(30, TimeUnit.SECONDS));
+      assertEquals(3, ((FillKernel) futures.get(2).get()).values[255]);
+      assertEquals(3, completed.size());
+      assertEquals(Integer.valueOf(1), completed.get(0));
+      assertEquals(Integer.valueOf(3), completed.get(2));
+
+      // registering on a completed launch notifies straight away
+      final int[] notified = new int[1];
+      futures.get(0).addCallback(new KernelFuture.Callback(){
+         @Override public void completed(Kernel _kernel) {
+            notified[0]++;
+         }
+
+         @Override public void failed(Throwable _cause) {
+         }
+      });
+      assertEquals(1, notified[0]);
+      kernelRunner.dispose();
+   }
+
+   @Test(timeout = 30000) public void disposeWaitsForTheCurrentLaunch() throws Exception {
+      final KernelRunner kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(EXECUTION_MODE.JTP);
+      final GateKernel kernel = new GateKernel();
+      final KernelFuture current = kernelRunner.executeAsync(kernel, Range.create(16, 16));
+      final KernelFuture queued = kernelRunner.executeAsync(new FillKernel(1), Range.create(256, 16));
+      GateKernel.started.await();
+
+      final Thread disposer = new Thread(new Runnable(){
+         @Override public void run() {
+            kernelRunner.dispose();
+         }
+      });
+      disposer.start();
+      disposer.join(200);
+      assertTrue("dispose must wait for the launch in flight", disposer.isAlive());
+
+      GateKernel.release.countDown();
+      disposer.join();
+      assertTrue(queued.isCancelled());
+      for (final int value : ((GateKernel) current.get()).values) {
+         assertEquals(1, value);
+      }
+   }
+
+   @Test public void failuresReachGetAndCallbacks() throws Exception {
+      final KernelRunner kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(EXECUTION_MODE.SEQ);
+      final Throwable[] failure = new Throwable[1];
+      final KernelFuture future = kernelRunner.executeAsync(new FillKernel(1), Range.create(256, 16));
+      try {
+         future.get();
+         fail("SEQ can't run groups larger than one");
+      } catch (final ExecutionException e) {
+         assertTrue(e.getCause() instanceof IllegalStateException);
+      }
+      future.addCallback(new KernelFuture.Callback(){
+         @Override public void completed(Kernel _kernel) {
+         }
+
+         @Override public void failed(Throwable _cause) {
+            failure[0] = _cause;
+         }
+      });
+      assertTrue(failure[0] instanceof IllegalStateException);
+      kernelRunner.dispose();
+   }
+}
@@ -0,0 +1,92 @@
+package com.amd.aparapi.test.runtime;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.amd.aparapi.EXECUTION_MODE;
+import com.amd.aparapi.Kernel;
+import com.amd.aparapi.KernelStats;
+import com.amd.aparapi.Range;
+import com.amd.aparapi.internal.kernel.KernelRunner;
+
+public class ExecuteBatch{
+
+   public static class ScoreKernel extends Kernel{
+      final float[] scores;
+
+      final float weight;
+
+      public ScoreKernel(int _size, float _weight) {
+         scores = new float[_size];
+         weight = _weight;
+      }
+
+      @Override public void run() {
+         final int i = getGlobalId();
+         scores[i] = i * weight;
+      }
+   }
+
+   public static class OtherKernel extends Kernel{
+      @Override public void run() {
+      }
+   }
+
+   @Test public void everyInstanceRunsOverItsOwnRange() {
+      final KernelRunner kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(EXECUTION_MODE.JTP);
+      final List<ScoreKernel> kernels = new ArrayList<ScoreKernel>();
+      final List<Range> ranges = new ArrayList<Range>();
+      for (int i = 0; i < 50; i++) {
+         final int size = 16 * (1 + (i % 4));
+         kernels.add(new ScoreKernel(size, i));
+         ranges.add(Range.create(size, 16));
+      }
+      kernelRunner.executeBatch(kernels, ranges, 1);
+
+      for (int i = 0; i < 50; i++) {
+         final float[] scores = kernels.get(i).scores;
+         assertEquals((scores.length - 1) * (float) i, scores[scores.length - 1], 0f);
+      }
+      final KernelStats stats = kernelRunner.getKernelStats(ScoreKernel.class);
+      assertEquals(50, stats.getLaunchCount());
+      kernelRunner.dispose();
+   }
+
+   @Test public void sharedRangeAndEmptyBatch() {
+      final KernelRunner kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(EXECUTION_MODE.JTP);
+      kernelRunner.executeBatch(Collections.<ScoreKernel> emptyList(), Range.create(32));
+      assertNull(kernelRunner.getKernelStats(ScoreKernel.class));
+
+      final List<ScoreKernel> kernels = Arrays.asList(new ScoreKernel(32, 2f), new ScoreKernel(32, 3f));
+      kernelRunner.executeBatch(kernels, Range.create(32));
+      assertEquals(62f, kernels.get(0).scores[31], 0f);
+      assertEquals(93f, kernels.get(1).scores[31], 0f);
+      kernelRunner.dispose();
+   }
+
+   @Test(expected = IllegalArgumentException.class) public void mixedClassesAreRejected() {
+      final KernelRunner kernelRunner = new KernelRunner();
+      try {
+         kernelRunner.executeBatch(Arrays.asList(new ScoreKernel(16, 1f), new OtherKernel()), Range.create(16));
+      } finally {
+         kernelRunner.dispose();
+      }
+   }
+
+   @Test(expected = IllegalArgumentException.class) public void rangesMustMatchKernels() {
+      final KernelRunner kernelRunner = new KernelRunner();
+      try {
+         kernelRunner.executeBatch(Arrays.asList(new ScoreKernel(16, 1f)), new ArrayList<Range>(), 1);
+      } finally {
+         kernelRunner.dispose();
+      }
+   }
+}
@@ -0,0 +1,81 @@
+package com.amd.aparapi.test.runtime;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.amd.aparapi.EXECUTION_MODE;
+import com.amd.aparapi.Kernel;
+import com.amd.aparapi.Range;
+import com.amd.aparapi.internal.kernel.KernelRunner;
+
+public class ExecutionModeFallback{
+
+   public static class UntranslatableKernel extends Kernel{
+      final int[] out = new int[64];
+
+      @Override public void run() {
+         // allocation can't be translated to OpenCL
+         final int[] scratch = new int[1];
+         scratch[0] = getGlobalId() * 2;
+         out[getGlobalId()] = scratch[0];
+      }
+   }
+
+   public static class OtherKernel extends Kernel{
+      @Override public void run() {
+      }
+   }
+
+   @Test public void onlyTheFailingClassFallsBack() {
+      final KernelRunner kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(EXECUTION_MODE.GPU);
+      final UntranslatableKernel kernel = new UntranslatableKernel();
+      kernelRunner.execute(kernel, 64);
+      assertEquals(42, kernel.out[21]);
+
+      assertEquals(EXECUTION_MODE.JTP, kernelRunner.getExecutionMode(kernel));
+      assertEquals(EXECUTION_MODE.JTP, kernelRunner.getKernelStats(kernel).getLastExecutionMode());
+      assertNotNull(kernelRunner.getFallbackReason(UntranslatableKernel.class));
+      assertEquals(EXECUTION_MODE.GPU, kernelRunner.getExecutionMode());
+      assertEquals(EXECUTION_MODE.GPU, kernelRunner.getExecutionMode(OtherKernel.class));
+      assertNull(kernelRunner.getFallbackReason(OtherKernel.class));
+
+      // stays on JTP without trying OpenCL again
+      kernelRunner.execute(kernel, 64);
+      assertEquals(1, kernelRunner.getKernelStats(kernel).getFallbackCount());
+      kernelRunner.dispose();
+   }
+
+   @Test public void settingTheModeResetsFallbacks() {
+      final KernelRunner kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(EXECUTION_MODE.GPU);
+      kernelRunner.execute(new UntranslatableKernel(), 64);
+      assertEquals(EXECUTION_MODE.JTP, kernelRunner.getExecutionMode(UntranslatableKernel.class));
+
+      kernelRunner.setExecutionMode(EXECUTION_MODE.GPU);
+      assertEquals(EXECUTION_MODE.GPU, kernelRunner.getExecutionMode(UntranslatableKernel.class));
+      assertNull(kernelRunner.getFallbackReason(UntranslatableKernel.class));
+
+      kernelRunner.setExecutionMode(EXECUTION_MODE.SEQ);
+      final UntranslatableKernel kernel = new UntranslatableKernel();
+      kernelRunner.execute(kernel, Range.create(64, 1));
+      assertEquals(EXECUTION_MODE.SEQ, kernelRunner.getExecutionMode(kernel));
+      assertEquals(126, kernel.out[63]);
+      kernelRunner.dispose();
+   }
+
+   @Test public void explicitGetFollowsTheClassMode() {
+      final KernelRunner kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(EXECUTION_MODE.GPU);
+      kernelRunner.setExplicit(true);
+      final UntranslatableKernel kernel = new UntranslatableKernel();
+      kernelRunner.execute(kernel, 64);
+      assertEquals(EXECUTION_MODE.JTP, kernelRunner.getExecutionMode(kernel));
+
+      // the class runs in JTP, so there is no device copy to read back over the result
+      kernelRunner.get(kernel.out);
+      assertEquals(42, kernel.out[21]);
+      kernelRunner.dispose();
+   }
+}
@@ -0,0 +1,135 @@
+package com.amd.aparapi.test.runtime;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.amd.aparapi.EXECUTION_MODE;
+import com.amd.aparapi.Kernel;
+import com.amd.aparapi.KernelStats;
+import com.amd.aparapi.Range;
+import com.amd.aparapi.annotation.Local;
+import com.amd.aparapi.internal.kernel.ExecutionPlan;
+import com.amd.aparapi.internal.kernel.KernelRunner;
+import com.amd.aparapi.internal.model.ClassModel;
+import com.amd.aparapi.internal.writer.KernelWriter;
+
+public class ExplainPlan{
+
+   public static class ScaleKernel extends Kernel{
+      final float[] in = new float[128];
+
+      final float[] out = new float[128];
+
+      float factor = 2f;
+
+      @Override public void run() {
+         final int i = getGlobalId();
+         out[i] = in[i] * factor;
+      }
+   }
+
+   public static class DoubleKernel extends Kernel{
+      final double[] values = new double[16];
+
+      @Override public void run() {
+         final int i = getGlobalId();
+         values[i] = values[i] * 0.5;
+      }
+   }
+
+   public static class BarrierKernel extends Kernel{
+      final int[] values = new int[16];
+
+      @Local final int[] scratch = new int[4];
+
+      @Override public void run() {
+         scratch[getLocalId()] = values[getGlobalId()];
+         localBarrier();
+         values[getGlobalId()] = scratch[getLocalSize() - 1 - getLocalId()];
+      }
+   }
+
+   static ExecutionPlan.Argument argument(ExecutionPlan _plan, String _name) {
+      for (final ExecutionPlan.Argument argument : _plan.getArguments()) {
+         if (argument.getName().equals(_name)) {
+            return (argument);
+         }
+      }
+      fail("no argument " + _name);
+      return (null);
+   }
+
+   @Test public void argumentsAndTransfers() {
+      final KernelRunner kernelRunner = new KernelRunner();
+      final ScaleKernel kernel = new ScaleKernel();
+      final ExecutionPlan plan = kernelRunner.explain(kernel, Range.create(128));
+
+      assertEquals(kernelRunner.getExecutionMode(), plan.getRequestedMode());
+      assertTrue(plan.getOpenCLSize() > 0);
+      assertTrue(plan.getPragmas().isEmpty());
+      assertEquals(3, plan.getArguments().size());
+
+      final ExecutionPlan.Argument in = argument(plan, "in");
+      assertTrue(in.getFlags().contains("READ"));
+      assertFalse(in.getFlags().contains("WRITE"));
+      assertEquals(128 * 4, in.getSizeInBytes());
+      assertEquals(128 * 4, in.getBytesWritten());
+      assertEquals(0, in.getBytesRead());
+
+      final ExecutionPlan.Argument out = argument(plan, "out");
+      assertTrue(out.getFlags().contains("WRITE"));
+      assertEquals(128 * 4, out.getBytesRead());
+
+      assertEquals(0, argument(plan, "factor").getBytesWritten());
+      assertEquals(2 * 128 * 4, plan.getBytesWrittenPerLaunch());
+      assertEquals(128 * 4, plan.getBytesReadPerLaunch());
+
+      final KernelStats stats = kernelRunner.getKernelStats(kernel);
+      assertTrue((stats == null) || (stats.getLaunchCount() == 0));
+      assertEquals(0f, kernel.out[3], 0f);
+      kernelRunner.dispose();
+   }
+
+   @Test public void sizesTheGuardedSource() throws Exception {
+      final KernelRunner kernelRunner = new KernelRunner();
+      final ScaleKernel kernel = new ScaleKernel();
+      final ExecutionPlan plan = kernelRunner.explain(kernel, Range.create(128));
+      final String guarded = KernelWriter.writeToString(ClassModel.getClassModel(ScaleKernel.class).getEntrypoint(kernel), true);
+      assertEquals(guarded.length(), plan.getOpenCLSize());
+      kernelRunner.dispose();
+   }
+
+   @Test public void paddedBarrierLaunchesRunInJTP() {
+      final KernelRunner kernelRunner = new KernelRunner();
+      final ExecutionPlan plan = kernelRunner.explain(new BarrierKernel(), Range.createPadded(14, 4));
+      boolean noted = false;
+      for (final String note : plan.getNotes()) {
+         noted |= note.contains("barriers");
+      }
+      assertTrue(plan.getNotes().toString(), noted);
+      if (plan.getRequestedMode().isOpenCL() && (plan.getFallbackReason() != null)
+            && plan.getFallbackReason().contains("barriers")) {
+         assertEquals(EXECUTION_MODE.JTP, plan.getExecutionMode());
+      }
+      kernelRunner.dispose();
+   }
+
+   @Test public void doublesNeedFp64() {
+      final KernelRunner kernelRunner = new KernelRunner();
+      final ExecutionPlan plan = kernelRunner.explain(new DoubleKernel(), Range.create(16));
+      assertTrue(plan.getPragmas().contains("cl_khr_fp64"));
+      assertNotNull(plan.toString());
+      kernelRunner.dispose();
+   }
+
+   @Test public void sequentialGroupsAreReported() {
+      final KernelRunner kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(EXECUTION_MODE.SEQ);
+      final ExecutionPlan plan = kernelRunner.explain(new ScaleKernel(), Range.create(128, 8));
+      assertEquals(EXECUTION_MODE.SEQ, plan.getExecutionMode());
+      assertNull(plan.getFallbackReason());
+      assertFalse(plan.getNotes().isEmpty());
+      kernelRunner.dispose();
+   }
+}
@@ -0,0 +1,45 @@
+package com.amd.aparapi.test.runtime;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the tests of a class in a child VM with system properties set, for the tests of options which are read once when
+ * <code>Config</code> is loaded and are off in the VM the tests run in.
+ */
+public class ForkedVM{
+
+   /**
+    * Fail with the output of the child VM if any of the tests of <code>_testClass</code> fail there.
+    * 
+    * @param _properties the system properties of the child VM, as <code>name=value</code>
+    */
+   public static void runTests(Class<?> _testClass, String... _properties) throws Exception {
+      final List<String> command = new ArrayList<String>();
+      command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+      command.add("-cp");
+      command.add(System.getProperty("java.class.path"));
+      command.add("-Djava.library.path=" + System.getProperty("java.library.path"));
+      for (final String property : _properties) {
+         command.add("-D" + property);
+      }
+      command.add("org.junit.runner.JUnitCore");
+      command.add(_testClass.getName());
+
+      final ProcessBuilder builder = new ProcessBuilder(command);
+      builder.redirectErrorStream(true);
+      final Process process = builder.start();
+      final ByteArrayOutputStream output = new ByteArrayOutputStream();
+      final InputStream in = process.getInputStream();
+      final byte[] buffer = new byte[4096];
+      for (int n = in.read(buffer); n != -1; n = in.read(buffer)) {
+         output.write(buffer, 0, n);
+      }
+      assertEquals(output.toString(), 0, process.waitFor());
+   }
+}
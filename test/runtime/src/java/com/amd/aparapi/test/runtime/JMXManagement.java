@@ -0,0 +1,114 @@
+package com.amd.aparapi.test.runtime;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.util.Set;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+import com.amd.aparapi.Config;
+import com.amd.aparapi.EXECUTION_MODE;
+import com.amd.aparapi.Kernel;
+import com.amd.aparapi.internal.kernel.KernelRunner;
+
+public class JMXManagement{
+
+   public static class CopyKernel extends Kernel{
+      final int[] in = new int[32];
+
+      final int[] out = new int[32];
+
+      @Override public void run() {
+         final int i = getGlobalId();
+         out[i] = in[i];
+      }
+   }
+
+   private static Set<ObjectName> query(String _pattern) throws Exception {
+      return ManagementFactory.getPlatformMBeanServer().queryNames(new ObjectName(_pattern), null);
+   }
+
+   @Test public void enabledInAChildVM() throws Exception {
+      if (!Config.enableJMX) {
+         ForkedVM.runTests(JMXManagement.class, "com.amd.aparapi.enableJMX=true");
+      }
+   }
+
+   @Test public void nothingIsRegisteredByDefault() throws Exception {
+      assumeTrue(!Config.enableJMX);
+      final Set<ObjectName> before = query("com.amd.aparapi:*");
+      final KernelRunner kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(EXECUTION_MODE.JTP);
+      kernelRunner.execute(new CopyKernel(), 32);
+      assertEquals(before, query("com.amd.aparapi:*"));
+      kernelRunner.dispose();
+   }
+
+   @Test public void runnerAndKernelAreRegisteredUntilDisposed() throws Exception {
+      assumeTrue(Config.enableJMX);
+      final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+      final Set<ObjectName> before = query("com.amd.aparapi:type=KernelRunner,*");
+      final KernelRunner kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(EXECUTION_MODE.JTP);
+      final Set<ObjectName> after = query("com.amd.aparapi:type=KernelRunner,*");
+      after.removeAll(before);
+      assertEquals(1, after.size());
+      final ObjectName runnerName = after.iterator().next();
+
+      kernelRunner.execute(new CopyKernel(), 32);
+      kernelRunner.execute(new CopyKernel(), 32);
+
+      assertEquals("JTP", server.getAttribute(runnerName, "ExecutionMode"));
+      assertEquals(2L, server.getAttribute(runnerName, "LaunchCount"));
+      assertEquals(0L, server.getAttribute(runnerName, "FallbackCount"));
+
+      final Set<ObjectName> kernels = query("com.amd.aparapi:type=KernelMapping,runner=" + runnerName.getKeyProperty("name")
+            + ",*");
+      assertEquals(1, kernels.size());
+      final ObjectName kernelName = kernels.iterator().next();
+      assertEquals(CopyKernel.class.getName(), server.getAttribute(kernelName, "KernelClass"));
+      assertEquals(2L, server.getAttribute(kernelName, "LaunchCount"));
+
+      long launches = 0;
+      for (final long count : (long[]) server.getAttribute(kernelName, "ExecutionTimeHistogram")) {
+         launches += count;
+      }
+      assertEquals(2, launches);
+
+      kernelRunner.dispose();
+      assertFalse(server.isRegistered(runnerName));
+      assertFalse(server.isRegistered(kernelName));
+   }
+
+   @Test public void undisposedRunnerIsNotRetainedByJMX() throws Exception {
+      assumeTrue(Config.enableJMX);
+      final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+      final Set<ObjectName> before = query("com.amd.aparapi:type=KernelRunner,*");
+      KernelRunner kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(EXECUTION_MODE.JTP);
+      kernelRunner.execute(new CopyKernel(), 32);
+      final Set<ObjectName> after = query("com.amd.aparapi:type=KernelRunner,*");
+      after.removeAll(before);
+      final ObjectName runnerName = after.iterator().next();
+
+      final WeakReference<KernelRunner> reference = new WeakReference<KernelRunner>(kernelRunner);
+      kernelRunner = null;
+      for (int i = 0; (i < 50) && (reference.get() != null); i++) {
+         System.gc();
+         Thread.sleep(10);
+      }
+      assertNull("the registered beans kept the runner alive", reference.get());
+
+      // stale beans are swept when the next runner registers
+      new KernelRunner().dispose();
+      assertFalse(server.isRegistered(runnerName));
+   }
+}
@@ -0,0 +1,89 @@
+package com.amd.aparapi.test.runtime;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+import org.junit.Test;
+
+import com.amd.aparapi.Config;
+import com.amd.aparapi.EXECUTION_MODE;
+import com.amd.aparapi.Kernel;
+import com.amd.aparapi.Range;
+import com.amd.aparapi.WorkerStats;
+import com.amd.aparapi.internal.kernel.KernelRunner;
+
+public class JTPWorkerStats{
+
+   /**
+    * Local id 0 does all the work of its group while the others wait for it at the barrier.
+    */
+   public static class UnevenKernel extends Kernel{
+      final double[] out = new double[64];
+
+      @Override public void run() {
+         double sum = 0;
+         if (getLocalId() == 0) {
+            for (int i = 0; i < 200000; i++) {
+               sum += sqrt(i);
+            }
+         }
+         localBarrier();
+         out[getGlobalId()] = sum;
+      }
+   }
+
+   @Test public void enabledInAChildVM() throws Exception {
+      if (!Config.enableJTPWorkerStats) {
+         ForkedVM.runTests(JTPWorkerStats.class, "com.amd.aparapi.enableJTPWorkerStats=true");
+      }
+   }
+
+   @Test public void nothingIsCollectedByDefault() {
+      assumeTrue(!Config.enableJTPWorkerStats);
+      final KernelRunner kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(EXECUTION_MODE.JTP);
+      final UnevenKernel kernel = new UnevenKernel();
+      kernelRunner.execute(kernel, Range.create(64, 4));
+      assertNull(kernelRunner.getKernelStats(kernel).getLastWorkerStats());
+      kernelRunner.dispose();
+   }
+
+   @Test public void unevenWorkShowsAsImbalanceAndBarrierWaits() {
+      assumeTrue(Config.enableJTPWorkerStats);
+      final KernelRunner kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(EXECUTION_MODE.JTP);
+      final UnevenKernel kernel = new UnevenKernel();
+      kernelRunner.execute(kernel, Range.create(64, 4), 2);
+
+      final WorkerStats[] workers = kernelRunner.getKernelStats(kernel).getLastWorkerStats();
+      kernelRunner.dispose();
+
+      assertEquals(4, workers.length);
+      for (int i = 0; i < workers.length; i++) {
+         assertEquals(i, workers[i].getWorker());
+         assertEquals(32, workers[i].getItemsProcessed());
+      }
+      for (int i = 1; i < workers.length; i++) {
+         assertTrue(workers[0].getBusyNanos() > workers[i].getBusyNanos());
+         assertTrue(workers[i].getBarrierWaitNanos() > workers[0].getBarrierWaitNanos());
+      }
+      assertTrue(WorkerStats.imbalance(workers) > 1.5);
+   }
+
+   @Test public void paddingWorkItemsAreNotCounted() {
+      assumeTrue(Config.enableJTPWorkerStats);
+      final KernelRunner kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(EXECUTION_MODE.JTP);
+      final UnevenKernel kernel = new UnevenKernel();
+      // 3 groups of 4, the last of which has 2 real work items
+      kernelRunner.execute(kernel, Range.createPadded(10, 4));
+
+      final WorkerStats[] workers = kernelRunner.getKernelStats(kernel).getLastWorkerStats();
+      kernelRunner.dispose();
+
+      assertEquals(3, workers[0].getItemsProcessed());
+      assertEquals(3, workers[1].getItemsProcessed());
+      assertEquals(2, workers[2].getItemsProcessed());
+      assertEquals(2, workers[3].getItemsProcessed());
+   }
+}
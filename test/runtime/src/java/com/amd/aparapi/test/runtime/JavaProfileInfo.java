@@ -0,0 +1,87 @@
+package com.amd.aparapi.test.runtime;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.amd.aparapi.Config;
+import com.amd.aparapi.EXECUTION_MODE;
+import com.amd.aparapi.Kernel;
+import com.amd.aparapi.ProfileInfo;
+import com.amd.aparapi.Range;
+import com.amd.aparapi.internal.kernel.KernelRunner;
+
+public class JavaProfileInfo{
+
+   public static class AddKernel extends Kernel{
+      final int[] values = new int[64];
+
+      @Override public void run() {
+         values[getGlobalId()] += getPassId();
+      }
+   }
+
+   @Test public void enabledInAChildVM() throws Exception {
+      if (!Config.enableProfiling) {
+         ForkedVM.runTests(JavaProfileInfo.class, "com.amd.aparapi.enableProfiling=true",
+               "com.amd.aparapi.enableJTPGroupProfiling=true");
+      }
+   }
+
+   @Test public void nothingIsRecordedByDefault() {
+      assumeTrue(!Config.enableProfiling);
+      final KernelRunner kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(EXECUTION_MODE.JTP);
+      kernelRunner.execute(new AddKernel(), Range.create(64, 16));
+      assertFalse(kernelRunner.hasProfileInfo(AddKernel.class));
+      kernelRunner.dispose();
+   }
+
+   @Test public void jtpReportsPassesAndGroups() {
+      assumeTrue(Config.enableProfiling && Config.enableJTPGroupProfiling);
+      final KernelRunner kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(EXECUTION_MODE.JTP);
+      final AddKernel kernel = new AddKernel();
+      kernelRunner.execute(kernel, Range.create(64, 16), 2);
+
+      assertTrue(kernelRunner.hasProfileInfo(AddKernel.class));
+      final List<ProfileInfo> profileInfo = kernelRunner.getProfileInfo(kernel);
+      kernelRunner.dispose();
+
+      // per pass one exec() record followed by one record per group
+      assertEquals(2 * (1 + 4), profileInfo.size());
+      long previousEnd = 0;
+      for (int pass = 0; pass < 2; pass++) {
+         final ProfileInfo exec = profileInfo.get(pass * 5);
+         assertEquals("exec()", exec.getLabel());
+         assertEquals(0, exec.getQueued());
+         assertTrue(exec.getStart() >= previousEnd);
+         assertTrue(exec.getEnd() >= exec.getStart());
+         for (int group = 0; group < 4; group++) {
+            final ProfileInfo groupInfo = profileInfo.get((pass * 5) + 1 + group);
+            assertEquals("group[" + group + "]", groupInfo.getLabel());
+            assertTrue(groupInfo.getStart() >= exec.getStart());
+            assertTrue(groupInfo.getEnd() <= exec.getEnd());
+            assertTrue(groupInfo.getEnd() >= groupInfo.getStart());
+         }
+         previousEnd = exec.getEnd();
+      }
+   }
+
+   @Test public void seqReportsPasses() {
+      assumeTrue(Config.enableProfiling);
+      final KernelRunner kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(EXECUTION_MODE.SEQ);
+      final AddKernel kernel = new AddKernel();
+      kernelRunner.execute(kernel, Range.create(64, 1), 3);
+      final List<ProfileInfo> profileInfo = kernelRunner.getProfileInfo(kernel);
+      kernelRunner.dispose();
+
+      assertEquals(3, profileInfo.size());
+      assertTrue(profileInfo.get(2).getStart() >= profileInfo.get(1).getEnd());
+      assertEquals(3, kernel.values[5]);
+   }
+}
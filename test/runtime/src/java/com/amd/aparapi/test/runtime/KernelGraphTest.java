@@ -0,0 +1,145 @@
+package com.amd.aparapi.test.runtime;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.amd.aparapi.EXECUTION_MODE;
+import com.amd.aparapi.Kernel;
+import com.amd.aparapi.Range;
+import com.amd.aparapi.internal.kernel.KernelGraph;
+
+public class KernelGraphTest{
+
+   static final int SIZE = 256;
+
+   public static class FilterKernel extends Kernel{
+      final int[] in;
+
+      final int[] kept;
+
+      public FilterKernel(int[] _in, int[] _kept) {
+         in = _in;
+         kept = _kept;
+      }
+
+      @Override public void run() {
+         final int i = getGlobalId();
+         kept[i] = ((in[i] % 2) == 0) ? in[i] : 0;
+      }
+   }
+
+   public static class SquareKernel extends Kernel{
+      final int[] kept;
+
+      final int[] squared;
+
+      public SquareKernel(int[] _kept, int[] _squared) {
+         kept = _kept;
+         squared = _squared;
+      }
+
+      @Override public void run() {
+         final int i = getGlobalId();
+         squared[i] = kept[i] * kept[i];
+      }
+   }
+
+   public static class SumKernel extends Kernel{
+      final int[] squared;
+
+      final int[] sums;
+
+      public SumKernel(int[] _squared, int[] _sums) {
+         squared = _squared;
+         sums = _sums;
+      }
+
+      @Override public void run() {
+         final int group = getGlobalId();
+         final int width = squared.length / sums.length;
+         int sum = 0;
+         for (int i = 0; i < width; i++) {
+            sum += squared[(group * width) + i];
+         }
+         sums[group] = sum;
+      }
+   }
+
+   @Test public void chainedKernelsRunInDependencyOrder() {
+      final int[] in = new int[SIZE];
+      final int[] kept = new int[SIZE];
+      final int[] squared = new int[SIZE];
+      final int[] sums = new int[8];
+
+      final KernelGraph graph = new KernelGraph();
+      graph.getKernelRunner().setExecutionMode(EXECUTION_MODE.JTP);
+      // added out of order on purpose
+      final KernelGraph.Node sum = graph.add(new SumKernel(squared, sums), Range.create(sums.length));
+      final KernelGraph.Node square = graph.add(new SquareKernel(kept, squared), Range.create(SIZE));
+      final KernelGraph.Node filter = graph.add(new FilterKernel(in, kept), Range.create(SIZE));
+      sum.after(square);
+      square.after(filter);
+      graph.input(in).output(sums);
+
+      final List<KernelGraph.Node> order = graph.getLaunchOrder();
+      assertSame(filter, order.get(0));
+      assertSame(square, order.get(1));
+      assertSame(sum, order.get(2));
+
+      for (int run = 1; run <= 2; run++) {
+         for (int i = 0; i < SIZE; i++) {
+            in[i] = i * run;
+         }
+         graph.execute();
+         final int width = SIZE / sums.length;
+         for (int group = 0; group < sums.length; group++) {
+            int expected = 0;
+            for (int i = group * width; i < ((group + 1) * width); i++) {
+               if (((i * run) % 2) == 0) {
+                  expected += (i * run) * (i * run);
+               }
+            }
+            assertEquals(expected, sums[group]);
+         }
+      }
+      assertTrue(graph.getKernelRunner().isExplicit());
+      graph.dispose();
+   }
+
+   @Test public void independentNodesKeepInsertionOrder() {
+      final KernelGraph graph = new KernelGraph();
+      final KernelGraph.Node first = graph.add(new FilterKernel(new int[4], new int[4]), Range.create(4));
+      final KernelGraph.Node second = graph.add(new FilterKernel(new int[4], new int[4]), Range.create(4));
+      final KernelGraph.Node third = graph.add(new SquareKernel(new int[4], new int[4]), Range.create(4), 2).after(second);
+      final List<KernelGraph.Node> order = graph.getLaunchOrder();
+      assertSame(first, order.get(0));
+      assertSame(second, order.get(1));
+      assertSame(third, order.get(2));
+      graph.dispose();
+   }
+
+   @Test(expected = IllegalStateException.class) public void cyclesAreRejected() {
+      final KernelGraph graph = new KernelGraph();
+      final KernelGraph.Node a = graph.add(new FilterKernel(new int[4], new int[4]), Range.create(4));
+      final KernelGraph.Node b = graph.add(new SquareKernel(new int[4], new int[4]), Range.create(4)).after(a);
+      a.after(b);
+      try {
+         graph.execute();
+      } finally {
+         graph.dispose();
+      }
+   }
+
+   @Test(expected = IllegalArgumentException.class) public void onlyArraysCanBeDeclared() {
+      new KernelGraph().input(Integer.valueOf(3));
+   }
+
+   @Test(expected = IllegalArgumentException.class) public void nodesFromAnotherGraphAreRejected() {
+      final KernelGraph other = new KernelGraph();
+      final KernelGraph.Node foreign = other.add(new FilterKernel(new int[4], new int[4]), Range.create(4));
+      new KernelGraph().add(new SquareKernel(new int[4], new int[4]), Range.create(4)).after(foreign);
+   }
+}
@@ -0,0 +1,94 @@
+package com.amd.aparapi.test.runtime;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.amd.aparapi.EXECUTION_MODE;
+import com.amd.aparapi.Kernel;
+import com.amd.aparapi.KernelStats;
+import com.amd.aparapi.LatencyHistogram;
+import com.amd.aparapi.Range;
+import com.amd.aparapi.internal.kernel.KernelRunner;
+
+public class LatencyPercentiles{
+
+   public static class NopKernel extends Kernel{
+      final int[] out = new int[8];
+
+      @Override public void run() {
+         out[getGlobalId()] = getPassId();
+      }
+   }
+
+   private static void assertWithin(long _expected, long _actual) {
+      assertTrue("expected ~" + _expected + " but was " + _actual, Math.abs(_actual - _expected) <= (_expected / 32) + 1);
+   }
+
+   @Test public void percentilesAreWithinBucketPrecision() {
+      final LatencyHistogram histogram = new LatencyHistogram();
+      for (long value = 1; value <= 100000; value++) {
+         histogram.record(value * 1000);
+      }
+      final LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+      assertEquals(100000, snapshot.getCount());
+      assertWithin(50000000L, snapshot.getP50());
+      assertWithin(99000000L, snapshot.getP99());
+      assertWithin(99900000L, snapshot.getP999());
+      assertEquals(100000000L, snapshot.getMax());
+      assertTrue(snapshot.getP50() <= snapshot.getP99());
+   }
+
+   @Test public void smallAndLargeValues() {
+      final LatencyHistogram histogram = new LatencyHistogram();
+      histogram.record(0);
+      histogram.record(7);
+      histogram.record(Long.MAX_VALUE);
+      final LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+      assertEquals(3, snapshot.getCount());
+      assertEquals(7, snapshot.getPercentile(60));
+      assertEquals(Long.MAX_VALUE, snapshot.getMax());
+      assertEquals(Long.MAX_VALUE, snapshot.getPercentile(100));
+   }
+
+   @Test public void snapshotAndResetStartsNewInterval() {
+      final LatencyHistogram histogram = new LatencyHistogram();
+      histogram.record(5000);
+      histogram.record(9000);
+      assertEquals(2, histogram.snapshotAndReset().getCount());
+
+      final LatencyHistogram.Snapshot empty = histogram.snapshot();
+      assertEquals(0, empty.getCount());
+      assertEquals(0, empty.getP99());
+      assertEquals(0, empty.getMax());
+
+      histogram.record(300);
+      assertEquals(300, histogram.snapshot().getMax());
+   }
+
+   @Test public void launchesAreRecordedPerExecutionMode() {
+      final KernelRunner kernelRunner = new KernelRunner();
+      final NopKernel kernel = new NopKernel();
+      kernelRunner.setExecutionMode(EXECUTION_MODE.JTP);
+      kernelRunner.execute(kernel, 8);
+      kernelRunner.execute(kernel, 8);
+      kernelRunner.setExecutionMode(EXECUTION_MODE.SEQ);
+      kernelRunner.execute(kernel, Range.create(8, 1));
+
+      final KernelStats stats = kernelRunner.getKernelStats(kernel);
+      assertEquals(2, stats.getLatencyHistogram(EXECUTION_MODE.JTP).snapshot().getCount());
+      assertEquals(1, stats.getLatencyHistogram(EXECUTION_MODE.SEQ).snapshot().getCount());
+      assertNull(stats.getLatencyHistogram(EXECUTION_MODE.CPU));
+
+      long launches = 0;
+      for (final long count : stats.getLaunchHistogram()) {
+         launches += count;
+      }
+      assertEquals(3, launches);
+
+      stats.resetLatencyHistograms();
+      assertEquals(0, stats.getLatencyHistogram(EXECUTION_MODE.JTP).snapshot().getCount());
+      assertEquals(3, stats.getLaunchCount());
+      kernelRunner.dispose();
+   }
+}
@@ -0,0 +1,66 @@
+package com.amd.aparapi.test.runtime;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.amd.aparapi.Kernel;
+import com.amd.aparapi.internal.model.ClassModel;
+import com.amd.aparapi.internal.model.Entrypoint;
+import com.amd.aparapi.internal.model.MethodModel;
+import com.amd.aparapi.internal.writer.KernelWriter;
+
+public class ModelCache{
+
+   public static abstract class Base extends Kernel{
+      protected final int[] out = new int[16];
+
+      protected int square(int n) {
+         return n * n;
+      }
+   }
+
+   public static class First extends Base{
+      @Override public void run() {
+         final int i = getGlobalId();
+         out[i] = square(i);
+      }
+   }
+
+   public static class Second extends Base{
+      @Override public void run() {
+         final int i = getGlobalId();
+         out[i] = square(i) + 1;
+      }
+   }
+
+   private static MethodModel calledMethod(Entrypoint entrypoint, String name) {
+      for (MethodModel methodModel : entrypoint.getCalledMethods()) {
+         if (methodModel.getSimpleName().equals(name)) {
+            return methodModel;
+         }
+      }
+      return null;
+   }
+
+   @Test public void classModelsAreShared() throws Exception {
+      assertSame(ClassModel.getClassModel(First.class), ClassModel.getClassModel(First.class));
+      assertSame(ClassModel.getClassModel(First.class).getSuperClazz(), ClassModel.getClassModel(Second.class).getSuperClazz());
+   }
+
+   @Test public void methodModelsAreSharedBetweenEntrypoints() throws Exception {
+      Entrypoint first = ClassModel.getClassModel(First.class).getEntrypoint(new First());
+      Entrypoint second = ClassModel.getClassModel(Second.class).getEntrypoint(new Second());
+
+      MethodModel square = calledMethod(first, "square");
+      assertNotNull(square);
+      assertSame(square, calledMethod(second, "square"));
+
+      String firstOpenCL = KernelWriter.writeToString(first);
+      String secondOpenCL = KernelWriter.writeToString(second);
+      assertTrue(firstOpenCL.contains("__square("));
+      assertTrue(secondOpenCL.contains("__square("));
+      assertEquals(firstOpenCL, KernelWriter.writeToString(ClassModel.getClassModel(First.class).getEntrypoint(new First())));
+   }
+
+}
@@ -52,7 +52,8 @@ public class MultipleKernelCall {
       kernelRunner.execute(new ArrayDecrement(values), values.length);
       assertValuesGet(values, 10 + 2 - 1);
 
-      assertEquals(kernelRunner.getExecutionMode(), EXECUTION_MODE.GPU);
+      assertEquals(kernelRunner.getExecutionMode(ArrayIncrement.class), EXECUTION_MODE.GPU);
+      assertEquals(kernelRunner.getExecutionMode(ArrayDecrement.class), EXECUTION_MODE.GPU);
    }
 
    @Test
@@ -75,7 +76,8 @@ public class MultipleKernelCall {
       kernelRunner.get(values);
       assertValuesGet(values, 10 + 2 - 1);
 
-      assertEquals(kernelRunner.getExecutionMode(), EXECUTION_MODE.GPU);
+      assertEquals(kernelRunner.getExecutionMode(ArrayIncrement.class), EXECUTION_MODE.GPU);
+      assertEquals(kernelRunner.getExecutionMode(ArrayDecrement.class), EXECUTION_MODE.GPU);
    }
 
    @Test
@@ -99,7 +101,8 @@ public class MultipleKernelCall {
          kernelRunner.execute(increment, values.length);
          kernelRunner.execute(decrement, values.length);
 
-         assertEquals(kernelRunner.getExecutionMode(), EXECUTION_MODE.GPU);
+         assertEquals(kernelRunner.getExecutionMode(increment), EXECUTION_MODE.GPU);
+         assertEquals(kernelRunner.getExecutionMode(decrement), EXECUTION_MODE.GPU);
       }
 
       kernelRunner.get(values);
@@ -0,0 +1,168 @@
+package com.amd.aparapi.test.runtime;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.amd.aparapi.EXECUTION_MODE;
+import com.amd.aparapi.Kernel;
+import com.amd.aparapi.Range;
+import com.amd.aparapi.annotation.Local;
+import com.amd.aparapi.device.JavaDevice;
+import com.amd.aparapi.internal.kernel.KernelRunner;
+import com.amd.aparapi.internal.model.ClassModel;
+import com.amd.aparapi.internal.writer.KernelWriter;
+
+public class PaddedRange{
+
+   public static class CountKernel extends Kernel{
+      final int[] counts;
+
+      public CountKernel(int _size) {
+         counts = new int[_size];
+      }
+
+      @Override public void run() {
+         // no bounds check, a padding work item would be out of bounds
+         counts[getGlobalId()]++;
+      }
+   }
+
+   public static class PlaneKernel extends Kernel{
+      final int width;
+
+      final int[] cells;
+
+      public PlaneKernel(int _width, int _height) {
+         width = _width;
+         cells = new int[_width * _height];
+      }
+
+      @Override public void run() {
+         cells[(getGlobalId(1) * width) + getGlobalId(0)]++;
+      }
+   }
+
+   public static class GroupSumKernel extends Kernel{
+      final int size;
+
+      final int[] values;
+
+      final int[] sums;
+
+      @Local final int[] scratch;
+
+      public GroupSumKernel(int _size, int _groupSize) {
+         size = _size;
+         values = new int[_size];
+         for (int i = 0; i < _size; i++) {
+            values[i] = i + 1;
+         }
+         sums = new int[((_size + _groupSize) - 1) / _groupSize];
+         scratch = new int[_groupSize];
+      }
+
+      void sync() {
+         localBarrier();
+      }
+
+      @Override public void run() {
+         scratch[getLocalId()] = values[getGlobalId()];
+         sync();
+         if (getLocalId() == 0) {
+            int sum = 0;
+            for (int i = 0; i < getLocalSize(); i++) {
+               if (((getGroupId() * getLocalSize()) + i) < size) {
+                  sum += scratch[i];
+               }
+            }
+            sums[getGroupId()] = sum;
+         }
+         // a second barrier, so the group is still together after the sum
+         localBarrier();
+      }
+   }
+
+   static void assertAllOnes(int[] _values) {
+      for (int i = 0; i < _values.length; i++) {
+         assertEquals("item " + i, 1, _values[i]);
+      }
+   }
+
+   @Test public void primeSizeKeepsALargeGroup() {
+      assertEquals(1, Range.create(1000003).getLocalSize_0());
+
+      final Range range = Range.createPadded(1000003);
+      assertTrue(range.isValid());
+      assertTrue(range.isPadded());
+      assertEquals(Range.MAX_OPENCL_GROUP_SIZE, range.getLocalSize_0());
+      assertEquals(0, range.getGlobalSize_0() % range.getLocalSize_0());
+      assertEquals(1000003, range.getGlobalSize_0() - range.getPadding(0));
+      assertTrue(range.toString().contains("padding:"));
+
+      assertEquals(8, Range.createPadded(5).getLocalSize_0());
+      assertFalse(Range.createPadded(0).isValid());
+      assertFalse(Range.create(64, 8).isPadded());
+   }
+
+   @Test public void paddingIsSkippedInJava() {
+      final KernelRunner kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(EXECUTION_MODE.JTP);
+      final CountKernel kernel = new CountKernel(1000);
+      kernelRunner.execute(kernel, Range.createPadded(1000, 64));
+      assertAllOnes(kernel.counts);
+
+      final PlaneKernel plane = new PlaneKernel(13, 7);
+      kernelRunner.execute(plane, Range.createPadded2D(13, 7, 4, 4));
+      assertAllOnes(plane.cells);
+
+      kernelRunner.setExecutionMode(EXECUTION_MODE.SEQ);
+      final CountKernel sequential = new CountKernel(37);
+      kernelRunner.execute(sequential, Range.createPadded(37, 1));
+      assertAllOnes(sequential.counts);
+      kernelRunner.dispose();
+   }
+
+   @Test public void paddingFollowsTheLastPart() {
+      final KernelRunner kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(EXECUTION_MODE.JTP);
+      final PlaneKernel parted = new PlaneKernel(13, 7);
+      kernelRunner.executePartitioned(parted, Range.createPadded2D(13, 7, 4, 2), new JavaDevice("a", 8),
+            new JavaDevice("b", 8));
+      assertAllOnes(parted.cells);
+      kernelRunner.dispose();
+   }
+
+   @Test(timeout = 20000) public void paddingWaitsAtTheBarriersInJTP() {
+      final KernelRunner kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(EXECUTION_MODE.JTP);
+      final GroupSumKernel kernel = new GroupSumKernel(1000, 64);
+      kernelRunner.execute(kernel, Range.createPadded(1000, 64), 2);
+      kernelRunner.dispose();
+
+      for (int group = 0; group < 16; group++) {
+         final int first = group * 64;
+         final int last = Math.min(1000, first + 64);
+         // values are 1..1000, so the group's sum is that of first + 1 up to last
+         assertEquals("group " + group, ((last * (last + 1)) / 2) - ((first * (first + 1)) / 2), kernel.sums[group]);
+      }
+   }
+
+   @Test public void barriersAreFoundInCalledMethods() throws Exception {
+      final GroupSumKernel barriers = new GroupSumKernel(8, 8);
+      assertTrue(ClassModel.getClassModel(GroupSumKernel.class).getEntrypoint(barriers).usesBarriers());
+      final CountKernel none = new CountKernel(8);
+      assertFalse(ClassModel.getClassModel(CountKernel.class).getEntrypoint(none).usesBarriers());
+   }
+
+   @Test public void guardIsOnlyWrittenWhenAsked() throws Exception {
+      final CountKernel kernel = new CountKernel(8);
+      final String plain = KernelWriter.writeToString(ClassModel.getClassModel(CountKernel.class).getEntrypoint(kernel));
+      final String guarded = KernelWriter.writeToString(ClassModel.getClassModel(CountKernel.class).getEntrypoint(kernel),
+            true);
+      assertFalse(plain.contains("realsize_0"));
+      assertTrue(guarded.contains("int realsize_2"));
+      assertTrue(guarded.contains(">= realsize_0"));
+      assertTrue(guarded.indexOf(" return;") < guarded.indexOf("this->counts["));
+   }
+}
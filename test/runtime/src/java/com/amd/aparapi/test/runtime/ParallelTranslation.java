@@ -0,0 +1,126 @@
+package com.amd.aparapi.test.runtime;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.junit.Test;
+
+import com.amd.aparapi.Config;
+import com.amd.aparapi.Kernel;
+import com.amd.aparapi.internal.exception.ClassParseException;
+import com.amd.aparapi.internal.model.ClassModel;
+import com.amd.aparapi.internal.writer.KernelWriter;
+
+public class ParallelTranslation{
+
+   public static class ManyCallees extends Kernel{
+      final float[] in = new float[64];
+
+      final float[] out = new float[64];
+
+      float scale(float x) {
+         return x * 2.5f;
+      }
+
+      float shift(float x) {
+         return x + 1f;
+      }
+
+      float clampPositive(float x) {
+         return x < 0f ? 0f : x;
+      }
+
+      float poly(float x) {
+         return square(x) + (3f * x) + 1f;
+      }
+
+      float square(float x) {
+         return x * x;
+      }
+
+      int wrap(int i) {
+         return (i + 1) % 64;
+      }
+
+      @Override public void run() {
+         final int i = getGlobalId();
+         final float x = in[wrap(i)];
+         out[i] = scale(x) + shift(x) + clampPositive(x) + poly(x);
+      }
+   }
+
+   public static class FailingCallee extends Kernel{
+      final int[] out = new int[64];
+
+      int fine(int x) {
+         return x + 1;
+      }
+
+      int unsupported(int x) {
+         switch (x) {
+            case 1:
+               return 2;
+            case 5:
+               return 7;
+            default:
+               return 0;
+         }
+      }
+
+      @Override public void run() {
+         final int i = getGlobalId();
+         out[i] = fine(i) + unsupported(i);
+      }
+   }
+
+   static String translate(Kernel _kernel) throws Exception {
+      return KernelWriter.writeToString(ClassModel.getClassModel(_kernel.getClass()).getEntrypoint(_kernel));
+   }
+
+   /**
+    * Prints the OpenCL for ManyCallees, the test runs this in a child VM with parallel translation disabled.
+    */
+   public static void main(String[] _args) throws Exception {
+      // Translation warnings go to stderr, which we merge into the output we compare
+      Logger.getLogger(Config.getLoggerName()).setLevel(Level.OFF);
+      System.out.print(translate(new ManyCallees()));
+   }
+
+   private static String translateSequentially() throws Exception {
+      final String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+      final ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+            "-Dcom.amd.aparapi.disableParallelTranslation=true", ParallelTranslation.class.getName());
+      builder.redirectErrorStream(true);
+      final Process process = builder.start();
+      final ByteArrayOutputStream output = new ByteArrayOutputStream();
+      final InputStream in = process.getInputStream();
+      final byte[] buffer = new byte[4096];
+      for (int n = in.read(buffer); n != -1; n = in.read(buffer)) {
+         output.write(buffer, 0, n);
+      }
+      assertEquals(output.toString(), 0, process.waitFor());
+      return output.toString();
+   }
+
+   @Test public void parallelAndSequentialTranslationMatch() throws Exception {
+      assertFalse("parallel translation must be enabled in the test VM", Config.disableParallelTranslation);
+      final String parallel = translate(new ManyCallees());
+      assertTrue(parallel.contains("__poly("));
+      assertTrue(parallel.contains("__square("));
+      assertEquals(translateSequentially(), parallel);
+   }
+
+   @Test public void failingCalleeReachesCallerUnwrapped() throws Exception {
+      try {
+         translate(new FailingCallee());
+         fail("expected a ClassParseException");
+      } catch (final ClassParseException e) {
+         assertEquals(ClassParseException.TYPE.SWITCH, e.getType());
+      }
+   }
+}
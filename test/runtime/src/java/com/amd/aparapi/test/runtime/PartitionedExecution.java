@@ -0,0 +1,247 @@
+package com.amd.aparapi.test.runtime;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.amd.aparapi.EXECUTION_MODE;
+import com.amd.aparapi.Kernel;
+import com.amd.aparapi.Range;
+import com.amd.aparapi.device.Device;
+import com.amd.aparapi.device.JavaDevice;
+import com.amd.aparapi.device.OpenCLDevice;
+import com.amd.aparapi.internal.kernel.KernelRunner;
+import com.amd.aparapi.internal.kernel.RangePartitioner;
+import com.amd.aparapi.internal.opencl.OpenCLPlatform;
+
+public class PartitionedExecution{
+
+   public static class IdKernel extends Kernel{
+      final int[] ids;
+
+      final int[] passes;
+
+      final Set<String> threadNames = Collections.synchronizedSet(new HashSet<String>());
+
+      public IdKernel(int _size) {
+         ids = new int[_size];
+         passes = new int[_size];
+      }
+
+      @Override public void run() {
+         final int i = getGlobalId();
+         ids[i] = i;
+         passes[i] += getPassId() + 1;
+         threadNames.add(Thread.currentThread().getName());
+      }
+   }
+
+   public static class GridKernel extends Kernel{
+      final int width;
+
+      final int[] cells;
+
+      public GridKernel(int _width, int _height) {
+         width = _width;
+         cells = new int[_width * _height];
+      }
+
+      @Override public void run() {
+         final int x = getGlobalId(0);
+         final int y = getGlobalId(1);
+         cells[(y * width) + x] = (y * 1000) + x;
+      }
+   }
+
+   /**
+    * A reduction into one slot per group, and a loop over all the values bounded by <code>getGlobalSize()</code>.
+    */
+   public static class GroupKernel extends Kernel{
+      final int[] values;
+
+      final int[] groupSums;
+
+      final int[] totals;
+
+      final int[] numGroups;
+
+      public GroupKernel(int _size, int _groups) {
+         values = new int[_size];
+         groupSums = new int[_groups];
+         totals = new int[_size];
+         numGroups = new int[_size];
+         for (int i = 0; i < _size; i++) {
+            values[i] = i + 1;
+         }
+      }
+
+      @Override public void run() {
+         final int i = getGlobalId();
+         if (getLocalId() == 0) {
+            int sum = 0;
+            for (int j = 0; j < getLocalSize(); j++) {
+               sum += values[i + j];
+            }
+            groupSums[getGroupId()] = sum;
+         }
+         int total = 0;
+         for (int j = 0; j < getGlobalSize(); j++) {
+            total += values[j];
+         }
+         totals[i] = total;
+         numGroups[i] = getNumGroups();
+      }
+   }
+
+   @Test public void javaDeviceLimitsGroupSize() {
+      final JavaDevice device = new JavaDevice("small", 4);
+      assertEquals(4, device.getThreads());
+      assertEquals(4, device.getMaxWorkGroupSize());
+      assertEquals(Range.MAX_GROUP_SIZE, new JavaDevice().getThreads());
+      assertFalse(Range.create(device, 64, 8).isValid());
+
+      try {
+         new JavaDevice("none", 0);
+         fail("a device needs a thread");
+      } catch (final IllegalArgumentException expected) {
+      }
+   }
+
+   @Test public void rangeOnJavaDeviceRunsOnItsThreads() {
+      final KernelRunner kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(EXECUTION_MODE.SEQ);
+      final IdKernel kernel = new IdKernel(64);
+      kernelRunner.execute(kernel, Range.create(new JavaDevice("solo", 4), 64, 4));
+      kernelRunner.dispose();
+
+      for (int i = 0; i < 64; i++) {
+         assertEquals(i, kernel.ids[i]);
+      }
+      assertEquals(4, kernel.threadNames.size());
+      for (final String name : kernel.threadNames) {
+         assertTrue(name, name.startsWith("aparapi-solo-"));
+      }
+   }
+
+   @Test public void partsCoverTheRange() {
+      final KernelRunner kernelRunner = new KernelRunner();
+      final IdKernel kernel = new IdKernel(256);
+      kernelRunner.executePartitioned(kernel, Range.create(256, 4), 2, new JavaDevice("left", 4), new JavaDevice("right", 8));
+      kernelRunner.dispose();
+
+      for (int i = 0; i < 256; i++) {
+         assertEquals(i, kernel.ids[i]);
+         assertEquals(1 + 2, kernel.passes[i]);
+      }
+      boolean left = false;
+      boolean right = false;
+      for (final String name : kernel.threadNames) {
+         left |= name.startsWith("aparapi-left-");
+         right |= name.startsWith("aparapi-right-");
+      }
+      assertTrue(left && right);
+      assertEquals(EXECUTION_MODE.JTP, kernelRunner.getKernelStats(kernel).getLastExecutionMode());
+   }
+
+   @Test public void partsSeeTheWholeRange() {
+      final KernelRunner kernelRunner = new KernelRunner();
+      final GroupKernel kernel = new GroupKernel(256, 32);
+      final JavaDevice[] devices = new JavaDevice[] {
+            new JavaDevice("a", 8),
+            new JavaDevice("b", 8),
+            new JavaDevice("c", 8)
+      };
+      kernelRunner.executePartitioned(kernel, Range.create(256, 8), devices);
+      kernelRunner.dispose();
+
+      for (int group = 0; group < 32; group++) {
+         // values are 1..256, so the group's sum is that of group * 8 + 1 up to group * 8 + 8
+         assertEquals("group " + group, (64 * group) + 36, kernel.groupSums[group]);
+      }
+      for (int i = 0; i < 256; i++) {
+         assertEquals(256 * 257 / 2, kernel.totals[i]);
+         assertEquals(32, kernel.numGroups[i]);
+      }
+   }
+
+   @Test public void twoDimensionalRangeIsSplitByRows() {
+      final KernelRunner kernelRunner = new KernelRunner();
+      final GridKernel kernel = new GridKernel(16, 12);
+      final JavaDevice[] devices = new JavaDevice[] {
+            new JavaDevice("a", 8),
+            new JavaDevice("b", 8),
+            new JavaDevice("c", 8)
+      };
+      for (int launch = 0; launch < 3; launch++) {
+         Arrays.fill(kernel.cells, -1);
+         kernelRunner.executePartitioned(kernel, Range.create2D(16, 12, 4, 2), devices);
+         for (int y = 0; y < 12; y++) {
+            for (int x = 0; x < 16; x++) {
+               assertEquals((y * 1000) + x, kernel.cells[(y * 16) + x]);
+            }
+         }
+      }
+      for (final JavaDevice device : devices) {
+         assertTrue(kernelRunner.getRangePartitioner().getThroughput(GridKernel.class, device) > 0);
+      }
+      kernelRunner.dispose();
+   }
+
+   @Test public void splitFollowsThroughput() {
+      final RangePartitioner partitioner = new RangePartitioner();
+      final Device fast = new JavaDevice("fast", 8);
+      final Device slow = new JavaDevice("slow", 8);
+      final Range range = Range.create(1024, 8);
+
+      assertArrayEquals(new int[] {
+            64,
+            64
+      }, partitioner.split(IdKernel.class, range, fast, slow));
+
+      partitioner.record(IdKernel.class, fast, 3000, 1000);
+      partitioner.record(IdKernel.class, slow, 1000, 1000);
+      assertArrayEquals(new int[] {
+            96,
+            32
+      }, partitioner.split(IdKernel.class, range, fast, slow));
+
+      // every device keeps a group so it is measured again
+      partitioner.record(IdKernel.class, fast, 1000000, 1);
+      final int[] groups = partitioner.split(IdKernel.class, range, fast, slow);
+      assertEquals(1, groups[1]);
+      assertEquals(127, groups[0]);
+      assertEquals(0, partitioner.getThroughput(GridKernel.class, fast), 0);
+   }
+
+   /**
+    * An OpenCL device would write its whole arrays back over the other parts, and can't offset its group ids.
+    */
+   @Test public void onlyJavaDevicesTakeParts() {
+      final KernelRunner kernelRunner = new KernelRunner();
+      final IdKernel kernel = new IdKernel(16);
+      try {
+         kernelRunner.executePartitioned(kernel, Range.create(16, 1), new JavaDevice(), new OpenCLDevice(
+               new OpenCLPlatform(), 0, Device.TYPE.CPU));
+         fail("an OpenCL device took a part");
+      } catch (final IllegalArgumentException expected) {
+      }
+      assertEquals(0, kernel.ids[15]);
+      try {
+         kernelRunner.executePartitioned(new IdKernel(16), Range.create(16, 1), new JavaDevice(), new Device(){
+         });
+         fail("a part needs a global offset");
+      } catch (final IllegalArgumentException expected) {
+      }
+      try {
+         kernelRunner.executePartitioned(new IdKernel(16), Range.create(16, 8), new JavaDevice("small", 4));
+         fail("groups larger than the device");
+      } catch (final IllegalArgumentException expected) {
+      }
+      kernelRunner.dispose();
+   }
+}
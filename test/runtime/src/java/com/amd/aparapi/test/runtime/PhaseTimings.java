@@ -0,0 +1,83 @@
+package com.amd.aparapi.test.runtime;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.amd.aparapi.EXECUTION_MODE;
+import com.amd.aparapi.Kernel;
+import com.amd.aparapi.KernelStats;
+import com.amd.aparapi.KernelStatsListener;
+import com.amd.aparapi.internal.kernel.KernelRunner;
+
+public class PhaseTimings{
+
+   public static class SquareKernel extends Kernel{
+      final int[] values = new int[64];
+
+      @Override public void run() {
+         final int i = getGlobalId();
+         values[i] = i * i;
+      }
+   }
+
+   static class RecordingListener implements KernelStatsListener{
+      final List<KernelStats.Phase> phases = new ArrayList<KernelStats.Phase>();
+
+      int launches = 0;
+
+      @Override public void phaseCompleted(KernelStats _stats, KernelStats.Phase _phase, long _nanos) {
+         assertTrue(_nanos >= 0);
+         phases.add(_phase);
+      }
+
+      @Override public void launchCompleted(KernelStats _stats, EXECUTION_MODE _mode, long _nanos) {
+         launches++;
+      }
+   }
+
+   @Test public void javaLaunchesRecordKernelTime() {
+      final KernelRunner kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(EXECUTION_MODE.JTP);
+      final RecordingListener listener = new RecordingListener();
+      kernelRunner.addKernelStatsListener(listener);
+
+      final SquareKernel kernel = new SquareKernel();
+      assertNull(kernelRunner.getKernelStats(kernel));
+      kernelRunner.execute(kernel, 64);
+      kernelRunner.execute(kernel, 64);
+      assertEquals(49, kernel.values[7]);
+
+      final KernelStats stats = kernelRunner.getKernelStats(kernel);
+      assertEquals(2, stats.getLaunchCount());
+      assertEquals(2, stats.getCount(KernelStats.Phase.KERNEL));
+      assertEquals(0, stats.getCount(KernelStats.Phase.CLASS_PARSE));
+      assertEquals(EXECUTION_MODE.JTP, stats.getLastExecutionMode());
+      assertTrue(stats.getTotalLaunchNanos() >= stats.getTotalNanos(KernelStats.Phase.KERNEL));
+
+      assertEquals(2, listener.launches);
+      assertEquals(2, listener.phases.size());
+
+      kernelRunner.removeKernelStatsListener(listener);
+      kernelRunner.execute(kernel, 64);
+      assertEquals(2, listener.launches);
+      assertEquals(3, stats.getLaunchCount());
+      kernelRunner.dispose();
+   }
+
+   @Test public void fallbackCountsAsOneLaunch() {
+      final KernelRunner kernelRunner = new KernelRunner();
+      final SquareKernel kernel = new SquareKernel();
+      kernelRunner.execute(kernel, 64);
+      assertEquals(81, kernel.values[9]);
+
+      final KernelStats stats = kernelRunner.getKernelStats(kernel);
+      assertEquals(1, stats.getLaunchCount());
+      assertEquals(kernelRunner.getExecutionMode(kernel), stats.getLastExecutionMode());
+      assertEquals(1, stats.getCount(KernelStats.Phase.KERNEL));
+      kernelRunner.dispose();
+   }
+}
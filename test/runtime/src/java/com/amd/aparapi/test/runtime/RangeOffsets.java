@@ -0,0 +1,136 @@
+package com.amd.aparapi.test.runtime;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+
+import org.junit.Test;
+
+import com.amd.aparapi.EXECUTION_MODE;
+import com.amd.aparapi.Kernel;
+import com.amd.aparapi.Range;
+import com.amd.aparapi.device.JavaDevice;
+import com.amd.aparapi.internal.kernel.KernelRunner;
+import com.amd.aparapi.internal.kernel.LaunchCapture;
+
+public class RangeOffsets{
+
+   public static class MarkKernel extends Kernel{
+      final int[] marks;
+
+      public MarkKernel(int _size) {
+         marks = new int[_size];
+      }
+
+      @Override public void run() {
+         marks[getGlobalId()] += getGlobalSize();
+      }
+   }
+
+   public static class RectKernel extends Kernel{
+      final int width;
+
+      final int height;
+
+      final int[] cells;
+
+      public RectKernel(int _width, int _height, int _depth) {
+         width = _width;
+         height = _height;
+         cells = new int[_width * _height * _depth];
+      }
+
+      @Override public void run() {
+         final int x = getGlobalId(0);
+         final int y = getGlobalId(1);
+         final int z = getGlobalId(2);
+         cells[(((z * height) + y) * width) + x] = 1;
+      }
+   }
+
+   static int count(int[] _values) {
+      int count = 0;
+      for (final int value : _values) {
+         count += value;
+      }
+      return (count);
+   }
+
+   void markSubRange(EXECUTION_MODE _mode, int _localWidth) {
+      final KernelRunner kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(_mode);
+      final MarkKernel kernel = new MarkKernel(100);
+      kernelRunner.execute(kernel, Range.create(40, 32, _localWidth));
+      kernelRunner.dispose();
+
+      for (int i = 0; i < 100; i++) {
+         assertEquals("id " + i, ((i >= 40) && (i < 72)) ? 32 : 0, kernel.marks[i]);
+      }
+   }
+
+   @Test public void oneDimensionalOffset() {
+      final Range range = Range.create(40, 32, 8);
+      assertTrue(range.isValid());
+      assertEquals(40, range.getOffset(0));
+      assertEquals(0, range.getOffset(1));
+      assertEquals(32, range.getGlobalSize(0));
+      assertTrue(range.toString().contains("offset:40"));
+      assertFalse(Range.create(-1, 32, 8).isValid());
+
+      markSubRange(EXECUTION_MODE.JTP, 8);
+      markSubRange(EXECUTION_MODE.SEQ, 1);
+   }
+
+   @Test public void twoDimensionalDirtyRectangle() {
+      final KernelRunner kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(EXECUTION_MODE.JTP);
+      final RectKernel kernel = new RectKernel(16, 12, 1);
+      kernelRunner.execute(kernel, Range.create2D(4, 6, 8, 4, 4, 2));
+      kernelRunner.dispose();
+
+      for (int y = 0; y < 12; y++) {
+         for (int x = 0; x < 16; x++) {
+            final boolean inside = (x >= 4) && (x < 12) && (y >= 6) && (y < 10);
+            assertEquals(x + "," + y, inside ? 1 : 0, kernel.cells[(y * 16) + x]);
+         }
+      }
+   }
+
+   @Test public void threeDimensionalSequentialOffset() {
+      final KernelRunner kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(EXECUTION_MODE.SEQ);
+      final RectKernel kernel = new RectKernel(4, 4, 4);
+      kernelRunner.execute(kernel, Range.create3D(1, 2, 3, 2, 2, 1, 1, 1, 1));
+      kernelRunner.dispose();
+
+      assertEquals(4, count(kernel.cells));
+      assertEquals(1, kernel.cells[(((3 * 4) + 2) * 4) + 1]);
+      assertEquals(1, kernel.cells[(((3 * 4) + 3) * 4) + 2]);
+   }
+
+   @Test public void offsetsCombineWithParts() {
+      final KernelRunner kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(EXECUTION_MODE.JTP);
+      final MarkKernel parted = new MarkKernel(200);
+      kernelRunner.executePartitioned(parted, Range.create(50, 96, 8), new JavaDevice("a", 8), new JavaDevice("b", 8));
+      kernelRunner.dispose();
+
+      for (int i = 0; i < 200; i++) {
+         final boolean inside = (i >= 50) && (i < 146);
+         assertEquals("id " + i, inside, parted.marks[i] != 0);
+      }
+   }
+
+   @Test public void captureKeepsOffsets() throws Exception {
+      final File file = File.createTempFile("capture", ".aparapi");
+      file.deleteOnExit();
+      final Range range = Range.create2D(4, 6, 8, 4, 4, 2);
+      LaunchCapture.write(file, new RectKernel(16, 12, 1), range, 1, EXECUTION_MODE.JTP, LaunchCapture.ALL_ELEMENTS);
+
+      final Range replayed = LaunchCapture.read(file).getRange();
+      assertEquals(4, replayed.getOffset_0());
+      assertEquals(6, replayed.getOffset_1());
+      assertEquals(8, replayed.getGlobalSize_0());
+      assertEquals(2, replayed.getLocalSize_1());
+   }
+}
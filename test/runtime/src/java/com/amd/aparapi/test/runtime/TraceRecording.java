@@ -0,0 +1,78 @@
+package com.amd.aparapi.test.runtime;
+
+import static org.junit.Assert.*;
+
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+import com.amd.aparapi.EXECUTION_MODE;
+import com.amd.aparapi.Kernel;
+import com.amd.aparapi.Range;
+import com.amd.aparapi.TraceRecorder;
+import com.amd.aparapi.internal.kernel.KernelRunner;
+
+public class TraceRecording{
+
+   public static class AddKernel extends Kernel{
+      final float[] values = new float[64];
+
+      @Override public void run() {
+         values[getGlobalId()] += 1f;
+      }
+   }
+
+   private static int count(String _json, String _fragment) {
+      int count = 0;
+      for (int i = _json.indexOf(_fragment); i >= 0; i = _json.indexOf(_fragment, i + 1)) {
+         count++;
+      }
+      return count;
+   }
+
+   private static String json(TraceRecorder _recorder) throws Exception {
+      final StringWriter writer = new StringWriter();
+      _recorder.writeTo(writer);
+      return writer.toString();
+   }
+
+   @Test public void recordsHostPhasesAndWorkerThreads() throws Exception {
+      final KernelRunner kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(EXECUTION_MODE.JTP);
+      final TraceRecorder recorder = new TraceRecorder(1024);
+      kernelRunner.setTraceRecorder(recorder);
+
+      kernelRunner.execute(new AddKernel(), Range.create(64, 16));
+      final String json = json(recorder);
+      kernelRunner.dispose();
+
+      assertTrue(json.startsWith("{\"traceEvents\":["));
+      assertTrue(json.endsWith("]}"));
+      assertEquals(16, count(json, "\"cat\":\"jtp\""));
+      assertEquals(1, count(json, "\"cat\":\"launch\""));
+      assertEquals(1, count(json, "AddKernel KERNEL"));
+      assertTrue(count(json, "\"ph\":\"M\"") >= 2);
+   }
+
+   @Test public void ringBufferKeepsNewestEvents() throws Exception {
+      final KernelRunner kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(EXECUTION_MODE.SEQ);
+      final TraceRecorder recorder = new TraceRecorder(4);
+      kernelRunner.setTraceRecorder(recorder);
+
+      final AddKernel kernel = new AddKernel();
+      for (int i = 0; i < 10; i++) {
+         kernelRunner.execute(kernel, Range.create(64, 1));
+      }
+      assertEquals(20, recorder.getRecordedCount());
+      assertEquals(4, count(json(recorder), "\"ph\":\"X\""));
+
+      kernelRunner.setTraceRecorder(null);
+      kernelRunner.execute(kernel, Range.create(64, 1));
+      assertEquals(20, recorder.getRecordedCount());
+      kernelRunner.dispose();
+
+      recorder.clear();
+      assertEquals(0, count(json(recorder), "\"ph\":\"X\""));
+   }
+}
@@ -0,0 +1,44 @@
+package com.amd.aparapi.test.runtime;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.amd.aparapi.EXECUTION_MODE;
+import com.amd.aparapi.Kernel;
+import com.amd.aparapi.KernelStats;
+import com.amd.aparapi.TransferStats;
+import com.amd.aparapi.internal.kernel.KernelRunner;
+
+public class TransferCounters{
+
+   public static class CopyKernel extends Kernel{
+      final int[] in = new int[32];
+
+      final int[] out = new int[32];
+
+      @Override public void run() {
+         final int i = getGlobalId();
+         out[i] = in[i];
+      }
+   }
+
+   @Test public void javaLaunchesHaveNoTransfers() {
+      final KernelRunner kernelRunner = new KernelRunner();
+      kernelRunner.setExecutionMode(EXECUTION_MODE.JTP);
+      final CopyKernel kernel = new CopyKernel();
+      kernelRunner.execute(kernel, 32);
+      final KernelStats stats = kernelRunner.getKernelStats(kernel);
+      assertEquals(1, stats.getLaunchCount());
+      assertNull(stats.getTransferStats());
+      kernelRunner.dispose();
+   }
+
+   @Test public void reallocationsExcludeFirstAllocation() {
+      assertEquals(0, new TransferStats("in", 128, 0, 0, 0, 0, 0).getBufferReallocations());
+      assertEquals(0, new TransferStats("in", 128, 128, 0, 1, 1, 1).getBufferReallocations());
+      final TransferStats roundTripped = new TransferStats("out", 128, 384, 384, 3, 3, 3);
+      assertEquals(2, roundTripped.getBufferReallocations());
+      assertTrue(roundTripped.toString().contains("out"));
+   }
+}
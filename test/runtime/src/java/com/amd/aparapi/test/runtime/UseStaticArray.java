@@ -30,7 +30,7 @@ public class UseStaticArray extends Kernel{
       KernelRunner kernelRunner = new KernelRunner();
       kernelRunner.execute(this, size);
 
-      assertTrue("ran on GPU", kernelRunner.getExecutionMode() == EXECUTION_MODE.GPU);
+      assertTrue("ran on GPU", kernelRunner.getExecutionMode(this) == EXECUTION_MODE.GPU);
 
       for (int i = 0; i < size; i++) {
          assertTrue("results == fooBar", results[i] == values[i]);